@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Compare débit et p99 des endpoints de vote et de résultats en threads plateforme puis virtuels.
+#
+# Prérequis : k6, jq, base PostgreSQL initialisée, une élection EN_COURS dont les électeurs
+# listés dans ELECTEURS (email,motDePasse) sont autorisés. La base doit être remise à l'état
+# initial entre deux passes si l'on veut comparer des votes acceptés (sinon : refus "déjà voté").
+#
+#   ELECTION_ID=... CANDIDAT_ID=... ELECTEURS=electeurs.csv ./comparer-modes.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+JAR=${JAR:-$(ls ../../target/electronicvoting-*.jar | head -1)}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:${PORT}"
+
+: "${ELECTION_ID:?ELECTION_ID requis}"
+: "${CANDIDAT_ID:?CANDIDAT_ID requis}"
+
+for mode in plateforme virtuel; do
+    virtuels=false
+    [ "$mode" = "virtuel" ] && virtuels=true
+
+    echo "🚀 Démarrage de l'application (threads ${mode})"
+    THREADS_VIRTUELS=$virtuels java -jar "$JAR" --server.port="$PORT" > "application-${mode}.log" 2>&1 &
+    pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+
+    until curl -sf "${BASE_URL}/api/system/health" > /dev/null; do
+        kill -0 $pid 2>/dev/null || { echo "❌ L'application s'est arrêtée (voir application-${mode}.log)"; exit 1; }
+        sleep 2
+    done
+
+    k6 run -e BASE_URL="$BASE_URL" -e ELECTION_ID="$ELECTION_ID" -e CANDIDAT_ID="$CANDIDAT_ID" \
+        -e ELECTEURS="${ELECTEURS:-electeurs.csv}" -e MODE="$mode" vote-et-resultats.js || true
+
+    curl -s "${BASE_URL}/api/system/metrics/threads" > "threads-${mode}.json" || true
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+    trap - EXIT
+done
+
+echo
+echo "📊 Comparaison (débit en requêtes/s, durées en ms)"
+printf "%-12s %12s %12s %14s %14s %10s\n" mode "votes/s" "voter p99" "résultats/s" "résultats p99" "épinglages"
+for mode in plateforme virtuel; do
+    jq -r --arg mode "$mode" --slurpfile threads "threads-${mode}.json" \
+        '[$mode, .votes.debit, .votes.duree["p(99)"], .resultats.debit, .resultats.duree["p(99)"],
+          ($threads[0].epinglages // 0)] | @tsv' "resultats-${mode}.json" \
+        | awk -F'\t' '{ printf "%-12s %12.1f %12.1f %14.1f %14.1f %10s\n", $1, $2, $3, $4, $5, $6 }'
+done
@@ -0,0 +1,123 @@
+// Scénario de charge k6 : vote d'élection + consultation des résultats.
+// Lancé par comparer-modes.sh une fois en threads plateforme, une fois en threads virtuels.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e ELECTION_ID=<uuid> -e CANDIDAT_ID=<uuid> \
+//          -e ELECTEURS=electeurs.csv -e MODE=virtuel vote-et-resultats.js
+//
+// electeurs.csv : une ligne "email,motDePasse" par électeur autorisé pour l'élection.
+import http from 'k6/http';
+import { check } from 'k6';
+import { SharedArray } from 'k6/data';
+import exec from 'k6/execution';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ELECTION_ID = __ENV.ELECTION_ID;
+const CANDIDAT_ID = __ENV.CANDIDAT_ID;
+const MODE = __ENV.MODE || 'inconnu';
+const DEBIT_VOTES = Number(__ENV.DEBIT_VOTES || 200);
+const DEBIT_RESULTATS = Number(__ENV.DEBIT_RESULTATS || 500);
+const DUREE = __ENV.DUREE || '2m';
+
+const electeurs = new SharedArray('electeurs', () =>
+    open(__ENV.ELECTEURS || 'electeurs.csv')
+        .split('\n')
+        .map((ligne) => ligne.trim())
+        .filter((ligne) => ligne.length > 0)
+        .map((ligne) => {
+            const [email, motDePasse] = ligne.split(',');
+            return { email, motDePasse };
+        }));
+
+export const options = {
+    setupTimeout: '10m',
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+    scenarios: {
+        votes: {
+            executor: 'constant-arrival-rate',
+            exec: 'voter',
+            rate: DEBIT_VOTES,
+            timeUnit: '1s',
+            duration: DUREE,
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+        resultats: {
+            executor: 'constant-arrival-rate',
+            exec: 'consulterResultats',
+            rate: DEBIT_RESULTATS,
+            timeUnit: '1s',
+            duration: DUREE,
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+    },
+    thresholds: {
+        // Seuils indicatifs : servent surtout à faire apparaître débit et p(99) par endpoint dans le résumé
+        'http_req_duration{endpoint:voter}': ['p(99)<2000'],
+        'http_req_duration{endpoint:resultats}': ['p(99)<1000'],
+        'http_reqs{endpoint:voter}': ['count>0'],
+        'http_reqs{endpoint:resultats}': ['count>0'],
+    },
+};
+
+// Connexion préalable (BCrypt) : hors de la mesure
+export function setup() {
+    const tokens = [];
+    for (const electeur of electeurs) {
+        const reponse = http.post(`${BASE_URL}/api/auth/electeur/login`, JSON.stringify(electeur), {
+            headers: { 'Content-Type': 'application/json' },
+        });
+        if (reponse.status === 200 && reponse.json('token')) {
+            tokens.push(reponse.json('token'));
+        }
+    }
+    if (tokens.length === 0) {
+        throw new Error('Aucun électeur connecté : vérifier ELECTEURS');
+    }
+    return { tokens };
+}
+
+// Chaque électeur vote une fois ; au-delà, les refus "déjà voté" mesurent le chemin d'échec
+export function voter(donnees) {
+    const token = donnees.tokens[exec.scenario.iterationInTest % donnees.tokens.length];
+    const reponse = http.post(`${BASE_URL}/api/elections/${ELECTION_ID}/voter`,
+        JSON.stringify({ candidatId: CANDIDAT_ID }), {
+            headers: {
+                'Content-Type': 'application/json',
+                Authorization: `Bearer ${token}`,
+                'Idempotency-Key': `charge-${MODE}-${exec.scenario.iterationInTest}`,
+            },
+            tags: { endpoint: 'voter' },
+        });
+    check(reponse, { 'vote traité': (r) => r.status === 200 || r.status === 400 });
+}
+
+export function consulterResultats() {
+    const reponse = http.get(`${BASE_URL}/api/elections/${ELECTION_ID}/resultats`, {
+        tags: { endpoint: 'resultats' },
+    });
+    check(reponse, { 'résultats 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(donnees) {
+    const metrique = (nom) => donnees.metrics[nom] ? donnees.metrics[nom].values : {};
+    const synthese = {
+        mode: MODE,
+        votes: {
+            debit: metrique('http_reqs{endpoint:voter}').rate,
+            duree: metrique('http_req_duration{endpoint:voter}'),
+        },
+        resultats: {
+            debit: metrique('http_reqs{endpoint:resultats}').rate,
+            duree: metrique('http_req_duration{endpoint:resultats}'),
+        },
+        requetes: metrique('http_reqs'),
+        echecs: metrique('http_req_failed'),
+    };
+    return {
+        [`resultats-${MODE}.json`]: JSON.stringify(synthese, null, 2),
+        stdout: `\n[${MODE}] voter p99=${synthese.votes.duree['p(99)']} ms, `
+            + `résultats p99=${synthese.resultats.duree['p(99)']} ms, `
+            + `requêtes/s=${synthese.requetes.rate}\n`,
+    };
+}
@@ -0,0 +1,12 @@
+package com.personnal.electronicvoting.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * ⏱️ Tâches planifiées (réconciliation des résultats matérialisés)
+ */
+@Configuration
+@EnableScheduling
+public class PlanificationConfig {
+}
@@ -0,0 +1,23 @@
+package com.personnal.electronicvoting.config;
+
+import com.personnal.electronicvoting.service.VersionsDonneesService;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 🏷️ GET conditionnel : l'ETag de la réponse est dérivé des versions des données dont elle dépend.
+ * Si le client renvoie cet ETag (If-None-Match), la réponse 304 part avant l'appel du contrôleur.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReponseConditionnelle {
+
+    /** La réponse dépend des votes (époque du décompte) */
+    boolean votes() default false;
+
+    /** Tables dont la réponse dépend */
+    VersionsDonneesService.Table[] tables() default {};
+}
@@ -0,0 +1,39 @@
+package com.personnal.electronicvoting.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 🏷️ Pose l'ETag des méthodes {@link ReponseConditionnelle} juste avant l'écriture du corps,
+ * une fois le statut de la réponse connu
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class ReponseConditionnelleAdvice implements ResponseBodyAdvice<Object> {
+
+    private final RequetesConditionnellesInterceptor requetesConditionnellesInterceptor;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(ReponseConditionnelle.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest requete && response instanceof ServletServerHttpResponse reponse) {
+            requetesConditionnellesInterceptor.poserSiSucces(requete.getServletRequest(),
+                    reponse.getServletResponse().getStatus(), response.getHeaders());
+        }
+        return body;
+    }
+}
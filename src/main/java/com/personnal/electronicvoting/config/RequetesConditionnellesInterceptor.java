@@ -0,0 +1,115 @@
+package com.personnal.electronicvoting.config;
+
+import com.personnal.electronicvoting.service.CompteurVotesService;
+import com.personnal.electronicvoting.service.VersionsDonneesService;
+import com.personnal.electronicvoting.util.EnTetesConditionnels;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🏷️ Requêtes conditionnelles sur les méthodes annotées {@link ReponseConditionnelle}.
+ *
+ * L'ETag (faible) est calculé en mémoire à partir de l'époque du décompte et des versions de tables,
+ * puis haché pour ne rien révéler de l'activité. S'il correspond à If-None-Match, la requête s'arrête
+ * là avec un 304 ; sinon il est gardé sur la requête et posé par {@link ReponseConditionnelleAdvice}
+ * seulement si le contrôleur répond en 2xx (une erreur ne doit pas être mise en cache sous cet ETag).
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class RequetesConditionnellesInterceptor implements HandlerInterceptor {
+
+    /** ETag calculé avant le contrôleur, en attente du statut de la réponse */
+    static final String ATTRIBUT_ETAG = RequetesConditionnellesInterceptor.class.getName() + ".etag";
+
+    // Fournisseurs : absents dans les tests de tranche web, l'intercepteur laisse alors tout passer
+    private final ObjectProvider<VersionsDonneesService> versionsDonneesService;
+    private final ObjectProvider<CompteurVotesService> compteurVotesService;
+
+    private final LongAdder etagsEmis = new LongAdder();
+    private final LongAdder reponsesNonModifiees = new LongAdder();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod methode)
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        ReponseConditionnelle annotation = methode.getMethodAnnotation(ReponseConditionnelle.class);
+        if (annotation == null) {
+            return true;
+        }
+        VersionsDonneesService versions = versionsDonneesService.getIfAvailable();
+        if (versions == null) {
+            return true;
+        }
+
+        String etag = etag(annotation, versions);
+        if (EnTetesConditionnels.correspond(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            etagsEmis.increment();
+            reponsesNonModifiees.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        request.setAttribute(ATTRIBUT_ETAG, etag);
+        return true;
+    }
+
+    /**
+     * 🏷️ Poser l'ETag calculé en preHandle, seulement sur une réponse 2xx
+     */
+    void poserSiSucces(HttpServletRequest request, int statut, HttpHeaders entetes) {
+        if (!(request.getAttribute(ATTRIBUT_ETAG) instanceof String etag)
+                || statut < 200 || statut >= 300 || entetes.getETag() != null) {
+            return;
+        }
+        entetes.setETag(etag);
+        if (entetes.getCacheControl() == null) {
+            // Le client peut garder la réponse mais doit la revalider à chaque fois
+            entetes.setCacheControl("no-cache");
+        }
+        etagsEmis.increment();
+    }
+
+    String etag(ReponseConditionnelle annotation, VersionsDonneesService versions) {
+        StringBuilder jeton = new StringBuilder(versions.generation());
+        if (annotation.votes()) {
+            CompteurVotesService compteur = compteurVotesService.getIfAvailable();
+            jeton.append("|v").append(compteur != null ? compteur.epoque() : -1);
+        }
+        for (VersionsDonneesService.Table table : annotation.tables()) {
+            jeton.append('|').append(table.name()).append(versions.version(table));
+        }
+        return "W/\"" + hacher(jeton.toString()) + "\"";
+    }
+
+    private static String hacher(String jeton) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(jeton.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long etagsEmis() {
+        return etagsEmis.sum();
+    }
+
+    public long reponsesNonModifiees() {
+        return reponsesNonModifiees.sum();
+    }
+}
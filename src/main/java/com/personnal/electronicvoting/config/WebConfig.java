@@ -0,0 +1,34 @@
+package com.personnal.electronicvoting.config;
+
+import com.personnal.electronicvoting.service.CompteurVotesService;
+import com.personnal.electronicvoting.service.VersionsDonneesService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 🌐 Configuration MVC (requêtes conditionnelles)
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RequetesConditionnellesInterceptor requetesConditionnellesInterceptor;
+
+    public WebConfig(ObjectProvider<VersionsDonneesService> versionsDonneesService,
+                     ObjectProvider<CompteurVotesService> compteurVotesService) {
+        this.requetesConditionnellesInterceptor =
+                new RequetesConditionnellesInterceptor(versionsDonneesService, compteurVotesService);
+    }
+
+    @Bean
+    public RequetesConditionnellesInterceptor requetesConditionnellesInterceptor() {
+        return requetesConditionnellesInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requetesConditionnellesInterceptor);
+    }
+}
@@ -3,6 +3,7 @@ package com.personnal.electronicvoting.controller;
 import com.personnal.electronicvoting.dto.request.CreateAdministrateurRequest;
 import com.personnal.electronicvoting.model.Administrateur;
 import com.personnal.electronicvoting.repository.AdministrateurRepository;
+import com.personnal.electronicvoting.service.HachageMotsDePasseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -75,6 +76,9 @@ public class AdminSetupController {
                             adminSauve.getUsername(),
                             adminSauve.getExternalIdAdministrateur()));
 
+        } catch (HachageMotsDePasseService.HachageSatureException e) {
+            // Hors du catch générique : 503 + Retry-After posés par GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             log.error(" Erreur création premier admin: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -5,6 +5,14 @@ import com.personnal.electronicvoting.dto.request.*;
 import com.personnal.electronicvoting.service.AdministrateurService;
 import com.personnal.electronicvoting.service.AuthService;
 import com.personnal.electronicvoting.service.ElectionService;
+import com.personnal.electronicvoting.service.ExportAuditVotesService;
+import com.personnal.electronicvoting.service.ExportElecteursService;
+import com.personnal.electronicvoting.service.HachageMotsDePasseService;
+import com.personnal.electronicvoting.model.Election;
+import com.personnal.electronicvoting.model.VoteElection;
+import com.personnal.electronicvoting.service.JournalVotesService;
+import com.personnal.electronicvoting.service.ResultatsElectionService;
+import com.personnal.electronicvoting.service.ResultatsScellesService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -12,11 +20,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -29,6 +41,11 @@ public class AdministrateurController {
     private final AdministrateurService administrateurService;
     private final AuthService authService;
     private final ElectionService electionService;
+    private final JournalVotesService journalVotesService;
+    private final ResultatsElectionService resultatsElectionService;
+    private final ResultatsScellesService resultatsScellesService;
+    private final ExportElecteursService exportElecteursService;
+    private final ExportAuditVotesService exportAuditVotesService;
 
     // ==================== MIDDLEWARE SÉCURITÉ ====================
 
@@ -62,6 +79,9 @@ public class AdministrateurController {
             ElecteurDTO electeur = administrateurService.creerElecteur(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(electeur);
 
+        } catch (HachageMotsDePasseService.HachageSatureException e) {
+            // Hors du catch générique : 503 + Retry-After posés par GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             log.warn(" Erreur création électeur: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -69,28 +89,34 @@ public class AdministrateurController {
     }
 
     /**
-     *  Lister tous les électeurs avec pagination
+     *  Lister les électeurs par pages (curseur)
      */
     @GetMapping("/electeurs")
     @Operation(summary = "Lister électeurs",
-            description = "Obtenir la liste paginée des électeurs")
-    public ResponseEntity<List<ElecteurDTO>> listerElecteurs(
+            description = "Obtenir les électeurs page par page ; passer curseurSuivant pour la page suivante")
+    public ResponseEntity<PageCurseurDTO<ElecteurDTO>> listerElecteurs(
             @RequestHeader("Authorization") String token,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @RequestParam(required = false) String recherche,
+            @RequestParam(required = false) Boolean aVote) {
 
-        log.info(" Admin - Liste électeurs (page: {}, size: {})", page, size);
+        log.info(" Admin - Liste électeurs (taille: {})", taille);
 
         try {
             verifierTokenAdmin(token);
-
-            List<ElecteurDTO> electeurs = administrateurService.listerElecteurs();
-            return ResponseEntity.ok(electeurs);
-
         } catch (RuntimeException e) {
             log.warn(" Erreur liste électeurs: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+
+        try {
+            return ResponseEntity.ok(administrateurService.listerElecteurs(curseur, taille, recherche, aVote));
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Pagination refusée (électeurs): {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -136,6 +162,9 @@ public class AdministrateurController {
             ElecteurDTO electeur = administrateurService.modifierElecteur(electeurId, request);
             return ResponseEntity.ok(electeur);
 
+        } catch (HachageMotsDePasseService.HachageSatureException e) {
+            // Hors du catch générique : 503 + Retry-After posés par GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             log.warn(" Erreur modification électeur: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -193,26 +222,33 @@ public class AdministrateurController {
     }
 
     /**
-     *  Lister tous les candidats
+     *  Lister les candidats par pages (curseur)
      */
     @GetMapping("/candidats")
     @Operation(summary = "Lister candidats",
-            description = "Obtenir la liste des candidats")
-    public ResponseEntity<List<CandidatDTO>> listerCandidats(
-            @RequestHeader("Authorization") String token) {
+            description = "Obtenir les candidats page par page ; passer curseurSuivant pour la page suivante")
+    public ResponseEntity<PageCurseurDTO<CandidatDTO>> listerCandidats(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @RequestParam(required = false) String recherche) {
 
         log.info(" Admin - Liste candidats");
 
         try {
             verifierTokenAdmin(token);
-
-            List<CandidatDTO> candidats = administrateurService.listerCandidats();
-            return ResponseEntity.ok(candidats);
-
         } catch (RuntimeException e) {
             log.warn("Erreur liste candidats: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+
+        try {
+            return ResponseEntity.ok(administrateurService.listerCandidats(curseur, taille, recherche));
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Pagination refusée (candidats): {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -291,26 +327,33 @@ public class AdministrateurController {
     }
 
     /**
-     *  Lister toutes les campagnes
+     *  Lister les campagnes par pages (curseur)
      */
     @GetMapping("/campagnes")
     @Operation(summary = "Lister campagnes",
-            description = "Obtenir la liste des campagnes")
-    public ResponseEntity<List<CampagneDTO>> listerCampagnes(
-            @RequestHeader("Authorization") String token) {
+            description = "Obtenir les campagnes page par page ; passer curseurSuivant pour la page suivante")
+    public ResponseEntity<PageCurseurDTO<CampagneDTO>> listerCampagnes(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @RequestParam(required = false) String candidatId) {
 
         log.info(" Admin - Liste campagnes");
 
         try {
             verifierTokenAdmin(token);
-
-            List<CampagneDTO> campagnes = administrateurService.listerCampagnes();
-            return ResponseEntity.ok(campagnes);
-
         } catch (RuntimeException e) {
             log.warn(" Erreur liste campagnes: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+
+        try {
+            return ResponseEntity.ok(administrateurService.listerCampagnes(curseur, taille, candidatId));
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Pagination refusée (campagnes): {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -393,21 +436,29 @@ public class AdministrateurController {
      */
     @GetMapping("/elections")
     @Operation(summary = "Lister les élections",
-            description = "Obtenir la liste de toutes les élections")
-    public ResponseEntity<List<ElectionDTO>> listerElections(
-            @RequestHeader("Authorization") String token) {
+            description = "Obtenir les élections page par page ; passer curseurSuivant pour la page suivante")
+    public ResponseEntity<PageCurseurDTO<ElectionSummaryDTO>> listerElections(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @RequestParam(required = false) Election.StatutElection statut) {
 
-        log.info("📋 Admin - Liste de toutes les élections");
+        log.info("📋 Admin - Liste des élections");
 
         try {
             verifierTokenAdmin(token);
-            List<ElectionDTO> elections = electionService.listerToutesElections();
-            return ResponseEntity.ok(elections);
-
         } catch (RuntimeException e) {
             log.warn(" Erreur liste élections: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+
+        try {
+            return ResponseEntity.ok(electionService.listerElections(curseur, taille, statut));
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Pagination refusée (élections): {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -484,6 +535,140 @@ public class AdministrateurController {
         }
     }
 
+    // ==================== JOURNAL DES VOTES ====================
+
+    /**
+     * 🔢 Recompter les votes à partir du journal local
+     */
+    @GetMapping("/journal/recomptage")
+    @Operation(summary = "Recomptage depuis le journal",
+            description = "Recompter les bulletins à partir du journal local des votes")
+    public ResponseEntity<JournalVotesService.RejeuJournalDTO> recompterDepuisJournal(
+            @RequestHeader("Authorization") String token) {
+
+        log.info("🔢 Admin - Recomptage depuis le journal des votes");
+
+        try {
+            verifierTokenAdmin(token);
+            return ResponseEntity.ok(journalVotesService.recompter());
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Erreur recomptage journal: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 🔁 Réinsérer les bulletins du journal absents de la base
+     */
+    @PostMapping("/journal/rejeu")
+    @Operation(summary = "Rejeu du journal",
+            description = "Réinsérer en base les bulletins journalisés manquants (après une panne)")
+    public ResponseEntity<JournalVotesService.RejeuJournalDTO> rejouerJournal(
+            @RequestHeader("Authorization") String token) {
+
+        log.info("🔁 Admin - Rejeu du journal des votes");
+
+        try {
+            verifierTokenAdmin(token);
+            return ResponseEntity.ok(journalVotesService.reinsererManquants());
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Erreur rejeu journal: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ==================== RÉSULTATS MATÉRIALISÉS ====================
+
+    /**
+     * 🔀 Changer le statut d'un vote (annulation, rejet)
+     */
+    @PutMapping("/votes-election/{voteId}/statut")
+    @Operation(summary = "Modifier le statut d'un vote",
+            description = "Passer un vote à VALIDE, ANNULE, REJETE ou EN_ATTENTE_VALIDATION ; les résultats sont ajustés")
+    public ResponseEntity<VoteElectionDTO> modifierStatutVote(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long voteId,
+            @RequestParam VoteElection.StatutVote statut) {
+
+        log.info("🔀 Admin - Statut du vote {} → {}", voteId, statut);
+
+        try {
+            verifierTokenAdmin(token);
+            return ResponseEntity.ok(electionService.modifierStatutVote(voteId, statut));
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Erreur modification statut vote: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 📋 Dernier rapport de réconciliation des résultats
+     */
+    @GetMapping("/resultats/reconciliation")
+    @Operation(summary = "Dernière réconciliation",
+            description = "Rapport de la dernière comparaison entre résultats matérialisés et votes bruts")
+    public ResponseEntity<ResultatsElectionService.RapportReconciliationDTO> obtenirReconciliation(
+            @RequestHeader("Authorization") String token) {
+
+        try {
+            verifierTokenAdmin(token);
+            return resultatsElectionService.dernierRapport()
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Erreur consultation réconciliation: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 🔍 Lancer une réconciliation (et corriger les écarts si demandé)
+     */
+    @PostMapping("/resultats/reconciliation")
+    @Operation(summary = "Réconcilier les résultats",
+            description = "Recompter depuis les votes bruts, signaler les écarts et les corriger si corriger=true")
+    public ResponseEntity<ResultatsElectionService.RapportReconciliationDTO> reconcilierResultats(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(defaultValue = "false") boolean corriger) {
+
+        log.info("🔍 Admin - Réconciliation des résultats (correction: {})", corriger);
+
+        try {
+            verifierTokenAdmin(token);
+            return ResponseEntity.ok(resultatsElectionService.reconcilier(corriger));
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Erreur réconciliation résultats: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 🔒 Vérifier les résultats scellés d'une élection close
+     */
+    @GetMapping("/elections/{electionId}/resultats-scelles/verification")
+    @Operation(summary = "Vérifier les résultats scellés",
+            description = "Comparer l'empreinte enregistrée au contenu scellé et aux résultats recalculés depuis les votes")
+    public ResponseEntity<ResultatsScellesService.VerificationScellementDTO> verifierResultatsScelles(
+            @RequestHeader("Authorization") String token,
+            @PathVariable String electionId) {
+
+        log.info("🔒 Admin - Vérification des résultats scellés de l'élection {}", electionId);
+
+        try {
+            verifierTokenAdmin(token);
+            return ResponseEntity.ok(resultatsScellesService.verifier(electionId));
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Erreur vérification résultats scellés: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // ==================== TABLEAU DE BORD ADMINISTRATEUR ====================
 
     /**
@@ -534,6 +719,9 @@ public class AdministrateurController {
             administrateurService.modifierElecteur(electeurId, resetRequest);
             return ResponseEntity.ok("Nouveaux identifiants envoyés par email");
 
+        } catch (HachageMotsDePasseService.HachageSatureException e) {
+            // Hors du catch générique : 503 + Retry-After posés par GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             log.warn(" Erreur renvoi identifiants: {}", e.getMessage());
             return ResponseEntity.badRequest().body("Erreur: " + e.getMessage());
@@ -541,40 +729,76 @@ public class AdministrateurController {
     }
 
     /**
-     * Export des données (CSV simple pour l'instant)
+     * 📤 Export CSV des électeurs, écrit en flux depuis un curseur base de données (gzip si accepté)
      */
     @GetMapping("/export/electeurs")
     @Operation(summary = "Export électeurs",
-            description = "Exporter la liste des électeurs")
-    public ResponseEntity<String> exporterElecteurs(
-            @RequestHeader("Authorization") String token) {
+            description = "Exporter la liste des électeurs en CSV, envoyée au fil de la lecture")
+    public ResponseEntity<StreamingResponseBody> exporterElecteurs(
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
         log.info(" Admin - Export électeurs");
 
         try {
             verifierTokenAdmin(token);
+        } catch (RuntimeException e) {
+            log.warn("❌ Erreur export: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
 
-            List<ElecteurDTO> electeurs = administrateurService.listerElecteurs();
-
-            StringBuilder csv = new StringBuilder();
-            csv.append("ID,Username,Email,A Vote\n");
+        boolean gzip = ReponsesPrecalculees.accepteGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder reponse = ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=electeurs.csv")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            reponse.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return reponse.body(sortie -> exportElecteursService.exporter(sortie, gzip));
+    }
 
-            for (ElecteurDTO electeur : electeurs) {
-                csv.append(String.format("%s,%s,%s,%s\n",
-                        electeur.getExternalIdElecteur(),
-                        electeur.getUsername(),
-                        electeur.getEmail(),
-                        electeur.isAVote() ? "Oui" : "Non"));
-            }
+    /**
+     * 🧾 Export d'audit des bulletins d'une élection (NDJSON ou CSV), en flux, terminé par son SHA-256
+     */
+    @GetMapping("/elections/{electionId}/audit-votes")
+    @Operation(summary = "Export d'audit des votes",
+            description = "Registre complet des bulletins (IP, user-agent, statut) en NDJSON ou CSV ; la dernière ligne porte le SHA-256 du contenu qui la précède")
+    public ResponseEntity<StreamingResponseBody> exporterAuditVotes(
+            @RequestHeader("Authorization") String token,
+            @PathVariable String electionId,
+            @RequestParam(defaultValue = "NDJSON") ExportAuditVotesService.Format format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-            return ResponseEntity.ok()
-                    .header("Content-Type", "text/csv")
-                    .header("Content-Disposition", "attachment; filename=electeurs.csv")
-                    .body(csv.toString());
+        log.info("🧾 Admin - Export d'audit des votes de l'élection {} ({})", electionId, format);
 
+        try {
+            verifierTokenAdmin(token);
         } catch (RuntimeException e) {
-            log.warn("❌ Erreur export: {}", e.getMessage());
+            log.warn("❌ Erreur export audit: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+
+        Election election;
+        try {
+            election = exportAuditVotesService.electionAuditee(electionId);
+        } catch (RuntimeException e) {
+            log.warn("❌ Export audit impossible: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+
+        boolean gzip = ReponsesPrecalculees.accepteGzip(acceptEncoding);
+        String extension = format == ExportAuditVotesService.Format.CSV ? "csv" : "ndjson";
+        ResponseEntity.BodyBuilder reponse = ResponseEntity.ok()
+                .contentType(format == ExportAuditVotesService.Format.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=audit-votes-" + electionId + "." + extension)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            reponse.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return reponse.body(sortie -> exportAuditVotesService.exporter(election, format, sortie, gzip));
     }
-}
\ No newline at end of file
+}
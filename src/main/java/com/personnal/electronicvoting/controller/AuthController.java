@@ -4,6 +4,7 @@ import com.personnal.electronicvoting.dto.request.LoginRequest;
 import com.personnal.electronicvoting.dto.request.ChangePasswordRequest;
 import com.personnal.electronicvoting.dto.response.AuthResponse;
 import com.personnal.electronicvoting.service.AuthService;
+import com.personnal.electronicvoting.service.HachageMotsDePasseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -46,6 +47,9 @@ public class AuthController {
             log.info(" Connexion électeur réussie - ID: {}", response.getUserId());
             return ResponseEntity.ok(response);
 
+        } catch (HachageMotsDePasseService.HachageSatureException e) {
+            // Hors du catch générique : 503 + Retry-After posés par GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             log.warn(" Échec connexion électeur: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -69,6 +73,9 @@ public class AuthController {
             log.info(" Connexion admin réussie - ID: {}", response.getUserId());
             return ResponseEntity.ok(response);
 
+        } catch (HachageMotsDePasseService.HachageSatureException e) {
+            // Hors du catch générique : 503 + Retry-After posés par GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             log.warn(" Échec connexion admin: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -105,6 +112,9 @@ public class AuthController {
             log.info(" Mot de passe électeur changé avec succès");
             return ResponseEntity.ok(response);
 
+        } catch (HachageMotsDePasseService.HachageSatureException e) {
+            // Hors du catch générique : 503 + Retry-After posés par GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             log.warn(" Échec changement mot de passe: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -1,7 +1,10 @@
 package com.personnal.electronicvoting.controller;
 
+import com.personnal.electronicvoting.config.ReponseConditionnelle;
 import com.personnal.electronicvoting.dto.CampagneDTO;
+import com.personnal.electronicvoting.dto.PageCurseurDTO;
 import com.personnal.electronicvoting.service.CampagneService;
+import com.personnal.electronicvoting.service.VersionsDonneesService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -24,20 +27,27 @@ public class CampagneController {
     // ==================== CONSULTATION PUBLIQUE CAMPAGNES ====================
 
     /**
-     * 📋 Lister toutes les campagnes
+     * 📋 Lister les campagnes, par pages (curseur)
      */
     @GetMapping
+    @ReponseConditionnelle(tables = {VersionsDonneesService.Table.CAMPAGNES, VersionsDonneesService.Table.CANDIDATS})
     @Operation(summary = "Liste des campagnes",
-            description = "Obtenir la liste de toutes les campagnes (accès public)")
-    public ResponseEntity<List<CampagneDTO>> listerToutesCampagnes() {
+            description = "Obtenir les campagnes page par page (accès public) ; passer curseurSuivant pour la page suivante")
+    public ResponseEntity<PageCurseurDTO<CampagneDTO>> listerToutesCampagnes(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @RequestParam(required = false) String candidatId) {
 
         log.info("📋 Consultation publique - Liste des campagnes");
 
         try {
-            List<CampagneDTO> campagnes = campagneService.listerToutesCampagnes();
-            log.info("📊 {} campagnes retournées", campagnes.size());
+            PageCurseurDTO<CampagneDTO> campagnes = campagneService.listerCampagnes(curseur, taille, candidatId);
+            log.info("📊 {} campagnes retournées", campagnes.getElements().size());
             return ResponseEntity.ok(campagnes);
 
+        } catch (RuntimeException e) {
+            log.warn("❌ Pagination des campagnes refusée: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("💥 Erreur consultation campagnes: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -224,14 +234,7 @@ public class CampagneController {
         log.info(" Filtrage campagnes par longueur: {} - {}", minLongueur, maxLongueur);
 
         try {
-            List<CampagneDTO> toutesCampagnes = campagneService.listerToutesCampagnes();
-
-            List<CampagneDTO> campagnesFiltrees = toutesCampagnes.stream()
-                    .filter(campagne -> {
-                        int longueur = campagne.getDescription().length();
-                        return longueur >= minLongueur && longueur <= maxLongueur;
-                    })
-                    .toList();
+            List<CampagneDTO> campagnesFiltrees = campagneService.filtrerParLongueurDescription(minLongueur, maxLongueur);
 
             log.info(" {} campagnes correspondent au filtre", campagnesFiltrees.size());
             return ResponseEntity.ok(campagnesFiltrees);
@@ -1,9 +1,11 @@
 package com.personnal.electronicvoting.controller;
 
+import com.personnal.electronicvoting.config.ReponseConditionnelle;
 import com.personnal.electronicvoting.dto.CandidatDTO;
 import com.personnal.electronicvoting.dto.CampagneDTO;
 import com.personnal.electronicvoting.service.CandidatService;
 import com.personnal.electronicvoting.service.CampagneService;
+import com.personnal.electronicvoting.service.VersionsDonneesService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +31,7 @@ public class CandidatController {
      * 📋 Lister tous les candidats
      */
     @GetMapping
+    @ReponseConditionnelle(tables = {VersionsDonneesService.Table.CANDIDATS, VersionsDonneesService.Table.CAMPAGNES})
     @Operation(summary = "Liste des candidats",
             description = "Obtenir la liste de tous les candidats (accès public)")
     public ResponseEntity<List<CandidatDTO>> listerTousCandidats() {
@@ -98,6 +101,7 @@ public class CandidatController {
      * 🏆 Classement des candidats par votes
      */
     @GetMapping("/classement")
+    @ReponseConditionnelle(votes = true, tables = {VersionsDonneesService.Table.CANDIDATS, VersionsDonneesService.Table.CAMPAGNES})
     @Operation(summary = "Classement candidats",
             description = "Obtenir le classement des candidats par nombre de votes")
     public ResponseEntity<List<CandidatService.CandidatAvecVotesDTO>> obtenirClassement() {
@@ -3,13 +3,18 @@ package com.personnal.electronicvoting.controller;
 import com.personnal.electronicvoting.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -22,12 +27,24 @@ import java.util.stream.Collectors;
 public class DashboardController {
 
     private final VoteService voteService;
+    private final InstantaneResultatsService instantaneResultatsService;
+    private final SerieTemporelleVotesService serieTemporelleVotesService;
+    private final CompositionSectionsService compositionSectionsService;
+    private final PagesPrecalculeesService pagesPrecalculeesService;
     private final CandidatService candidatService;
     private final CampagneService campagneService;
     private final ElecteurService electeurService;
     private final AdministrateurService administrateurService;
     private final AuthService authService;
 
+    private static final String PAGE_DASHBOARD_PUBLIC = "dashboard-public";
+
+    /** Tableau de bord public identique pour tous les visiteurs : construit en tâche de fond */
+    @PostConstruct
+    void enregistrerPagesPrecalculees() {
+        pagesPrecalculeesService.enregistrer(PAGE_DASHBOARD_PUBLIC, this::construireDashboardPublic);
+    }
+
     // ==================== TABLEAU DE BORD ÉLECTEUR ====================
 
     /**
@@ -50,26 +67,37 @@ public class DashboardController {
             var electeur = authService.obtenirElecteurDepuisToken(cleanToken);
             String electeurId = electeur.getExternalIdElecteur();
 
+            // Sections indépendantes lancées en parallèle
+            CompositionSectionsService.Composition composition = compositionSectionsService.nouvelle("dashboard électeur");
+
+            var sectionProfil = composition.section("profil",
+                    () -> electeurService.obtenirProfil(electeurId), null);
+            var sectionStatutVote = composition.section("statut-vote",
+                    () -> voteService.obtenirStatutVoteElecteur(electeurId), null);
+            var sectionCandidats = composition.section("candidats",
+                    () -> electeurService.consulterCandidats(electeurId), List.<ElecteurService.CandidatAvecStatutDTO>of());
+            // Résultats si électeur a voté
+            var sectionResultats = electeur.isAVote()
+                    ? composition.section("resultats-partiels",
+                            () -> electeurService.consulterResultatsPartiels(electeurId), null)
+                    : null;
+            var sectionInstantane = composition.section("statistiques-globales",
+                    instantaneResultatsService::obtenir, InstantaneResultatsService.Instantane.vide());
+
             // Profil électeur
-            ElecteurService.ElecteurProfilDTO profil =
-                    electeurService.obtenirProfil(electeurId);
+            ElecteurService.ElecteurProfilDTO profil = sectionProfil.resultat();
 
             // Statut de vote
-            VoteService.StatutVoteElecteurDTO statutVote =
-                    voteService.obtenirStatutVoteElecteur(electeurId);
+            VoteService.StatutVoteElecteurDTO statutVote = sectionStatutVote.resultat();
 
             // Candidats disponibles
-            List<ElecteurService.CandidatAvecStatutDTO> candidats =
-                    electeurService.consulterCandidats(electeurId);
+            List<ElecteurService.CandidatAvecStatutDTO> candidats = sectionCandidats.resultat();
 
-            // Résultats si électeur a voté
-            ElecteurService.ResultatsPartielsDTO resultats = null;
-            if (electeur.isAVote()) {
-                resultats = electeurService.consulterResultatsPartiels(electeurId);
-            }
+            ElecteurService.ResultatsPartielsDTO resultats =
+                    sectionResultats != null ? sectionResultats.resultat() : null;
 
             // Statistiques globales
-            VoteService.StatistiquesVoteDTO statsGlobales = voteService.obtenirStatistiquesGenerales();
+            VoteService.StatistiquesVoteDTO statsGlobales = sectionInstantane.resultat().statistiquesGenerales();
 
             // Recommandations
             List<String> recommendations = genererRecommandationsElecteur(electeur);
@@ -82,6 +110,7 @@ public class DashboardController {
                     .statistiquesGlobales(statsGlobales)
                     .recommendations(recommendations)
                     .messageBienvenue(genererMessageBienvenue(electeur))
+                    .sectionsIndisponibles(composition.sectionsIndisponibles())
                     .derniereMiseAJour(LocalDate.now())
                     .build();
 
@@ -115,28 +144,39 @@ public class DashboardController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
 
+            // Sections indépendantes lancées en parallèle
+            CompositionSectionsService.Composition composition = compositionSectionsService.nouvelle("dashboard admin");
+
+            var sectionStatsAdmin = composition.section("statistiques-admin",
+                    administrateurService::obtenirStatistiques, new AdministrateurService.StatistiquesAdminDTO());
+            var sectionInstantane = composition.section("resultats",
+                    instantaneResultatsService::obtenir, InstantaneResultatsService.Instantane.vide());
+            var sectionCampagnes = composition.section("statistiques-campagnes",
+                    campagneService::obtenirStatistiquesCampagnes, new CampagneService.StatistiquesCampagnesDTO());
+
             // Statistiques administratives
-            AdministrateurService.StatistiquesAdminDTO statsAdmin =
-                    administrateurService.obtenirStatistiques();
+            AdministrateurService.StatistiquesAdminDTO statsAdmin = sectionStatsAdmin.resultat();
+            InstantaneResultatsService.Instantane instantane = sectionInstantane.resultat();
 
             // Résultats détaillés
             List<VoteService.ResultatVoteDTO> resultatsDetailles =
-                    voteService.obtenirResultatsVotes();
+                    instantane.resultatsVotes();
 
             // Analyse temporelle
             List<VoteService.VoteTemporelDTO> analyseTemporelle =
-                    voteService.obtenirRepartitionTemporelle();
+                    instantane.repartitionTemporelle();
 
             // Statistiques candidats
             List<CandidatService.StatistiquesCandidatDTO> statsCandidats =
-                    candidatService.obtenirStatistiquesDetaillees();
+                    instantane.statistiquesCandidats();
 
             // Statistiques campagnes
-            CampagneService.StatistiquesCampagnesDTO statsCampagnes =
-                    campagneService.obtenirStatistiquesCampagnes();
+            CampagneService.StatistiquesCampagnesDTO statsCampagnes = sectionCampagnes.resultat();
 
-            // Alertes et notifications
-            List<AlerteDTO> alertes = genererAlertes(statsAdmin, resultatsDetailles);
+            // Alertes et notifications (pas d'alerte calculée sur des statistiques de repli)
+            List<AlerteDTO> alertes = sectionStatsAdmin.estDegradee()
+                    ? new java.util.ArrayList<>()
+                    : genererAlertes(statsAdmin, resultatsDetailles);
 
             // Métriques de performance
             MetriquesPerformanceDTO metriques = calculerMetriques();
@@ -154,6 +194,7 @@ public class DashboardController {
                     .metriquesPerformance(metriques)
                     .actionsRecentes(actionsRecentes)
                     .resumeExecutif(genererResumeExecutif(statsAdmin))
+                    .sectionsIndisponibles(composition.sectionsIndisponibles())
                     .derniereMiseAJour(LocalDate.now())
                     .build();
 
@@ -168,66 +209,109 @@ public class DashboardController {
         }
     }
 
+    /**
+     * 📈 Votes par minute, heure ou jour sur une plage (scrutin global ou élection)
+     */
+    @GetMapping("/admin/serie-temporelle")
+    @Operation(summary = "Série temporelle des votes",
+            description = "Votes par période sur une plage, lus dans les séries en mémoire")
+    public ResponseEntity<SerieTemporelleVotesService.SerieTemporelleDTO> obtenirSerieTemporelle(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(required = false) String electionId,
+            @RequestParam(defaultValue = "HEURE") SerieTemporelleVotesService.Resolution resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin) {
+
+        log.info("📈 Série temporelle - élection: {}, résolution: {}", electionId, resolution);
+
+        String cleanToken = token.startsWith("Bearer ") ? token.substring(7) : token;
+        if (!authService.verifierTokenAdmin(cleanToken)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            return ResponseEntity.ok(serieTemporelleVotesService.obtenirSerie(electionId, resolution, debut, fin));
+        } catch (RuntimeException e) {
+            log.warn("❌ Erreur série temporelle: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // ==================== TABLEAU DE BORD PUBLIC ====================
 
     /**
      * 📊 Tableau de bord public (sans authentification)
      */
-    @GetMapping("/public")
+    @GetMapping(value = "/public", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Dashboard public",
-            description = "Tableau de bord public accessible à tous")
-    public ResponseEntity<DashboardPublicDTO> obtenirDashboardPublic() {
+            description = "Tableau de bord public accessible à tous (DashboardPublicDTO pré-rendu, ETag)")
+    public ResponseEntity<byte[]> obtenirDashboardPublic(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        log.info("📊 Dashboard public");
+        log.debug("📊 Dashboard public");
 
         try {
-            // Statistiques de base
-            VoteService.StatistiquesVoteDTO statsVote = voteService.obtenirStatistiquesGenerales();
-
-            // Top candidats
-            List<VoteService.ResultatVoteDTO> topCandidats = voteService.obtenirResultatsVotes()
-                    .stream()
-                    .limit(5)
-                    .toList();
-
-            // Tendances des votes
-            List<VoteService.VoteTemporelDTO> tendances = voteService.obtenirRepartitionTemporelle();
-
-            // Statistiques campagnes
-            CampagneService.StatistiquesCampagnesDTO statsCampagnes =
-                    campagneService.obtenirStatistiquesCampagnes();
-
-            // Campagnes en vedette
-            List<CampagneService.CampagneAvecCandidatDTO> campagnesVedette =
-                    campagneService.obtenirCampagnesAvecCandidats()
-                            .stream()
-                            .filter(c -> c.getCampagne().getPhoto() != null)
-                            .limit(4)
-                            .toList();
-
-            // Progression de la participation
-            ProgressionParticipationDTO progression = calculerProgressionParticipation(statsVote);
-
-            DashboardPublicDTO dashboard = DashboardPublicDTO.builder()
-                    .statistiquesGenerales(statsVote)
-                    .topCandidats(topCandidats)
-                    .tendancesVotes(tendances)
-                    .statistiquesCampagnes(statsCampagnes)
-                    .campagnesEnVedette(campagnesVedette)
-                    .progressionParticipation(progression)
-                    .messagePublic("Élection en cours - Résultats en temps réel")
-                    .derniereMiseAJour(LocalDate.now())
-                    .prochaineMiseAJour(LocalDate.now())
-                    .build();
-
-            return ResponseEntity.ok(dashboard);
-
+            return ReponsesPrecalculees.servir(pagesPrecalculeesService, PAGE_DASHBOARD_PUBLIC, ifNoneMatch, acceptEncoding);
         } catch (Exception e) {
             log.error("💥 Erreur dashboard public: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    private DashboardPublicDTO construireDashboardPublic() {
+        // Sections indépendantes lancées en parallèle
+        CompositionSectionsService.Composition composition = compositionSectionsService.nouvelle("dashboard public");
+
+        var sectionInstantane = composition.section("resultats",
+                instantaneResultatsService::obtenir, InstantaneResultatsService.Instantane.vide());
+        var sectionStatsCampagnes = composition.section("statistiques-campagnes",
+                campagneService::obtenirStatistiquesCampagnes, new CampagneService.StatistiquesCampagnesDTO());
+        var sectionCampagnes = composition.section("campagnes-en-vedette",
+                campagneService::obtenirCampagnesAvecCandidats, List.<CampagneService.CampagneAvecCandidatDTO>of());
+
+        InstantaneResultatsService.Instantane instantane = sectionInstantane.resultat();
+
+        // Statistiques de base
+        VoteService.StatistiquesVoteDTO statsVote = instantane.statistiquesGenerales();
+
+        // Top candidats
+        List<VoteService.ResultatVoteDTO> topCandidats = instantane.resultatsVotes()
+                .stream()
+                .limit(5)
+                .toList();
+
+        // Tendances des votes
+        List<VoteService.VoteTemporelDTO> tendances = instantane.repartitionTemporelle();
+
+        // Statistiques campagnes
+        CampagneService.StatistiquesCampagnesDTO statsCampagnes = sectionStatsCampagnes.resultat();
+
+        // Campagnes en vedette
+        List<CampagneService.CampagneAvecCandidatDTO> campagnesVedette =
+                sectionCampagnes.resultat()
+                        .stream()
+                        .filter(c -> c.getCampagne().getPhoto() != null)
+                        .limit(4)
+                        .toList();
+
+        // Progression de la participation
+        ProgressionParticipationDTO progression = calculerProgressionParticipation(statsVote);
+
+        return DashboardPublicDTO.builder()
+                .statistiquesGenerales(statsVote)
+                .topCandidats(topCandidats)
+                .tendancesVotes(tendances)
+                .statistiquesCampagnes(statsCampagnes)
+                .campagnesEnVedette(campagnesVedette)
+                .progressionParticipation(progression)
+                .messagePublic("Élection en cours - Résultats en temps réel")
+                .sectionsIndisponibles(composition.sectionsIndisponibles())
+                .derniereMiseAJour(LocalDate.now())
+                .prochaineMiseAJour(LocalDate.now())
+                .build();
+    }
+
     // ==================== WIDGETS SPÉCIALISÉS ====================
 
     /**
@@ -241,7 +325,7 @@ public class DashboardController {
         log.info("📈 Widget progression temps réel");
 
         try {
-            VoteService.StatistiquesVoteDTO stats = voteService.obtenirStatistiquesGenerales();
+            VoteService.StatistiquesVoteDTO stats = instantaneResultatsService.obtenir().statistiquesGenerales();
 
             double pourcentageParticipation = stats.getTauxParticipation();
             String statutProgression;
@@ -290,7 +374,7 @@ public class DashboardController {
         log.info("🏆 Widget podium candidats");
 
         try {
-            List<VoteService.ResultatVoteDTO> resultats = voteService.obtenirResultatsVotes();
+            List<VoteService.ResultatVoteDTO> resultats = instantaneResultatsService.obtenir().resultatsVotes();
 
             VoteService.ResultatVoteDTO premier = resultats.size() > 0 ? resultats.get(0) : null;
             VoteService.ResultatVoteDTO deuxieme = resultats.size() > 1 ? resultats.get(1) : null;
@@ -472,6 +556,7 @@ public class DashboardController {
         private VoteService.StatistiquesVoteDTO statistiquesGlobales;
         private List<String> recommendations;
         private String messageBienvenue;
+        private List<String> sectionsIndisponibles;
         private LocalDate derniereMiseAJour;
     }
 
@@ -489,6 +574,7 @@ public class DashboardController {
         private MetriquesPerformanceDTO metriquesPerformance;
         private List<ActionRecenteDTO> actionsRecentes;
         private String resumeExecutif;
+        private List<String> sectionsIndisponibles;
         private LocalDate derniereMiseAJour;
     }
 
@@ -504,6 +590,7 @@ public class DashboardController {
         private List<CampagneService.CampagneAvecCandidatDTO> campagnesEnVedette;
         private ProgressionParticipationDTO progressionParticipation;
         private String messagePublic;
+        private List<String> sectionsIndisponibles;
         private LocalDate derniereMiseAJour;
         private LocalDate prochaineMiseAJour;
     }
@@ -5,6 +5,7 @@ import com.personnal.electronicvoting.dto.CampagneDTO;
 import com.personnal.electronicvoting.dto.request.ChangePasswordRequest;
 import com.personnal.electronicvoting.service.ElecteurService;
 import com.personnal.electronicvoting.service.AuthService;
+import com.personnal.electronicvoting.service.HachageMotsDePasseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -93,6 +94,9 @@ public class ElecteurController {
 
             return ResponseEntity.ok("Mot de passe changé avec succès");
 
+        } catch (HachageMotsDePasseService.HachageSatureException e) {
+            // Hors du catch générique : 503 + Retry-After posés par GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             log.warn("❌ Erreur changement mot de passe: {}", e.getMessage());
             return ResponseEntity.badRequest().body("Erreur: " + e.getMessage());
@@ -6,11 +6,18 @@
 
 package com.personnal.electronicvoting.controller;
 
+import com.personnal.electronicvoting.config.ReponseConditionnelle;
 import com.personnal.electronicvoting.dto.ElectionDTO;
+import com.personnal.electronicvoting.dto.ElectionSummaryDTO;
+import com.personnal.electronicvoting.dto.PageCurseurDTO;
 import com.personnal.electronicvoting.dto.VoteElectionDTO;
 import com.personnal.electronicvoting.dto.request.VoterElectionRequest;
+import com.personnal.electronicvoting.model.Election;
 import com.personnal.electronicvoting.service.ElectionService;
 import com.personnal.electronicvoting.service.AuthService;
+import com.personnal.electronicvoting.service.IdempotenceService;
+import com.personnal.electronicvoting.service.IngestionVotesService;
+import com.personnal.electronicvoting.service.VersionsDonneesService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -31,21 +38,29 @@ public class ElectionController {
 
     private final ElectionService electionService;
     private final AuthService authService;
+    private final IngestionVotesService ingestionVotesService;
+    private final IdempotenceService idempotenceService;
 
     // ==================== CONSULTATION PUBLIQUE ====================
 
     @GetMapping
-    @Operation(summary = "Lister toutes les élections",
-            description = "Obtenir la liste de toutes les élections")
-    public ResponseEntity<List<ElectionDTO>> listerToutesElections() {
+    @Operation(summary = "Lister les élections",
+            description = "Obtenir les élections page par page ; passer curseurSuivant pour la page suivante")
+    public ResponseEntity<PageCurseurDTO<ElectionSummaryDTO>> listerToutesElections(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @RequestParam(required = false) Election.StatutElection statut) {
 
-        log.info("📋 Consultation publique - Liste de toutes les élections");
+        log.info("📋 Consultation publique - Liste des élections");
 
         try {
-            List<ElectionDTO> elections = electionService.listerToutesElections();
-            log.info("📊 {} élections retournées", elections.size());
+            PageCurseurDTO<ElectionSummaryDTO> elections = electionService.listerElections(curseur, taille, statut);
+            log.info("📊 {} élections retournées", elections.getElements().size());
             return ResponseEntity.ok(elections);
 
+        } catch (RuntimeException e) {
+            log.warn("❌ Pagination des élections refusée: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("💥 Erreur consultation élections: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -72,6 +87,40 @@ public class ElectionController {
         }
     }
 
+    @GetMapping("/{electionId}/electeurs-autorises")
+    @Operation(summary = "Électeurs autorisés d'une élection",
+            description = "Identifiants des électeurs autorisés, par page")
+    public ResponseEntity<ElectionService.PageIdentifiantsDTO> listerElecteursAutorises(
+            @PathVariable String electionId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int taille) {
+
+        try {
+            return ResponseEntity.ok(electionService.listerElecteursAutorises(electionId, page, taille));
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Électeurs autorisés indisponibles pour {}: {}", electionId, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{electionId}/candidats-participants")
+    @Operation(summary = "Candidats d'une élection",
+            description = "Identifiants des candidats participants, par page")
+    public ResponseEntity<ElectionService.PageIdentifiantsDTO> listerCandidatsParticipants(
+            @PathVariable String electionId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int taille) {
+
+        try {
+            return ResponseEntity.ok(electionService.listerCandidatsParticipants(electionId, page, taille));
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Candidats participants indisponibles pour {}: {}", electionId, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     // ==================== ÉLECTIONS POUR ÉLECTEURS ====================
 
     @GetMapping("/disponibles")
@@ -109,6 +158,7 @@ public class ElectionController {
             description = "Enregistrer un vote pour une élection")
     public ResponseEntity<VoteElectionDTO> voterPourElection(
             @RequestHeader("Authorization") String token,
+            @RequestHeader(value = "Idempotency-Key", required = false) String cleIdempotence,
             @PathVariable String electionId,
             @Valid @RequestBody VoterElectionRequest request,
             HttpServletRequest httpRequest) {
@@ -129,9 +179,22 @@ public class ElectionController {
             request.setAdresseIp(getClientIpAddress(httpRequest));
             request.setUserAgent(httpRequest.getHeader("User-Agent"));
 
-            VoteElectionDTO vote = electionService.voterPourElection(request, electeurId);
+            // 🔁 Une nouvelle tentative avec la même clé rejoue la réponse d'origine
+            IdempotenceService.Resultat<VoteElectionDTO> resultat = idempotenceService.executer(
+                    cleIdempotence, "election:" + electionId + ":" + electeurId, request.getCandidatId(),
+                    VoteElectionDTO.class,
+                    () -> ingestionVotesService.estActive()
+                            ? ingestionVotesService.voter(request, electeurId)
+                            : electionService.voterPourElection(request, electeurId));
+
+            VoteElectionDTO vote = resultat.valeur();
             log.info("✅ Vote enregistré: {}", vote.getId());
-            return ResponseEntity.ok(vote);
+
+            ResponseEntity.BodyBuilder reponse = ResponseEntity.ok();
+            if (resultat.rejoue()) {
+                reponse.header("Idempotent-Replayed", "true");
+            }
+            return reponse.body(vote);
 
         } catch (RuntimeException e) {
             log.error("❌ Erreur vote: {}", e.getMessage());
@@ -145,6 +208,7 @@ public class ElectionController {
     // ==================== RÉSULTATS ====================
 
     @GetMapping("/{electionId}/resultats")
+    @ReponseConditionnelle(votes = true, tables = {VersionsDonneesService.Table.ELECTIONS, VersionsDonneesService.Table.CANDIDATS})
     @Operation(summary = "Résultats d'une élection",
             description = "Obtenir les résultats d'une élection")
     public ResponseEntity<ElectionService.ResultatsElectionDTO> obtenirResultatsElection(
@@ -186,14 +250,10 @@ public class ElectionController {
         log.info("🏥 Health check service élections");
 
         try {
-            List<ElectionDTO> elections = electionService.listerToutesElections();
-
             HealthCheckDTO health = HealthCheckDTO.builder()
                     .status("UP")
-                    .nombreElections((long) elections.size())
-                    .electionsActives(elections.stream()
-                            .filter(ElectionDTO::getEstActive)
-                            .count())
+                    .nombreElections(electionService.compterElections())
+                    .electionsActives(electionService.compterElectionsActives())
                     .timestamp(java.time.LocalDate.now())
                     .message("Service élections opérationnel")
                     .build();
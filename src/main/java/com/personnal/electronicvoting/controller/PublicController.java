@@ -1,16 +1,23 @@
 package com.personnal.electronicvoting.controller;
 
 import com.personnal.electronicvoting.service.*;
+import com.personnal.electronicvoting.util.TrieSuggestions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/public")
@@ -19,58 +26,77 @@ import java.util.Map;
 @Tag(name = "Public", description = "APIs publiques générales")
 public class PublicController {
 
-    private final VoteService voteService;
+    private final InstantaneResultatsService instantaneResultatsService;
+    private final DiffusionResultatsService diffusionResultatsService;
     private final CandidatService candidatService;
     private final CampagneService campagneService;
+    private final ElectionService electionService;
+    private final SuggestionsService suggestionsService;
     private final ElecteurService electeurService;
+    private final PagesPrecalculeesService pagesPrecalculeesService;
+
+    private static final String PAGE_ACCUEIL = "accueil";
+    private static final String PAGE_DECOUVERTE = "decouverte";
+
+    /** Pages identiques pour tous les visiteurs : construites en tâche de fond puis servies depuis la mémoire */
+    @PostConstruct
+    void enregistrerPagesPrecalculees() {
+        pagesPrecalculeesService.enregistrer(PAGE_ACCUEIL, this::construireAccueil);
+        pagesPrecalculeesService.enregistrer(PAGE_DECOUVERTE, this::construireDecouverte);
+    }
 
     // ==================== PAGE D'ACCUEIL ====================
 
     /**
      * 🏠 Informations d'accueil de la plateforme
      */
-    @GetMapping("/accueil")
+    @GetMapping(value = "/accueil", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Page d'accueil",
-            description = "Obtenir les informations d'accueil de la plateforme")
-    public ResponseEntity<AccueilDTO> obtenirAccueil() {
+            description = "Obtenir les informations d'accueil de la plateforme (AccueilDTO pré-rendu, ETag)")
+    public ResponseEntity<byte[]> obtenirAccueil(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        log.info("🏠 Consultation page d'accueil");
+        log.debug("🏠 Consultation page d'accueil");
 
         try {
-            // Statistiques de base
-            VoteService.StatistiquesVoteDTO statsVote = voteService.obtenirStatistiquesGenerales();
-            List<VoteService.ResultatVoteDTO> topCandidats = voteService.obtenirResultatsVotes()
-                    .stream()
-                    .limit(3)
-                    .toList();
-
-            CampagneService.StatistiquesCampagnesDTO statsCampagnes =
-                    campagneService.obtenirStatistiquesCampagnes();
-
-            AccueilDTO accueil = AccueilDTO.builder()
-                    .titre("Plateforme de Vote Électronique")
-                    .description("Participez à l'élection en toute sécurité et transparence")
-                    .statistiquesGenerales(StatistiquesGeneralesDTO.builder()
-                            .totalElecteurs(statsVote.getTotalElecteurs())
-                            .totalCandidats(statsVote.getTotalCandidats())
-                            .totalVotes(statsVote.getTotalVotes())
-                            .totalCampagnes(statsCampagnes.getTotalCampagnes())
-                            .tauxParticipation(statsVote.getTauxParticipation())
-                            .build())
-                    .topCandidats(topCandidats)
-                    .messageActualite("L'élection est en cours ! Consultez les candidats et votez.")
-                    .horodatage(LocalDate.now())
-                    .versionPlateforme("1.0.0")
-                    .build();
-
-            return ResponseEntity.ok(accueil);
-
+            return ReponsesPrecalculees.servir(pagesPrecalculeesService, PAGE_ACCUEIL, ifNoneMatch, acceptEncoding);
         } catch (Exception e) {
             log.error("💥 Erreur page d'accueil: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    private AccueilDTO construireAccueil() {
+        InstantaneResultatsService.Instantane instantane = instantaneResultatsService.obtenir();
+
+        // Statistiques de base
+        VoteService.StatistiquesVoteDTO statsVote = instantane.statistiquesGenerales();
+        List<VoteService.ResultatVoteDTO> topCandidats = instantane.resultatsVotes()
+                .stream()
+                .limit(3)
+                .toList();
+
+        CampagneService.StatistiquesCampagnesDTO statsCampagnes =
+                campagneService.obtenirStatistiquesCampagnes();
+
+        return AccueilDTO.builder()
+                .titre("Plateforme de Vote Électronique")
+                .description("Participez à l'élection en toute sécurité et transparence")
+                .statistiquesGenerales(StatistiquesGeneralesDTO.builder()
+                        .totalElecteurs(statsVote.getTotalElecteurs())
+                        .totalCandidats(statsVote.getTotalCandidats())
+                        .totalVotes(statsVote.getTotalVotes())
+                        .totalCampagnes(statsCampagnes.getTotalCampagnes())
+                        .tauxParticipation(statsVote.getTauxParticipation())
+                        .build())
+                .topCandidats(topCandidats)
+                .messageActualite("L'élection est en cours ! Consultez les candidats et votez.")
+                .horodatage(LocalDate.now())
+                .versionPlateforme("1.0.0")
+                .build();
+    }
+
     // ==================== STATISTIQUES PUBLIQUES ====================
 
     /**
@@ -84,12 +110,14 @@ public class PublicController {
         log.info("📊 Consultation statistiques publiques");
 
         try {
+            InstantaneResultatsService.Instantane instantane = instantaneResultatsService.obtenir();
+
             // Agrégation de toutes les statistiques
-            VoteService.StatistiquesVoteDTO statsVote = voteService.obtenirStatistiquesGenerales();
+            VoteService.StatistiquesVoteDTO statsVote = instantane.statistiquesGenerales();
             CampagneService.StatistiquesCampagnesDTO statsCampagnes =
                     campagneService.obtenirStatistiquesCampagnes();
             List<CandidatService.StatistiquesCandidatDTO> statsDetaillesCandidats =
-                    candidatService.obtenirStatistiquesDetaillees();
+                    instantane.statistiquesCandidats();
 
             StatistiquesPubliquesDTO stats = StatistiquesPubliquesDTO.builder()
                     .statistiquesVote(statsVote)
@@ -123,14 +151,16 @@ public class PublicController {
         log.info("🏆 Consultation résultats temps réel");
 
         try {
-            List<VoteService.ResultatVoteDTO> resultats = voteService.obtenirResultatsVotes();
-            VoteService.StatistiquesVoteDTO stats = voteService.obtenirStatistiquesGenerales();
+            InstantaneResultatsService.Instantane instantane = instantaneResultatsService.obtenir();
+
+            List<VoteService.ResultatVoteDTO> resultats = instantane.resultatsVotes();
+            VoteService.StatistiquesVoteDTO stats = instantane.statistiquesGenerales();
 
             // Candidat en tête
             VoteService.ResultatVoteDTO candidatEnTete = resultats.isEmpty() ? null : resultats.get(0);
 
             // Progression du vote (dernière heure)
-            List<VoteService.VoteTemporelDTO> progression = voteService.obtenirRepartitionTemporelle();
+            List<VoteService.VoteTemporelDTO> progression = instantane.repartitionTemporelle();
 
             ResultatsTempsReelDTO resultatsTempsReel = ResultatsTempsReelDTO.builder()
                     .resultatsComplets(resultats)
@@ -148,59 +178,91 @@ public class PublicController {
         }
     }
 
+    /**
+     * 📡 Résultats d'une élection en direct (Server-Sent Events)
+     */
+    @GetMapping(value = "/elections/{electionId}/resultats/flux", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Flux des résultats d'une élection",
+            description = "Événement 'instantane' (tous les candidats) à la connexion, puis 'delta' " +
+                    "(candidats dont le compte a changé, total, participation) à chaque tick")
+    public ResponseEntity<SseEmitter> suivreResultatsElection(@PathVariable String electionId) {
+
+        if (diffusionResultatsService.capaciteAtteinte()) {
+            log.warn("📡 Abonnement refusé aux résultats de {} - capacité atteinte", electionId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+
+        try {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                    // Pas de mise en tampon par un proxy nginx
+                    .header("X-Accel-Buffering", "no")
+                    .body(diffusionResultatsService.abonner(electionId));
+
+        } catch (RuntimeException e) {
+            log.warn("❌ Abonnement aux résultats de {} refusé: {}", electionId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // ==================== DÉCOUVERTE DE CANDIDATS ====================
 
     /**
      * 🎯 Découverte de candidats et campagnes
      */
-    @GetMapping("/decouverte")
+    @GetMapping(value = "/decouverte", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Découverte candidats",
-            description = "Découvrir des candidats et leurs campagnes")
-    public ResponseEntity<DecouverteDTO> obtenirDecouverte() {
+            description = "Découvrir des candidats et leurs campagnes (DecouverteDTO pré-rendu, ETag)")
+    public ResponseEntity<byte[]> obtenirDecouverte(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        log.info("🎯 Service de découverte");
+        log.debug("🎯 Service de découverte");
 
         try {
-            // Candidats avec le plus de campagnes
-            List<CandidatService.StatistiquesCandidatDTO> candidatsActifs =
-                    candidatService.obtenirStatistiquesDetaillees()
-                            .stream()
-                            .filter(c -> c.getNombreCampagnes() > 0)
-                            .limit(5)
-                            .toList();
-
-            // Campagnes récentes avec photos
-            List<CampagneService.CampagneAvecCandidatDTO> campagnesRecentes =
-                    campagneService.obtenirCampagnesAvecCandidats()
-                            .stream()
-                            .filter(c -> c.getCampagne().getPhoto() != null)
-                            .limit(6)
-                            .toList();
-
-            // Candidats en progression (basé sur les votes)
-            List<CandidatService.CandidatAvecVotesDTO> candidatsEnProgression =
-                    candidatService.obtenirClassementCandidats()
-                            .stream()
-                            .filter(c -> c.getNombreVotes() > 0)
-                            .limit(4)
-                            .toList();
-
-            DecouverteDTO decouverte = DecouverteDTO.builder()
-                    .candidatsActifs(candidatsActifs)
-                    .campagnesEnVedette(campagnesRecentes)
-                    .candidatsEnProgression(candidatsEnProgression)
-                    .conseilDuJour("Explorez les campagnes pour mieux connaître les candidats avant de voter !")
-                    .motsClesPopulaires(List.of("économie", "environnement", "éducation", "santé", "sécurité"))
-                    .build();
-
-            return ResponseEntity.ok(decouverte);
-
+            return ReponsesPrecalculees.servir(pagesPrecalculeesService, PAGE_DECOUVERTE, ifNoneMatch, acceptEncoding);
         } catch (Exception e) {
             log.error("💥 Erreur découverte: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    private DecouverteDTO construireDecouverte() {
+        // Candidats avec le plus de campagnes
+        List<CandidatService.StatistiquesCandidatDTO> candidatsActifs =
+                instantaneResultatsService.obtenir().statistiquesCandidats()
+                        .stream()
+                        .filter(c -> c.getNombreCampagnes() > 0)
+                        .limit(5)
+                        .toList();
+
+        // Campagnes récentes avec photos
+        List<CampagneService.CampagneAvecCandidatDTO> campagnesRecentes =
+                campagneService.obtenirCampagnesAvecCandidats()
+                        .stream()
+                        .filter(c -> c.getCampagne().getPhoto() != null)
+                        .limit(6)
+                        .toList();
+
+        // Candidats en progression (basé sur les votes)
+        List<CandidatService.CandidatAvecVotesDTO> candidatsEnProgression =
+                candidatService.obtenirClassementCandidats()
+                        .stream()
+                        .filter(c -> c.getNombreVotes() > 0)
+                        .limit(4)
+                        .toList();
+
+        return DecouverteDTO.builder()
+                .candidatsActifs(candidatsActifs)
+                .campagnesEnVedette(campagnesRecentes)
+                .candidatsEnProgression(candidatsEnProgression)
+                .conseilDuJour("Explorez les campagnes pour mieux connaître les candidats avant de voter !")
+                .motsClesPopulaires(List.of("économie", "environnement", "éducation", "santé", "sécurité"))
+                .build();
+    }
+
     // ==================== INFORMATIONS SYSTÈME ====================
 
     /**
@@ -262,11 +324,15 @@ public class PublicController {
             // Recherche dans les campagnes
             var campagnesTrouvees = campagneService.rechercherCampagnesParMotCle(terme);
 
+            // Recherche dans les élections
+            var electionsTrouvees = electionService.rechercherElections(terme);
+
             ResultatsRechercheDTO resultats = ResultatsRechercheDTO.builder()
                     .termeRecherche(terme)
                     .candidatsTrouves(candidatsTrouves)
                     .campagnesTrouvees(campagnesTrouvees)
-                    .nombreTotal(candidatsTrouves.size() + campagnesTrouvees.size())
+                    .electionsTrouvees(electionsTrouvees)
+                    .nombreTotal(candidatsTrouves.size() + campagnesTrouvees.size() + electionsTrouvees.size())
                     .suggestions(genererSuggestions(terme))
                     .horodatage(LocalDate.now())
                     .build();
@@ -281,16 +347,39 @@ public class PublicController {
     }
 
     /**
-     * 💡 Générer suggestions de recherche
+     * 💡 Générer suggestions de recherche (noms et titres les plus suivis commençant par le terme)
      */
     private List<String> genererSuggestions(String terme) {
-        // Suggestions basiques (à améliorer avec un moteur de recherche)
-        return List.of(
-                terme + " campagne",
-                terme + " programme",
-                "candidat " + terme,
-                terme + " politique"
-        );
+        return Stream.concat(
+                        suggestionsService.suggererCandidats(terme, 5).stream(),
+                        suggestionsService.suggererElections(terme, 5).stream())
+                .map(TrieSuggestions.Suggestion::libelle)
+                .toList();
+    }
+
+    /**
+     * 🔤 Autocomplétion des noms de candidats et des titres d'élection
+     */
+    @GetMapping("/suggestions")
+    @Operation(summary = "Suggestions de saisie",
+            description = "Candidats et élections dont un mot commence par le préfixe, les plus votés d'abord")
+    public ResponseEntity<SuggestionsDTO> obtenirSuggestions(
+            @RequestParam String prefixe,
+            @RequestParam(required = false) IndexRechercheService.TypeContenu type,
+            @RequestParam(defaultValue = "10") int limite) {
+
+        if (type == IndexRechercheService.TypeContenu.CAMPAGNE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<TrieSuggestions.Suggestion> candidats = type == null || type == IndexRechercheService.TypeContenu.CANDIDAT
+                ? suggestionsService.suggererCandidats(prefixe, limite)
+                : List.of();
+        List<TrieSuggestions.Suggestion> elections = type == null || type == IndexRechercheService.TypeContenu.ELECTION
+                ? suggestionsService.suggererElections(prefixe, limite)
+                : List.of();
+
+        return ResponseEntity.ok(new SuggestionsDTO(prefixe, candidats, elections));
     }
 
     // ==================== FLUX D'ACTUALITÉS ====================
@@ -458,6 +547,12 @@ public class PublicController {
         private String conformite;
     }
 
+    /** Listes servies telles quelles depuis les arbres de suggestions */
+    public record SuggestionsDTO(String prefixe,
+                                 List<TrieSuggestions.Suggestion> candidats,
+                                 List<TrieSuggestions.Suggestion> elections) {
+    }
+
     @lombok.Data
     @lombok.Builder
     @lombok.NoArgsConstructor
@@ -466,6 +561,7 @@ public class PublicController {
         private String termeRecherche;
         private List<com.personnal.electronicvoting.dto.CandidatDTO> candidatsTrouves;
         private List<com.personnal.electronicvoting.dto.CampagneDTO> campagnesTrouvees;
+        private List<com.personnal.electronicvoting.dto.ElectionSummaryDTO> electionsTrouvees;
         private int nombreTotal;
         private List<String> suggestions;
         private LocalDate horodatage;
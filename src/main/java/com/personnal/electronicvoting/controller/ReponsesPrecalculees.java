@@ -0,0 +1,64 @@
+package com.personnal.electronicvoting.controller;
+
+import com.personnal.electronicvoting.service.PagesPrecalculeesService;
+import com.personnal.electronicvoting.util.EnTetesConditionnels;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🖨️ Réponse HTTP d'une page pré-rendue : octets servis tels quels, gzip si le client l'accepte,
+ * 304 si l'ETag envoyé dans If-None-Match correspond.
+ */
+final class ReponsesPrecalculees {
+
+    private ReponsesPrecalculees() {
+    }
+
+    static ResponseEntity<byte[]> servir(PagesPrecalculeesService pagesPrecalculeesService, String cle,
+                                         String ifNoneMatch, String acceptEncoding) {
+        PagesPrecalculeesService.PageRendue page = pagesPrecalculeesService.obtenir(cle);
+        boolean gzip = accepteGzip(acceptEncoding);
+        String etag = gzip ? page.etagGzip() : page.etag();
+        CacheControl cacheControl = CacheControl.maxAge(pagesPrecalculeesService.cacheMaxAgeSecondes(), TimeUnit.SECONDS)
+                .cachePublic();
+
+        if (EnTetesConditionnels.correspond(ifNoneMatch, etag)) {
+            pagesPrecalculeesService.compterReponse(true, gzip);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        pagesPrecalculeesService.compterReponse(false, gzip);
+        ResponseEntity.BodyBuilder reponse = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            reponse.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        byte[] corps = gzip ? page.gzip() : page.json();
+        return reponse.contentLength(corps.length).body(corps);
+    }
+
+    static boolean accepteGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codage : acceptEncoding.split(",")) {
+            String[] parties = codage.trim().split(";");
+            if (parties[0].trim().equalsIgnoreCase("gzip")) {
+                return parties.length == 1 || !parties[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -1,19 +1,36 @@
 package com.personnal.electronicvoting.controller;
 
 import com.personnal.electronicvoting.service.*;
+import com.personnal.electronicvoting.util.FormatCsv;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -22,12 +39,15 @@ import java.util.List;
 @Tag(name = "Rapports", description = "APIs de génération de rapports")
 public class ReportsController {
 
-    private final VoteService voteService;
-    private final CandidatService candidatService;
+    private final InstantaneResultatsService instantaneResultatsService;
+    private final SerieTemporelleVotesService serieTemporelleVotesService;
     private final CampagneService campagneService;
     private final ElecteurService electeurService;
     private final AdministrateurService administrateurService;
     private final AuthService authService;
+    private final TravauxRapportsService travauxRapportsService;
+    private final CompteurVotesService compteurVotesService;
+    private final VersionsDonneesService versionsDonneesService;
 
     // ==================== MIDDLEWARE SÉCURITÉ ====================
 
@@ -38,6 +58,140 @@ public class ReportsController {
         }
     }
 
+    // ==================== RAPPORTS ASYNCHRONES ====================
+
+    @PostConstruct
+    void enregistrerRapports() {
+        // Rapports de votes : artefact valable tant que l'époque du décompte ne change pas, construit
+        // depuis un instantané au moins aussi récent que cette époque (jamais un instantané en retard)
+        LongSupplier epoqueVotes = compteurVotesService::epoque;
+        // Participation et exécutif comptent aussi les électeurs, dont les écritures n'avancent pas
+        // l'époque : somme de deux compteurs croissants, qui change dès que l'un des deux change
+        LongSupplier epoqueVotesEtElecteurs = () -> compteurVotesService.epoque()
+                + versionsDonneesService.version(VersionsDonneesService.Table.ELECTEURS);
+        travauxRapportsService.enregistrer("resultats", epoqueVotes,
+                () -> construireRapportResultats(instantaneAJour()),
+                csv -> ecrireCSVResultats(csv, instantaneAJour()));
+        travauxRapportsService.enregistrer("participation", epoqueVotesEtElecteurs,
+                () -> construireRapportParticipation(instantaneAJour()),
+                csv -> ecrireCSVParticipation(csv, instantaneAJour()));
+        travauxRapportsService.enregistrer("candidats", epoqueVotes,
+                () -> construireRapportCandidats(instantaneAJour()),
+                csv -> ecrireCSVCandidats(csv, instantaneAJour()));
+        travauxRapportsService.enregistrer("executif", epoqueVotesEtElecteurs,
+                () -> construireRapportExecutif(instantaneAJour()), null);
+        travauxRapportsService.enregistrer("campagnes",
+                () -> versionsDonneesService.version(VersionsDonneesService.Table.CAMPAGNES),
+                this::construireRapportCampagnes, this::ecrireCSVCampagnes);
+    }
+
+    /** Instantané d'époque au moins égale à l'époque courante, lue après la version de l'artefact */
+    private InstantaneResultatsService.Instantane instantaneAJour() {
+        return instantaneResultatsService.obtenirAEpoque(compteurVotesService.epoque());
+    }
+
+    /**
+     * 🗂️ Soumettre la génération d'un rapport en tâche de fond
+     */
+    @PostMapping("/travaux")
+    @Operation(summary = "Soumettre un rapport",
+            description = "Générer un rapport en tâche de fond (resultats, participation, candidats, campagnes, executif) ; " +
+                    "l'artefact existant est réutilisé si les données n'ont pas changé")
+    public ResponseEntity<TravauxRapportsService.TravailDTO> soumettreRapport(
+            @RequestHeader("Authorization") String token,
+            @RequestParam String type,
+            @RequestParam(defaultValue = "JSON") TravauxRapportsService.FormatRapport format) {
+
+        log.info("🗂️ Soumission rapport - Type: {}, format: {}", type, format);
+
+        try {
+            verifierTokenAdmin(token);
+        } catch (RuntimeException e) {
+            log.warn("❌ Soumission rapport refusée: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            TravauxRapportsService.TravailDTO travail = travauxRapportsService.soumettre(type.toLowerCase(), format);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/reports/travaux/" + travail.getId()))
+                    .body(travail);
+
+        } catch (RejectedExecutionException e) {
+            log.warn("⏳ File des rapports pleine, soumission refusée");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        } catch (RuntimeException e) {
+            log.warn("❌ Soumission rapport invalide: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 🗂️ Statut d'un rapport soumis
+     */
+    @GetMapping("/travaux/{travailId}")
+    @Operation(summary = "Statut d'un rapport",
+            description = "EN_ATTENTE, EN_COURS, TERMINE ou ECHEC")
+    public ResponseEntity<TravauxRapportsService.TravailDTO> obtenirTravail(
+            @RequestHeader("Authorization") String token,
+            @PathVariable String travailId) {
+
+        try {
+            verifierTokenAdmin(token);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return travauxRapportsService.obtenir(travailId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 📄 Télécharger l'artefact d'un rapport terminé
+     */
+    @GetMapping("/travaux/{travailId}/artefact")
+    @Operation(summary = "Télécharger un rapport",
+            description = "Fichier JSON ou CSV d'un rapport terminé (409 s'il n'est pas encore prêt)")
+    public ResponseEntity<Resource> telechargerArtefact(
+            @RequestHeader("Authorization") String token,
+            @PathVariable String travailId) {
+
+        try {
+            verifierTokenAdmin(token);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            TravauxRapportsService.TravailDTO travail = travauxRapportsService.obtenir(travailId)
+                    .orElseThrow(() -> new NoSuchElementException("Travail de rapport non trouvé: " + travailId));
+            return servirArtefact(travauxRapportsService.artefact(travailId), travail.getType(), travail.getFormat());
+
+        } catch (NoSuchElementException e) {
+            log.warn("❌ Artefact indisponible: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    private ResponseEntity<Resource> servirArtefact(Path fichier, String type,
+                                                    TravauxRapportsService.FormatRapport format) {
+        String filename = String.format("rapport_%s_%s.%s",
+                type, LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), format.extension());
+        MediaType contentType = format == TravauxRapportsService.FormatRapport.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_JSON;
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(contentType)
+                .body(new FileSystemResource(fichier));
+    }
+
     // ==================== RAPPORTS ÉLECTORAUX ====================
 
     /**
@@ -53,33 +207,7 @@ public class ReportsController {
 
         try {
             verifierTokenAdmin(token);
-
-            // Données principales
-            List<VoteService.ResultatVoteDTO> resultats = voteService.obtenirResultatsVotes();
-            VoteService.StatistiquesVoteDTO stats = voteService.obtenirStatistiquesGenerales();
-            List<VoteService.VoteTemporelDTO> analyseTemporelle =
-                    voteService.obtenirRepartitionTemporelle();
-
-            // Analyses approfondies
-            AnalyseResultatsDTO analyse = effectuerAnalyseResultats(resultats, stats);
-
-            RapportResultatsDTO rapport = RapportResultatsDTO.builder()
-                    .metadonnees(MetadonneesRapportDTO.builder()
-                            .titre("Rapport Complet des Résultats")
-                            .dateGeneration(LocalDate.now())
-                            .auteur("Système Electoral")
-                            .version("1.0")
-                            .statut("FINAL")
-                            .build())
-                    .resumeExecutif(genererResumeExecutifResultats(resultats, stats))
-                    .resultatsDetailles(resultats)
-                    .statistiquesGlobales(stats)
-                    .analyseTemporelle(analyseTemporelle)
-                    .analysesApprofondies(analyse)
-                    .conclusions(genererConclusions(resultats, stats))
-                    .build();
-
-            return ResponseEntity.ok(rapport);
+            return ResponseEntity.ok(construireRapportResultats(instantaneResultatsService.obtenir()));
 
         } catch (RuntimeException e) {
             log.warn("❌ Erreur génération rapport: {}", e.getMessage());
@@ -90,6 +218,34 @@ public class ReportsController {
         }
     }
 
+    private RapportResultatsDTO construireRapportResultats(InstantaneResultatsService.Instantane instantane) {
+
+        // Données principales
+        List<VoteService.ResultatVoteDTO> resultats = instantane.resultatsVotes();
+        VoteService.StatistiquesVoteDTO stats = instantane.statistiquesGenerales();
+        List<VoteService.VoteTemporelDTO> analyseTemporelle =
+                instantane.repartitionTemporelle();
+
+        // Analyses approfondies
+        AnalyseResultatsDTO analyse = effectuerAnalyseResultats(resultats, stats);
+
+        return RapportResultatsDTO.builder()
+                .metadonnees(MetadonneesRapportDTO.builder()
+                        .titre("Rapport Complet des Résultats")
+                        .dateGeneration(LocalDate.now())
+                        .auteur("Système Electoral")
+                        .version("1.0")
+                        .statut("FINAL")
+                        .build())
+                .resumeExecutif(genererResumeExecutifResultats(resultats, stats))
+                .resultatsDetailles(resultats)
+                .statistiquesGlobales(stats)
+                .analyseTemporelle(analyseTemporelle)
+                .analysesApprofondies(analyse)
+                .conclusions(genererConclusions(resultats, stats))
+                .build();
+    }
+
     /**
      * 👥 Rapport de participation
      */
@@ -103,38 +259,7 @@ public class ReportsController {
 
         try {
             verifierTokenAdmin(token);
-
-            AdministrateurService.StatistiquesAdminDTO statsAdmin =
-                    administrateurService.obtenirStatistiques();
-            VoteService.StatistiquesVoteDTO statsVote = voteService.obtenirStatistiquesGenerales();
-
-            // Analyse démographique (simplifiée)
-            AnalyseDemographiqueDTO analyseDemographique =
-                    effectuerAnalyseDemographique(statsAdmin);
-
-            // Évolution de la participation
-            List<VoteService.VoteTemporelDTO> evolutionParticipation =
-                    voteService.obtenirRepartitionTemporelle();
-
-            RapportParticipationDTO rapport = RapportParticipationDTO.builder()
-                    .metadonnees(MetadonneesRapportDTO.builder()
-                            .titre("Rapport de Participation")
-                            .dateGeneration(LocalDate.now())
-                            .auteur("Système Electoral")
-                            .version("1.0")
-                            .statut("PROVISOIRE")
-                            .build())
-                    .tauxParticipationGlobal(statsVote.getTauxParticipation())
-                    .nombreElecteursInscrits(statsAdmin.getTotalElecteurs())
-                    .nombreVotants(statsAdmin.getElecteursAyantVote())
-                    .analyseDemographique(analyseDemographique)
-                    .evolutionTemporelle(evolutionParticipation)
-                    .comparaisonObjectifs(genererComparaisonObjectifs(statsVote.getTauxParticipation()))
-                    .facteurstParticipation(analyserFacteursParticipation())
-                    .recommendations(genererRecommandationsParticipation(statsVote))
-                    .build();
-
-            return ResponseEntity.ok(rapport);
+            return ResponseEntity.ok(construireRapportParticipation(instantaneResultatsService.obtenir()));
 
         } catch (RuntimeException e) {
             log.warn("❌ Erreur rapport participation: {}", e.getMessage());
@@ -145,6 +270,45 @@ public class ReportsController {
         }
     }
 
+    private RapportParticipationDTO construireRapportParticipation(InstantaneResultatsService.Instantane instantane) {
+
+        AdministrateurService.StatistiquesAdminDTO statsAdmin =
+                administrateurService.obtenirStatistiques();
+        VoteService.StatistiquesVoteDTO statsVote = instantane.statistiquesGenerales();
+
+        // Analyse démographique (simplifiée)
+        AnalyseDemographiqueDTO analyseDemographique =
+                effectuerAnalyseDemographique(statsAdmin);
+
+        // Évolution de la participation
+        List<VoteService.VoteTemporelDTO> evolutionParticipation =
+                instantane.repartitionTemporelle();
+
+        // Affluence heure par heure sur les dernières 24 heures
+        LocalDateTime maintenant = LocalDateTime.now();
+        SerieTemporelleVotesService.SerieTemporelleDTO affluenceHoraire = serieTemporelleVotesService.obtenirSerie(
+                null, SerieTemporelleVotesService.Resolution.HEURE, maintenant.minusHours(23), maintenant);
+
+        return RapportParticipationDTO.builder()
+                .metadonnees(MetadonneesRapportDTO.builder()
+                        .titre("Rapport de Participation")
+                        .dateGeneration(LocalDate.now())
+                        .auteur("Système Electoral")
+                        .version("1.0")
+                        .statut("PROVISOIRE")
+                        .build())
+                .tauxParticipationGlobal(statsVote.getTauxParticipation())
+                .nombreElecteursInscrits(statsAdmin.getTotalElecteurs())
+                .nombreVotants(statsAdmin.getElecteursAyantVote())
+                .analyseDemographique(analyseDemographique)
+                .evolutionTemporelle(evolutionParticipation)
+                .affluenceHoraire(affluenceHoraire.getPoints())
+                .comparaisonObjectifs(genererComparaisonObjectifs(statsVote.getTauxParticipation()))
+                .facteurstParticipation(analyserFacteursParticipation())
+                .recommendations(genererRecommandationsParticipation(statsVote))
+                .build();
+    }
+
     // ==================== RAPPORTS CANDIDATS ====================
 
     /**
@@ -160,34 +324,7 @@ public class ReportsController {
 
         try {
             verifierTokenAdmin(token);
-
-            List<CandidatService.StatistiquesCandidatDTO> statsCandidats =
-                    candidatService.obtenirStatistiquesDetaillees();
-            List<VoteService.ResultatVoteDTO> resultats = voteService.obtenirResultatsVotes();
-
-            // Analyses spécialisées
-            AnalyseConcurrenceDTO analyseConcurrence = effectuerAnalyseConcurrence(resultats);
-            AnalysePerformanceDTO analysePerformance =
-                    effectuerAnalysePerformance(statsCandidats);
-
-            RapportCandidatsDTO rapport = RapportCandidatsDTO.builder()
-                    .metadonnees(MetadonneesRapportDTO.builder()
-                            .titre("Rapport d'Analyse des Candidats")
-                            .dateGeneration(LocalDate.now())
-                            .auteur("Système Electoral")
-                            .version("1.0")
-                            .statut("ANALYSE")
-                            .build())
-                    .nombreTotalCandidats(statsCandidats.size())
-                    .statistiquesIndividuelles(statsCandidats)
-                    .classementGeneral(resultats)
-                    .analyseConcurrence(analyseConcurrence)
-                    .analysePerformance(analysePerformance)
-                    .tendancesObservees(identifierTendancesCandidats(statsCandidats))
-                    .profilsTypes(genererProfilsTypesCandidats(statsCandidats))
-                    .build();
-
-            return ResponseEntity.ok(rapport);
+            return ResponseEntity.ok(construireRapportCandidats(instantaneResultatsService.obtenir()));
 
         } catch (RuntimeException e) {
             log.warn("❌ Erreur rapport candidats: {}", e.getMessage());
@@ -198,6 +335,35 @@ public class ReportsController {
         }
     }
 
+    private RapportCandidatsDTO construireRapportCandidats(InstantaneResultatsService.Instantane instantane) {
+
+        List<CandidatService.StatistiquesCandidatDTO> statsCandidats =
+                instantane.statistiquesCandidats();
+        List<VoteService.ResultatVoteDTO> resultats = instantane.resultatsVotes();
+
+        // Analyses spécialisées
+        AnalyseConcurrenceDTO analyseConcurrence = effectuerAnalyseConcurrence(resultats);
+        AnalysePerformanceDTO analysePerformance =
+                effectuerAnalysePerformance(statsCandidats);
+
+        return RapportCandidatsDTO.builder()
+                .metadonnees(MetadonneesRapportDTO.builder()
+                        .titre("Rapport d'Analyse des Candidats")
+                        .dateGeneration(LocalDate.now())
+                        .auteur("Système Electoral")
+                        .version("1.0")
+                        .statut("ANALYSE")
+                        .build())
+                .nombreTotalCandidats(statsCandidats.size())
+                .statistiquesIndividuelles(statsCandidats)
+                .classementGeneral(resultats)
+                .analyseConcurrence(analyseConcurrence)
+                .analysePerformance(analysePerformance)
+                .tendancesObservees(identifierTendancesCandidats(statsCandidats))
+                .profilsTypes(genererProfilsTypesCandidats(statsCandidats))
+                .build();
+    }
+
     // ==================== RAPPORTS CAMPAGNES ====================
 
     /**
@@ -213,32 +379,7 @@ public class ReportsController {
 
         try {
             verifierTokenAdmin(token);
-
-            CampagneService.StatistiquesCampagnesDTO statsCampagnes =
-                    campagneService.obtenirStatistiquesCampagnes();
-            List<CampagneService.RepartitionCampagnesDTO> repartition =
-                    campagneService.obtenirRepartitionParCandidat();
-
-            // Analyse d'efficacité
-            AnalyseEfficaciteCampagnesDTO analyseEfficacite =
-                    effectuerAnalyseEfficaciteCampagnes(repartition);
-
-            RapportCampagnesDTO rapport = RapportCampagnesDTO.builder()
-                    .metadonnees(MetadonneesRapportDTO.builder()
-                            .titre("Rapport d'Efficacité des Campagnes")
-                            .dateGeneration(LocalDate.now())
-                            .auteur("Système Electoral")
-                            .version("1.0")
-                            .statut("ANALYSE")
-                            .build())
-                    .statistiquesGlobales(statsCampagnes)
-                    .repartitionParCandidat(repartition)
-                    .analyseEfficacite(analyseEfficacite)
-                    .meilleuresPratiques(identifierMeilleuresPratiques(repartition))
-                    .recommandationsAmelioration(genererRecommandationsCampagnes())
-                    .build();
-
-            return ResponseEntity.ok(rapport);
+            return ResponseEntity.ok(construireRapportCampagnes());
 
         } catch (RuntimeException e) {
             log.warn("❌ Erreur rapport campagnes: {}", e.getMessage());
@@ -249,15 +390,41 @@ public class ReportsController {
         }
     }
 
+    private RapportCampagnesDTO construireRapportCampagnes() {
+        CampagneService.StatistiquesCampagnesDTO statsCampagnes =
+                campagneService.obtenirStatistiquesCampagnes();
+        List<CampagneService.RepartitionCampagnesDTO> repartition =
+                campagneService.obtenirRepartitionParCandidat();
+
+        // Analyse d'efficacité
+        AnalyseEfficaciteCampagnesDTO analyseEfficacite =
+                effectuerAnalyseEfficaciteCampagnes(repartition);
+
+        return RapportCampagnesDTO.builder()
+                .metadonnees(MetadonneesRapportDTO.builder()
+                        .titre("Rapport d'Efficacité des Campagnes")
+                        .dateGeneration(LocalDate.now())
+                        .auteur("Système Electoral")
+                        .version("1.0")
+                        .statut("ANALYSE")
+                        .build())
+                .statistiquesGlobales(statsCampagnes)
+                .repartitionParCandidat(repartition)
+                .analyseEfficacite(analyseEfficacite)
+                .meilleuresPratiques(identifierMeilleuresPratiques(repartition))
+                .recommandationsAmelioration(genererRecommandationsCampagnes())
+                .build();
+    }
+
     // ==================== EXPORT FORMATS ====================
 
     /**
-     * 📄 Export rapport en CSV
+     * 📄 Export rapport en CSV (fichier déjà généré servi tel quel si les données n'ont pas changé)
      */
     @GetMapping("/export/csv/{typeRapport}")
     @Operation(summary = "Export CSV",
             description = "Exporter un rapport au format CSV")
-    public ResponseEntity<String> exporterRapportCSV(
+    public ResponseEntity<?> exporterRapportCSV(
             @RequestHeader("Authorization") String token,
             @PathVariable String typeRapport) {
 
@@ -266,13 +433,20 @@ public class ReportsController {
         try {
             verifierTokenAdmin(token);
 
-            String csvContent = switch (typeRapport.toLowerCase()) {
-                case "resultats" -> genererCSVResultats();
-                case "participation" -> genererCSVParticipation();
-                case "candidats" -> genererCSVCandidats();
-                case "campagnes" -> genererCSVCampagnes();
+            String type = typeRapport.toLowerCase();
+            Optional<Path> artefact = travauxRapportsService.artefactCourant(type, TravauxRapportsService.FormatRapport.CSV);
+            if (artefact.isPresent()) {
+                return servirArtefact(artefact.get(), type, TravauxRapportsService.FormatRapport.CSV);
+            }
+
+            StringWriter csvContent = new StringWriter();
+            switch (type) {
+                case "resultats" -> ecrireCSVResultats(csvContent, instantaneResultatsService.obtenir());
+                case "participation" -> ecrireCSVParticipation(csvContent, instantaneResultatsService.obtenir());
+                case "candidats" -> ecrireCSVCandidats(csvContent, instantaneResultatsService.obtenir());
+                case "campagnes" -> ecrireCSVCampagnes(csvContent);
                 default -> throw new RuntimeException("Type de rapport non supporté: " + typeRapport);
-            };
+            }
 
             String filename = String.format("rapport_%s_%s.csv",
                     typeRapport,
@@ -281,7 +455,7 @@ public class ReportsController {
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                     .contentType(MediaType.TEXT_PLAIN)
-                    .body(csvContent);
+                    .body(csvContent.toString());
 
         } catch (RuntimeException e) {
             log.warn("❌ Erreur export CSV: {}", e.getMessage());
@@ -306,42 +480,7 @@ public class ReportsController {
 
         try {
             verifierTokenAdmin(token);
-
-            // Agrégation de toutes les données
-            VoteService.StatistiquesVoteDTO statsVote = voteService.obtenirStatistiquesGenerales();
-            AdministrateurService.StatistiquesAdminDTO statsAdmin =
-                    administrateurService.obtenirStatistiques();
-            List<VoteService.ResultatVoteDTO> resultats = voteService.obtenirResultatsVotes();
-
-            // Indicateurs clés de performance
-            IndicateursClesToDTO indicateurs = calculerIndicateursClesToutes(
-                    statsVote, statsAdmin, resultats);
-
-            // Synthèse exécutive
-            SyntheseExecutiveDTO synthese = genererSyntheseExecutive(
-                    statsVote, statsAdmin, resultats);
-
-            // Risques et opportunités
-            AnalyseRisquesOpportunitesDTO risquesOpportunites =
-                    analyserRisquesOpportunites(statsVote, resultats);
-
-            RapportExecutifDTO rapport = RapportExecutifDTO.builder()
-                    .metadonnees(MetadonneesRapportDTO.builder()
-                            .titre("Rapport Exécutif - Élection")
-                            .dateGeneration(LocalDate.now())
-                            .auteur("Direction Electoral")
-                            .version("1.0")
-                            .statut("CONFIDENTIEL")
-                            .build())
-                    .syntheseExecutive(synthese)
-                    .indicateursClesToutes(indicateurs)
-                    .principauxResultats(resultats.stream().limit(3).toList())
-                    .risquesOpportunites(risquesOpportunites)
-                    .recommandationsStrategiques(genererRecommandationsStrategiques())
-                    .prochainesEtapes(genererProchainesTops())
-                    .build();
-
-            return ResponseEntity.ok(rapport);
+            return ResponseEntity.ok(construireRapportExecutif(instantaneResultatsService.obtenir()));
 
         } catch (RuntimeException e) {
             log.warn("❌ Erreur rapport exécutif: {}", e.getMessage());
@@ -352,6 +491,43 @@ public class ReportsController {
         }
     }
 
+    private RapportExecutifDTO construireRapportExecutif(InstantaneResultatsService.Instantane instantane) {
+
+        // Agrégation de toutes les données
+        VoteService.StatistiquesVoteDTO statsVote = instantane.statistiquesGenerales();
+        AdministrateurService.StatistiquesAdminDTO statsAdmin =
+                administrateurService.obtenirStatistiques();
+        List<VoteService.ResultatVoteDTO> resultats = instantane.resultatsVotes();
+
+        // Indicateurs clés de performance
+        IndicateursClesToDTO indicateurs = calculerIndicateursClesToutes(
+                statsVote, statsAdmin, resultats);
+
+        // Synthèse exécutive
+        SyntheseExecutiveDTO synthese = genererSyntheseExecutive(
+                statsVote, statsAdmin, resultats);
+
+        // Risques et opportunités
+        AnalyseRisquesOpportunitesDTO risquesOpportunites =
+                analyserRisquesOpportunites(statsVote, resultats);
+
+        return RapportExecutifDTO.builder()
+                .metadonnees(MetadonneesRapportDTO.builder()
+                        .titre("Rapport Exécutif - Élection")
+                        .dateGeneration(LocalDate.now())
+                        .auteur("Direction Electoral")
+                        .version("1.0")
+                        .statut("CONFIDENTIEL")
+                        .build())
+                .syntheseExecutive(synthese)
+                .indicateursClesToutes(indicateurs)
+                .principauxResultats(resultats.stream().limit(3).toList())
+                .risquesOpportunites(risquesOpportunites)
+                .recommandationsStrategiques(genererRecommandationsStrategiques())
+                .prochainesEtapes(genererProchainesTops())
+                .build();
+    }
+
     // ==================== MÉTHODES UTILITAIRES ====================
 
     private AnalyseResultatsDTO effectuerAnalyseResultats(
@@ -411,82 +587,61 @@ public class ReportsController {
         return conclusions;
     }
 
-    // Méthodes de génération CSV
-    private String genererCSVResultats() {
-        try {
-            List<VoteService.ResultatVoteDTO> resultats = voteService.obtenirResultatsVotes();
-            StringBuilder csv = new StringBuilder();
-            csv.append("Rang,Candidat,Votes,Pourcentage\n");
-
-            for (VoteService.ResultatVoteDTO resultat : resultats) {
-                csv.append(String.format("%d,%s,%d,%.2f\n",
-                        resultat.getRang(),
-                        resultat.getCandidat().getUsername(),
-                        resultat.getNombreVotes(),
-                        resultat.getPourcentageVotes()));
-            }
-
-            return csv.toString();
-        } catch (Exception e) {
-            log.error("Erreur génération CSV résultats: {}", e.getMessage());
-            return "Erreur lors de la génération du CSV";
+    // Méthodes de génération CSV (écrites ligne à ligne, décimales au point quelle que soit la locale)
+    private void ecrireCSVResultats(Writer csv, InstantaneResultatsService.Instantane instantane) throws IOException {
+        List<VoteService.ResultatVoteDTO> resultats = instantane.resultatsVotes();
+        csv.write("Rang,Candidat,Votes,Pourcentage\n");
+
+        for (VoteService.ResultatVoteDTO resultat : resultats) {
+            csv.write(String.valueOf(resultat.getRang()));
+            csv.write(',');
+            csv.write(FormatCsv.champ(resultat.getCandidat().getUsername()));
+            csv.write(',');
+            csv.write(String.valueOf(resultat.getNombreVotes()));
+            csv.write(',');
+            csv.write(decimal(resultat.getPourcentageVotes()));
+            csv.write('\n');
         }
     }
 
-    private String genererCSVParticipation() {
-        try {
-            VoteService.StatistiquesVoteDTO stats = voteService.obtenirStatistiquesGenerales();
-            StringBuilder csv = new StringBuilder();
-            csv.append("Métrique,Valeur\n");
-            csv.append(String.format("Total Électeurs,%d\n", stats.getTotalElecteurs()));
-            csv.append(String.format("Électeurs ayant voté,%d\n", stats.getElecteursAyantVote()));
-            csv.append(String.format("Taux de participation,%.2f%%\n", stats.getTauxParticipation()));
-
-            return csv.toString();
-        } catch (Exception e) {
-            log.error("Erreur génération CSV participation: {}", e.getMessage());
-            return "Erreur lors de la génération du CSV";
+    private void ecrireCSVParticipation(Writer csv, InstantaneResultatsService.Instantane instantane) throws IOException {
+        VoteService.StatistiquesVoteDTO stats = instantane.statistiquesGenerales();
+        csv.write("Métrique,Valeur\n");
+        csv.write("Total Électeurs," + stats.getTotalElecteurs() + "\n");
+        csv.write("Électeurs ayant voté," + stats.getElecteursAyantVote() + "\n");
+        csv.write("Taux de participation," + decimal(stats.getTauxParticipation()) + "%\n");
+    }
+
+    private void ecrireCSVCandidats(Writer csv, InstantaneResultatsService.Instantane instantane) throws IOException {
+        List<CandidatService.StatistiquesCandidatDTO> stats =
+                instantane.statistiquesCandidats();
+        csv.write("Candidat,Votes,Campagnes,Pourcentage,Rang\n");
+
+        for (CandidatService.StatistiquesCandidatDTO stat : stats) {
+            csv.write(FormatCsv.champ(stat.getNomCandidat()));
+            csv.write(',');
+            csv.write(String.valueOf(stat.getNombreVotes()));
+            csv.write(',');
+            csv.write(String.valueOf(stat.getNombreCampagnes()));
+            csv.write(',');
+            csv.write(decimal(stat.getPourcentageVotes()));
+            csv.write(',');
+            csv.write(String.valueOf(stat.getRang()));
+            csv.write('\n');
         }
     }
 
-    private String genererCSVCandidats() {
-        try {
-            List<CandidatService.StatistiquesCandidatDTO> stats =
-                    candidatService.obtenirStatistiquesDetaillees();
-            StringBuilder csv = new StringBuilder();
-            csv.append("Candidat,Votes,Campagnes,Pourcentage,Rang\n");
-
-            for (CandidatService.StatistiquesCandidatDTO stat : stats) {
-                csv.append(String.format("%s,%d,%d,%.2f,%d\n",
-                        stat.getNomCandidat(),
-                        stat.getNombreVotes(),
-                        stat.getNombreCampagnes(),
-                        stat.getPourcentageVotes(),
-                        stat.getRang()));
-            }
-
-            return csv.toString();
-        } catch (Exception e) {
-            log.error("Erreur génération CSV candidats: {}", e.getMessage());
-            return "Erreur lors de la génération du CSV";
-        }
+    private void ecrireCSVCampagnes(Writer csv) throws IOException {
+        CampagneService.StatistiquesCampagnesDTO stats =
+                campagneService.obtenirStatistiquesCampagnes();
+        csv.write("Métrique,Valeur\n");
+        csv.write("Total Campagnes," + stats.getTotalCampagnes() + "\n");
+        csv.write("Campagnes avec photos," + stats.getCampagnesAvecPhotos() + "\n");
+        csv.write("Candidats avec campagnes," + stats.getCandidatsAvecCampagnes() + "\n");
     }
 
-    private String genererCSVCampagnes() {
-        try {
-            CampagneService.StatistiquesCampagnesDTO stats =
-                    campagneService.obtenirStatistiquesCampagnes();
-            StringBuilder csv = new StringBuilder();
-            csv.append("Métrique,Valeur\n");
-            csv.append(String.format("Total Campagnes,%d\n", stats.getTotalCampagnes()));
-            csv.append(String.format("Campagnes avec photos,%d\n", stats.getCampagnesAvecPhotos()));
-            csv.append(String.format("Candidats avec campagnes,%d\n", stats.getCandidatsAvecCampagnes()));
-
-            return csv.toString();
-        } catch (Exception e) {
-            log.error("Erreur génération CSV campagnes: {}", e.getMessage());
-            return "Erreur lors de la génération du CSV";
-        }
+    private static String decimal(double valeur) {
+        return BigDecimal.valueOf(valeur).setScale(2, RoundingMode.HALF_UP).toPlainString();
     }
 
     // Méthodes d'analyse (simplifiées pour l'exemple)
@@ -711,6 +866,7 @@ public class ReportsController {
         private long nombreVotants;
         private AnalyseDemographiqueDTO analyseDemographique;
         private List<VoteService.VoteTemporelDTO> evolutionTemporelle;
+        private List<SerieTemporelleVotesService.PointSerieDTO> affluenceHoraire;
         private ComparaisonObjectifsDTO comparaisonObjectifs;
         private List<String> facteurstParticipation;
         private List<String> recommendations;
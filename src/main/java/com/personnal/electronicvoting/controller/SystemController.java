@@ -1,5 +1,6 @@
 package com.personnal.electronicvoting.controller;
 
+import com.personnal.electronicvoting.config.RequetesConditionnellesInterceptor;
 import com.personnal.electronicvoting.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,6 +29,20 @@ public class SystemController {
     private final ElecteurService electeurService;
     private final AdministrateurService administrateurService;
     private final AuthService authService;
+    private final IngestionVotesService ingestionVotesService;
+    private final IdempotenceService idempotenceService;
+    private final SurveillanceThreadsService surveillanceThreadsService;
+    private final DiffusionResultatsService diffusionResultatsService;
+    private final CompositionSectionsService compositionSectionsService;
+    private final PagesPrecalculeesService pagesPrecalculeesService;
+    private final VersionsDonneesService versionsDonneesService;
+    private final RequetesConditionnellesInterceptor requetesConditionnellesInterceptor;
+    private final ExportElecteursService exportElecteursService;
+    private final ExportAuditVotesService exportAuditVotesService;
+    private final TravauxRapportsService travauxRapportsService;
+    private final IndexRechercheService indexRechercheService;
+    private final SuggestionsService suggestionsService;
+    private final HachageMotsDePasseService hachageMotsDePasseService;
 
     @Value("${spring.application.name:electronicvoting}")
     private String applicationName;
@@ -136,6 +151,166 @@ public class SystemController {
         }
     }
 
+    /**
+     * 📥 Métriques de l'ingestion des votes par lots
+     */
+    @GetMapping("/metrics/ingestion-votes")
+    @Operation(summary = "Métriques ingestion des votes",
+            description = "Profondeur de file, lots écrits et latence d'écriture de l'ingestion par lots")
+    public ResponseEntity<IngestionVotesService.StatistiquesIngestionDTO> obtenirMetriquesIngestion() {
+
+        log.info("📥 Consultation métriques ingestion des votes");
+        return ResponseEntity.ok(ingestionVotesService.obtenirStatistiques());
+    }
+
+    /**
+     * 🔁 Métriques des clés d'idempotence des votes
+     */
+    @GetMapping("/metrics/idempotence-votes")
+    @Operation(summary = "Métriques idempotence des votes",
+            description = "Clés en mémoire, exécutions et requêtes rejouées (en-tête Idempotency-Key)")
+    public ResponseEntity<IdempotenceService.StatistiquesIdempotenceDTO> obtenirMetriquesIdempotence() {
+
+        log.info("🔁 Consultation métriques idempotence des votes");
+        return ResponseEntity.ok(idempotenceService.obtenirStatistiques());
+    }
+
+    /**
+     * 🧵 Mode d'exécution (threads virtuels ou plateforme) et épinglages détectés
+     */
+    @GetMapping("/metrics/threads")
+    @Operation(summary = "Métriques threads",
+            description = "Mode d'exécution des requêtes et derniers épinglages de threads virtuels")
+    public ResponseEntity<SurveillanceThreadsService.StatistiquesThreadsDTO> obtenirMetriquesThreads() {
+
+        log.info("🧵 Consultation métriques threads");
+        return ResponseEntity.ok(surveillanceThreadsService.obtenirStatistiques());
+    }
+
+    /**
+     * 📡 Métriques de la diffusion des résultats en direct (SSE)
+     */
+    @GetMapping("/metrics/diffusion-resultats")
+    @Operation(summary = "Métriques diffusion des résultats",
+            description = "Canaux, abonnés, lectures des comptes par tick et trames fusionnées (clients lents)")
+    public ResponseEntity<DiffusionResultatsService.StatistiquesDiffusionDTO> obtenirMetriquesDiffusion() {
+
+        log.info("📡 Consultation métriques diffusion des résultats");
+        return ResponseEntity.ok(diffusionResultatsService.obtenirStatistiques());
+    }
+
+    /**
+     * 🧩 Métriques des sections de tableaux de bord calculées en parallèle
+     */
+    @GetMapping("/metrics/sections-tableaux-bord")
+    @Operation(summary = "Métriques sections des tableaux de bord",
+            description = "Sections lancées, hors délai ou en échec, et dégradations par section")
+    public ResponseEntity<CompositionSectionsService.StatistiquesCompositionDTO> obtenirMetriquesSections() {
+
+        log.info("🧩 Consultation métriques sections des tableaux de bord");
+        return ResponseEntity.ok(compositionSectionsService.obtenirStatistiques());
+    }
+
+    /**
+     * 🖨️ Métriques des pages publiques pré-rendues
+     */
+    @GetMapping("/metrics/pages-publiques")
+    @Operation(summary = "Métriques pages pré-rendues",
+            description = "Rendus, réponses complètes, gzip et 304 des pages publiques servies depuis la mémoire")
+    public ResponseEntity<PagesPrecalculeesService.StatistiquesPagesDTO> obtenirMetriquesPagesPubliques() {
+
+        log.info("🖨️ Consultation métriques pages pré-rendues");
+        return ResponseEntity.ok(pagesPrecalculeesService.obtenirStatistiques());
+    }
+
+    /**
+     * 📤 Métriques de l'export CSV des électeurs en flux
+     */
+    @GetMapping("/metrics/export-electeurs")
+    @Operation(summary = "Métriques export électeurs",
+            description = "Exports terminés, interrompus et lignes écrites par l'export CSV en flux")
+    public ResponseEntity<ExportElecteursService.StatistiquesExportDTO> obtenirMetriquesExportElecteurs() {
+
+        log.info("📤 Consultation métriques export électeurs");
+        return ResponseEntity.ok(exportElecteursService.obtenirStatistiques());
+    }
+
+    /**
+     * 🧾 Métriques des exports d'audit des votes
+     */
+    @GetMapping("/metrics/export-audit-votes")
+    @Operation(summary = "Métriques export d'audit",
+            description = "Exports d'audit terminés, interrompus et bulletins écrits")
+    public ResponseEntity<ExportAuditVotesService.StatistiquesExportAuditDTO> obtenirMetriquesExportAudit() {
+
+        log.info("🧾 Consultation métriques export d'audit");
+        return ResponseEntity.ok(exportAuditVotesService.obtenirStatistiques());
+    }
+
+    /**
+     * 🗂️ Métriques des rapports générés en tâche de fond
+     */
+    @GetMapping("/metrics/rapports")
+    @Operation(summary = "Métriques rapports asynchrones",
+            description = "Travaux soumis, servis depuis le cache disque, en file, terminés et en échec")
+    public ResponseEntity<TravauxRapportsService.StatistiquesTravauxDTO> obtenirMetriquesRapports() {
+
+        log.info("🗂️ Consultation métriques rapports asynchrones");
+        return ResponseEntity.ok(travauxRapportsService.obtenirStatistiques());
+    }
+
+    /**
+     * 🔎 Métriques de l'index de recherche
+     */
+    @GetMapping("/metrics/recherche")
+    @Operation(summary = "Métriques index de recherche",
+            description = "Documents et termes indexés par type, recherches et durée moyenne")
+    public ResponseEntity<IndexRechercheService.StatistiquesRechercheDTO> obtenirMetriquesRecherche() {
+
+        log.info("🔎 Consultation métriques index de recherche");
+        return ResponseEntity.ok(indexRechercheService.obtenirStatistiques());
+    }
+
+    /**
+     * 🔤 Métriques de l'autocomplétion
+     */
+    @GetMapping("/metrics/suggestions")
+    @Operation(summary = "Métriques suggestions",
+            description = "Candidats et élections suggérables, suggestions servies et mises à jour")
+    public ResponseEntity<SuggestionsService.StatistiquesSuggestionsDTO> obtenirMetriquesSuggestions() {
+
+        log.info("🔤 Consultation métriques suggestions");
+        return ResponseEntity.ok(suggestionsService.obtenirStatistiques());
+    }
+
+    /**
+     * 🔐 Métriques du hachage des mots de passe
+     */
+    @GetMapping("/metrics/hachage")
+    @Operation(summary = "Métriques hachage",
+            description = "File et pool BCrypt : attente en file, durée de hachage, refus et empreintes à recalculer")
+    public ResponseEntity<HachageMotsDePasseService.StatistiquesHachageDTO> obtenirMetriquesHachage() {
+
+        log.info("🔐 Consultation métriques hachage");
+        return ResponseEntity.ok(hachageMotsDePasseService.obtenirStatistiques());
+    }
+
+    /**
+     * 🏷️ Métriques des requêtes conditionnelles (ETag / If-None-Match)
+     */
+    @GetMapping("/metrics/requetes-conditionnelles")
+    @Operation(summary = "Métriques requêtes conditionnelles",
+            description = "ETags émis, réponses 304 et versions courantes des tables publiques")
+    public ResponseEntity<StatistiquesRequetesConditionnellesDTO> obtenirMetriquesRequetesConditionnelles() {
+
+        log.info("🏷️ Consultation métriques requêtes conditionnelles");
+        return ResponseEntity.ok(StatistiquesRequetesConditionnellesDTO.builder()
+                .etagsEmis(requetesConditionnellesInterceptor.etagsEmis())
+                .reponsesNonModifiees(requetesConditionnellesInterceptor.reponsesNonModifiees())
+                .versionsTables(versionsDonneesService.versions())
+                .build());
+    }
+
     // ==================== INFORMATION SYSTÈME ====================
 
     /**
@@ -540,7 +715,7 @@ public class SystemController {
 
     private HealthStatusDTO verifierSanteCampagnes() {
         try {
-            campagneService.listerToutesCampagnes();
+            campagneService.listerCampagnes(null, 1, null);
             return HealthStatusDTO.builder()
                     .healthy(true)
                     .message("Service campagnes opérationnel")
@@ -557,7 +732,7 @@ public class SystemController {
 
     private HealthStatusDTO verifierSanteElecteurs() {
         try {
-            electeurService.listerTous();
+            electeurService.listerTous(null, 1);
             return HealthStatusDTO.builder()
                     .healthy(true)
                     .message("Service électeurs opérationnel")
@@ -995,4 +1170,14 @@ public class SystemController {
         private int score;
         private String details;
     }
-}
\ No newline at end of file
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesRequetesConditionnellesDTO {
+        private long etagsEmis;
+        private long reponsesNonModifiees;
+        private Map<VersionsDonneesService.Table, Long> versionsTables;
+    }
+}
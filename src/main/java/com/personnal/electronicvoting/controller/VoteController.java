@@ -1,8 +1,11 @@
 package com.personnal.electronicvoting.controller;
 
+import com.personnal.electronicvoting.config.ReponseConditionnelle;
 import com.personnal.electronicvoting.dto.VoteDTO;
 import com.personnal.electronicvoting.service.VoteService;
 import com.personnal.electronicvoting.service.AuthService;
+import com.personnal.electronicvoting.service.IdempotenceService;
+import com.personnal.electronicvoting.service.VersionsDonneesService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +25,7 @@ public class VoteController {
 
     private final VoteService voteService;
     private final AuthService authService;
+    private final IdempotenceService idempotenceService;
 
     // ==================== MIDDLEWARE SÉCURITÉ ====================
 
@@ -46,6 +50,7 @@ public class VoteController {
             description = "Enregistrer le vote d'un électeur pour un candidat (un seul vote par électeur)")
     public ResponseEntity<VoteResponse> effectuerVote(
             @RequestHeader("Authorization") String token,
+            @RequestHeader(value = "Idempotency-Key", required = false) String cleIdempotence,
             @RequestParam String candidatId) {
 
         log.info("🗳️ Demande de vote - Candidat: {}", candidatId);
@@ -54,8 +59,11 @@ public class VoteController {
             var electeur = verifierEtObtenirElecteur(token);
             String electeurId = electeur.getExternalIdElecteur();
 
-            // Effectuer le vote
-            VoteDTO vote = voteService.effectuerVote(electeurId, candidatId);
+            // Effectuer le vote (rejoué sans réexécution pour une clé d'idempotence déjà traitée)
+            IdempotenceService.Resultat<VoteDTO> resultat = idempotenceService.executer(
+                    cleIdempotence, "vote:" + electeurId, candidatId, VoteDTO.class,
+                    () -> voteService.effectuerVote(electeurId, candidatId));
+            VoteDTO vote = resultat.valeur();
 
             VoteResponse response = VoteResponse.builder()
                     .success(true)
@@ -68,7 +76,11 @@ public class VoteController {
             log.info("✅ Vote enregistré avec succès - Électeur: {}, Candidat: {}",
                     electeurId, candidatId);
 
-            return ResponseEntity.ok(response);
+            ResponseEntity.BodyBuilder reponse = ResponseEntity.ok();
+            if (resultat.rejoue()) {
+                reponse.header("Idempotent-Replayed", "true");
+            }
+            return reponse.body(response);
 
         } catch (RuntimeException e) {
             log.warn("❌ Erreur lors du vote: {}", e.getMessage());
@@ -98,6 +110,7 @@ public class VoteController {
      * 📊 Consulter les résultats de l'élection
      */
     @GetMapping("/resultats")
+    @ReponseConditionnelle(votes = true, tables = VersionsDonneesService.Table.CANDIDATS)
     @Operation(summary = "Résultats de l'élection",
             description = "Obtenir les résultats complets de l'élection (accès public)")
     public ResponseEntity<List<VoteService.ResultatVoteDTO>> consulterResultats() {
@@ -0,0 +1,66 @@
+package com.personnal.electronicvoting.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.personnal.electronicvoting.model.Election;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * 📋 Élection en liste : colonnes et compteurs seulement, sans les identifiants des électeurs
+ * ni des candidats (paginés à part sous /api/elections/{id}/electeurs-autorises et /candidats-participants).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ElectionSummaryDTO {
+
+    /** Clé du curseur de pagination, non exposée */
+    @JsonIgnore
+    private Long idElection;
+
+    private String externalIdElection;
+    private String titre;
+    private String description;
+    private String photo;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate dateDebut;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate dateFin;
+
+    private Election.StatutElection statut;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate dateCreation;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate dateModification;
+
+    private Boolean autoriserVoteMultiple;
+    private Integer nombreMaxVotesParElecteur;
+    private Boolean resultatsVisibles;
+
+    private Long nombreElecteursInscrits;
+    private Long nombreCandidats;
+    private Long nombreVotes;
+
+    private Boolean estActive;
+
+    /**
+     * Projection JPQL (ElectionRepository.findResumesApres)
+     */
+    public ElectionSummaryDTO(Long idElection, String externalIdElection, String titre, String description, String photo,
+                              LocalDate dateDebut, LocalDate dateFin, Election.StatutElection statut,
+                              LocalDate dateCreation, LocalDate dateModification,
+                              Boolean autoriserVoteMultiple, Integer nombreMaxVotesParElecteur, Boolean resultatsVisibles,
+                              Long nombreElecteursInscrits, Long nombreCandidats, Long nombreVotes) {
+        this(idElection, externalIdElection, titre, description, photo, dateDebut, dateFin, statut, dateCreation, dateModification,
+                autoriserVoteMultiple, nombreMaxVotesParElecteur, resultatsVisibles,
+                nombreElecteursInscrits, nombreCandidats, nombreVotes,
+                Election.estActive(statut, dateDebut, dateFin));
+    }
+}
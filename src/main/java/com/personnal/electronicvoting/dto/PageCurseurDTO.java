@@ -0,0 +1,18 @@
+package com.personnal.electronicvoting.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 📑 Page d'une liste paginée par curseur ; curseurSuivant est null sur la dernière page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCurseurDTO<T> {
+    private List<T> elements;
+    private int taille;
+    private String curseurSuivant;
+}
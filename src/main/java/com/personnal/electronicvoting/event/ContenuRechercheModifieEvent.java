@@ -0,0 +1,47 @@
+package com.personnal.electronicvoting.event;
+
+import com.personnal.electronicvoting.model.Campagne;
+import com.personnal.electronicvoting.model.Candidat;
+import com.personnal.electronicvoting.model.Election;
+import com.personnal.electronicvoting.service.IndexRechercheService;
+
+/**
+ * 🔎 Événement publié dans la transaction d'une écriture sur un contenu recherchable.
+ * Le texte (indexé) et le libellé (suggéré) sont relevés au moment de l'écriture ;
+ * le texte est null pour une suppression.
+ */
+public record ContenuRechercheModifieEvent(
+        IndexRechercheService.TypeContenu type,
+        long id,
+        String externalId,
+        String libelle,
+        String texte
+) {
+
+    /**
+     * Événement correspondant à l'entité, null si elle n'est pas recherchable
+     */
+    public static ContenuRechercheModifieEvent depuis(Object entite, boolean supprime) {
+        if (entite instanceof Candidat candidat) {
+            return new ContenuRechercheModifieEvent(IndexRechercheService.TypeContenu.CANDIDAT, candidat.getId(),
+                    candidat.getExternalIdCandidat(), candidat.getUsername(),
+                    supprime ? null : IndexRechercheService.texte(candidat.getUsername(), candidat.getDescription()));
+        }
+        if (entite instanceof Campagne campagne) {
+            String nomCandidat = campagne.getCandidat() != null ? campagne.getCandidat().getUsername() : null;
+            return new ContenuRechercheModifieEvent(IndexRechercheService.TypeContenu.CAMPAGNE, campagne.getIdCampagne(),
+                    campagne.getExternalIdCampagne(), null,
+                    supprime ? null : IndexRechercheService.texte(campagne.getDescription(), nomCandidat));
+        }
+        if (entite instanceof Election election) {
+            return new ContenuRechercheModifieEvent(IndexRechercheService.TypeContenu.ELECTION, election.getIdElection(),
+                    election.getExternalIdElection(), election.getTitre(),
+                    supprime ? null : IndexRechercheService.texte(election.getTitre(), election.getDescription()));
+        }
+        return null;
+    }
+
+    public boolean estSuppression() {
+        return texte == null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.personnal.electronicvoting.event;
+
+import com.personnal.electronicvoting.model.Campagne;
+import com.personnal.electronicvoting.model.Candidat;
+import com.personnal.electronicvoting.model.Electeur;
+import com.personnal.electronicvoting.model.Election;
+import com.personnal.electronicvoting.service.VersionsDonneesService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * 🏷️ Listener JPA (instancié par Spring via Hibernate) : toute écriture sur un candidat,
+ * une campagne, une élection ou un électeur fait avancer la version de sa table ; les trois
+ * premiers mettent aussi à jour l'index de recherche.
+ */
+@Component
+@RequiredArgsConstructor
+public class ModificationEntiteListener {
+
+    private final VersionsDonneesService versionsDonneesService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    void apresEcriture(Object entite) {
+        apresModification(entite, false);
+    }
+
+    @PostRemove
+    void apresSuppression(Object entite) {
+        apresModification(entite, true);
+    }
+
+    private void apresModification(Object entite, boolean supprime) {
+        if (entite instanceof Candidat) {
+            versionsDonneesService.marquerModification(VersionsDonneesService.Table.CANDIDATS);
+        } else if (entite instanceof Campagne) {
+            versionsDonneesService.marquerModification(VersionsDonneesService.Table.CAMPAGNES);
+        } else if (entite instanceof Election) {
+            versionsDonneesService.marquerModification(VersionsDonneesService.Table.ELECTIONS);
+        } else if (entite instanceof Electeur) {
+            versionsDonneesService.marquerModification(VersionsDonneesService.Table.ELECTEURS);
+        }
+
+        ContenuRechercheModifieEvent event = ContenuRechercheModifieEvent.depuis(entite, supprime);
+        if (event != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.personnal.electronicvoting.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🗳️ Événement publié dans la transaction d'un vote.
+ * electionId est null pour un vote du scrutin global (table votes) ;
+ * horodatage est la valeur enregistrée en base (horodatage_vote).
+ */
+public record VoteEnregistreEvent(
+        Long voteId,
+        String electionId,
+        String electeurId,
+        String candidatId,
+        LocalDateTime horodatage
+) {
+
+    public static VoteEnregistreEvent voteGlobal(Long voteId, String electeurId, String candidatId,
+                                                 LocalDateTime horodatage) {
+        return new VoteEnregistreEvent(voteId, null, electeurId, candidatId, horodatage);
+    }
+
+    public static VoteEnregistreEvent voteElection(Long voteId, String electionId, String electeurId, String candidatId,
+                                                   LocalDateTime horodatage) {
+        return new VoteEnregistreEvent(voteId, electionId, electeurId, candidatId, horodatage);
+    }
+
+    public boolean estVoteGlobal() {
+        return electionId == null;
+    }
+}
@@ -1,6 +1,8 @@
 package com.personnal.electronicvoting.exception;
 
+import com.personnal.electronicvoting.service.HachageMotsDePasseService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -127,6 +129,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    /**
+     * ⏳ Hachage des mots de passe saturé : le client peut réessayer après le délai indiqué
+     */
+    @ExceptionHandler(HachageMotsDePasseService.HachageSatureException.class)
+    public ResponseEntity<ErrorResponse> handleHachageSature(
+            HachageMotsDePasseService.HachageSatureException ex, WebRequest request) {
+
+        log.warn("⏳ Demande refusée, hachage saturé: {}", request.getDescription(false));
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDate.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .path(request.getDescription(false))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getDelaiReessaiSecondes()))
+                .body(errorResponse);
+    }
+
     /**
      * 🗳️ Gestion spéciale des erreurs de vote
      */
@@ -21,5 +21,6 @@ public interface VoteElectionMapper {
     @Mapping(target = "electeur", ignore = true)
     @Mapping(target = "candidat", ignore = true)
     @Mapping(target = "dateVote", ignore = true)
+    @Mapping(target = "horodatageVote", ignore = true)
     VoteElection toEntity(VoteElectionDTO dto);
 }
\ No newline at end of file
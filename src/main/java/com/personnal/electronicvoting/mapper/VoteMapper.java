@@ -14,5 +14,6 @@ public interface VoteMapper {
 
     @Mapping(target = "electeur", ignore = true)
     @Mapping(target = "candidat", ignore = true)
+    @Mapping(target = "horodatageVote", ignore = true)
     Vote toEntity(VoteDTO dto);
 }
@@ -1,4 +1,5 @@
 package com.personnal.electronicvoting.model;
+import com.personnal.electronicvoting.event.ModificationEntiteListener;
 import lombok.*;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -7,6 +8,7 @@ import jakarta.validation.constraints.*;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ModificationEntiteListener.class)
 @Getter
 @Setter
 @AllArgsConstructor
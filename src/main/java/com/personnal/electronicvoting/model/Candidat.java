@@ -1,4 +1,5 @@
 package com.personnal.electronicvoting.model;
+import com.personnal.electronicvoting.event.ModificationEntiteListener;
 import lombok.*;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -6,6 +7,7 @@ import java.util.*;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ModificationEntiteListener.class)
 @Getter
 @Setter
 @AllArgsConstructor
@@ -1,5 +1,6 @@
 package com.personnal.electronicvoting.model;
 
+import com.personnal.electronicvoting.event.ModificationEntiteListener;
 import lombok.*;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -11,6 +12,7 @@ import java.util.HashSet;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ModificationEntiteListener.class)
 @Table(name = "elections")
 @Getter
 @Setter
@@ -111,10 +113,14 @@ public class Election {
     }
 
     public boolean estActive() {
+        return estActive(this.statut, this.dateDebut, this.dateFin);
+    }
+
+    public static boolean estActive(StatutElection statut, LocalDate dateDebut, LocalDate dateFin) {
         LocalDate maintenant = LocalDate.now();
-        return this.statut == StatutElection.EN_COURS &&
-               maintenant.isAfter(this.dateDebut) &&
-               maintenant.isBefore(this.dateFin);
+        return statut == StatutElection.EN_COURS &&
+               maintenant.isAfter(dateDebut) &&
+               maintenant.isBefore(dateFin);
     }
 
 
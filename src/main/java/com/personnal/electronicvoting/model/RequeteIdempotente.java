@@ -0,0 +1,34 @@
+package com.personnal.electronicvoting.model;
+
+import lombok.*;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🔁 Réponse mémorisée d'une requête de vote, rejouée pour la même clé d'idempotence
+ * (mode multi-instances, app.vote.idempotence.persistante=true)
+ */
+@Entity
+@Table(name = "requetes_idempotentes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequeteIdempotente {
+
+    /** Portée (endpoint + électeur) et clé fournie par le client */
+    @Id
+    @Column(name = "cle", length = 512)
+    private String cle;
+
+    @Column(name = "empreinte", nullable = false, length = 512)
+    private String empreinte;
+
+    @Column(name = "reponse", nullable = false, columnDefinition = "TEXT")
+    private String reponse;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation;
+}
@@ -0,0 +1,45 @@
+package com.personnal.electronicvoting.model;
+
+import lombok.*;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 📊 Compteur matérialisé : nombre de votes par (élection, candidat, statut).
+ *
+ * Mis à jour dans la même transaction que l'insertion ou le changement de statut du vote.
+ * Clés primaires sans contrainte de clé étrangère : les lignes d'une élection supprimée
+ * sont retirées explicitement.
+ */
+@Entity
+@Table(name = "resultats_election", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"election_id", "candidat_id", "statut_vote"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultatElection {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "election_id", nullable = false)
+    private Long electionPk;
+
+    @Column(name = "candidat_id", nullable = false)
+    private Long candidatPk;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut_vote", nullable = false)
+    private VoteElection.StatutVote statutVote;
+
+    @Column(name = "nombre_votes", nullable = false)
+    private long nombreVotes;
+
+    @Column(name = "date_maj")
+    private LocalDateTime dateMaj;
+}
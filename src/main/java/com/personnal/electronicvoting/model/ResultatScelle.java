@@ -0,0 +1,46 @@
+package com.personnal.electronicvoting.model;
+
+import lombok.*;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🔒 Résultats définitifs d'une élection terminée, calculés une seule fois.
+ *
+ * Le contenu est le JSON des résultats tel que servi ; l'empreinte est le SHA-256 de ce JSON.
+ * La ligne n'est jamais modifiée (entité immuable) : elle n'est retirée qu'avec l'élection.
+ */
+@Entity
+@Immutable
+@Table(name = "resultats_scelles")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultatScelle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "election_id", nullable = false, unique = true, updatable = false)
+    private Long electionPk;
+
+    @Column(name = "external_id_election", nullable = false, unique = true, updatable = false)
+    private String externalIdElection;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut_election", nullable = false, updatable = false)
+    private Election.StatutElection statutElection;
+
+    @Column(name = "contenu", nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String contenu;
+
+    @Column(name = "empreinte_sha256", nullable = false, updatable = false, length = 64)
+    private String empreinte;
+
+    @Column(name = "date_scellement", nullable = false, updatable = false)
+    private LocalDateTime dateScellement;
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "votes", uniqueConstraints = {
@@ -29,5 +30,9 @@ public class Vote {
     private Candidat candidat;
 
     private LocalDate dateVote = LocalDate.now();
+
+    /** Instant exact du vote (séries temporelles à la minute) */
+    @Column(name = "horodatage_vote")
+    private LocalDateTime horodatageVote = LocalDateTime.now();
 }
 
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "votes_election", uniqueConstraints = {
@@ -36,6 +37,10 @@ public class VoteElection {
     @Column(name = "date_vote", nullable = false)
     private LocalDate dateVote;
 
+    /** Instant exact du vote (séries temporelles à la minute) */
+    @Column(name = "horodatage_vote")
+    private LocalDateTime horodatageVote;
+
     @Column(name = "adresse_ip")
     private String adresseIp;
 
@@ -49,8 +54,11 @@ public class VoteElection {
 
     @PrePersist
     public void prePersist() {
+        if (this.horodatageVote == null) {
+            this.horodatageVote = LocalDateTime.now();
+        }
         if (this.dateVote == null) {
-            this.dateVote = LocalDate.now();
+            this.dateVote = this.horodatageVote.toLocalDate();
         }
     }
 
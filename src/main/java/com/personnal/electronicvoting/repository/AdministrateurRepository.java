@@ -2,6 +2,10 @@ package com.personnal.electronicvoting.repository;
 
 import com.personnal.electronicvoting.model.Administrateur;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -11,4 +15,11 @@ public interface AdministrateurRepository extends JpaRepository<Administrateur,
     Optional<Administrateur> findByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
+
+    // 🔄 Nouvelle empreinte du mot de passe, seulement si l'ancienne n'a pas changé entre-temps
+    @Modifying
+    @Transactional
+    @Query("UPDATE Administrateur a SET a.motDePasse = :nouvelle WHERE a.IdAdmin = :id AND a.motDePasse = :ancienne")
+    int remplacerEmpreinte(@Param("id") long id, @Param("ancienne") String ancienne,
+                           @Param("nouvelle") String nouvelle);
 }
@@ -1,11 +1,31 @@
 package com.personnal.electronicvoting.repository;
 
 import com.personnal.electronicvoting.model.Campagne;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.*;
 
 public interface CampagneRepository extends JpaRepository<Campagne, Long> {
     Optional<Campagne> findByExternalIdCampagne(String externalId);
     List<Campagne> findByCandidat_ExternalIdCandidat(String candidatId);
+
+    // 📑 Pagination par curseur (lire une ligne de plus que la page)
+    @Query("SELECT c FROM Campagne c LEFT JOIN FETCH c.candidat ca WHERE c.IdCampagne > :apres " +
+            "AND (:candidatId IS NULL OR ca.externalIdCandidat = :candidatId) " +
+            "ORDER BY c.IdCampagne")
+    List<Campagne> findPageApres(@Param("apres") long apres, @Param("candidatId") String candidatId,
+                                 Pageable pageable);
+
+    // 🔎 Textes indexés pour la recherche (id, description, nom du candidat)
+    @Query("SELECT c.IdCampagne, c.description, ca.username FROM Campagne c LEFT JOIN c.candidat ca")
+    List<Object[]> findTextesRecherche();
+
+    @Query("SELECT c.IdCampagne, c.description, ca.username FROM Campagne c JOIN c.candidat ca WHERE ca.id = :candidatId")
+    List<Object[]> findTextesRechercheParCandidat(@Param("candidatId") Long candidatId);
+
+    @Query("SELECT c FROM Campagne c WHERE LENGTH(c.description) BETWEEN :min AND :max")
+    List<Campagne> findByLongueurDescription(@Param("min") int min, @Param("max") int max);
 }
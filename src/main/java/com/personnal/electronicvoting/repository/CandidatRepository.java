@@ -1,8 +1,10 @@
 package com.personnal.electronicvoting.repository;
 
 import com.personnal.electronicvoting.model.Candidat;
+import com.personnal.electronicvoting.model.VoteElection;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.*;
+import org.springframework.data.domain.Pageable;
 
 import java.util.*;
 
@@ -19,4 +21,22 @@ public interface CandidatRepository extends JpaRepository<Candidat, Long> {
     List<Candidat> findAllOrderByVoteCountDesc();
     
     List<Candidat> findByExternalIdCandidatIn(Set<String> externalIds);
+
+    // 📑 Pagination par curseur (lire une ligne de plus que la page)
+    @Query("SELECT c FROM Candidat c WHERE c.id > :apres " +
+            "AND (:motif = '%' OR LOWER(c.username) LIKE :motif) " +
+            "ORDER BY c.id")
+    List<Candidat> findPageApres(@Param("apres") long apres, @Param("motif") String motif,
+                                 Pageable pageable);
+
+    // 🔎 Textes indexés pour la recherche (id, nom, description)
+    @Query("SELECT c.id, c.username, c.description FROM Candidat c")
+    List<Object[]> findTextesRecherche();
+
+    // 🔤 Suggestions : id externe, nom, votes du scrutin global, votes d'élection au statut donné
+    @Query("SELECT c.externalIdCandidat, c.username, " +
+            "(SELECT COUNT(v) FROM Vote v WHERE v.candidat = c), " +
+            "(SELECT COUNT(ve) FROM VoteElection ve WHERE ve.candidat = c AND ve.statutVote = :statut) " +
+            "FROM Candidat c")
+    List<Object[]> findSuggestions(@Param("statut") VoteElection.StatutVote statut);
 }
@@ -1,7 +1,12 @@
 package com.personnal.electronicvoting.repository;
 
 import com.personnal.electronicvoting.model.Electeur;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
@@ -11,5 +16,21 @@ public interface ElecteurRepository extends JpaRepository<Electeur, Long> {
     Optional<Electeur> findByUsername(String username);
     boolean existsByEmail(String email);
     List<Electeur> findByaVoteTrue();
+    long countByaVoteTrue();
     List<Electeur> findByExternalIdElecteurIn(Set<String> externalIds);
+
+    // 📑 Pagination par curseur (lire une ligne de plus que la page)
+    @Query("SELECT e FROM Electeur e WHERE e.IdElecteur > :apres " +
+            "AND (:motif = '%' OR LOWER(e.username) LIKE :motif OR LOWER(e.email) LIKE :motif) " +
+            "AND (:aVote IS NULL OR e.aVote = :aVote) " +
+            "ORDER BY e.IdElecteur")
+    List<Electeur> findPageApres(@Param("apres") long apres, @Param("motif") String motif,
+                                 @Param("aVote") Boolean aVote, Pageable pageable);
+
+    // 🔄 Nouvelle empreinte du mot de passe, seulement si l'ancienne n'a pas changé entre-temps
+    @Modifying
+    @Transactional
+    @Query("UPDATE Electeur e SET e.motDePasse = :nouvelle WHERE e.IdElecteur = :id AND e.motDePasse = :ancienne")
+    int remplacerEmpreinte(@Param("id") long id, @Param("ancienne") String ancienne,
+                           @Param("nouvelle") String nouvelle);
 }
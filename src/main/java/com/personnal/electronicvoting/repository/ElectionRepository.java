@@ -1,13 +1,20 @@
 package com.personnal.electronicvoting.repository;
 
+import com.personnal.electronicvoting.dto.ElectionSummaryDTO;
 import com.personnal.electronicvoting.model.Election;
 import com.personnal.electronicvoting.model.Election.StatutElection;
+import com.personnal.electronicvoting.model.VoteElection;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +23,15 @@ public interface ElectionRepository extends JpaRepository<Election, Long> {
 
     Optional<Election> findByExternalIdElection(String externalIdElection);
 
+    // 🔒 Changement de statut (FOR UPDATE) : attend les votes en cours, qui lisent l'élection FOR SHARE
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Election e WHERE e.externalIdElection = :externalId")
+    Optional<Election> findPourModificationByExternalId(@Param("externalId") String externalId);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT e FROM Election e WHERE e.externalIdElection = :externalId")
+    Optional<Election> findPourVoteByExternalId(@Param("externalId") String externalId);
+
     List<Election> findByStatut(StatutElection statut);
 
 
@@ -50,4 +66,54 @@ public interface ElectionRepository extends JpaRepository<Election, Long> {
     List<Election> findElectionsDisponiblesPourElecteur(@Param("electeurId") String electeurId, @Param("statut") StatutElection statut);
 
     boolean existsByExternalIdElection(String externalIdElection);
-}
\ No newline at end of file
+
+    @Query(value = "SELECT electeur_id FROM election_electeurs_autorises WHERE election_id = :electionPk", nativeQuery = true)
+    List<Long> findElecteursAutorisesIds(@Param("electionPk") Long electionPk);
+
+    @Query(value = "SELECT candidat_id FROM election_candidats WHERE election_id = :electionPk", nativeQuery = true)
+    List<Long> findCandidatsIds(@Param("electionPk") Long electionPk);
+
+    @Query(value = "SELECT COUNT(*) FROM election_electeurs_autorises WHERE election_id = :electionPk", nativeQuery = true)
+    long countElecteursAutorises(@Param("electionPk") Long electionPk);
+
+    // 📋 Liste des élections par curseur : compteurs en sous-requêtes, sans charger les collections
+    @Query("SELECT new com.personnal.electronicvoting.dto.ElectionSummaryDTO(" +
+            "e.idElection, e.externalIdElection, e.titre, e.description, e.photo, e.dateDebut, e.dateFin, e.statut, " +
+            "e.dateCreation, e.dateModification, e.autoriserVoteMultiple, e.nombreMaxVotesParElecteur, e.resultatsVisibles, " +
+            "(SELECT COUNT(ea) FROM Election e2 JOIN e2.electeursAutorises ea WHERE e2.idElection = e.idElection), " +
+            "(SELECT COUNT(c) FROM Election e3 JOIN e3.candidats c WHERE e3.idElection = e.idElection), " +
+            "(SELECT COUNT(v) FROM VoteElection v WHERE v.election.idElection = e.idElection)) " +
+            "FROM Election e WHERE e.idElection > :apres AND (:statut IS NULL OR e.statut = :statut) " +
+            "ORDER BY e.idElection")
+    List<ElectionSummaryDTO> findResumesApres(@Param("apres") long apres, @Param("statut") StatutElection statut,
+                                              Pageable pageable);
+
+    @Query("SELECT new com.personnal.electronicvoting.dto.ElectionSummaryDTO(" +
+            "e.idElection, e.externalIdElection, e.titre, e.description, e.photo, e.dateDebut, e.dateFin, e.statut, " +
+            "e.dateCreation, e.dateModification, e.autoriserVoteMultiple, e.nombreMaxVotesParElecteur, e.resultatsVisibles, " +
+            "(SELECT COUNT(ea) FROM Election e2 JOIN e2.electeursAutorises ea WHERE e2.idElection = e.idElection), " +
+            "(SELECT COUNT(c) FROM Election e3 JOIN e3.candidats c WHERE e3.idElection = e.idElection), " +
+            "(SELECT COUNT(v) FROM VoteElection v WHERE v.election.idElection = e.idElection)) " +
+            "FROM Election e WHERE e.idElection IN :ids")
+    List<ElectionSummaryDTO> findResumesParIds(@Param("ids") Collection<Long> ids);
+
+    // 🔎 Textes indexés pour la recherche (id, titre, description)
+    @Query("SELECT e.idElection, e.titre, e.description FROM Election e")
+    List<Object[]> findTextesRecherche();
+
+    // 🔤 Suggestions : id externe, titre, votes au statut donné
+    @Query("SELECT e.externalIdElection, e.titre, " +
+            "(SELECT COUNT(v) FROM VoteElection v WHERE v.election = e AND v.statutVote = :statut) " +
+            "FROM Election e")
+    List<Object[]> findSuggestions(@Param("statut") VoteElection.StatutVote statut);
+
+    @Query(value = "SELECT ea.externalIdElecteur FROM Election e JOIN e.electeursAutorises ea " +
+            "WHERE e.externalIdElection = :electionId ORDER BY ea.externalIdElecteur",
+            countQuery = "SELECT COUNT(ea) FROM Election e JOIN e.electeursAutorises ea WHERE e.externalIdElection = :electionId")
+    Page<String> findIdsElecteursAutorises(@Param("electionId") String electionId, Pageable pageable);
+
+    @Query(value = "SELECT c.externalIdCandidat FROM Election e JOIN e.candidats c " +
+            "WHERE e.externalIdElection = :electionId ORDER BY c.externalIdCandidat",
+            countQuery = "SELECT COUNT(c) FROM Election e JOIN e.candidats c WHERE e.externalIdElection = :electionId")
+    Page<String> findIdsCandidatsParticipants(@Param("electionId") String electionId, Pageable pageable);
+}
@@ -0,0 +1,20 @@
+package com.personnal.electronicvoting.repository;
+
+import com.personnal.electronicvoting.model.RequeteIdempotente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RequeteIdempotenteRepository extends JpaRepository<RequeteIdempotente, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RequeteIdempotente r WHERE r.dateCreation < :limite")
+    int supprimerAnterieuresA(@Param("limite") LocalDateTime limite);
+}
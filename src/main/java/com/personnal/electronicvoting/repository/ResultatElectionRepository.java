@@ -0,0 +1,39 @@
+package com.personnal.electronicvoting.repository;
+
+import com.personnal.electronicvoting.model.ResultatElection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ResultatElectionRepository extends JpaRepository<ResultatElection, Long> {
+
+    /** Colonnes d'insertion dans resultats_election */
+    String INSERT_RESULTATS = "INSERT INTO resultats_election (election_id, candidat_id, statut_vote, nombre_votes, date_maj) ";
+
+    /** Ajoute nombre_votes de la ligne proposée au compteur existant */
+    String CONFLIT_INCREMENT = " ON CONFLICT (election_id, candidat_id, statut_vote) DO UPDATE " +
+            "SET nombre_votes = resultats_election.nombre_votes + EXCLUDED.nombre_votes, date_maj = now()";
+
+    @Modifying
+    @Query(value = INSERT_RESULTATS + "VALUES (:electionPk, :candidatPk, :statut, :delta, now())" + CONFLIT_INCREMENT,
+           nativeQuery = true)
+    int ajuster(@Param("electionPk") Long electionPk, @Param("candidatPk") Long candidatPk,
+                @Param("statut") String statut, @Param("delta") long delta);
+
+    @Query(value = "SELECT election_id, candidat_id, statut_vote, nombre_votes FROM resultats_election", nativeQuery = true)
+    List<Object[]> findCompteursMaterialises();
+
+    /** Comptage de référence, depuis les votes bruts (réconciliation) */
+    @Query(value = "SELECT election_id, candidat_id, statut_vote, COUNT(*) FROM votes_election " +
+                   "GROUP BY election_id, candidat_id, statut_vote", nativeQuery = true)
+    List<Object[]> compterDepuisVotes();
+
+    @Modifying
+    @Query("DELETE FROM ResultatElection r WHERE r.electionPk = :electionPk")
+    int supprimerParElection(@Param("electionPk") Long electionPk);
+}
@@ -0,0 +1,23 @@
+package com.personnal.electronicvoting.repository;
+
+import com.personnal.electronicvoting.model.ResultatScelle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ResultatScelleRepository extends JpaRepository<ResultatScelle, Long> {
+
+    Optional<ResultatScelle> findByExternalIdElection(String externalIdElection);
+
+    boolean existsByElectionPk(Long electionPk);
+
+    /** Requête native : l'entité est immuable pour Hibernate */
+    @Modifying
+    @Query(value = "DELETE FROM resultats_scelles WHERE election_id = :electionPk", nativeQuery = true)
+    int supprimerParElection(@Param("electionPk") Long electionPk);
+}
@@ -0,0 +1,28 @@
+package com.personnal.electronicvoting.repository;
+
+import com.personnal.electronicvoting.model.Candidat;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+
+/**
+ * 📊 Agrégats par candidat (votes du scrutin global, campagnes) en une seule requête groupée,
+ * quel que soit le nombre de candidats.
+ */
+public interface StatistiquesCandidatRepository extends Repository<Candidat, Long> {
+
+    /** Tous les candidats, du plus voté au moins voté */
+    @Query("SELECT c AS candidat, COUNT(v) AS nombreVotes, " +
+           "(SELECT COUNT(p) FROM Campagne p WHERE p.candidat = c) AS nombreCampagnes " +
+           "FROM Candidat c LEFT JOIN c.votes v GROUP BY c ORDER BY COUNT(v) DESC, c.username")
+    List<CandidatAgrege> findCandidatsAvecCompteurs();
+
+    interface CandidatAgrege {
+        Candidat getCandidat();
+
+        long getNombreVotes();
+
+        long getNombreCampagnes();
+    }
+}
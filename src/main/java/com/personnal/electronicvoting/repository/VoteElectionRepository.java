@@ -8,6 +8,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,14 +28,68 @@ public interface VoteElectionRepository extends JpaRepository<VoteElection, Long
     boolean existsByElection_ExternalIdElectionAndElecteur_ExternalIdElecteur(
             String electionId, String electeurId);
 
-    @Query("SELECT COUNT(v) FROM VoteElection v WHERE v.election.externalIdElection = :electionId AND v.statutVote = :statut")
+    /**
+     * 📈 Votes déposés par élection et par période (unité date_trunc : minute, hour, day) sur [depuis, avant[.
+     * Les votes antérieurs à horodatage_vote n'ont que leur date : ils ne comptent qu'à la journée.
+     *
+     * @return [identifiant externe de l'élection, début de période, nombre de votes]
+     */
+    @Query(value = """
+            SELECT e.external_id_election, date_trunc(:unite, COALESCE(v.horodatage_vote, v.date_vote)), COUNT(*)
+            FROM votes_election v
+            JOIN elections e ON e.id_election = v.election_id
+            WHERE COALESCE(v.horodatage_vote, v.date_vote) >= :depuis
+              AND COALESCE(v.horodatage_vote, v.date_vote) < :avant
+              AND (v.horodatage_vote IS NOT NULL OR :unite = 'day')
+            GROUP BY 1, 2
+            """, nativeQuery = true)
+    List<Object[]> countVotesParElectionEtPeriode(@Param("unite") String unite,
+                                                  @Param("depuis") LocalDateTime depuis,
+                                                  @Param("avant") LocalDateTime avant);
+
+    /** 🔒 Décompte final depuis les votes bruts, noms des candidats inclus (scellement des résultats) */
+    @Query("SELECT c.externalIdCandidat, c.username, COUNT(v) FROM VoteElection v JOIN v.candidat c " +
+           "WHERE v.election.idElection = :electionPk AND v.statutVote = :statut " +
+           "GROUP BY c.externalIdCandidat, c.username ORDER BY COUNT(v) DESC, c.externalIdCandidat")
+    List<Object[]> compterVotesFinauxParCandidat(@Param("electionPk") Long electionPk, @Param("statut") StatutVote statut);
+
+    // Comptages lus dans resultats_election (maintenue à chaque vote) plutôt qu'agrégés sur votes_election
+
+    @Query("SELECT COALESCE(SUM(r.nombreVotes), 0) FROM ResultatElection r, Election e " +
+           "WHERE e.idElection = r.electionPk AND e.externalIdElection = :electionId AND r.statutVote = :statut")
     Long countVotesParElection(@Param("electionId") String electionId, @Param("statut") StatutVote statut);
 
-    @Query("SELECT v.candidat.externalIdCandidat, COUNT(v) FROM VoteElection v " +
-           "WHERE v.election.externalIdElection = :electionId AND v.statutVote = :statut " +
-           "GROUP BY v.candidat.externalIdCandidat")
+    @Query("SELECT c.externalIdCandidat, r.nombreVotes FROM ResultatElection r, Election e, Candidat c " +
+           "WHERE e.idElection = r.electionPk AND c.id = r.candidatPk " +
+           "AND e.externalIdElection = :electionId AND r.statutVote = :statut AND r.nombreVotes > 0")
     List<Object[]> countVotesParCandidatPourElection(@Param("electionId") String electionId, @Param("statut") StatutVote statut);
 
+    @Query("SELECT e.externalIdElection, c.externalIdCandidat, r.nombreVotes FROM ResultatElection r, Election e, Candidat c " +
+           "WHERE e.idElection = r.electionPk AND c.id = r.candidatPk " +
+           "AND r.statutVote = :statut AND r.nombreVotes > 0")
+    List<Object[]> countVotesParElectionEtCandidat(@Param("statut") StatutVote statut);
+
+    @Query(value = "SELECT el.external_id_election, el.autoriser_vote_multiple, el.nombre_max_votes_par_electeur, " +
+                   "v.electeur_id, COUNT(*) FROM votes_election v " +
+                   "JOIN elections el ON el.id_election = v.election_id " +
+                   "WHERE v.statut_vote = 'VALIDE' " +
+                   "GROUP BY el.external_id_election, el.autoriser_vote_multiple, el.nombre_max_votes_par_electeur, v.electeur_id",
+           nativeQuery = true)
+    List<Object[]> countVotesValidesParElectionEtElecteur();
+
+    @Query(value = "SELECT el.autoriser_vote_multiple, el.nombre_max_votes_par_electeur, COUNT(*) FROM votes_election v " +
+                   "JOIN elections el ON el.id_election = v.election_id " +
+                   "WHERE v.statut_vote = 'VALIDE' AND el.external_id_election = :electionId AND v.electeur_id = :electeurPk " +
+                   "GROUP BY el.autoriser_vote_multiple, el.nombre_max_votes_par_electeur",
+           nativeQuery = true)
+    List<Object[]> countVotesValidesElecteur(@Param("electionId") String electionId, @Param("electeurPk") long electeurPk);
+
+    @Query("SELECT v.id FROM VoteElection v WHERE v.id IN :ids")
+    List<Long> findIdsExistants(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT v.id, v.statutVote FROM VoteElection v WHERE v.id IN :ids")
+    List<Object[]> findStatuts(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT v FROM VoteElection v WHERE v.dateVote BETWEEN :dateDebut AND :dateFin")
     List<VoteElection> findVotesEntre(@Param("dateDebut") LocalDate dateDebut, @Param("dateFin") LocalDate dateFin);
 
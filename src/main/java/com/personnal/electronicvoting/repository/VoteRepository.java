@@ -2,12 +2,66 @@ package com.personnal.electronicvoting.repository;
 
 import com.personnal.electronicvoting.model.Vote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface VoteRepository extends JpaRepository<Vote, Long> {
 
     boolean existsByElecteur_externalIdElecteur(String externalId);
 
     int countByCandidat_externalIdCandidat(String candidatExternalId);
+
+    @Query("SELECT v.candidat.externalIdCandidat, COUNT(v) FROM Vote v GROUP BY v.candidat.externalIdCandidat")
+    List<Object[]> countVotesGroupesParCandidat();
+
+    @Query("SELECT v.dateVote, COUNT(v) FROM Vote v GROUP BY v.dateVote ORDER BY v.dateVote")
+    List<Object[]> countVotesGroupesParJour();
+
+    /**
+     * 📈 Votes par période (unité date_trunc : minute, hour, day) sur [depuis, avant[.
+     * Les votes antérieurs à horodatage_vote n'ont que leur date : ils ne comptent qu'à la journée.
+     */
+    @Query(value = """
+            SELECT date_trunc(:unite, COALESCE(v.horodatage_vote, v.date_vote)), COUNT(*)
+            FROM votes v
+            WHERE COALESCE(v.horodatage_vote, v.date_vote) >= :depuis
+              AND COALESCE(v.horodatage_vote, v.date_vote) < :avant
+              AND (v.horodatage_vote IS NOT NULL OR :unite = 'day')
+            GROUP BY 1
+            """, nativeQuery = true)
+    List<Object[]> countVotesParPeriode(@Param("unite") String unite,
+                                        @Param("depuis") LocalDateTime depuis,
+                                        @Param("avant") LocalDateTime avant);
+
+    @Query("SELECT v.id FROM Vote v WHERE v.id IN :ids")
+    List<Long> findIdsExistants(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 🗳️ Vote en une seule instruction : a_vote passe à true seulement s'il était faux,
+     * puis le vote est inséré à partir des identifiants externes.
+     * Aucune ligne retournée si l'électeur a déjà voté ou si un identifiant est inconnu.
+     *
+     * @return [id du vote, clé primaire de l'électeur, clé primaire du candidat, horodatage du vote]
+     */
+    @Query(value = """
+            WITH electeur_marque AS (
+                UPDATE electeur SET a_vote = true
+                WHERE external_id_electeur = :electeurId AND a_vote = false
+                  AND EXISTS (SELECT 1 FROM candidat WHERE external_id_candidat = :candidatId)
+                RETURNING id_electeur
+            )
+            INSERT INTO votes (electeur_id, candidat_id, date_vote, horodatage_vote)
+            SELECT em.id_electeur, c.id, CURRENT_DATE, LOCALTIMESTAMP
+            FROM electeur_marque em
+            JOIN candidat c ON c.external_id_candidat = :candidatId
+            RETURNING id, electeur_id, candidat_id, horodatage_vote
+            """, nativeQuery = true)
+    List<Object[]> enregistrerVoteAtomique(@Param("electeurId") String electeurId,
+                                           @Param("candidatId") String candidatId);
 }
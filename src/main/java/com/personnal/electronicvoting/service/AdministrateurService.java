@@ -4,15 +4,18 @@ import com.personnal.electronicvoting.dto.ElecteurDTO;
 import com.personnal.electronicvoting.dto.CandidatDTO;
 import com.personnal.electronicvoting.dto.CampagneDTO;
 import com.personnal.electronicvoting.dto.ElectionDTO;
+import com.personnal.electronicvoting.dto.PageCurseurDTO;
 import com.personnal.electronicvoting.dto.request.*;
 import com.personnal.electronicvoting.model.*;
 import com.personnal.electronicvoting.repository.*;
 import com.personnal.electronicvoting.mapper.*;
+import com.personnal.electronicvoting.util.CurseurPagination;
 import com.personnal.electronicvoting.util.PasswordGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -40,12 +43,18 @@ public class AdministrateurService {
     private final PasswordEncoder passwordEncoder;
     private final PasswordGenerator passwordGenerator;
     private final EmailService emailService;
+    private final IndexElectionService indexElectionService;
+    private final ResultatsElectionService resultatsElectionService;
+    private final ResultatsScellesService resultatsScellesService;
 
     // ==================== GESTION ÉLECTEURS ====================
 
     /**
      *  Créer un électeur avec envoi automatique des identifiants
+     *
+     * Hors transaction : le hachage BCrypt précède l'insertion, qui a sa propre transaction courte.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ElecteurDTO creerElecteur(CreateElecteurAdminRequest request) {
         log.info(" Création électeur par admin - Username: {}, Email: {}",
                 request.getUsername(), request.getEmail());
@@ -88,15 +97,16 @@ public class AdministrateurService {
     }
 
     /**
-     *  Lister tous les électeurs
+     *  Lister les électeurs par curseur (recherche sur nom ou email, filtre a voté)
      */
     @Transactional(readOnly = true)
-    public List<ElecteurDTO> listerElecteurs() {
-        log.info(" Admin - Liste de tous les électeurs");
-        return electeurRepository.findAll()
-                .stream()
-                .map(userMapper::toDTO)
-                .toList();
+    public PageCurseurDTO<ElecteurDTO> listerElecteurs(String curseur, Integer taille, String recherche, Boolean aVote) {
+        log.info(" Admin - Liste des électeurs");
+        int tailleEffective = CurseurPagination.taille(taille);
+        List<Electeur> lignes = electeurRepository.findPageApres(
+                CurseurPagination.decoder(curseur, "electeurs"), CurseurPagination.motifRecherche(recherche), aVote,
+                CurseurPagination.lecture(tailleEffective));
+        return CurseurPagination.page(lignes, tailleEffective, "electeurs", Electeur::getIdElecteur, userMapper::toDTO);
     }
 
     /**
@@ -220,15 +230,16 @@ public class AdministrateurService {
     }
 
     /**
-     *  Lister tous les candidats
+     *  Lister les candidats par curseur (recherche sur le nom)
      */
     @Transactional(readOnly = true)
-    public List<CandidatDTO> listerCandidats() {
-        log.info(" Admin - Liste de tous les candidats");
-        return candidatRepository.findAll()
-                .stream()
-                .map(candidatMapper::toDTO)
-                .toList();
+    public PageCurseurDTO<CandidatDTO> listerCandidats(String curseur, Integer taille, String recherche) {
+        log.info(" Admin - Liste des candidats");
+        int tailleEffective = CurseurPagination.taille(taille);
+        List<Candidat> lignes = candidatRepository.findPageApres(
+                CurseurPagination.decoder(curseur, "candidats"), CurseurPagination.motifRecherche(recherche),
+                CurseurPagination.lecture(tailleEffective));
+        return CurseurPagination.page(lignes, tailleEffective, "candidats", Candidat::getId, candidatMapper::toDTO);
     }
 
     /**
@@ -331,15 +342,16 @@ public class AdministrateurService {
     }
 
     /**
-     *  Lister toutes les campagnes
+     *  Lister les campagnes par curseur (filtre candidat optionnel)
      */
     @Transactional(readOnly = true)
-    public List<CampagneDTO> listerCampagnes() {
-        log.info(" Admin - Liste de toutes les campagnes");
-        return campagneRepository.findAll()
-                .stream()
-                .map(campagneMapper::toDTO)
-                .toList();
+    public PageCurseurDTO<CampagneDTO> listerCampagnes(String curseur, Integer taille, String candidatId) {
+        log.info(" Admin - Liste des campagnes");
+        int tailleEffective = CurseurPagination.taille(taille);
+        List<Campagne> lignes = campagneRepository.findPageApres(
+                CurseurPagination.decoder(curseur, "campagnes"), candidatId,
+                CurseurPagination.lecture(tailleEffective));
+        return CurseurPagination.page(lignes, tailleEffective, "campagnes", Campagne::getIdCampagne, campagneMapper::toDTO);
     }
 
     /**
@@ -434,10 +446,12 @@ public class AdministrateurService {
     public ElectionDTO modifierElection(String electionId, UpdateElectionRequest request) {
         log.info("📝 Modification de l'élection {} ", electionId);
 
-        Election election = electionRepository.findByExternalIdElection(electionId)
+        // Verrou jusqu'au commit : une clôture attend les votes en cours, le scellement les voit tous
+        Election election = electionRepository.findPourModificationByExternalId(electionId)
                 .orElseThrow(() -> new RuntimeException("Élection non trouvée: " + electionId));
 
         validateUpdateElectionRequest(request, election);
+        Election.StatutElection ancienStatut = election.getStatut();
 
         if (request.getTitre() != null) {
             election.setTitre(request.getTitre());
@@ -456,6 +470,11 @@ public class AdministrateurService {
         }
 
         if (request.getStatut() != null) {
+            if (ResultatsScellesService.estStatutFinal(ancienStatut)
+                    && !ResultatsScellesService.estStatutFinal(request.getStatut())
+                    && resultatsScellesService.estScellee(election.getIdElection())) {
+                throw new RuntimeException("Les résultats de cette élection sont scellés, elle ne peut pas être rouverte");
+            }
             election.setStatut(request.getStatut());
         }
         if (request.getAutoriserVoteMultiple() != null) {
@@ -468,23 +487,36 @@ public class AdministrateurService {
             election.setResultatsVisibles(request.getResultatsVisibles());
         }
 
+        List<Long> idsElecteurs = null;
         if (request.getElecteursAutorises() != null) {
             Set<Electeur> electeurs = electeurRepository.findByExternalIdElecteurIn(request.getElecteursAutorises())
                     .stream()
                     .collect(Collectors.toSet());
             election.setElecteursAutorises(electeurs);
+            idsElecteurs = electeurs.stream().map(Electeur::getIdElecteur).toList();
         }
 
+        List<Long> idsCandidats = null;
         if (request.getCandidatsParticipants() != null) {
             Set<Candidat> candidats = candidatRepository.findByExternalIdCandidatIn(request.getCandidatsParticipants())
                     .stream()
                     .collect(Collectors.toSet());
             election.setCandidats(candidats);
+            idsCandidats = candidats.stream().map(Candidat::getId).toList();
         }
 
         Election electionModifiee = electionRepository.save(election);
         log.info("✅ Élection modifiée: {}", electionId);
 
+        // 🧩 Index des électeurs autorisés : ouverture, fermeture ou changement de liste
+        indexElectionService.synchroniserApresCommit(electionModifiee, idsElecteurs, idsCandidats);
+
+        // 🔒 Passage au statut final : résultats scellés une fois la modification validée
+        if (!ResultatsScellesService.estStatutFinal(ancienStatut)
+                && ResultatsScellesService.estStatutFinal(electionModifiee.getStatut())) {
+            resultatsScellesService.scellerApresCommit(electionId);
+        }
+
         return electionMapper.toDTO(electionModifiee);
     }
 
@@ -500,7 +532,10 @@ public class AdministrateurService {
         }
 
         electionRepository.delete(election);
+        resultatsElectionService.supprimerElection(election.getIdElection());
+        resultatsScellesService.supprimerElection(election.getIdElection(), electionId);
         log.info("✅ Élection supprimée: {}", electionId);
+        indexElectionService.retirer(electionId);
     }
     // ==================== STATISTIQUES ====================
 
@@ -8,8 +8,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.ToIntFunction;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -24,7 +28,10 @@ public class AuthService {
 
     /**
      *  Authentification électeur avec identifiants reçus par email
+     *
+     * Hors transaction : aucune connexion base n'est gardée pendant la vérification BCrypt.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse authentifierElecteur(LoginRequest request) {
         log.info(" Tentative connexion électeur - Email: {}", request.getEmail());
 
@@ -41,6 +48,9 @@ public class AuthService {
                 log.warn(" Tentative connexion mot de passe électeur incorrect: {}", request.getEmail());
                 return null;
             }
+            String empreinte = electeur.getMotDePasse();
+            rehacherSiNecessaire(request.getMotDePasse(), empreinte,
+                    nouvelle -> electeurRepository.remplacerEmpreinte(electeur.getIdElecteur(), empreinte, nouvelle));
 
             log.info(" Connexion électeur réussie - ID: {}, Username: {}",
                     electeur.getExternalIdElecteur(), electeur.getUsername());
@@ -71,6 +81,7 @@ public class AuthService {
     /**
      *  Authentification administrateur
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse authentifierAdministrateur(LoginRequest request) {
         log.info(" Tentative connexion admin - Email: {}", request.getEmail());
 
@@ -87,6 +98,9 @@ public class AuthService {
                 log.warn("️ Tentative connexion mot de passe admin incorrect: {}", request.getEmail());
                 throw new RuntimeException("Identifiants invalides");
             }
+            String empreinte = admin.getMotDePasse();
+            rehacherSiNecessaire(request.getMotDePasse(), empreinte,
+                    nouvelle -> administrateurRepository.remplacerEmpreinte(admin.getIdAdmin(), empreinte, nouvelle));
 
             log.info(" Connexion admin réussie - ID: {}, Username: {}",
                     admin.getExternalIdAdministrateur(), admin.getUsername());
@@ -234,9 +248,11 @@ public class AuthService {
 
     /**
      *  Changer mot de passe électeur (première connexion)
+     *
+     * Hors transaction comme la connexion : vérification et hachage BCrypt d'abord, puis une seule
+     * mise à jour conditionnée à l'empreinte lue (refusée si elle a changé entre-temps).
      */
-
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse changerMotDePasseElecteur(String token, String ancienMotDePasse, String nouveauMotDePasse) {
         log.info(" Changement mot de passe électeur");
 
@@ -252,8 +268,12 @@ public class AuthService {
             validerNouveauMotDePasse(nouveauMotDePasse);
 
             // Changer le mot de passe
-            electeur.setMotDePasse(passwordEncoder.encode(nouveauMotDePasse));
-            electeurRepository.save(electeur);
+            String ancienne = electeur.getMotDePasse();
+            String nouvelle = passwordEncoder.encode(nouveauMotDePasse);
+            if (electeurRepository.remplacerEmpreinte(electeur.getIdElecteur(), ancienne, nouvelle) == 0) {
+                throw new RuntimeException("Le mot de passe a été modifié entre-temps, veuillez réessayer");
+            }
+            electeur.setMotDePasse(nouvelle);
 
             log.info(" Mot de passe électeur changé - ID: {}", electeur.getExternalIdElecteur());
 
@@ -286,6 +306,28 @@ public class AuthService {
         return "ELECTEUR-" + electeur.getExternalIdElecteur() + "-" + System.currentTimeMillis();
     }
 
+    /**
+     * 🔄 Empreinte recalculée au coût cible après une connexion réussie ; la connexion n'échoue
+     * jamais pour ça (hachage saturé : ce sera pour la prochaine fois).
+     *
+     * Seule la colonne mot_de_passe est écrite, et seulement si elle vaut encore l'ancienne
+     * empreinte : un vote ou un changement de mot de passe validé pendant le hachage est gardé.
+     */
+    private void rehacherSiNecessaire(String motDePasse, String ancienne, ToIntFunction<String> remplacer) {
+        if (!passwordEncoder.upgradeEncoding(ancienne)) {
+            return;
+        }
+        try {
+            if (remplacer.applyAsInt(passwordEncoder.encode(motDePasse)) > 0) {
+                log.info("🔄 Empreinte du mot de passe recalculée au coût cible");
+            } else {
+                log.info("🔄 Mot de passe changé pendant le recalcul, nouvelle empreinte abandonnée");
+            }
+        } catch (RejectedExecutionException e) {
+            log.debug("⏳ Recalcul d'empreinte reporté: {}", e.getMessage());
+        }
+    }
+
     /**
      * Génération token admin
      */
@@ -2,10 +2,12 @@ package com.personnal.electronicvoting.service;
 
 import com.personnal.electronicvoting.dto.CampagneDTO;
 import com.personnal.electronicvoting.dto.CandidatDTO;
+import com.personnal.electronicvoting.dto.PageCurseurDTO;
 import com.personnal.electronicvoting.model.Campagne;
 import com.personnal.electronicvoting.model.Candidat;
 import com.personnal.electronicvoting.repository.*;
 import com.personnal.electronicvoting.mapper.*;
+import com.personnal.electronicvoting.util.CurseurPagination;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,21 +27,23 @@ public class CampagneService {
     private final CandidatRepository candidatRepository;
     private final CampagneMapper campagneMapper;
     private final CandidatMapper candidatMapper;
+    private final IndexRechercheService indexRechercheService;
 
     // ==================== CONSULTATION PUBLIQUE ====================
 
     /**
-     *  Lister toutes les campagnes (vue électeur)
+     *  Lister les campagnes par curseur (vue électeur, filtre candidat optionnel)
      */
-    public List<CampagneDTO> listerToutesCampagnes() {
-        log.info(" Consultation publique - Liste de toutes les campagnes");
+    public PageCurseurDTO<CampagneDTO> listerCampagnes(String curseur, Integer taille, String candidatId) {
+        log.info(" Consultation publique - Liste des campagnes");
 
-        List<Campagne> campagnes = campagneRepository.findAll();
-        log.info(" {} campagnes trouvées", campagnes.size());
+        int tailleEffective = CurseurPagination.taille(taille);
+        List<Campagne> campagnes = campagneRepository.findPageApres(
+                CurseurPagination.decoder(curseur, "campagnes"), candidatId,
+                CurseurPagination.lecture(tailleEffective));
 
-        return campagnes.stream()
-                .map(campagneMapper::toDTO)
-                .toList();
+        return CurseurPagination.page(campagnes, tailleEffective, "campagnes",
+                Campagne::getIdCampagne, campagneMapper::toDTO);
     }
 
     /**
@@ -135,6 +139,15 @@ public class CampagneService {
 
     // ==================== RECHERCHE ET FILTRES ====================
 
+    /**
+     *  Filtrer les campagnes par longueur de description (filtre en base)
+     */
+    public List<CampagneDTO> filtrerParLongueurDescription(int minLongueur, int maxLongueur) {
+        return campagneRepository.findByLongueurDescription(minLongueur, maxLongueur).stream()
+                .map(campagneMapper::toDTO)
+                .toList();
+    }
+
     /**
      *  Rechercher campagnes par mot-clé dans la description
      */
@@ -142,17 +155,22 @@ public class CampagneService {
         log.info(" Recherche campagnes par mot-clé: '{}'", motCle);
 
         if (motCle == null || motCle.trim().isEmpty()) {
-            return listerToutesCampagnes();
+            return listerCampagnes(null, null, null).getElements();
         }
 
-        String motCleNormalise = motCle.trim().toLowerCase();
-
-        List<Campagne> campagnesTrouvees = campagneRepository.findAll()
-                .stream()
-                .filter(campagne ->
-                        campagne.getDescription().toLowerCase().contains(motCleNormalise) ||
-                                campagne.getCandidat().getUsername().toLowerCase().contains(motCleNormalise))
-                .toList();
+        List<Campagne> campagnesTrouvees;
+        if (indexRechercheService.estInitialise()) {
+            List<Long> ids = indexRechercheService.rechercher(IndexRechercheService.TypeContenu.CAMPAGNE, motCle);
+            campagnesTrouvees = IndexRechercheService.ordonner(ids, campagneRepository.findAllById(ids), Campagne::getIdCampagne);
+        } else {
+            String motCleNormalise = motCle.trim().toLowerCase();
+            campagnesTrouvees = campagneRepository.findAll()
+                    .stream()
+                    .filter(campagne ->
+                            campagne.getDescription().toLowerCase().contains(motCleNormalise) ||
+                                    campagne.getCandidat().getUsername().toLowerCase().contains(motCleNormalise))
+                    .toList();
+        }
 
         log.info(" {} campagnes trouvées pour '{}'", campagnesTrouvees.size(), motCle);
 
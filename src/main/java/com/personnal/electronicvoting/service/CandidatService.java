@@ -19,10 +19,11 @@ import java.util.List;
 public class CandidatService {
 
     private final CandidatRepository candidatRepository;
+    private final StatistiquesCandidatRepository statistiquesCandidatRepository;
     private final CampagneRepository campagneRepository;
-    private final VoteRepository voteRepository;
     private final CandidatMapper candidatMapper;
     private final CampagneMapper campagneMapper;
+    private final IndexRechercheService indexRechercheService;
 
     // ==================== CONSULTATION PUBLIQUE ====================
 
@@ -46,16 +47,11 @@ public class CandidatService {
     public List<CandidatAvecVotesDTO> obtenirClassementCandidats() {
         log.info(" Calcul classement des candidats par votes");
 
-        List<Candidat> candidatsOrdonnes = candidatRepository.findAllOrderByVoteCountDesc();
-
-        return candidatsOrdonnes.stream()
-                .map(candidat -> {
-                    long nombreVotes = candidatRepository.countVotesByCandidat(candidat.getExternalIdCandidat());
-                    return CandidatAvecVotesDTO.builder()
-                            .candidat(candidatMapper.toDTO(candidat))
-                            .nombreVotes(nombreVotes)
-                            .build();
-                })
+        return statistiquesCandidatRepository.findCandidatsAvecCompteurs().stream()
+                .map(agrege -> CandidatAvecVotesDTO.builder()
+                        .candidat(candidatMapper.toDTO(agrege.getCandidat()))
+                        .nombreVotes(agrege.getNombreVotes())
+                        .build())
                 .toList();
     }
 
@@ -80,7 +76,13 @@ public class CandidatService {
             return listerTousCandidats();
         }
 
-        List<Candidat> candidatsTrouves = candidatRepository.findByUsernameContaining(nomPartiel.trim());
+        List<Candidat> candidatsTrouves;
+        if (indexRechercheService.estInitialise()) {
+            List<Long> ids = indexRechercheService.rechercher(IndexRechercheService.TypeContenu.CANDIDAT, nomPartiel);
+            candidatsTrouves = IndexRechercheService.ordonner(ids, candidatRepository.findAllById(ids), Candidat::getId);
+        } else {
+            candidatsTrouves = candidatRepository.findByUsernameContaining(nomPartiel.trim());
+        }
         log.info(" {} candidats trouvés pour '{}'", candidatsTrouves.size(), nomPartiel);
 
         return candidatsTrouves.stream()
@@ -218,27 +220,24 @@ public class CandidatService {
     public List<StatistiquesCandidatDTO> obtenirStatistiquesDetaillees() {
         log.info(" Calcul statistiques détaillées de tous les candidats");
 
-        List<Candidat> tousLesCandidats = candidatRepository.findAll();
-        long totalVotes = voteRepository.count();
-
-        List<StatistiquesCandidatDTO> statistiques = tousLesCandidats.stream()
-                .map(candidat -> {
-                    long votesCandidat = candidatRepository.countVotesByCandidat(candidat.getExternalIdCandidat());
-                    int nombreCampagnes = campagneRepository.findByCandidat_ExternalIdCandidat(
-                            candidat.getExternalIdCandidat()).size();
+        List<StatistiquesCandidatRepository.CandidatAgrege> agreges =
+                statistiquesCandidatRepository.findCandidatsAvecCompteurs();
+        long totalVotes = agreges.stream().mapToLong(StatistiquesCandidatRepository.CandidatAgrege::getNombreVotes).sum();
 
+        // Déjà triés par nombre de votes
+        List<StatistiquesCandidatDTO> statistiques = agreges.stream()
+                .map(agrege -> {
                     double pourcentage = totalVotes > 0 ?
-                            (double) votesCandidat / totalVotes * 100 : 0;
+                            (double) agrege.getNombreVotes() / totalVotes * 100 : 0;
 
                     return StatistiquesCandidatDTO.builder()
-                            .candidatId(candidat.getExternalIdCandidat())
-                            .nomCandidat(candidat.getUsername())
-                            .nombreVotes(votesCandidat)
-                            .nombreCampagnes(nombreCampagnes)
+                            .candidatId(agrege.getCandidat().getExternalIdCandidat())
+                            .nomCandidat(agrege.getCandidat().getUsername())
+                            .nombreVotes(agrege.getNombreVotes())
+                            .nombreCampagnes((int) agrege.getNombreCampagnes())
                             .pourcentageVotes(Math.round(pourcentage * 100.0) / 100.0)
                             .build();
                 })
-                .sorted((a, b) -> Long.compare(b.getNombreVotes(), a.getNombreVotes()))
                 .toList();
 
         // Attribuer les rangs
@@ -0,0 +1,186 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.util.FabriqueThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 🧩 Composition des tableaux de bord en sections indépendantes calculées en parallèle.
+ *
+ * Chaque section part dès sa déclaration sur un thread de fond (virtuel si activé) et a son propre
+ * délai, compté depuis son lancement : la latence d'un tableau de bord est celle de sa section la
+ * plus lente, plafonnée par les délais. Une section en échec ou hors délai est annulée et remplacée
+ * par sa valeur de repli ; son nom est rapporté dans les sections indisponibles de la réponse.
+ */
+@Service
+@Slf4j
+public class CompositionSectionsService {
+
+    @Value("${app.dashboard.sections.delai-ms:2000}")
+    private long delaiParDefautMs;
+
+    @Value("${app.dashboard.sections.executeurs:16}")
+    private int nombreExecuteurs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuels;
+
+    private ExecutorService executeur;
+
+    // Métriques
+    private final LongAdder sectionsLancees = new LongAdder();
+    private final LongAdder sectionsExpirees = new LongAdder();
+    private final LongAdder sectionsEnEchec = new LongAdder();
+    private final Map<String, LongAdder> degradationsParSection = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void demarrer() {
+        // Threads virtuels : un par section ; sinon un pool borné (les sections en trop attendent leur tour)
+        executeur = threadsVirtuels
+                ? Executors.newThreadPerTaskExecutor(FabriqueThreads.creer("sections-tableau-bord", true))
+                : Executors.newFixedThreadPool(nombreExecuteurs, FabriqueThreads.creer("sections-tableau-bord", false));
+    }
+
+    @PreDestroy
+    void arreter() {
+        executeur.shutdownNow();
+    }
+
+    /**
+     * 🧩 Nouvelle composition (une par requête)
+     */
+    public Composition nouvelle(String nom) {
+        return new Composition(nom);
+    }
+
+    public StatistiquesCompositionDTO obtenirStatistiques() {
+        Map<String, Long> degradations = new TreeMap<>();
+        degradationsParSection.forEach((section, compteur) -> degradations.put(section, compteur.sum()));
+
+        return StatistiquesCompositionDTO.builder()
+                .threadsVirtuels(threadsVirtuels)
+                .delaiParDefautMs(delaiParDefautMs)
+                .sectionsLancees(sectionsLancees.sum())
+                .sectionsExpirees(sectionsExpirees.sum())
+                .sectionsEnEchec(sectionsEnEchec.sum())
+                .degradationsParSection(degradations)
+                .build();
+    }
+
+    // ==================== COMPOSITION ====================
+
+    /**
+     * Sections d'une même réponse. Les résultats sont lus sur le thread de la requête.
+     */
+    public final class Composition {
+        private final String nom;
+        private final List<String> sectionsIndisponibles = new ArrayList<>();
+
+        private Composition(String nom) {
+            this.nom = nom;
+        }
+
+        public <T> Section<T> section(String nomSection, Supplier<T> calcul, T repli) {
+            return section(nomSection, calcul, repli, delaiParDefautMs);
+        }
+
+        public <T> Section<T> section(String nomSection, Supplier<T> calcul, T repli, long delaiMs) {
+            sectionsLancees.increment();
+            long echeance = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delaiMs);
+            try {
+                return new Section<>(this, nomSection, executeur.submit(calcul::get), echeance, repli);
+            } catch (RejectedExecutionException e) {
+                Section<T> section = new Section<>(this, nomSection, null, echeance, repli);
+                section.degrader("exécuteur arrêté", sectionsEnEchec);
+                return section;
+            }
+        }
+
+        /** Noms des sections remplacées par leur repli (lues jusqu'ici) */
+        public List<String> sectionsIndisponibles() {
+            return List.copyOf(sectionsIndisponibles);
+        }
+    }
+
+    public final class Section<T> {
+        private final Composition composition;
+        private final String nom;
+        private final Future<T> future;
+        private final long echeance;
+        private final T repli;
+        private boolean resolue;
+        private boolean degradee;
+        private T valeur;
+
+        private Section(Composition composition, String nom, Future<T> future, long echeance, T repli) {
+            this.composition = composition;
+            this.nom = nom;
+            this.future = future;
+            this.echeance = echeance;
+            this.repli = repli;
+        }
+
+        /**
+         * Résultat de la section, attendu au plus jusqu'à son échéance ; repli en cas d'échec ou de dépassement
+         */
+        public T resultat() {
+            if (resolue) {
+                return valeur;
+            }
+            try {
+                valeur = future.get(Math.max(0, echeance - System.nanoTime()), TimeUnit.NANOSECONDS);
+                resolue = true;
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                degrader("délai dépassé", sectionsExpirees);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                degrader(cause.getMessage(), sectionsEnEchec);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                degrader("requête interrompue", sectionsEnEchec);
+            }
+            return valeur;
+        }
+
+        /** true si la section a été remplacée par son repli */
+        public boolean estDegradee() {
+            resultat();
+            return degradee;
+        }
+
+        private void degrader(String raison, LongAdder compteur) {
+            compteur.increment();
+            degradationsParSection.computeIfAbsent(composition.nom + "/" + nom, cle -> new LongAdder()).increment();
+            log.warn("⚠️ Section {} du {} indisponible ({}), repli utilisé", nom, composition.nom, raison);
+            composition.sectionsIndisponibles.add(nom);
+            valeur = repli;
+            degradee = true;
+            resolue = true;
+        }
+    }
+
+    // ==================== DTOs ====================
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesCompositionDTO {
+        private boolean threadsVirtuels;
+        private long delaiParDefautMs;
+        private long sectionsLancees;
+        private long sectionsExpirees;
+        private long sectionsEnEchec;
+        private Map<String, Long> degradationsParSection;
+    }
+}
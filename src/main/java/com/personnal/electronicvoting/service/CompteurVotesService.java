@@ -0,0 +1,356 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
+import com.personnal.electronicvoting.model.VoteElection;
+import com.personnal.electronicvoting.repository.VoteElectionRepository;
+import com.personnal.electronicvoting.repository.VoteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🧮 Décompte des votes en mémoire.
+ *
+ * Les compteurs (LongAdder par candidat, par élection) sont incrémentés après commit
+ * de chaque vote, ajustés d'une unité quand un vote entre ou sort du statut VALIDE, et
+ * reconstruits depuis la base au démarrage. Les lectures de résultats se font en
+ * O(candidats) sans requête de comptage.
+ *
+ * Tant que la première reconstruction n'a pas abouti, estInitialise() retourne false
+ * et les services appelants retombent sur les requêtes SQL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CompteurVotesService {
+
+    private final VoteRepository voteRepository;
+    private final VoteElectionRepository voteElectionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private volatile Compteurs compteurs = new Compteurs();
+    private volatile boolean initialise = false;
+    private volatile boolean enReconstruction = false;
+
+    /**
+     * Protège enReconstruction et evenementsEnAttente pendant une reconstruction.
+     * Verrous explicites plutôt que synchronized : la reconstruction fait du JDBC
+     * en les tenant, ce qui épinglerait un thread virtuel sur son porteur.
+     */
+    private final ReentrantLock verrouReconstruction = new ReentrantLock();
+    /** Une seule reconstruction à la fois */
+    private final ReentrantLock verrouReconstructionExclusive = new ReentrantLock();
+    private final List<VoteEnregistreEvent> evenementsEnAttente = new ArrayList<>();
+    /** Dernier statut reçu par vote pendant une reconstruction */
+    private final Map<Long, ChangementStatut> changementsEnAttente = new LinkedHashMap<>();
+
+    /** Incrémentée à chaque vote pris en compte et à chaque reconstruction */
+    private final AtomicLong epoque = new AtomicLong();
+
+    // ==================== ALIMENTATION ====================
+
+    /**
+     * 🚀 Reconstruction initiale au démarrage
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiserAuDemarrage() {
+        try {
+            reconstruire();
+        } catch (Exception e) {
+            log.warn("⚠️ Décompte en mémoire indisponible, repli sur les requêtes SQL: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 🗳️ Prise en compte d'un vote, uniquement une fois la transaction validée
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void surVoteEnregistre(VoteEnregistreEvent event) {
+        // Lire la référence avant le drapeau : si une reconstruction démarre ensuite,
+        // l'incrément part sur l'ancien jeu (abandonné) et le vote, déjà validé, est dans l'instantané.
+        Compteurs courants = compteurs;
+
+        if (enReconstruction) {
+            verrouReconstruction.lock();
+            try {
+                if (enReconstruction) {
+                    evenementsEnAttente.add(event);
+                    return;
+                }
+                courants = compteurs;
+            } finally {
+                verrouReconstruction.unlock();
+            }
+        }
+
+        courants.appliquer(event);
+        epoque.incrementAndGet();
+    }
+
+    /**
+     * 🔀 Vote d'élection entré dans le statut VALIDE ou sorti de celui-ci, après commit :
+     * sa cellule (élection, candidat) gagne ou perd une unité
+     */
+    public void changerStatut(Long voteId, String electionId, String candidatId, VoteElection.StatutVote nouveauStatut) {
+        ChangementStatut changement = new ChangementStatut(voteId, electionId, candidatId,
+                nouveauStatut == VoteElection.StatutVote.VALIDE);
+        Compteurs courants = compteurs;
+
+        if (enReconstruction) {
+            verrouReconstruction.lock();
+            try {
+                if (enReconstruction) {
+                    changementsEnAttente.put(voteId, changement);
+                    return;
+                }
+                courants = compteurs;
+            } finally {
+                verrouReconstruction.unlock();
+            }
+        }
+
+        courants.ajouterElection(electionId, candidatId, changement.valide() ? 1L : -1L);
+        epoque.incrementAndGet();
+    }
+
+    /**
+     * 🔄 Reconstruire les compteurs depuis la base.
+     *
+     * Les comptages sont lus dans une transaction REPEATABLE READ (un seul instantané).
+     * Les votes validés pendant la reconstruction sont mis en attente puis rejoués
+     * uniquement s'ils ne sont pas visibles dans cet instantané, ce qui évite
+     * à la fois les pertes et les doubles comptes.
+     */
+    public void reconstruire() {
+        verrouReconstructionExclusive.lock();
+        try {
+            reconstruireSousVerrou();
+        } finally {
+            verrouReconstructionExclusive.unlock();
+        }
+    }
+
+    private void reconstruireSousVerrou() {
+        log.info("🔄 Reconstruction du décompte des votes en mémoire");
+        long debut = System.currentTimeMillis();
+
+        verrouReconstruction.lock();
+        try {
+            evenementsEnAttente.clear();
+            changementsEnAttente.clear();
+            enReconstruction = true;
+        } finally {
+            verrouReconstruction.unlock();
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        // Nouvelle transaction : appelée aussi après le commit d'une autre (afterCommit)
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        try {
+            transaction.executeWithoutResult(status -> {
+                Compteurs nouveaux = new Compteurs();
+
+                for (Object[] ligne : voteRepository.countVotesGroupesParCandidat()) {
+                    nouveaux.ajouterGlobal((String) ligne[0], ((Number) ligne[1]).longValue());
+                }
+
+                for (Object[] ligne : voteElectionRepository.countVotesParElectionEtCandidat(VoteElection.StatutVote.VALIDE)) {
+                    nouveaux.ajouterElection((String) ligne[0], (String) ligne[1], ((Number) ligne[2]).longValue());
+                }
+
+                verrouReconstruction.lock();
+                try {
+                    rejouerEvenementsHorsInstantane(nouveaux);
+                    rejouerChangementsHorsInstantane(nouveaux);
+                    compteurs = nouveaux;
+                    initialise = true;
+                    enReconstruction = false;
+                } finally {
+                    verrouReconstruction.unlock();
+                }
+            });
+        } catch (RuntimeException e) {
+            verrouReconstruction.lock();
+            try {
+                // Les anciens compteurs restent en service : on leur rend les votes mis en attente
+                evenementsEnAttente.forEach(compteurs::appliquer);
+                evenementsEnAttente.clear();
+                changementsEnAttente.values().forEach(c ->
+                        compteurs.ajouterElection(c.electionId(), c.candidatId(), c.valide() ? 1L : -1L));
+                changementsEnAttente.clear();
+                enReconstruction = false;
+            } finally {
+                verrouReconstruction.unlock();
+            }
+            throw e;
+        }
+
+        epoque.incrementAndGet();
+        log.info("✅ Décompte reconstruit en {} ms - {} votes globaux, {} élections",
+                System.currentTimeMillis() - debut, compteurs.totalGlobal.sum(), compteurs.parElection.size());
+    }
+
+    private void rejouerEvenementsHorsInstantane(Compteurs nouveaux) {
+        if (evenementsEnAttente.isEmpty()) {
+            return;
+        }
+
+        List<Long> idsGlobaux = new ArrayList<>();
+        List<Long> idsElection = new ArrayList<>();
+        for (VoteEnregistreEvent event : evenementsEnAttente) {
+            if (event.voteId() != null) {
+                (event.estVoteGlobal() ? idsGlobaux : idsElection).add(event.voteId());
+            }
+        }
+
+        Set<Long> visiblesGlobaux = idsGlobaux.isEmpty() ? Set.of() : new HashSet<>(voteRepository.findIdsExistants(idsGlobaux));
+        Set<Long> visiblesElection = idsElection.isEmpty() ? Set.of() : new HashSet<>(voteElectionRepository.findIdsExistants(idsElection));
+
+        int rejoues = 0;
+        for (VoteEnregistreEvent event : evenementsEnAttente) {
+            Set<Long> visibles = event.estVoteGlobal() ? visiblesGlobaux : visiblesElection;
+            if (event.voteId() == null || !visibles.contains(event.voteId())) {
+                nouveaux.appliquer(event);
+                rejoues++;
+            }
+        }
+
+        log.info("🔁 {} vote(s) reçus pendant la reconstruction, {} rejoué(s)", evenementsEnAttente.size(), rejoues);
+        evenementsEnAttente.clear();
+    }
+
+    /**
+     * Changements de statut reçus pendant la reconstruction : l'écart entre le dernier statut
+     * reçu et celui de l'instantané (qui peut déjà l'inclure) est ajouté
+     */
+    private void rejouerChangementsHorsInstantane(Compteurs nouveaux) {
+        if (changementsEnAttente.isEmpty()) {
+            return;
+        }
+
+        Set<Long> validesDansInstantane = new HashSet<>();
+        for (Object[] ligne : voteElectionRepository.findStatuts(changementsEnAttente.keySet())) {
+            if (ligne[1] == VoteElection.StatutVote.VALIDE) {
+                validesDansInstantane.add(((Number) ligne[0]).longValue());
+            }
+        }
+
+        int rejoues = 0;
+        for (ChangementStatut changement : changementsEnAttente.values()) {
+            boolean valideDansInstantane = validesDansInstantane.contains(changement.voteId());
+            if (changement.valide() != valideDansInstantane) {
+                nouveaux.ajouterElection(changement.electionId(), changement.candidatId(), changement.valide() ? 1L : -1L);
+                rejoues++;
+            }
+        }
+
+        log.info("🔁 {} changement(s) de statut reçus pendant la reconstruction, {} rejoué(s)",
+                changementsEnAttente.size(), rejoues);
+        changementsEnAttente.clear();
+    }
+
+    // ==================== LECTURE ====================
+
+    public boolean estInitialise() {
+        return initialise;
+    }
+
+    public long epoque() {
+        return epoque.get();
+    }
+
+    /**
+     * 📊 Total des votes du scrutin global
+     */
+    public long totalVotesGlobal() {
+        return compteurs.totalGlobal.sum();
+    }
+
+    /**
+     * 📊 Votes du scrutin global pour un candidat
+     */
+    public long votesCandidat(String candidatId) {
+        LongAdder cellule = compteurs.global.get(candidatId);
+        return cellule != null ? cellule.sum() : 0L;
+    }
+
+    /**
+     * 📊 Votes du scrutin global par candidat (candidats ayant au moins un vote)
+     */
+    public Map<String, Long> votesParCandidat() {
+        return lire(compteurs.global);
+    }
+
+    /**
+     * 📊 Total des votes valides d'une élection
+     */
+    public long totalVotesElection(String electionId) {
+        LongAdder cellule = compteurs.totalParElection.get(electionId);
+        return cellule != null ? cellule.sum() : 0L;
+    }
+
+    /**
+     * 📊 Votes valides d'une élection par candidat (candidats ayant au moins un vote)
+     */
+    public Map<String, Long> votesParCandidatElection(String electionId) {
+        Map<String, LongAdder> cellules = compteurs.parElection.get(electionId);
+        return cellules != null ? lire(cellules) : Map.of();
+    }
+
+    private static Map<String, Long> lire(Map<String, LongAdder> cellules) {
+        Map<String, Long> resultat = new HashMap<>(cellules.size() * 2);
+        cellules.forEach((candidatId, cellule) -> resultat.put(candidatId, cellule.sum()));
+        return resultat;
+    }
+
+    // ==================== STRUCTURE INTERNE ====================
+
+    private record ChangementStatut(Long voteId, String electionId, String candidatId, boolean valide) {
+    }
+
+    /**
+     * Jeu de compteurs remplacé en bloc à chaque reconstruction
+     */
+    private static final class Compteurs {
+        private final ConcurrentHashMap<String, LongAdder> global = new ConcurrentHashMap<>();
+        private final LongAdder totalGlobal = new LongAdder();
+        private final ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder>> parElection = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, LongAdder> totalParElection = new ConcurrentHashMap<>();
+
+        void appliquer(VoteEnregistreEvent event) {
+            if (event.estVoteGlobal()) {
+                ajouterGlobal(event.candidatId(), 1L);
+            } else {
+                ajouterElection(event.electionId(), event.candidatId(), 1L);
+            }
+        }
+
+        void ajouterGlobal(String candidatId, long nombre) {
+            global.computeIfAbsent(candidatId, id -> new LongAdder()).add(nombre);
+            totalGlobal.add(nombre);
+        }
+
+        void ajouterElection(String electionId, String candidatId, long nombre) {
+            parElection.computeIfAbsent(electionId, id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(candidatId, id -> new LongAdder())
+                    .add(nombre);
+            totalParElection.computeIfAbsent(electionId, id -> new LongAdder()).add(nombre);
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.model.Election;
+import com.personnal.electronicvoting.model.VoteElection;
+import com.personnal.electronicvoting.repository.ElectionRepository;
+import com.personnal.electronicvoting.repository.VoteElectionRepository;
+import com.personnal.electronicvoting.util.FabriqueThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 📡 Diffusion des résultats d'élection en direct (Server-Sent Events).
+ *
+ * Un canal par élection suivie. À chaque tick (tick-ms), si l'époque du décompte a changé,
+ * les comptes de l'élection sont lus une seule fois, le delta avec le tick précédent est
+ * sérialisé une seule fois et diffusé à tous les abonnés du canal.
+ *
+ * Chaque abonné a au plus un envoi en cours et une trame en attente : si le client est lent,
+ * les deltas suivants sont fusionnés dans cette trame (les comptes sont absolus, seule la
+ * dernière valeur compte). La mémoire par abonné reste bornée sans perte d'information.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DiffusionResultatsService {
+
+    static final String TRAME_INSTANTANE = "instantane";
+    static final String TRAME_DELTA = "delta";
+    private static final long RAFRAICHISSEMENT_ELECTEURS_MS = 60_000;
+
+    private final ElectionRepository electionRepository;
+    private final VoteElectionRepository voteElectionRepository;
+    private final CompteurVotesService compteurVotesService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.resultats.diffusion.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${app.resultats.diffusion.battement-ms:15000}")
+    private long battementMs;
+
+    @Value("${app.resultats.diffusion.duree-max-ms:1800000}")
+    private long dureeMaxMs;
+
+    @Value("${app.resultats.diffusion.abonnes-max:50000}")
+    private int abonnesMax;
+
+    @Value("${app.resultats.diffusion.envoyeurs:8}")
+    private int nombreEnvoyeurs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuels;
+
+    private final Map<String, Canal> canaux = new ConcurrentHashMap<>();
+    private final AtomicInteger abonnes = new AtomicInteger();
+    private ScheduledExecutorService horloge;
+    private ExecutorService envoyeurs;
+
+    // Métriques
+    private final LongAdder ticksPublies = new LongAdder();
+    private final LongAdder lecturesComptes = new LongAdder();
+    private final LongAdder tramesEnvoyees = new LongAdder();
+    private final LongAdder tramesFusionnees = new LongAdder();
+    private final AtomicLong dureeDernierTickMicros = new AtomicLong();
+
+    // ==================== CYCLE DE VIE ====================
+
+    @PostConstruct
+    void demarrer() {
+        // Threads virtuels : un par envoi ; sinon un pool borné partagé par tous les abonnés
+        envoyeurs = threadsVirtuels
+                ? Executors.newThreadPerTaskExecutor(FabriqueThreads.creer("diffusion-resultats", true))
+                : Executors.newFixedThreadPool(nombreEnvoyeurs, FabriqueThreads.creer("diffusion-resultats", false));
+        horloge = Executors.newSingleThreadScheduledExecutor(FabriqueThreads.creer("diffusion-resultats-tick", false));
+        horloge.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        log.info("📡 Diffusion des résultats en direct - tick: {} ms, abonnés max: {}", tickMs, abonnesMax);
+    }
+
+    @PreDestroy
+    void arreter() {
+        horloge.shutdownNow();
+        canaux.values().forEach(canal -> canal.abonnes.forEach(abonne -> abonne.emetteur.complete()));
+        canaux.clear();
+        envoyeurs.shutdownNow();
+    }
+
+    // ==================== ABONNEMENT ====================
+
+    public boolean capaciteAtteinte() {
+        return abonnes.get() >= abonnesMax;
+    }
+
+    /**
+     * 📡 Abonner un client aux résultats d'une élection : un instantané complet, puis des deltas
+     */
+    public SseEmitter abonner(String electionId) {
+        Election election = electionRepository.findByExternalIdElection(electionId)
+                .orElseThrow(() -> new RuntimeException("Élection non trouvée: " + electionId));
+
+        if (!election.getResultatsVisibles() && election.getStatut() != Election.StatutElection.TERMINEE) {
+            throw new RuntimeException("Les résultats ne sont pas encore disponibles");
+        }
+
+        SseEmitter emetteur = new SseEmitter(dureeMaxMs);
+        Abonne abonne = new Abonne(emetteur);
+
+        Canal canal = canaux.compute(electionId, (id, existant) -> {
+            Canal cible = existant != null ? existant : new Canal(id, election.getIdElection());
+            cible.abonnes.add(abonne);
+            return cible;
+        });
+        abonnes.incrementAndGet();
+
+        emetteur.onCompletion(() -> retirer(canal, abonne));
+        emetteur.onTimeout(() -> retirer(canal, abonne));
+        emetteur.onError(erreur -> retirer(canal, abonne));
+
+        // Instantané déposé sous le verrou du canal, comme les deltas de publier : l'abonné ne reçoit
+        // des deltas qu'une fois prêt, et tous sont plus récents que son instantané
+        canal.verrou.lock();
+        try {
+            if (canal.etat == null) {
+                canal.etat = lireEtat(canal, compteurVotesService.epoque(), 0);
+            }
+            enfiler(abonne, trame(TRAME_INSTANTANE, canal, canal.etat, canal.etat.votes()));
+            abonne.pret = true;
+        } finally {
+            canal.verrou.unlock();
+        }
+
+        log.info("📡 Nouvel abonné aux résultats de {} ({} abonné(s) au total)", electionId, abonnes.get());
+        return emetteur;
+    }
+
+    private void retirer(Canal canal, Abonne abonne) {
+        if (canal.abonnes.remove(abonne)) {
+            abonnes.decrementAndGet();
+        }
+        canaux.computeIfPresent(canal.electionId, (id, existant) -> existant.abonnes.isEmpty() ? null : existant);
+    }
+
+    // ==================== TICK ====================
+
+    /**
+     * ⏱️ Une lecture des comptes par canal et par tick, uniquement si un vote a été validé depuis
+     */
+    void tick() {
+        long debut = System.nanoTime();
+        try {
+            long epoque = compteurVotesService.epoque();
+            long maintenant = System.currentTimeMillis();
+
+            for (Canal canal : canaux.values()) {
+                Etat precedent = canal.etat;
+                boolean ecrit = (precedent == null || precedent.epoque() != epoque) && publier(canal, precedent, epoque);
+                if (ecrit) {
+                    canal.dernierEcrit = maintenant;
+                } else if (maintenant - canal.dernierEcrit >= battementMs) {
+                    // Rien écrit sur ce canal depuis battement-ms (même si l'époque bouge pour d'autres élections)
+                    canal.dernierEcrit = maintenant;
+                    canal.abonnes.forEach(abonne -> enfiler(abonne, Trame.BATTEMENT));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Tick de diffusion des résultats en échec: {}", e.getMessage());
+        } finally {
+            dureeDernierTickMicros.set(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - debut));
+        }
+    }
+
+    /**
+     * @return vrai si un delta a été déposé pour les abonnés du canal
+     */
+    private boolean publier(Canal canal, Etat precedent, long epoque) {
+        canal.verrou.lock();
+        try {
+            Etat nouveau = lireEtat(canal, epoque, precedent != null ? precedent.sequence() + 1 : 0);
+            canal.etat = nouveau;
+
+            Map<String, Long> delta = calculerDelta(precedent != null ? precedent.votes() : Map.of(), nouveau.votes());
+            if (delta.isEmpty() && precedent != null && precedent.totalVotes() == nouveau.totalVotes()) {
+                return false;
+            }
+
+            // Une seule sérialisation, partagée par tous les abonnés du canal qui ont reçu leur instantané
+            Trame trame = trame(TRAME_DELTA, canal, nouveau, delta);
+            canal.abonnes.forEach(abonne -> {
+                if (abonne.pret) {
+                    enfiler(abonne, trame);
+                }
+            });
+            ticksPublies.increment();
+            return true;
+        } finally {
+            canal.verrou.unlock();
+        }
+    }
+
+    private Etat lireEtat(Canal canal, long epoque, long sequence) {
+        lecturesComptes.increment();
+        Map<String, Long> votes;
+        long total;
+
+        if (compteurVotesService.estInitialise()) {
+            votes = Map.copyOf(compteurVotesService.votesParCandidatElection(canal.electionId));
+            total = compteurVotesService.totalVotesElection(canal.electionId);
+        } else {
+            votes = new HashMap<>();
+            voteElectionRepository.countVotesParCandidatPourElection(canal.electionId, VoteElection.StatutVote.VALIDE)
+                    .forEach(ligne -> votes.put((String) ligne[0], ((Number) ligne[1]).longValue()));
+            total = votes.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        long maintenant = System.currentTimeMillis();
+        if (maintenant - canal.electeursLusA >= RAFRAICHISSEMENT_ELECTEURS_MS) {
+            canal.electeursAutorises = electionRepository.countElecteursAutorises(canal.electionPk);
+            canal.electeursLusA = maintenant;
+        }
+
+        return new Etat(epoque, sequence, votes, total);
+    }
+
+    /**
+     * Candidats dont le compte a changé (0 pour un candidat disparu après annulation)
+     */
+    static Map<String, Long> calculerDelta(Map<String, Long> anciens, Map<String, Long> nouveaux) {
+        Map<String, Long> delta = new HashMap<>();
+        nouveaux.forEach((candidatId, nombre) -> {
+            if (!nombre.equals(anciens.get(candidatId))) {
+                delta.put(candidatId, nombre);
+            }
+        });
+        anciens.keySet().forEach(candidatId -> {
+            if (!nouveaux.containsKey(candidatId)) {
+                delta.put(candidatId, 0L);
+            }
+        });
+        return delta;
+    }
+
+    // ==================== ENVOI ====================
+
+    private Trame trame(String type, Canal canal, Etat etat, Map<String, Long> votes) {
+        long electeurs = canal.electeursAutorises;
+        double taux = electeurs > 0 ? Math.round((double) etat.totalVotes() / electeurs * 10000.0) / 100.0 : 0;
+        TrameResultatsDTO contenu = new TrameResultatsDTO(canal.electionId, etat.sequence(), votes, etat.totalVotes(), taux);
+        return new Trame(type, contenu, serialiser(contenu));
+    }
+
+    /**
+     * Dépose la trame dans l'emplacement unique de l'abonné (fusion si une trame attend déjà)
+     * et démarre l'envoi si aucun n'est en cours.
+     */
+    private void enfiler(Abonne abonne, Trame trame) {
+        boolean demarrer;
+        abonne.verrou.lock();
+        try {
+            if (abonne.ferme) {
+                return;
+            }
+            if (abonne.enAttente != null && trame != Trame.BATTEMENT && abonne.enAttente != Trame.BATTEMENT) {
+                tramesFusionnees.increment();
+            }
+            abonne.enAttente = fusionner(abonne.enAttente, trame);
+            demarrer = !abonne.enEnvoi;
+            abonne.enEnvoi = true;
+        } finally {
+            abonne.verrou.unlock();
+        }
+
+        if (demarrer) {
+            try {
+                envoyeurs.execute(() -> vider(abonne));
+            } catch (RejectedExecutionException e) {
+                abonne.emetteur.complete();
+            }
+        }
+    }
+
+    Trame fusionner(Trame enAttente, Trame nouvelle) {
+        if (enAttente == null || enAttente == Trame.BATTEMENT) {
+            return nouvelle;
+        }
+        if (nouvelle == Trame.BATTEMENT) {
+            return enAttente;
+        }
+
+        // Comptes de la trame la plus récente appliqués sur la plus ancienne, quel que soit l'ordre d'arrivée
+        boolean nouvellePlusRecente = nouvelle.contenu().sequence() >= enAttente.contenu().sequence();
+        Trame ancienne = nouvellePlusRecente ? enAttente : nouvelle;
+        Trame recente = nouvellePlusRecente ? nouvelle : enAttente;
+
+        Map<String, Long> votes = new HashMap<>(ancienne.contenu().votes());
+        votes.putAll(recente.contenu().votes());
+        TrameResultatsDTO contenu = new TrameResultatsDTO(recente.contenu().electionId(), recente.contenu().sequence(),
+                votes, recente.contenu().totalVotes(), recente.contenu().tauxParticipation());
+        // Un instantané complet reste complet une fois les deltas appliqués
+        String type = TRAME_INSTANTANE.equals(enAttente.type()) || TRAME_INSTANTANE.equals(nouvelle.type())
+                ? TRAME_INSTANTANE : TRAME_DELTA;
+        return new Trame(type, contenu, serialiser(contenu));
+    }
+
+    private void vider(Abonne abonne) {
+        while (true) {
+            Trame trame;
+            abonne.verrou.lock();
+            try {
+                trame = abonne.enAttente;
+                abonne.enAttente = null;
+                if (trame == null || abonne.ferme) {
+                    abonne.enEnvoi = false;
+                    return;
+                }
+            } finally {
+                abonne.verrou.unlock();
+            }
+
+            try {
+                if (trame == Trame.BATTEMENT) {
+                    abonne.emetteur.send(SseEmitter.event().comment("battement"));
+                } else {
+                    abonne.emetteur.send(SseEmitter.event()
+                            .name(trame.type())
+                            .id(String.valueOf(trame.contenu().sequence()))
+                            .data(trame.json()));
+                    tramesEnvoyees.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client parti : l'emetteur déclenche le retrait via ses callbacks
+                abonne.verrou.lock();
+                try {
+                    abonne.ferme = true;
+                    abonne.enEnvoi = false;
+                } finally {
+                    abonne.verrou.unlock();
+                }
+                abonne.emetteur.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    private String serialiser(TrameResultatsDTO contenu) {
+        try {
+            return objectMapper.writeValueAsString(contenu);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Erreur de sérialisation des résultats", e);
+        }
+    }
+
+    // ==================== MÉTRIQUES ====================
+
+    public StatistiquesDiffusionDTO obtenirStatistiques() {
+        return StatistiquesDiffusionDTO.builder()
+                .canaux(canaux.size())
+                .abonnes(abonnes.get())
+                .abonnesMax(abonnesMax)
+                .tickMs(tickMs)
+                .ticksPublies(ticksPublies.sum())
+                .lecturesComptes(lecturesComptes.sum())
+                .tramesEnvoyees(tramesEnvoyees.sum())
+                .tramesFusionnees(tramesFusionnees.sum())
+                .dureeDernierTickMicros(dureeDernierTickMicros.get())
+                .build();
+    }
+
+    // ==================== TYPES ====================
+
+    private static final class Canal {
+        private final String electionId;
+        private final Long electionPk;
+        private final Set<Abonne> abonnes = ConcurrentHashMap.newKeySet();
+        private final ReentrantLock verrou = new ReentrantLock();
+        private volatile Etat etat;
+        private volatile long electeursAutorises;
+        private volatile long electeursLusA = Long.MIN_VALUE / 2;
+        /** Dernier delta ou battement déposé, pour le battement propre au canal */
+        private volatile long dernierEcrit = System.currentTimeMillis();
+
+        private Canal(String electionId, Long electionPk) {
+            this.electionId = electionId;
+            this.electionPk = electionPk;
+        }
+    }
+
+    private static final class Abonne {
+        private final SseEmitter emetteur;
+        private final ReentrantLock verrou = new ReentrantLock();
+        private Trame enAttente;
+        private boolean enEnvoi;
+        private boolean ferme;
+        /** Instantané déposé : l'abonné peut recevoir les deltas (écrit et lu sous le verrou du canal) */
+        private boolean pret;
+
+        private Abonne(SseEmitter emetteur) {
+            this.emetteur = emetteur;
+        }
+    }
+
+    private record Etat(long epoque, long sequence, Map<String, Long> votes, long totalVotes) {
+    }
+
+    record Trame(String type, TrameResultatsDTO contenu, String json) {
+        static final Trame BATTEMENT = new Trame("battement", null, null);
+    }
+
+    /**
+     * @param votes identifiant de candidat → nombre de votes (tous les candidats pour un instantané,
+     *              uniquement ceux qui ont changé pour un delta)
+     */
+    public record TrameResultatsDTO(String electionId, long sequence, Map<String, Long> votes,
+                                    long totalVotes, double tauxParticipation) {
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesDiffusionDTO {
+        private int canaux;
+        private int abonnes;
+        private int abonnesMax;
+        private long tickMs;
+        private long ticksPublies;
+        private long lecturesComptes;
+        private long tramesEnvoyees;
+        private long tramesFusionnees;
+        private long dureeDernierTickMicros;
+    }
+}
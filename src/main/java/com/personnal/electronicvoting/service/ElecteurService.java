@@ -3,11 +3,14 @@ package com.personnal.electronicvoting.service;
 import com.personnal.electronicvoting.dto.ElecteurDTO;
 import com.personnal.electronicvoting.dto.CandidatDTO;
 import com.personnal.electronicvoting.dto.CampagneDTO;
+import com.personnal.electronicvoting.dto.PageCurseurDTO;
 import com.personnal.electronicvoting.dto.request.ChangePasswordRequest;
 import com.personnal.electronicvoting.model.Electeur;
 import com.personnal.electronicvoting.repository.*;
 import com.personnal.electronicvoting.mapper.*;
+import com.personnal.electronicvoting.util.CurseurPagination;
 import com.personnal.electronicvoting.util.PasswordGenerator;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +29,7 @@ public class ElecteurService {
 
     private final ElecteurRepository electeurRepository;
     private final CandidatRepository candidatRepository;
+    private final StatistiquesCandidatRepository statistiquesCandidatRepository;
     private final CampagneRepository campagneRepository;
     private final VoteRepository voteRepository;
     private final UserMapper userMapper;
@@ -74,7 +78,10 @@ public class ElecteurService {
 
     /**
      *  Changer mot de passe électeur
+     *
+     * Hors transaction : hachage BCrypt d'abord, puis une seule mise à jour conditionnée à l'empreinte lue.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void changerMotDePasse(String electeurId, ChangePasswordRequest request) {
         log.info(" Changement mot de passe électeur: {}", electeurId);
 
@@ -88,7 +95,11 @@ public class ElecteurService {
             }
 
             // Changer le mot de passe
-            electeur.setMotDePasse(passwordEncoder.encode(request.getNouveauMotDePasse()));
+            String ancienne = electeur.getMotDePasse();
+            String nouvelle = passwordEncoder.encode(request.getNouveauMotDePasse());
+            if (electeurRepository.remplacerEmpreinte(electeur.getIdElecteur(), ancienne, nouvelle) == 0) {
+                throw new RuntimeException("Le mot de passe a été modifié entre-temps, veuillez réessayer");
+            }
 
             log.info("Mot de passe changé avec succès pour électeur: {}", electeurId);
 
@@ -114,19 +125,13 @@ public class ElecteurService {
             electeurRepository.findByExternalIdElecteur(electeurId)
                     .orElseThrow(() -> new RuntimeException("Électeur non trouvé"));
 
-            return candidatRepository.findAll()
+            return statistiquesCandidatRepository.findCandidatsAvecCompteurs()
                     .stream()
-                    .map(candidat -> {
-                        long nombreVotes = candidatRepository.countVotesByCandidat(candidat.getExternalIdCandidat());
-                        int nombreCampagnes = campagneRepository.findByCandidat_ExternalIdCandidat(
-                                candidat.getExternalIdCandidat()).size();
-
-                        return CandidatAvecStatutDTO.builder()
-                                .candidat(candidatMapper.toDTO(candidat))
-                                .nombreVotes(nombreVotes)
-                                .nombreCampagnes(nombreCampagnes)
-                                .build();
-                    })
+                    .map(agrege -> CandidatAvecStatutDTO.builder()
+                            .candidat(candidatMapper.toDTO(agrege.getCandidat()))
+                            .nombreVotes(agrege.getNombreVotes())
+                            .nombreCampagnes((int) agrege.getNombreCampagnes())
+                            .build())
                     .toList();
 
         } catch (RuntimeException e) {
@@ -178,24 +183,24 @@ public class ElecteurService {
                     .orElseThrow(() -> new RuntimeException("Électeur non trouvé"));
 
 
-            long totalVotes = voteRepository.count();
+            // Une seule requête groupée, déjà triée par nombre de votes
+            List<StatistiquesCandidatRepository.CandidatAgrege> agreges =
+                    statistiquesCandidatRepository.findCandidatsAvecCompteurs();
+            long totalVotes = agreges.stream().mapToLong(StatistiquesCandidatRepository.CandidatAgrege::getNombreVotes).sum();
             long totalElecteurs = electeurRepository.count();
             double tauxParticipation = totalElecteurs > 0 ?
                     (double) totalVotes / totalElecteurs * 100 : 0;
 
-            List<ResultatCandidatDTO> resultats = candidatRepository.findAll()
-                    .stream()
-                    .map(candidat -> {
-                        long votes = candidatRepository.countVotesByCandidat(candidat.getExternalIdCandidat());
-                        double pourcentage = totalVotes > 0 ? (double) votes / totalVotes * 100 : 0;
+            List<ResultatCandidatDTO> resultats = agreges.stream()
+                    .map(agrege -> {
+                        double pourcentage = totalVotes > 0 ? (double) agrege.getNombreVotes() / totalVotes * 100 : 0;
 
                         return ResultatCandidatDTO.builder()
-                                .nomCandidat(candidat.getUsername())
-                                .nombreVotes(votes)
+                                .nomCandidat(agrege.getCandidat().getUsername())
+                                .nombreVotes(agrege.getNombreVotes())
                                 .pourcentageVotes(Math.round(pourcentage * 100.0) / 100.0)
                                 .build();
                     })
-                    .sorted((a, b) -> Long.compare(b.getNombreVotes(), a.getNombreVotes()))
                     .toList();
 
             return ResultatsPartielsDTO.builder()
@@ -216,15 +221,16 @@ public class ElecteurService {
     // ==================== MÉTHODES EXISTANTES CONSERVÉES ====================
 
     /**
-     * Lister tous les électeurs (usage admin)
+     * Lister les électeurs par curseur (usage admin)
      */
     @Transactional(readOnly = true)
-    public List<ElecteurDTO> listerTous() {
-        log.info(" Liste de tous les électeurs");
-        return electeurRepository.findAll()
-                .stream()
-                .map(userMapper::toDTO)
-                .toList();
+    public PageCurseurDTO<ElecteurDTO> listerTous(String curseur, Integer taille) {
+        log.info(" Liste des électeurs");
+        int tailleEffective = CurseurPagination.taille(taille);
+        List<Electeur> lignes = electeurRepository.findPageApres(
+                CurseurPagination.decoder(curseur, "electeurs"), "%", null,
+                CurseurPagination.lecture(tailleEffective));
+        return CurseurPagination.page(lignes, tailleEffective, "electeurs", Electeur::getIdElecteur, userMapper::toDTO);
     }
 
     /**
@@ -1,18 +1,27 @@
 package com.personnal.electronicvoting.service;
 
 import com.personnal.electronicvoting.dto.ElectionDTO;
+import com.personnal.electronicvoting.dto.ElectionSummaryDTO;
+import com.personnal.electronicvoting.dto.PageCurseurDTO;
 import com.personnal.electronicvoting.dto.VoteElectionDTO;
 import com.personnal.electronicvoting.dto.request.CreateElectionRequest;
 import com.personnal.electronicvoting.dto.request.UpdateElectionRequest;
 import com.personnal.electronicvoting.dto.request.VoterElectionRequest;
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
 import com.personnal.electronicvoting.mapper.ElectionMapper;
 import com.personnal.electronicvoting.mapper.VoteElectionMapper;
 import com.personnal.electronicvoting.model.*;
 import com.personnal.electronicvoting.repository.*;
+import com.personnal.electronicvoting.util.CurseurPagination;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -31,6 +40,14 @@ public class ElectionService {
     private final CandidatRepository candidatRepository;
     private final ElectionMapper electionMapper;
     private final VoteElectionMapper voteElectionMapper;
+    private final CompteurVotesService compteurVotesService;
+    private final JournalVotesService journalVotesService;
+    private final IndexElectionService indexElectionService;
+    private final ParticipationService participationService;
+    private final ResultatsElectionService resultatsElectionService;
+    private final ResultatsScellesService resultatsScellesService;
+    private final IndexRechercheService indexRechercheService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ==================== GESTION ÉLECTIONS ADMINISTRATEUR ====================
 
@@ -42,15 +59,80 @@ public class ElectionService {
 
     // ==================== CONSULTATION ÉLECTIONS ====================
 
-    public List<ElectionDTO> listerToutesElections() {
-        log.info("📋 Consultation de toutes les élections");
+    /** Taille maximale d'une page d'identifiants */
+    private static final int TAILLE_PAGE_MAX = 500;
 
-        List<Election> elections = electionRepository.findAll();
-        log.info("📊 {} élections trouvées", elections.size());
+    private static final String TYPE_CURSEUR = "elections";
 
-        return elections.stream()
-                .map(electionMapper::toDTO)
-                .toList();
+    /**
+     * 📑 Élections par curseur, filtre de statut optionnel (une requête par page)
+     */
+    public PageCurseurDTO<ElectionSummaryDTO> listerElections(String curseur, Integer taille,
+                                                              Election.StatutElection statut) {
+        log.info("📋 Consultation des élections (statut: {})", statut);
+
+        int tailleEffective = CurseurPagination.taille(taille);
+        long apres = CurseurPagination.decoder(curseur, TYPE_CURSEUR);
+        List<ElectionSummaryDTO> lignes = electionRepository.findResumesApres(apres, statut,
+                CurseurPagination.lecture(tailleEffective));
+
+        return CurseurPagination.page(lignes, tailleEffective, TYPE_CURSEUR,
+                ElectionSummaryDTO::getIdElection, resume -> resume);
+    }
+
+    /**
+     * 🔎 Rechercher des élections par titre ou description (les plus pertinentes d'abord)
+     */
+    public List<ElectionSummaryDTO> rechercherElections(String motCle) {
+        if (motCle == null || motCle.isBlank()) {
+            return List.of();
+        }
+
+        List<Long> ids = indexRechercheService.estInitialise()
+                ? indexRechercheService.rechercher(IndexRechercheService.TypeContenu.ELECTION, motCle)
+                : electionRepository.findByTitreContainingIgnoreCaseOrDescriptionContainingIgnoreCase(motCle.trim()).stream()
+                        .map(Election::getIdElection)
+                        .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return IndexRechercheService.ordonner(ids, electionRepository.findResumesParIds(ids), ElectionSummaryDTO::getIdElection);
+    }
+
+    public long compterElections() {
+        return electionRepository.count();
+    }
+
+    public long compterElectionsActives() {
+        return electionRepository.findElectionsActives(LocalDate.now(), Election.StatutElection.EN_COURS).stream()
+                .filter(Election::estActive)
+                .count();
+    }
+
+    /**
+     * 👥 Identifiants des électeurs autorisés, par page
+     */
+    public PageIdentifiantsDTO listerElecteursAutorises(String electionId, int page, int taille) {
+        PageRequest pageRequest = pageIdentifiants(electionId, page, taille);
+        return PageIdentifiantsDTO.depuis(electionId, electionRepository.findIdsElecteursAutorises(electionId, pageRequest));
+    }
+
+    /**
+     * 🧑‍💼 Identifiants des candidats participants, par page
+     */
+    public PageIdentifiantsDTO listerCandidatsParticipants(String electionId, int page, int taille) {
+        PageRequest pageRequest = pageIdentifiants(electionId, page, taille);
+        return PageIdentifiantsDTO.depuis(electionId, electionRepository.findIdsCandidatsParticipants(electionId, pageRequest));
+    }
+
+    private PageRequest pageIdentifiants(String electionId, int page, int taille) {
+        if (!electionRepository.existsByExternalIdElection(electionId)) {
+            throw new RuntimeException("Élection non trouvée: " + electionId);
+        }
+        if (page < 0 || taille < 1) {
+            throw new RuntimeException("Page ou taille de page invalide");
+        }
+        return PageRequest.of(page, Math.min(taille, TAILLE_PAGE_MAX));
     }
 
     public ElectionDTO obtenirElection(String electionId) {
@@ -87,7 +169,8 @@ public class ElectionService {
     public VoteElectionDTO voterPourElection(VoterElectionRequest request, String electeurId) {
         log.info("🗳️ Vote de l'électeur {} pour l'élection {}", electeurId, request.getElectionId());
 
-        Election election = electionRepository.findByExternalIdElection(request.getElectionId())
+        // FOR SHARE jusqu'au commit : le statut vérifié ne peut pas changer avant que le vote soit écrit
+        Election election = electionRepository.findPourVoteByExternalId(request.getElectionId())
                 .orElseThrow(() -> new RuntimeException("Élection non trouvée: " + request.getElectionId()));
 
         Electeur electeur = electeurRepository.findByExternalIdElecteur(electeurId)
@@ -96,21 +179,7 @@ public class ElectionService {
         Candidat candidat = candidatRepository.findByExternalIdCandidat(request.getCandidatId())
                 .orElseThrow(() -> new RuntimeException("Candidat non trouvé: " + request.getCandidatId()));
 
-        validateVote(election, electeur, candidat);
-
-        if (!election.getAutoriserVoteMultiple()) {
-            boolean aDejaVote = voteElectionRepository.existsByElection_ExternalIdElectionAndElecteur_ExternalIdElecteur(
-                    request.getElectionId(), electeurId);
-            if (aDejaVote) {
-                throw new RuntimeException("L'électeur a déjà voté pour cette élection");
-            }
-        } else {
-            Long nombreVotesExistants = voteElectionRepository.countVotesElecteurPourElection(
-                    request.getElectionId(), electeurId, VoteElection.StatutVote.VALIDE);
-            if (nombreVotesExistants >= election.getNombreMaxVotesParElecteur()) {
-                throw new RuntimeException("Nombre maximum de votes atteint pour cette élection");
-            }
-        }
+        verifierDroitDeVote(election, electeur, candidat);
 
         VoteElection vote = VoteElection.builder()
                 .election(election)
@@ -122,11 +191,103 @@ public class ElectionService {
                 .build();
 
         VoteElection voteSauvegarde = voteElectionRepository.save(vote);
+        resultatsElectionService.comptabiliser(election.getIdElection(), candidat.getId(), VoteElection.StatutVote.VALIDE);
+
+        // 📓 Journal local (fsync groupé avant commit)
+        if (journalVotesService.estActif()) {
+            journalVotesService.journaliserDansTransaction(
+                    election.getIdElection(), electeur.getIdElecteur(), candidat.getId());
+        }
         log.info("✅ Vote enregistré avec l'ID: {}", voteSauvegarde.getId());
 
+        // 🧮 Décompte en mémoire mis à jour après commit
+        eventPublisher.publishEvent(VoteEnregistreEvent.voteElection(
+                voteSauvegarde.getId(), request.getElectionId(), electeurId, request.getCandidatId(),
+                voteSauvegarde.getHorodatageVote()));
+
         return voteElectionMapper.toDTO(voteSauvegarde);
     }
 
+    /**
+     * 📥 Valider un bulletin sans l'enregistrer (ingestion par lots).
+     * L'insertion est faite ensuite hors de cette transaction par IngestionVotesService.
+     */
+    public BulletinValide preparerBulletin(VoterElectionRequest request, String electeurId) {
+        Election election = electionRepository.findByExternalIdElection(request.getElectionId())
+                .orElseThrow(() -> new RuntimeException("Élection non trouvée: " + request.getElectionId()));
+
+        Electeur electeur = electeurRepository.findByExternalIdElecteur(electeurId)
+                .orElseThrow(() -> new RuntimeException("Électeur non trouvé: " + electeurId));
+
+        Candidat candidat = candidatRepository.findByExternalIdCandidat(request.getCandidatId())
+                .orElseThrow(() -> new RuntimeException("Candidat non trouvé: " + request.getCandidatId()));
+
+        verifierDroitDeVote(election, electeur, candidat);
+
+        return BulletinValide.builder()
+                .electionPk(election.getIdElection())
+                .electeurPk(electeur.getIdElecteur())
+                .candidatPk(candidat.getId())
+                .electionId(election.getExternalIdElection())
+                .electeurId(electeur.getExternalIdElecteur())
+                .candidatId(candidat.getExternalIdCandidat())
+                .electionTitre(election.getTitre())
+                .electeurNom(electeur.getUsername())
+                .candidatNom(candidat.getUsername())
+                .adresseIp(request.getAdresseIp())
+                .userAgent(request.getUserAgent())
+                .build();
+    }
+
+    /**
+     * 🔀 Changer le statut d'un vote (annulation, rejet).
+     * Les résultats matérialisés suivent dans la même transaction ; le décompte
+     * en mémoire et la participation sont mis à jour après commit.
+     */
+    @Transactional
+    public VoteElectionDTO modifierStatutVote(Long voteId, VoteElection.StatutVote nouveauStatut) {
+        VoteElection vote = voteElectionRepository.findById(voteId)
+                .orElseThrow(() -> new RuntimeException("Vote non trouvé: " + voteId));
+
+        VoteElection.StatutVote ancienStatut = vote.getStatutVote();
+        if (ancienStatut == nouveauStatut) {
+            return voteElectionMapper.toDTO(vote);
+        }
+
+        Election election = vote.getElection();
+        if (ResultatsScellesService.estStatutFinal(election.getStatut())) {
+            throw new RuntimeException("Les résultats de cette élection sont scellés, ses votes ne peuvent plus changer");
+        }
+        long electeurPk = vote.getElecteur().getIdElecteur();
+
+        vote.setStatutVote(nouveauStatut);
+        VoteElection voteModifie = voteElectionRepository.save(vote);
+        resultatsElectionService.changerStatut(election.getIdElection(), vote.getCandidat().getId(),
+                ancienStatut, nouveauStatut);
+        log.info("🔀 Vote {} : {} → {}", voteId, ancienStatut, nouveauStatut);
+
+        boolean etaitValide = ancienStatut == VoteElection.StatutVote.VALIDE;
+        boolean estValide = nouveauStatut == VoteElection.StatutVote.VALIDE;
+        if (etaitValide != estValide) {
+            String electionId = election.getExternalIdElection();
+            String candidatId = vote.getCandidat().getExternalIdCandidat();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (estValide) {
+                        participationService.reserver(electionId, election.getAutoriserVoteMultiple(),
+                                election.getNombreMaxVotesParElecteur(), electeurPk);
+                    } else {
+                        participationService.liberer(electionId, electeurPk);
+                    }
+                    compteurVotesService.changerStatut(voteId, electionId, candidatId, nouveauStatut);
+                }
+            });
+        }
+
+        return voteElectionMapper.toDTO(voteModifie);
+    }
+
     // ==================== RÉSULTATS ET STATISTIQUES ====================
 
     public ResultatsElectionDTO obtenirResultatsElection(String electionId) {
@@ -139,24 +300,38 @@ public class ElectionService {
             throw new RuntimeException("Les résultats ne sont pas encore disponibles");
         }
 
-        Long totalVotes = voteElectionRepository.countVotesParElection(electionId, VoteElection.StatutVote.VALIDE);
+        // 🔒 Élection close : résultats scellés, plus aucun recalcul
+        if (ResultatsScellesService.estStatutFinal(election.getStatut())) {
+            return resultatsScellesService.obtenir(election);
+        }
+
+        Long totalVotes;
+        Map<String, Long> votesParCandidat = new HashMap<>();
 
-        List<Object[]> resultatsParCandidat = voteElectionRepository.countVotesParCandidatPourElection(
-                electionId, VoteElection.StatutVote.VALIDE);
+        if (compteurVotesService.estInitialise()) {
+            totalVotes = compteurVotesService.totalVotesElection(electionId);
+            votesParCandidat.putAll(compteurVotesService.votesParCandidatElection(electionId));
+        } else {
+            totalVotes = voteElectionRepository.countVotesParElection(electionId, VoteElection.StatutVote.VALIDE);
+            voteElectionRepository.countVotesParCandidatPourElection(electionId, VoteElection.StatutVote.VALIDE)
+                    .forEach(resultat -> votesParCandidat.put((String) resultat[0], (Long) resultat[1]));
+        }
+
+        // Un seul chargement des noms de candidats
+        Map<String, String> nomsCandidats = votesParCandidat.isEmpty() ? Map.of() :
+                candidatRepository.findByExternalIdCandidatIn(votesParCandidat.keySet()).stream()
+                        .collect(Collectors.toMap(Candidat::getExternalIdCandidat, Candidat::getUsername));
+
+        List<ResultatCandidatDTO> resultats = votesParCandidat.entrySet().stream()
+                .map(entree -> {
+                    String candidatId = entree.getKey();
+                    Long nombreVotes = entree.getValue();
 
-        List<ResultatCandidatDTO> resultats = resultatsParCandidat.stream()
-                .map(resultat -> {
-                    String candidatId = (String) resultat[0];
-                    Long nombreVotes = (Long) resultat[1];
-                    
-                    Candidat candidat = candidatRepository.findByExternalIdCandidat(candidatId)
-                            .orElse(null);
-                    
                     double pourcentage = totalVotes > 0 ? (double) nombreVotes / totalVotes * 100 : 0;
-                    
+
                     return ResultatCandidatDTO.builder()
                             .candidatId(candidatId)
-                            .candidatNom(candidat != null ? candidat.getUsername() : "Candidat inconnu")
+                            .candidatNom(nomsCandidats.getOrDefault(candidatId, "Candidat inconnu"))
                             .nombreVotes(nombreVotes)
                             .pourcentageVotes(Math.round(pourcentage * 100.0) / 100.0)
                             .build();
@@ -164,13 +339,17 @@ public class ElectionService {
                 .sorted((a, b) -> Long.compare(b.getNombreVotes(), a.getNombreVotes()))
                 .toList();
 
+        // Taille de la liste sans charger la collection : index en mémoire, sinon COUNT sur la table de jointure
+        long electeursAutorises = indexElectionService.estIndexee(electionId)
+                ? indexElectionService.nombreElecteursAutorises(electionId)
+                : electionRepository.countElecteursAutorises(election.getIdElection());
+
         return ResultatsElectionDTO.builder()
                 .electionId(electionId)
                 .electionTitre(election.getTitre())
                 .totalVotes(totalVotes)
-                .totalElecteursAutorises((long) election.getElecteursAutorises().size())
-                .tauxParticipation(election.getElecteursAutorises().size() > 0 ? 
-                        (double) totalVotes / election.getElecteursAutorises().size() * 100 : 0)
+                .totalElecteursAutorises(electeursAutorises)
+                .tauxParticipation(electeursAutorises > 0 ? (double) totalVotes / electeursAutorises * 100 : 0)
                 .resultatsParCandidat(resultats)
                 .dateCalcul(LocalDate.now())
                 .build();
@@ -180,6 +359,39 @@ public class ElectionService {
 
 
 
+    private void verifierDroitDeVote(Election election, Electeur electeur, Candidat candidat) {
+        validateVote(election, electeur, candidat);
+
+        String electionId = election.getExternalIdElection();
+        String electeurId = electeur.getExternalIdElecteur();
+
+        // ✅ Participation en mémoire : réservation CAS, libérée si la transaction est annulée
+        if (participationService.estInitialise()) {
+            boolean reserve = participationService.reserver(electionId, election.getAutoriserVoteMultiple(),
+                    election.getNombreMaxVotesParElecteur(), electeur.getIdElecteur());
+            if (!reserve) {
+                throw new RuntimeException(Boolean.TRUE.equals(election.getAutoriserVoteMultiple())
+                        ? "Nombre maximum de votes atteint pour cette élection"
+                        : "L'électeur a déjà voté pour cette élection");
+            }
+            return;
+        }
+
+        if (!election.getAutoriserVoteMultiple()) {
+            boolean aDejaVote = voteElectionRepository.existsByElection_ExternalIdElectionAndElecteur_ExternalIdElecteur(
+                    electionId, electeurId);
+            if (aDejaVote) {
+                throw new RuntimeException("L'électeur a déjà voté pour cette élection");
+            }
+        } else {
+            Long nombreVotesExistants = voteElectionRepository.countVotesElecteurPourElection(
+                    electionId, electeurId, VoteElection.StatutVote.VALIDE);
+            if (nombreVotesExistants >= election.getNombreMaxVotesParElecteur()) {
+                throw new RuntimeException("Nombre maximum de votes atteint pour cette élection");
+            }
+        }
+    }
+
     private void validateVote(Election election, Electeur electeur, Candidat candidat) {
         if (!election.estActive()) {
             throw new RuntimeException("Cette élection n'est pas active");
@@ -187,11 +399,27 @@ public class ElectionService {
 
 
 
-        if (!election.electeurEstAutorise(electeur.getExternalIdElecteur())) {
+        String electionId = election.getExternalIdElection();
+        if (!indexElectionService.estIndexee(electionId)) {
+            // Élection ouverte avant le démarrage de l'index : construction à la première demande
+            indexElectionService.indexer(election);
+        }
+
+        boolean electeurAutorise;
+        boolean candidatParticipant;
+        if (indexElectionService.estIndexee(electionId)) {
+            electeurAutorise = indexElectionService.electeurEstAutorise(electionId, electeur.getIdElecteur());
+            candidatParticipant = indexElectionService.candidatEstParticipant(electionId, candidat.getId());
+        } else {
+            electeurAutorise = election.electeurEstAutorise(electeur.getExternalIdElecteur());
+            candidatParticipant = election.candidatEstParticipant(candidat.getExternalIdCandidat());
+        }
+
+        if (!electeurAutorise) {
             throw new RuntimeException("Électeur non autorisé pour cette élection");
         }
 
-        if (!election.candidatEstParticipant(candidat.getExternalIdCandidat())) {
+        if (!candidatParticipant) {
             throw new RuntimeException("Candidat non participant à cette élection");
         }
     }
@@ -210,6 +438,53 @@ public class ElectionService {
         private Double tauxParticipation;
         private List<ResultatCandidatDTO> resultatsParCandidat;
         private LocalDate dateCalcul;
+        /** SHA-256 du contenu scellé (élection close uniquement) */
+        private String empreinteResultats;
+    }
+
+    /**
+     * 📥 Bulletin validé en attente d'insertion
+     */
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class BulletinValide {
+        private Long electionPk;
+        private Long electeurPk;
+        private Long candidatPk;
+        private String electionId;
+        private String electeurId;
+        private String candidatId;
+        private String electionTitre;
+        private String electeurNom;
+        private String candidatNom;
+        private String adresseIp;
+        private String userAgent;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class PageIdentifiantsDTO {
+        private String electionId;
+        private int page;
+        private int taille;
+        private long total;
+        private int nombrePages;
+        private List<String> identifiants;
+
+        static PageIdentifiantsDTO depuis(String electionId, Page<String> page) {
+            return PageIdentifiantsDTO.builder()
+                    .electionId(electionId)
+                    .page(page.getNumber())
+                    .taille(page.getSize())
+                    .total(page.getTotalElements())
+                    .nombrePages(page.getTotalPages())
+                    .identifiants(page.getContent())
+                    .build();
+        }
     }
 
     @lombok.Data
@@ -0,0 +1,207 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.model.Election;
+import com.personnal.electronicvoting.repository.ElectionRepository;
+import com.personnal.electronicvoting.util.FormatCsv;
+import com.personnal.electronicvoting.util.LectureEnFlux;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 🧾 Export d'audit du registre votes_election d'une élection (NDJSON ou CSV), en flux.
+ *
+ * Lecture par curseur côté serveur ({@link LectureEnFlux}, ordre des identifiants),
+ * écriture au fil de l'eau avec gzip optionnel : le tas reste constant quel que soit le nombre de bulletins.
+ * La dernière ligne porte le SHA-256 de tout ce qui la précède (contenu non compressé) et le nombre
+ * de bulletins, pour que l'auditeur vérifie l'intégrité du fichier reçu.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportAuditVotesService {
+
+    static final String ENTETE_CSV = "id,electionId,electeurId,candidatId,dateVote,horodatageVote,adresseIp,userAgent,statutVote";
+
+    private static final String SELECTION = """
+            SELECT ve.id, el.external_id_electeur, c.external_id_candidat, ve.date_vote, ve.horodatage_vote,
+                   ve.adresse_ip, ve.user_agent, ve.statut_vote
+            FROM votes_election ve
+            JOIN electeur el ON el.id_electeur = ve.electeur_id
+            JOIN candidat c ON c.id = ve.candidat_id
+            WHERE ve.election_id = ?
+            ORDER BY ve.id""";
+
+    private final ElectionRepository electionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.export.audit.taille-lot:2000}")
+    private int tailleLot;
+
+    // Métriques
+    private final LongAdder exports = new LongAdder();
+    private final LongAdder exportsInterrompus = new LongAdder();
+    private final LongAdder bulletinsExportes = new LongAdder();
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    /**
+     * Élection à auditer (vérifiée avant d'ouvrir le flux de réponse)
+     */
+    public Election electionAuditee(String electionId) {
+        return electionRepository.findByExternalIdElection(electionId)
+                .orElseThrow(() -> new RuntimeException("Élection non trouvée: " + electionId));
+    }
+
+    /**
+     * 🧾 Écrire le registre des bulletins de l'élection, suivi de son empreinte
+     *
+     * @return nombre de bulletins écrits
+     */
+    public long exporter(Election election, Format format, OutputStream sortie, boolean gzip) throws IOException {
+        long debut = System.currentTimeMillis();
+        MessageDigest sha256 = sha256();
+        OutputStream compression = gzip ? new GZIPOutputStream(sortie, 8192, true) : sortie;
+        Writer ecriture = new BufferedWriter(new OutputStreamWriter(
+                new DigestOutputStream(compression, sha256), StandardCharsets.UTF_8), 64 * 1024);
+
+        String electionId = election.getExternalIdElection();
+        if (format == Format.CSV) {
+            ecriture.write(ENTETE_CSV);
+            ecriture.write('\n');
+        }
+        ecriture.flush();
+
+        AtomicLong bulletins = new AtomicLong();
+        try {
+            LectureEnFlux.parcourir(jdbcTemplate, transactionManager, SELECTION, tailleLot, rs -> {
+                ecrire(ecriture, format, new LigneAudit(rs.getLong(1), electionId, rs.getString(2), rs.getString(3),
+                        jour(rs.getDate(4)), horodatage(rs.getTimestamp(5)),
+                        rs.getString(6), rs.getString(7), rs.getString(8)));
+                if (bulletins.incrementAndGet() % tailleLot == 0) {
+                    ecriture.flush();
+                }
+            }, election.getIdElection());
+        } catch (IOException e) {
+            exportsInterrompus.increment();
+            log.warn("⚠️ Export d'audit de l'élection {} interrompu après {} bulletin(s): {}",
+                    electionId, bulletins.get(), e.getMessage());
+            throw e;
+        }
+
+        // L'empreinte couvre tous les octets écrits avant la ligne finale
+        ecriture.flush();
+        String empreinte = HexFormat.of().formatHex(sha256.digest());
+        ecriture.write(ligneEmpreinte(format, electionId, bulletins.get(), empreinte));
+        ecriture.write('\n');
+        ecriture.flush();
+        if (compression instanceof GZIPOutputStream flux) {
+            flux.finish();
+        }
+        sortie.flush();
+
+        exports.increment();
+        bulletinsExportes.add(bulletins.get());
+        log.info("🧾 Export d'audit de l'élection {} terminé - {} bulletin(s) en {} ms (sha-256 {})",
+                electionId, bulletins.get(), System.currentTimeMillis() - debut, empreinte);
+        return bulletins.get();
+    }
+
+    private void ecrire(Writer ecriture, Format format, LigneAudit ligne) throws IOException {
+        if (format == Format.NDJSON) {
+            ecriture.write(objectMapper.writeValueAsString(ligne));
+        } else {
+            ecriture.write(Long.toString(ligne.id()));
+            ecriture.write(',');
+            ecriture.write(FormatCsv.champ(ligne.electionId()));
+            ecriture.write(',');
+            ecriture.write(FormatCsv.champ(ligne.electeurId()));
+            ecriture.write(',');
+            ecriture.write(FormatCsv.champ(ligne.candidatId()));
+            ecriture.write(',');
+            ecriture.write(FormatCsv.champ(ligne.dateVote()));
+            ecriture.write(',');
+            ecriture.write(FormatCsv.champ(ligne.horodatageVote()));
+            ecriture.write(',');
+            ecriture.write(FormatCsv.champ(ligne.adresseIp()));
+            ecriture.write(',');
+            ecriture.write(FormatCsv.champ(ligne.userAgent()));
+            ecriture.write(',');
+            ecriture.write(FormatCsv.champ(ligne.statutVote()));
+        }
+        ecriture.write('\n');
+    }
+
+    private String ligneEmpreinte(Format format, String electionId, long bulletins, String empreinte) throws IOException {
+        if (format == Format.NDJSON) {
+            return objectMapper.writeValueAsString(new EmpreinteAudit("empreinte", electionId, bulletins, "SHA-256", empreinte));
+        }
+        return "# sha256=" + empreinte + ",bulletins=" + bulletins;
+    }
+
+    private static String jour(Date valeur) {
+        return valeur != null ? valeur.toLocalDate().toString() : null;
+    }
+
+    private static String horodatage(Timestamp valeur) {
+        return valeur != null ? valeur.toLocalDateTime().toString() : null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public StatistiquesExportAuditDTO obtenirStatistiques() {
+        return StatistiquesExportAuditDTO.builder()
+                .exports(exports.sum())
+                .exportsInterrompus(exportsInterrompus.sum())
+                .bulletinsExportes(bulletinsExportes.sum())
+                .tailleLot(tailleLot)
+                .build();
+    }
+
+    // ==================== TYPES ====================
+
+    record LigneAudit(long id, String electionId, String electeurId, String candidatId, String dateVote,
+                      String horodatageVote, String adresseIp, String userAgent, String statutVote) {
+    }
+
+    /** Dernière ligne NDJSON : type = "empreinte" */
+    record EmpreinteAudit(String type, String electionId, long bulletins, String algorithme, String sha256) {
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesExportAuditDTO {
+        private long exports;
+        private long exportsInterrompus;
+        private long bulletinsExportes;
+        private int tailleLot;
+    }
+}
@@ -0,0 +1,120 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.util.FormatCsv;
+import com.personnal.electronicvoting.util.LectureEnFlux;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 📤 Export CSV des électeurs en flux.
+ *
+ * Les lignes sont lues par un curseur côté serveur ({@link LectureEnFlux},
+ * seules les quatre colonnes exportées) et écrites au fil de l'eau dans la réponse : la mémoire reste
+ * constante quelle que soit la taille du corps électoral, et les premiers octets partent dès le premier lot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportElecteursService {
+
+    static final String ENTETE = "ID,Username,Email,A Vote";
+
+    private static final String SELECTION =
+            "SELECT external_id_electeur, nom_electeur, email, a_vote FROM electeur ORDER BY id_electeur";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.export.electeurs.taille-lot:1000}")
+    private int tailleLot;
+
+    // Métriques
+    private final LongAdder exports = new LongAdder();
+    private final LongAdder exportsInterrompus = new LongAdder();
+    private final LongAdder lignesExportees = new LongAdder();
+
+    /**
+     * 📤 Écrire tout le corps électoral en CSV dans la sortie (compressée en gzip si demandé)
+     *
+     * @return nombre de lignes écrites
+     */
+    public long exporter(OutputStream sortie, boolean gzip) throws IOException {
+        long debut = System.currentTimeMillis();
+        OutputStream flux = gzip ? new GZIPOutputStream(sortie, 8192, true) : sortie;
+        Writer ecriture = new BufferedWriter(new OutputStreamWriter(flux, StandardCharsets.UTF_8), 64 * 1024);
+
+        ecriture.write(ENTETE);
+        ecriture.write('\n');
+        ecriture.flush();
+
+        AtomicLong lignes = new AtomicLong();
+        try {
+            LectureEnFlux.parcourir(jdbcTemplate, transactionManager, SELECTION, tailleLot, rs -> {
+                ecrireLigne(ecriture, rs.getString(1), rs.getString(2), rs.getString(3), rs.getBoolean(4));
+                // Un lot complet : on pousse vers le client
+                if (lignes.incrementAndGet() % tailleLot == 0) {
+                    ecriture.flush();
+                }
+            });
+        } catch (IOException e) {
+            // Client parti en cours de route : le curseur est fermé avec la transaction
+            exportsInterrompus.increment();
+            log.warn("⚠️ Export des électeurs interrompu après {} ligne(s): {}", lignes.get(), e.getMessage());
+            throw e;
+        }
+
+        ecriture.flush();
+        if (flux instanceof GZIPOutputStream compression) {
+            compression.finish();
+        }
+        sortie.flush();
+
+        exports.increment();
+        lignesExportees.add(lignes.get());
+        log.info("📤 Export électeurs terminé - {} ligne(s) en {} ms", lignes.get(), System.currentTimeMillis() - debut);
+        return lignes.get();
+    }
+
+    static void ecrireLigne(Writer ecriture, String id, String nom, String email, boolean aVote) throws IOException {
+        ecriture.write(FormatCsv.champ(id));
+        ecriture.write(',');
+        ecriture.write(FormatCsv.champ(nom));
+        ecriture.write(',');
+        ecriture.write(FormatCsv.champ(email));
+        ecriture.write(',');
+        ecriture.write(aVote ? "Oui" : "Non");
+        ecriture.write('\n');
+    }
+
+    public StatistiquesExportDTO obtenirStatistiques() {
+        return StatistiquesExportDTO.builder()
+                .exports(exports.sum())
+                .exportsInterrompus(exportsInterrompus.sum())
+                .lignesExportees(lignesExportees.sum())
+                .tailleLot(tailleLot)
+                .build();
+    }
+
+    // ==================== DTOs ====================
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesExportDTO {
+        private long exports;
+        private long exportsInterrompus;
+        private long lignesExportees;
+        private int tailleLot;
+    }
+}
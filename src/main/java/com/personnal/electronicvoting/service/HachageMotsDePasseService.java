@@ -0,0 +1,222 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.util.FabriqueThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 🔐 Encodeur de mots de passe de l'application (BCrypt), exécuté sur un pool dédié.
+ *
+ * Un hachage BCrypt au coût 15 prend environ une seconde de CPU : les hachages et vérifications
+ * passent par un pool borné au nombre de cœurs choisi, pour qu'une vague de connexions ne prive
+ * pas les autres requêtes de CPU. Le thread appelant attend son résultat ; si la file d'attente est
+ * pleine, la demande est refusée tout de suite ({@link HachageSatureException}, 503 + Retry-After).
+ * Les empreintes d'un autre coût que le coût cible sont signalées à la connexion pour être
+ * recalculées, sauf quand la file est déjà à moitié pleine.
+ */
+@Service
+@Slf4j
+public class HachageMotsDePasseService implements PasswordEncoder {
+
+    /** Coût d'une empreinte BCrypt : $2a$15$... */
+    private static final Pattern COUT_BCRYPT = Pattern.compile("^\\$2[abyx]?\\$(\\d\\d)\\$");
+
+    @Value("${app.securite.hachage.cout-cible:15}")
+    private int coutCible;
+
+    /** 0 : la moitié des cœurs disponibles */
+    @Value("${app.securite.hachage.executeurs:0}")
+    private int nombreExecuteurs;
+
+    @Value("${app.securite.hachage.file-max:64}")
+    private int fileMax;
+
+    private BCryptPasswordEncoder encodeur;
+    private ThreadPoolExecutor executeur;
+
+    // Métriques
+    private final LongAdder hachages = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder rejetes = new LongAdder();
+    private final LongAdder rehachagesSignales = new LongAdder();
+    private final LongAdder attenteFileNanos = new LongAdder();
+    private final LongAdder dureeHachageNanos = new LongAdder();
+    private final LongAdder operations = new LongAdder();
+    private volatile long attenteFileMaxNanos;
+
+    // ==================== CYCLE DE VIE ====================
+
+    @PostConstruct
+    void demarrer() {
+        if (nombreExecuteurs <= 0) {
+            nombreExecuteurs = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        encodeur = new BCryptPasswordEncoder(coutCible);
+        // Threads plateforme même en mode virtuel : le hachage occupe un cœur du début à la fin
+        executeur = new ThreadPoolExecutor(nombreExecuteurs, nombreExecuteurs, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fileMax), FabriqueThreads.creer("hachage-mots-de-passe", false));
+        log.info("🔐 Hachage des mots de passe: BCrypt coût {}, {} exécuteur(s), file max {}",
+                coutCible, nombreExecuteurs, fileMax);
+    }
+
+    @PreDestroy
+    void arreter() {
+        executeur.shutdownNow();
+    }
+
+    // ==================== PASSWORD ENCODER ====================
+
+    @Override
+    public String encode(CharSequence motDePasse) {
+        hachages.increment();
+        return executer(() -> encodeur.encode(motDePasse));
+    }
+
+    @Override
+    public boolean matches(CharSequence motDePasse, String empreinte) {
+        verifications.increment();
+        return executer(() -> encodeur.matches(motDePasse, empreinte));
+    }
+
+    /**
+     * 🔄 Empreinte d'un autre coût que le coût cible (plus faible ou plus fort), à recalculer
+     * après une connexion réussie ; jamais quand la file est déjà à moitié pleine
+     */
+    @Override
+    public boolean upgradeEncoding(String empreinte) {
+        if (empreinte == null) {
+            return false;
+        }
+        Matcher matcher = COUT_BCRYPT.matcher(empreinte);
+        if (!matcher.find() || Integer.parseInt(matcher.group(1)) == coutCible) {
+            return false;
+        }
+        if (executeur.getQueue().size() * 2 >= fileMax) {
+            return false;
+        }
+        rehachagesSignales.increment();
+        return true;
+    }
+
+    // ==================== EXÉCUTION ====================
+
+    private <T> T executer(Supplier<T> calcul) {
+        long soumission = System.nanoTime();
+        Future<T> resultat;
+        try {
+            resultat = executeur.submit(() -> {
+                long debut = System.nanoTime();
+                enregistrerAttente(debut - soumission);
+                try {
+                    return calcul.get();
+                } finally {
+                    dureeHachageNanos.add(System.nanoTime() - debut);
+                    operations.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejetes.increment();
+            long delai = delaiReessaiSecondes();
+            log.warn("⏳ File de hachage pleine ({} en attente), demande refusée - réessai dans {} s", fileMax, delai);
+            throw new HachageSatureException(delai);
+        }
+
+        try {
+            return resultat.get();
+        } catch (InterruptedException e) {
+            resultat.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Hachage du mot de passe interrompu", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Erreur lors du hachage du mot de passe", e.getCause());
+        }
+    }
+
+    private void enregistrerAttente(long attenteNanos) {
+        attenteFileNanos.add(attenteNanos);
+        if (attenteNanos > attenteFileMaxNanos) {
+            attenteFileMaxNanos = attenteNanos;
+        }
+    }
+
+    /**
+     * ⏱️ Temps estimé pour vider la file actuelle, en secondes (1 au minimum)
+     */
+    public long delaiReessaiSecondes() {
+        long nombre = operations.sum();
+        double dureeMoyenneMs = nombre > 0 ? dureeHachageNanos.sum() / 1_000_000.0 / nombre : 1000;
+        double vidageMs = (executeur.getQueue().size() + 1) * dureeMoyenneMs / nombreExecuteurs;
+        return Math.max(1, (long) Math.ceil(vidageMs / 1000));
+    }
+
+    public StatistiquesHachageDTO obtenirStatistiques() {
+        long nombre = operations.sum();
+        return StatistiquesHachageDTO.builder()
+                .coutCible(coutCible)
+                .executeurs(nombreExecuteurs)
+                .fileMax(fileMax)
+                .enFile(executeur.getQueue().size())
+                .enCours(executeur.getActiveCount())
+                .hachages(hachages.sum())
+                .verifications(verifications.sum())
+                .rejetes(rejetes.sum())
+                .rehachagesSignales(rehachagesSignales.sum())
+                .attenteFileMoyenneMs(nombre > 0 ? attenteFileNanos.sum() / 1_000_000.0 / nombre : 0)
+                .attenteFileMaxMs(attenteFileMaxNanos / 1_000_000.0)
+                .dureeHachageMoyenneMs(nombre > 0 ? dureeHachageNanos.sum() / 1_000_000.0 / nombre : 0)
+                .build();
+    }
+
+    // ==================== EXCEPTION ====================
+
+    /**
+     * ⏳ File de hachage pleine : la demande peut être retentée après le délai indiqué
+     */
+    public static class HachageSatureException extends RejectedExecutionException {
+        private final long delaiReessaiSecondes;
+
+        public HachageSatureException(long delaiReessaiSecondes) {
+            super("Service d'authentification saturé, réessayez dans " + delaiReessaiSecondes + " s");
+            this.delaiReessaiSecondes = delaiReessaiSecondes;
+        }
+
+        public long getDelaiReessaiSecondes() {
+            return delaiReessaiSecondes;
+        }
+    }
+
+    // ==================== DTOs ====================
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesHachageDTO {
+        private int coutCible;
+        private int executeurs;
+        private int fileMax;
+        private int enFile;
+        private int enCours;
+        private long hachages;
+        private long verifications;
+        private long rejetes;
+        private long rehachagesSignales;
+        private double attenteFileMoyenneMs;
+        private double attenteFileMaxMs;
+        private double dureeHachageMoyenneMs;
+    }
+}
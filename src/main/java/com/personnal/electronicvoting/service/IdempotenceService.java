@@ -0,0 +1,255 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.model.RequeteIdempotente;
+import com.personnal.electronicvoting.repository.RequeteIdempotenteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 🔁 Idempotence des soumissions de vote (en-tête Idempotency-Key).
+ *
+ * Une clé est propre à une portée (endpoint + électeur) et liée à l'empreinte de la requête.
+ * Une requête déjà terminée est rejouée sans réexécution ; un doublon concurrent attend
+ * le résultat de la première exécution. Les échecs ne sont pas mémorisés : le client peut
+ * réessayer avec la même clé.
+ *
+ * Mémoire bornée (capacite) avec expiration (duree-vie-minutes). En option, les réponses sont
+ * aussi écrites en base pour être rejouées par les autres instances ; le regroupement des
+ * doublons concurrents reste local, la contrainte d'unicité des votes couvre le reste.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotenceService {
+
+    private static final int LONGUEUR_MAX_CLE = 255;
+
+    private final RequeteIdempotenteRepository requeteIdempotenteRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.vote.idempotence.duree-vie-minutes:1440}")
+    private long dureeVieMinutes;
+
+    @Value("${app.vote.idempotence.capacite:100000}")
+    private int capacite;
+
+    @Value("${app.vote.idempotence.attente-max-ms:10000}")
+    private long attenteMaxMs;
+
+    @Value("${app.vote.idempotence.persistante:false}")
+    private boolean persistante;
+
+    private final Map<String, Entree> entrees = new ConcurrentHashMap<>();
+    /** Ordre d'insertion = ordre d'expiration (durée de vie unique) */
+    private final Queue<Map.Entry<String, Entree>> ordre = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tailleOrdre = new AtomicInteger();
+    private final AtomicLong dernierePurgePersistante = new AtomicLong();
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder rejeux = new LongAdder();
+
+    /**
+     * 🔁 Exécuter une action une seule fois par clé ; sans clé, l'action est simplement exécutée.
+     *
+     * @param portee    endpoint et électeur : une clé n'est jamais partagée entre électeurs
+     * @param empreinte paramètres significatifs de la requête (une clé réutilisée pour
+     *                  une autre requête est refusée)
+     */
+    public <T> Resultat<T> executer(String cle, String portee, String empreinte,
+                                    Class<T> type, Supplier<T> action) {
+        if (cle == null || cle.isBlank()) {
+            return new Resultat<>(action.get(), false);
+        }
+        if (cle.length() > LONGUEUR_MAX_CLE) {
+            throw new RuntimeException("Clé d'idempotence invalide (" + LONGUEUR_MAX_CLE + " caractères maximum)");
+        }
+
+        String cleComplete = portee + "|" + cle;
+        purger();
+
+        Entree nouvelle = new Entree(empreinte, System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(dureeVieMinutes));
+        Entree existante;
+        while ((existante = entrees.putIfAbsent(cleComplete, nouvelle)) != null && existante.estExpiree()) {
+            entrees.remove(cleComplete, existante);
+        }
+
+        if (existante != null) {
+            verifierEmpreinte(existante.empreinte(), empreinte);
+            rejeux.increment();
+            log.info("🔁 Requête rejouée pour la clé d'idempotence {} ({})", cle, portee);
+            return new Resultat<>(type.cast(attendre(existante)), true);
+        }
+        ordre.add(Map.entry(cleComplete, nouvelle));
+        tailleOrdre.incrementAndGet();
+
+        try {
+            // 💾 Déjà traitée par une autre instance ?
+            Optional<T> stockee = persistante ? lirePersistante(cleComplete, empreinte, type) : Optional.empty();
+            if (stockee.isPresent()) {
+                nouvelle.resultat().complete(stockee.get());
+                rejeux.increment();
+                return new Resultat<>(stockee.get(), true);
+            }
+
+            T valeur = action.get();
+            executions.increment();
+            nouvelle.resultat().complete(valeur);
+            if (persistante) {
+                ecrirePersistante(cleComplete, empreinte, valeur);
+            }
+            return new Resultat<>(valeur, false);
+
+        } catch (RuntimeException e) {
+            // Échec non mémorisé : les doublons en attente reçoivent la même erreur
+            entrees.remove(cleComplete, nouvelle);
+            nouvelle.resultat().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object attendre(Entree entree) {
+        try {
+            return entree.resultat().get(attenteMaxMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime
+                    : new RuntimeException("Erreur lors du traitement de la requête", cause);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Requête identique toujours en cours de traitement, veuillez réessayer");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Attente de la requête d'origine interrompue");
+        }
+    }
+
+    private static void verifierEmpreinte(String attendue, String recue) {
+        if (!attendue.equals(recue)) {
+            throw new RuntimeException("Clé d'idempotence déjà utilisée pour une autre requête");
+        }
+    }
+
+    /**
+     * Entrées expirées en tête de file, puis les plus anciennes tant que la capacité est dépassée.
+     * La file compte aussi les entrées retirées après un échec : elle reste bornée par la capacité.
+     * Une exécution en cours n'est jamais évincée (un doublon la réexécuterait) : elle passe en
+     * fin de file, et la capacité peut être dépassée du nombre d'exécutions simultanées.
+     */
+    private void purger() {
+        long maintenant = System.currentTimeMillis();
+        int reportees = 0;
+        Map.Entry<String, Entree> tete;
+        while ((tete = ordre.peek()) != null
+                && (tete.getValue().expireA() <= maintenant || tailleOrdre.get() > capacite)) {
+            if (!ordre.remove(tete)) {
+                continue;
+            }
+            if (!tete.getValue().resultat().isDone()) {
+                ordre.add(tete);
+                if (++reportees >= tailleOrdre.get()) {
+                    return;
+                }
+                continue;
+            }
+            tailleOrdre.decrementAndGet();
+            entrees.remove(tete.getKey(), tete.getValue());
+        }
+    }
+
+    // ==================== PERSISTANCE (MULTI-INSTANCES) ====================
+
+    private <T> Optional<T> lirePersistante(String cle, String empreinte, Class<T> type) {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(dureeVieMinutes);
+
+        return requeteIdempotenteRepository.findById(cle)
+                .filter(requete -> requete.getDateCreation().isAfter(limite))
+                .map(requete -> {
+                    verifierEmpreinte(requete.getEmpreinte(), empreinte);
+                    try {
+                        return objectMapper.readValue(requete.getReponse(), type);
+                    } catch (JsonProcessingException e) {
+                        log.warn("⚠️ Réponse mémorisée illisible pour la clé {}: {}", cle, e.getMessage());
+                        return null;
+                    }
+                });
+    }
+
+    private void ecrirePersistante(String cle, String empreinte, Object valeur) {
+        try {
+            requeteIdempotenteRepository.save(RequeteIdempotente.builder()
+                    .cle(cle)
+                    .empreinte(empreinte)
+                    .reponse(objectMapper.writeValueAsString(valeur))
+                    .dateCreation(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException | DataIntegrityViolationException e) {
+            // Le vote est enregistré : seule la mémorisation de la réponse est perdue
+            log.warn("⚠️ Réponse non mémorisée pour la clé {}: {}", cle, e.getMessage());
+        }
+
+        long maintenant = System.currentTimeMillis();
+        long derniere = dernierePurgePersistante.get();
+        if (maintenant - derniere > TimeUnit.MINUTES.toMillis(dureeVieMinutes)
+                && dernierePurgePersistante.compareAndSet(derniere, maintenant)) {
+            int supprimees = requeteIdempotenteRepository.supprimerAnterieuresA(
+                    LocalDateTime.now().minusMinutes(dureeVieMinutes));
+            log.info("🧹 {} réponse(s) idempotente(s) expirée(s) supprimée(s)", supprimees);
+        }
+    }
+
+    // ==================== MÉTRIQUES ====================
+
+    public StatistiquesIdempotenceDTO obtenirStatistiques() {
+        return StatistiquesIdempotenceDTO.builder()
+                .entreesEnMemoire(entrees.size())
+                .capacite(capacite)
+                .executions(executions.sum())
+                .rejeux(rejeux.sum())
+                .persistante(persistante)
+                .build();
+    }
+
+    // ==================== TYPES ====================
+
+    private record Entree(String empreinte, CompletableFuture<Object> resultat, long expireA) {
+        Entree(String empreinte, long expireA) {
+            this(empreinte, new CompletableFuture<>(), expireA);
+        }
+
+        boolean estExpiree() {
+            return expireA <= System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @param rejoue true si la valeur vient d'une exécution antérieure
+     */
+    public record Resultat<T>(T valeur, boolean rejoue) {
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesIdempotenceDTO {
+        private int entreesEnMemoire;
+        private int capacite;
+        private long executions;
+        private long rejeux;
+        private boolean persistante;
+    }
+}
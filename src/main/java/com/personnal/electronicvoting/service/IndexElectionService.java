@@ -0,0 +1,236 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.model.Election;
+import com.personnal.electronicvoting.repository.ElectionRepository;
+import com.personnal.electronicvoting.util.BitmapCompresse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🧩 Index en mémoire des électeurs autorisés et des candidats participants par élection.
+ *
+ * Clé : identifiant numérique (clé primaire) de l'électeur / du candidat, dense car
+ * généré par séquence. Chaque index est une copie immuable remplacée à chaque
+ * modification : les lectures sur le chemin du vote ne prennent aucun verrou et
+ * ne touchent pas aux collections Hibernate.
+ *
+ * Le bitmap est indexé sur 32 bits : une élection dont une clé sort de [0, 2^31 - 1]
+ * n'est pas indexée et le vote se replie sur les collections ; elle est notée non indexable
+ * jusqu'à sa prochaine modification, pour ne pas relire les jointures à chaque vote. Une indexation à la
+ * demande commencée avant une modification validée n'écrase jamais l'index qu'a
+ * produit cette modification.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IndexElectionService {
+
+    private final ElectionRepository electionRepository;
+
+    private final Map<String, IndexElection> index = new ConcurrentHashMap<>();
+
+    /** Nombre de modifications validées par élection, incrémenté avant chaque synchronisation */
+    private final Map<String, AtomicLong> modifications = new ConcurrentHashMap<>();
+
+    /** Élections non indexables (clé hors du bitmap) : numéro de modification au moment de l'échec */
+    private final Map<String, Long> nonIndexables = new ConcurrentHashMap<>();
+
+    // ==================== CONSTRUCTION ====================
+
+    /**
+     * 🚀 Indexation des élections en cours au démarrage
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiserAuDemarrage() {
+        try {
+            List<Election> enCours = electionRepository.findByStatut(Election.StatutElection.EN_COURS);
+            enCours.forEach(this::indexer);
+            log.info("🧩 {} élection(s) en cours indexée(s)", enCours.size());
+        } catch (Exception e) {
+            log.warn("⚠️ Index des élections indisponible, repli sur les collections: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 🧩 Construire l'index d'une élection à partir des tables de jointure (ids seulement).
+     * Sans effet si l'élection est déjà indexée ou a été modifiée pendant le chargement.
+     */
+    public void indexer(Election election) {
+        String electionId = election.getExternalIdElection();
+        long modification = modification(electionId);
+        if (Long.valueOf(modification).equals(nonIndexables.get(electionId))) {
+            return;
+        }
+
+        IndexElection nouveau = charger(election);
+        if (nouveau == null) {
+            // Périmé d'office si une modification est validée entre-temps
+            nonIndexables.put(electionId, modification);
+            return;
+        }
+        IndexElection retenu = index.compute(electionId, (id, courant) ->
+                courant == null && modification(electionId) == modification ? nouveau : courant);
+        if (retenu != nouveau) {
+            log.debug("🧩 Index de l'élection {} déjà à jour, chargement ignoré", electionId);
+        }
+    }
+
+    /** Lecture des tables de jointure ; null si une clé ne tient pas dans le bitmap */
+    private IndexElection charger(Election election) {
+        long debut = System.currentTimeMillis();
+
+        BitmapCompresse electeurs = versBitmap(election.getExternalIdElection(), electionRepository.findElecteursAutorisesIds(election.getIdElection()));
+        BitmapCompresse candidats = versBitmap(election.getExternalIdElection(), electionRepository.findCandidatsIds(election.getIdElection()));
+        if (electeurs == null || candidats == null) {
+            return null;
+        }
+
+        log.info("🧩 Élection {} indexée en {} ms - {} électeurs ({} octets), {} candidats",
+                election.getExternalIdElection(), System.currentTimeMillis() - debut,
+                electeurs.cardinalite(), electeurs.tailleOctets(), candidats.cardinalite());
+        return new IndexElection(electeurs, candidats);
+    }
+
+    private long modification(String electionId) {
+        AtomicLong compteur = modifications.get(electionId);
+        return compteur != null ? compteur.get() : 0L;
+    }
+
+    public void retirer(String electionId) {
+        if (index.remove(electionId) != null) {
+            log.info("🧩 Index de l'élection {} supprimé", electionId);
+        }
+    }
+
+    /**
+     * 🔄 Répercuter une modification d'élection après commit :
+     * ouverture → indexation, fermeture → suppression, changement de liste → mise à jour incrémentale.
+     *
+     * @param electeurs nouvelle liste d'électeurs autorisés (clés primaires), null si inchangée
+     * @param candidats nouvelle liste de candidats (clés primaires), null si inchangée
+     */
+    public void synchroniserApresCommit(Election election, Collection<Long> electeurs, Collection<Long> candidats) {
+        Runnable synchronisation = () -> {
+            String electionId = election.getExternalIdElection();
+            // Avant toute lecture : une indexation à la demande déjà commencée ne publiera pas son résultat
+            long modification = modifications.computeIfAbsent(electionId, id -> new AtomicLong()).incrementAndGet();
+            nonIndexables.remove(electionId);
+
+            if (election.getStatut() != Election.StatutElection.EN_COURS) {
+                retirer(electionId);
+            } else if (!estIndexee(electionId)) {
+                IndexElection nouveau = charger(election);
+                if (nouveau != null) {
+                    index.put(electionId, nouveau);
+                } else {
+                    retirer(electionId);
+                    nonIndexables.put(electionId, modification);
+                }
+            } else {
+                IndexElection mis = index.computeIfPresent(electionId, (id, courant) -> {
+                    BitmapCompresse nouveauxElecteurs = electeurs != null
+                            ? appliquerDifference(electionId, "électeurs", courant.electeurs(), electeurs) : courant.electeurs();
+                    BitmapCompresse nouveauxCandidats = candidats != null
+                            ? appliquerDifference(electionId, "candidats", courant.candidats(), candidats) : courant.candidats();
+                    // Clé hors du bitmap : retour aux collections pour cette élection
+                    return nouveauxElecteurs != null && nouveauxCandidats != null
+                            ? new IndexElection(nouveauxElecteurs, nouveauxCandidats) : null;
+                });
+                if (mis == null) {
+                    nonIndexables.put(electionId, modification);
+                }
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    synchronisation.run();
+                }
+            });
+        } else {
+            synchronisation.run();
+        }
+    }
+
+    /** Ajouts et retraits seulement, appliqués sur une copie de l'index courant ; null si une clé ne tient pas dans le bitmap */
+    private BitmapCompresse appliquerDifference(String electionId, String libelle,
+                                                BitmapCompresse courant, Collection<Long> cible) {
+        BitmapCompresse cibleBitmap = versBitmap(electionId, cible);
+        if (cibleBitmap == null) {
+            return null;
+        }
+        BitmapCompresse nouveau = courant.copie();
+
+        int ajouts = 0;
+        for (Long id : cible) {
+            if (nouveau.ajouter(Math.toIntExact(id))) {
+                ajouts++;
+            }
+        }
+
+        List<Integer> retraits = new ArrayList<>();
+        courant.pourChaque(id -> {
+            if (!cibleBitmap.contient(id)) {
+                retraits.add(id);
+            }
+        });
+        retraits.forEach(nouveau::retirer);
+
+        log.info("🔄 Index {} de l'élection {} : +{} / -{}", libelle, electionId, ajouts, retraits.size());
+        return nouveau;
+    }
+
+    /** Bitmap des clés, ou null (élection non indexée) si l'une d'elles sort de [0, 2^31 - 1] */
+    private BitmapCompresse versBitmap(String electionId, Collection<? extends Number> ids) {
+        for (Number id : ids) {
+            if (!tientDansBitmap(id.longValue())) {
+                log.warn("⚠️ Clé {} hors de l'index pour l'élection {}, repli sur les collections", id, electionId);
+                return null;
+            }
+        }
+        return BitmapCompresse.depuis(ids);
+    }
+
+    private static boolean tientDansBitmap(long pk) {
+        return pk >= 0 && pk <= Integer.MAX_VALUE;
+    }
+
+    // ==================== LECTURE ====================
+
+    public boolean estIndexee(String electionId) {
+        return index.containsKey(electionId);
+    }
+
+    /**
+     * ✅ Appartenance en O(1) ; false si l'élection n'est pas indexée (vérifier estIndexee avant).
+     * Une clé hors de [0, 2^31 - 1] n'est jamais dans un index construit.
+     */
+    public boolean electeurEstAutorise(String electionId, long electeurPk) {
+        IndexElection courant = index.get(electionId);
+        return courant != null && tientDansBitmap(electeurPk) && courant.electeurs().contient((int) electeurPk);
+    }
+
+    public boolean candidatEstParticipant(String electionId, long candidatPk) {
+        IndexElection courant = index.get(electionId);
+        return courant != null && tientDansBitmap(candidatPk) && courant.candidats().contient((int) candidatPk);
+    }
+
+    public long nombreElecteursAutorises(String electionId) {
+        IndexElection courant = index.get(electionId);
+        return courant != null ? courant.electeurs().cardinalite() : 0L;
+    }
+
+    private record IndexElection(BitmapCompresse electeurs, BitmapCompresse candidats) {
+    }
+}
@@ -0,0 +1,219 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.event.ContenuRechercheModifieEvent;
+import com.personnal.electronicvoting.repository.CampagneRepository;
+import com.personnal.electronicvoting.repository.CandidatRepository;
+import com.personnal.electronicvoting.repository.ElectionRepository;
+import com.personnal.electronicvoting.util.IndexTexte;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * 🔎 Index de recherche en mémoire des candidats, campagnes et élections.
+ *
+ * Un index inversé par type de contenu (BM25, accents ignorés, sous-chaînes par trigrammes),
+ * chargé au démarrage depuis les seuls textes puis tenu à jour après commit de chaque écriture
+ * JPA. La recherche ne touche pas la base : elle renvoie les clés primaires classées, que les
+ * services chargent par id. Tant que le chargement n'est pas terminé, les services gardent
+ * leurs requêtes SQL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IndexRechercheService {
+
+    public enum TypeContenu {
+        CANDIDAT,
+        CAMPAGNE,
+        ELECTION
+    }
+
+    private final CandidatRepository candidatRepository;
+    private final CampagneRepository campagneRepository;
+    private final ElectionRepository electionRepository;
+
+    @Value("${app.recherche.resultats-max:50}")
+    private int resultatsMax;
+
+    private final Map<TypeContenu, IndexTexte> index = creerIndex();
+    /** Contenus modifiés pendant le chargement : leur ligne lue au démarrage est plus ancienne */
+    private final Set<String> modifiesPendantChargement = ConcurrentHashMap.newKeySet();
+    private volatile boolean initialise = false;
+
+    // Métriques
+    private final LongAdder recherches = new LongAdder();
+    private final LongAdder dureeRecherchesNanos = new LongAdder();
+    private final LongAdder misesAJour = new LongAdder();
+    private volatile long dureeChargementMs;
+
+    // ==================== CONSTRUCTION ====================
+
+    /**
+     * 🚀 Chargement des index au démarrage
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiserAuDemarrage() {
+        try {
+            charger();
+        } catch (Exception e) {
+            log.warn("⚠️ Index de recherche indisponible, repli sur les requêtes SQL: {}", e.getMessage());
+        }
+    }
+
+    void charger() {
+        long debut = System.currentTimeMillis();
+
+        charger(TypeContenu.CANDIDAT, candidatRepository.findTextesRecherche());
+        charger(TypeContenu.CAMPAGNE, campagneRepository.findTextesRecherche());
+        charger(TypeContenu.ELECTION, electionRepository.findTextesRecherche());
+
+        initialise = true;
+        modifiesPendantChargement.clear();
+        dureeChargementMs = System.currentTimeMillis() - debut;
+        log.info("🔎 Index de recherche chargé en {} ms - {} candidat(s), {} campagne(s), {} élection(s)",
+                dureeChargementMs, index.get(TypeContenu.CANDIDAT).nombreDocuments(),
+                index.get(TypeContenu.CAMPAGNE).nombreDocuments(), index.get(TypeContenu.ELECTION).nombreDocuments());
+    }
+
+    private void charger(TypeContenu type, List<Object[]> lignes) {
+        for (Object[] ligne : lignes) {
+            long id = ((Number) ligne[0]).longValue();
+            if (!modifiesPendantChargement.contains(cle(type, id))) {
+                index.get(type).indexer(id, texte((String) ligne[1], (String) ligne[2]));
+            }
+        }
+    }
+
+    /**
+     * 🔄 Écriture validée sur un candidat, une campagne ou une élection
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void surModification(ContenuRechercheModifieEvent event) {
+        if (!initialise) {
+            modifiesPendantChargement.add(cle(event.type(), event.id()));
+        }
+
+        IndexTexte indexType = index.get(event.type());
+        if (event.estSuppression()) {
+            indexType.retirer(event.id());
+        } else {
+            indexType.indexer(event.id(), event.texte());
+        }
+        misesAJour.increment();
+
+        // Le nom du candidat fait partie du texte de ses campagnes
+        if (event.type() == TypeContenu.CANDIDAT && !event.estSuppression()) {
+            try {
+                for (Object[] ligne : campagneRepository.findTextesRechercheParCandidat(event.id())) {
+                    long campagneId = ((Number) ligne[0]).longValue();
+                    if (!initialise) {
+                        modifiesPendantChargement.add(cle(TypeContenu.CAMPAGNE, campagneId));
+                    }
+                    index.get(TypeContenu.CAMPAGNE).indexer(campagneId, texte((String) ligne[1], (String) ligne[2]));
+                }
+            } catch (Exception e) {
+                log.warn("⚠️ Campagnes du candidat {} non réindexées: {}", event.id(), e.getMessage());
+            }
+        }
+    }
+
+    // ==================== RECHERCHE ====================
+
+    /**
+     * 🔎 Clés primaires des contenus trouvés, du plus pertinent au moins pertinent
+     */
+    public List<Long> rechercher(TypeContenu type, String terme) {
+        long debut = System.nanoTime();
+        List<Long> ids = index.get(type).rechercher(terme, resultatsMax);
+        recherches.increment();
+        dureeRecherchesNanos.add(System.nanoTime() - debut);
+        return ids;
+    }
+
+    public boolean estInitialise() {
+        return initialise;
+    }
+
+    /**
+     * Éléments chargés par id remis dans l'ordre du classement
+     */
+    public static <T> List<T> ordonner(List<Long> ids, Collection<T> elements, ToLongFunction<T> id) {
+        Map<Long, T> parId = new HashMap<>();
+        elements.forEach(element -> parId.put(id.applyAsLong(element), element));
+        return ids.stream()
+                .map(parId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /** Texte indexé : parties non nulles séparées par un espace */
+    public static String texte(String... parties) {
+        StringJoiner texte = new StringJoiner(" ");
+        for (String partie : parties) {
+            if (partie != null) {
+                texte.add(partie);
+            }
+        }
+        return texte.toString();
+    }
+
+    private static String cle(TypeContenu type, long id) {
+        return type.name() + ":" + id;
+    }
+
+    private static Map<TypeContenu, IndexTexte> creerIndex() {
+        Map<TypeContenu, IndexTexte> index = new EnumMap<>(TypeContenu.class);
+        for (TypeContenu type : TypeContenu.values()) {
+            index.put(type, new IndexTexte());
+        }
+        return index;
+    }
+
+    public StatistiquesRechercheDTO obtenirStatistiques() {
+        Map<TypeContenu, Integer> documents = new EnumMap<>(TypeContenu.class);
+        Map<TypeContenu, Integer> termes = new EnumMap<>(TypeContenu.class);
+        index.forEach((type, indexType) -> {
+            documents.put(type, indexType.nombreDocuments());
+            termes.put(type, indexType.nombreTermes());
+        });
+        long nombreRecherches = recherches.sum();
+
+        return StatistiquesRechercheDTO.builder()
+                .initialise(initialise)
+                .dureeChargementMs(dureeChargementMs)
+                .documentsParType(documents)
+                .termesParType(termes)
+                .recherches(nombreRecherches)
+                .dureeMoyenneRechercheMicros(nombreRecherches > 0
+                        ? dureeRecherchesNanos.sum() / 1000.0 / nombreRecherches : 0)
+                .misesAJour(misesAJour.sum())
+                .build();
+    }
+
+    // ==================== DTOs ====================
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesRechercheDTO {
+        private boolean initialise;
+        private long dureeChargementMs;
+        private Map<TypeContenu, Integer> documentsParType;
+        private Map<TypeContenu, Integer> termesParType;
+        private long recherches;
+        private double dureeMoyenneRechercheMicros;
+        private long misesAJour;
+    }
+}
@@ -0,0 +1,448 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.dto.VoteElectionDTO;
+import com.personnal.electronicvoting.dto.request.VoterElectionRequest;
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
+import com.personnal.electronicvoting.model.VoteElection;
+import com.personnal.electronicvoting.repository.ResultatElectionRepository;
+import com.personnal.electronicvoting.util.FabriqueThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 📥 Ingestion par lots des votes d'élection (mode optionnel).
+ *
+ * Les bulletins validés sont placés dans une file bornée ; des threads écrivains les
+ * insèrent dans votes_election par INSERT multi-lignes, avec la mise à jour de
+ * resultats_election dans la même instruction. L'électeur n'est acquitté
+ * qu'une fois l'instruction de son lot validée en base. L'instruction relit le statut des
+ * élections du lot sous FOR SHARE : un bulletin d'une élection close entre-temps n'est pas
+ * écrit, et la clôture attend la fin des lots en cours (le scellement les voit tous).
+ *
+ * Activation : app.vote.ingestion.active=true (désactivé par défaut).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IngestionVotesService {
+
+    private static final String INSERT_COLONNES = "WITH lignes (election_id, electeur_id, candidat_id, date_vote, " +
+            "adresse_ip, user_agent, statut_vote) AS (VALUES ";
+    private static final String INSERT_LIGNE = "(?, ?, ?, ?, ?, ?, ?)";
+    /**
+     * Statut des élections du lot relu sous FOR SHARE (la clôture prend FOR UPDATE) ; résultats
+     * matérialisés incrémentés dans la même instruction (ordre fixe des verrous entre écrivains).
+     * Lignes à id NULL : élections du lot qui ne sont plus en cours.
+     */
+    private static final String INSERT_CONFLIT = "), " +
+            "elections_lot AS (SELECT id_election, statut FROM elections " +
+            "WHERE id_election IN (SELECT election_id FROM lignes) FOR SHARE), " +
+            "inseres AS (INSERT INTO votes_election (election_id, electeur_id, candidat_id, date_vote, adresse_ip, user_agent, statut_vote, horodatage_vote) " +
+            "SELECT l.election_id, l.electeur_id, l.candidat_id, l.date_vote, l.adresse_ip, l.user_agent, l.statut_vote, LOCALTIMESTAMP " +
+            "FROM lignes l, elections_lot e WHERE e.id_election = l.election_id AND e.statut = 'EN_COURS'" +
+            " ON CONFLICT (election_id, electeur_id) DO NOTHING RETURNING id, election_id, electeur_id, candidat_id, horodatage_vote), " +
+            "resultats AS (" + ResultatElectionRepository.INSERT_RESULTATS +
+            "SELECT election_id, candidat_id, 'VALIDE', COUNT(*), now() FROM inseres " +
+            "GROUP BY election_id, candidat_id ORDER BY election_id, candidat_id" +
+            ResultatElectionRepository.CONFLIT_INCREMENT + ") " +
+            "SELECT id, election_id, electeur_id, horodatage_vote FROM inseres " +
+            "UNION ALL SELECT NULL, id_election, NULL, NULL FROM elections_lot WHERE statut <> 'EN_COURS'";
+
+    private final ElectionService electionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JournalVotesService journalVotesService;
+    private final ParticipationService participationService;
+
+    @Value("${app.vote.ingestion.active:false}")
+    private boolean active;
+
+    @Value("${app.vote.ingestion.taille-lot:200}")
+    private int tailleLot;
+
+    @Value("${app.vote.ingestion.delai-max-ms:5}")
+    private long delaiMaxMs;
+
+    @Value("${app.vote.ingestion.capacite-file:10000}")
+    private int capaciteFile;
+
+    @Value("${app.vote.ingestion.ecrivains:2}")
+    private int nombreEcrivains;
+
+    @Value("${app.vote.ingestion.delai-acquittement-ms:5000}")
+    private long delaiAcquittementMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuels;
+
+    private BlockingQueue<BulletinEnAttente> file;
+    private ExecutorService ecrivains;
+    private volatile boolean enService = false;
+
+    // Métriques
+    private final LongAdder lotsEcrits = new LongAdder();
+    private final LongAdder bulletinsEcrits = new LongAdder();
+    private final LongAdder doublonsRejetes = new LongAdder();
+    private final LongAdder fermeesRejetes = new LongAdder();
+    private final LongAdder lotsEnEchec = new LongAdder();
+    private final LongAdder refusSaturation = new LongAdder();
+    private final AtomicLong latenceEcritureTotaleNanos = new AtomicLong();
+    private final AtomicLong latenceEcritureMaxNanos = new AtomicLong();
+
+    // ==================== CYCLE DE VIE ====================
+
+    @PostConstruct
+    void demarrer() {
+        if (!active) {
+            log.info("📥 Ingestion par lots désactivée - insertion directe des votes");
+            return;
+        }
+
+        // PostgreSQL limite une instruction à 65535 paramètres (7 par ligne)
+        tailleLot = Math.max(1, Math.min(tailleLot, 65535 / 7));
+        file = new ArrayBlockingQueue<>(capaciteFile);
+        // Un thread par écrivain (virtuel si le mode virtuel est activé)
+        ecrivains = Executors.newThreadPerTaskExecutor(FabriqueThreads.creer("ingestion-votes", threadsVirtuels));
+        enService = true;
+
+        for (int i = 0; i < nombreEcrivains; i++) {
+            ecrivains.submit(this::boucleEcriture);
+        }
+
+        log.info("📥 Ingestion par lots active - lot: {}, délai max: {} ms, file: {}, écrivains: {}",
+                tailleLot, delaiMaxMs, capaciteFile, nombreEcrivains);
+    }
+
+    @PreDestroy
+    void arreter() {
+        if (!active) {
+            return;
+        }
+
+        enService = false;
+        ecrivains.shutdown();
+        try {
+            if (!ecrivains.awaitTermination(10, TimeUnit.SECONDS)) {
+                // Les écrivains interrompus remettent leur lot en file avant de s'arrêter
+                ecrivains.shutdownNow();
+                ecrivains.awaitTermination(1, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            ecrivains.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        // Bulletins restants : écrits par le thread d'arrêt
+        List<BulletinEnAttente> restants = new ArrayList<>();
+        file.drainTo(restants);
+        if (!restants.isEmpty()) {
+            log.info("📥 Écriture de {} bulletin(s) restant(s) avant arrêt", restants.size());
+            for (int debut = 0; debut < restants.size(); debut += tailleLot) {
+                ecrireLot(restants.subList(debut, Math.min(debut + tailleLot, restants.size())));
+            }
+        }
+    }
+
+    public boolean estActive() {
+        return active;
+    }
+
+    // ==================== SOUMISSION ====================
+
+    /**
+     * 🗳️ Valider puis mettre en file un bulletin ; bloque jusqu'à l'écriture de son lot.
+     * Volontairement hors transaction : aucune connexion n'est tenue pendant l'attente.
+     */
+    public VoteElectionDTO voter(VoterElectionRequest request, String electeurId) {
+        if (!enService) {
+            throw new RuntimeException("Ingestion des votes indisponible");
+        }
+
+        ElectionService.BulletinValide bulletin = electionService.preparerBulletin(request, electeurId);
+        BulletinEnAttente enAttente = new BulletinEnAttente(bulletin, new CompletableFuture<>());
+
+        // 📓 Journalisé dès l'acceptation : rejouable si la base tombe avant l'écriture du lot
+        boolean journalise = journalVotesService.estActif();
+        if (journalise) {
+            journalVotesService.ajouter(bulletin.getElectionPk(), bulletin.getElecteurPk(), bulletin.getCandidatPk());
+        }
+
+        if (!file.offer(enAttente)) {
+            if (journalise) {
+                annulerJournal(bulletin);
+            }
+            libererParticipation(bulletin);
+            refusSaturation.increment();
+            log.warn("⚠️ File d'ingestion pleine ({} bulletins) - vote refusé pour {}", capaciteFile, electeurId);
+            throw new RuntimeException("Service de vote saturé, veuillez réessayer dans quelques instants");
+        }
+        // Arrêt commencé pendant la mise en file : si la vidange finale est déjà passée, personne ne l'écrira
+        if (!enService && file.remove(enAttente)) {
+            if (journalise) {
+                annulerJournal(bulletin);
+            }
+            libererParticipation(bulletin);
+            throw new RuntimeException("Ingestion des votes indisponible");
+        }
+
+        try {
+            Long voteId = enAttente.acquittement().get(delaiAcquittementMs, TimeUnit.MILLISECONDS);
+
+            return VoteElectionDTO.builder()
+                    .id(voteId)
+                    .electionId(bulletin.getElectionId())
+                    .electeurId(bulletin.getElecteurId())
+                    .candidatId(bulletin.getCandidatId())
+                    .dateVote(LocalDate.now())
+                    .adresseIp(bulletin.getAdresseIp())
+                    .userAgent(bulletin.getUserAgent())
+                    .statutVote(VoteElection.StatutVote.VALIDE)
+                    .electionTitre(bulletin.getElectionTitre())
+                    .electeurNom(bulletin.getElecteurNom())
+                    .candidatNom(bulletin.getCandidatNom())
+                    .build();
+
+        } catch (ExecutionException e) {
+            // Journal déjà annulé par l'écrivain qui a rejeté le bulletin
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime
+                    : new RuntimeException("Erreur lors de l'enregistrement du vote", cause);
+        } catch (TimeoutException e) {
+            // Le bulletin peut encore être écrit : l'électeur doit vérifier avant de revoter
+            log.error("⏱️ Acquittement non reçu sous {} ms pour l'électeur {}", delaiAcquittementMs, electeurId);
+            throw new RuntimeException("Enregistrement du vote non confirmé, vérifiez votre statut avant de réessayer");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Enregistrement du vote interrompu");
+        }
+    }
+
+    // ==================== ÉCRITURE ====================
+
+    private void boucleEcriture() {
+        List<BulletinEnAttente> lot = new ArrayList<>(tailleLot);
+
+        while (enService || !file.isEmpty()) {
+            try {
+                BulletinEnAttente premier = file.poll(100, TimeUnit.MILLISECONDS);
+                if (premier == null) {
+                    continue;
+                }
+                lot.add(premier);
+
+                // Attendre au plus delaiMaxMs que le lot se remplisse
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delaiMaxMs);
+                while (lot.size() < tailleLot) {
+                    file.drainTo(lot, tailleLot - lot.size());
+                    long restant = limite - System.nanoTime();
+                    if (lot.size() >= tailleLot || restant <= 0) {
+                        break;
+                    }
+                    BulletinEnAttente suivant = file.poll(restant, TimeUnit.NANOSECONDS);
+                    if (suivant == null) {
+                        break;
+                    }
+                    lot.add(suivant);
+                }
+
+                ecrireLot(lot);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Lot non écrit : rendu à la file pour la vidange d'arrêt, rejeté s'il n'y tient plus
+                RuntimeException interrompu = new RuntimeException("Enregistrement du vote interrompu");
+                for (BulletinEnAttente enAttente : lot) {
+                    if (!file.offer(enAttente)) {
+                        rejeter(enAttente, interrompu, true);
+                    }
+                }
+                return;
+            } finally {
+                lot.clear();
+            }
+        }
+    }
+
+    /**
+     * 💾 Une seule instruction INSERT multi-lignes par lot, en auto-commit :
+     * le lot est durable dès le retour de l'instruction.
+     */
+    void ecrireLot(List<BulletinEnAttente> lot) {
+        if (lot.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_COLONNES.length() + lot.size() * 24 + INSERT_CONFLIT.length());
+        sql.append(INSERT_COLONNES);
+        Object[] parametres = new Object[lot.size() * 7];
+        Date aujourdhui = Date.valueOf(LocalDate.now());
+
+        for (int i = 0; i < lot.size(); i++) {
+            ElectionService.BulletinValide bulletin = lot.get(i).bulletin();
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_LIGNE);
+
+            int p = i * 7;
+            parametres[p] = bulletin.getElectionPk();
+            parametres[p + 1] = bulletin.getElecteurPk();
+            parametres[p + 2] = bulletin.getCandidatPk();
+            parametres[p + 3] = aujourdhui;
+            parametres[p + 4] = bulletin.getAdresseIp();
+            parametres[p + 5] = bulletin.getUserAgent();
+            parametres[p + 6] = VoteElection.StatutVote.VALIDE.name();
+        }
+        sql.append(INSERT_CONFLIT);
+
+        long debut = System.nanoTime();
+        Map<String, VoteInsere> idsInseres;
+        Set<Long> electionsFermees;
+        try {
+            idsInseres = new HashMap<>();
+            electionsFermees = new HashSet<>();
+            jdbcTemplate.query(sql.toString(), rs -> {
+                long id = rs.getLong("id");
+                if (rs.wasNull()) {
+                    electionsFermees.add(rs.getLong("election_id"));
+                } else {
+                    Timestamp horodatage = rs.getTimestamp("horodatage_vote");
+                    idsInseres.put(cle(rs.getLong("election_id"), rs.getLong("electeur_id")),
+                            new VoteInsere(id, horodatage != null ? horodatage.toLocalDateTime() : null));
+                }
+            }, parametres);
+        } catch (RuntimeException e) {
+            lotsEnEchec.increment();
+            log.error("💥 Échec d'écriture d'un lot de {} bulletin(s): {}", lot.size(), e.getMessage());
+            RuntimeException erreur = new RuntimeException("Erreur lors de l'enregistrement du vote. Veuillez réessayer.", e);
+            lot.forEach(b -> rejeter(b, erreur, true));
+            return;
+        }
+
+        long duree = System.nanoTime() - debut;
+        lotsEcrits.increment();
+        latenceEcritureTotaleNanos.addAndGet(duree);
+        latenceEcritureMaxNanos.accumulateAndGet(duree, Math::max);
+
+        for (BulletinEnAttente enAttente : lot) {
+            ElectionService.BulletinValide bulletin = enAttente.bulletin();
+            // remove : un second bulletin du même électeur dans le lot est un doublon
+            VoteInsere vote = idsInseres.remove(cle(bulletin.getElectionPk(), bulletin.getElecteurPk()));
+
+            if (vote == null && electionsFermees.contains(bulletin.getElectionPk())) {
+                fermeesRejetes.increment();
+                rejeter(enAttente, new RuntimeException("Cette élection n'est pas active"), true);
+                continue;
+            }
+            if (vote == null) {
+                doublonsRejetes.increment();
+                rejeter(enAttente, new RuntimeException("L'électeur a déjà voté pour cette élection"), false);
+                continue;
+            }
+
+            bulletinsEcrits.increment();
+            eventPublisher.publishEvent(VoteEnregistreEvent.voteElection(
+                    vote.id(), bulletin.getElectionId(), bulletin.getElecteurId(), bulletin.getCandidatId(), vote.horodatage()));
+            enAttente.acquittement().complete(vote.id());
+        }
+
+        log.debug("💾 Lot écrit - {} bulletin(s) en {} µs", lot.size(), TimeUnit.NANOSECONDS.toMicros(duree));
+    }
+
+    /**
+     * ❌ Bulletin non écrit : enregistrement du journal annulé, réservation rendue si elle lui
+     * appartient (pas pour un doublon), puis l'électeur en attente est prévenu
+     */
+    private void rejeter(BulletinEnAttente enAttente, RuntimeException erreur, boolean libererReservation) {
+        if (journalVotesService.estActif()) {
+            annulerJournal(enAttente.bulletin());
+        }
+        if (libererReservation) {
+            libererParticipation(enAttente.bulletin());
+        }
+        enAttente.acquittement().completeExceptionally(erreur);
+    }
+
+    private void annulerJournal(ElectionService.BulletinValide bulletin) {
+        journalVotesService.annuler(bulletin.getElectionPk(), bulletin.getElecteurPk(), bulletin.getCandidatPk());
+    }
+
+    /** Le bulletin n'a pas été écrit : rendre la réservation faite par preparerBulletin */
+    private void libererParticipation(ElectionService.BulletinValide bulletin) {
+        participationService.liberer(bulletin.getElectionId(), bulletin.getElecteurPk());
+    }
+
+    private static String cle(long electionPk, long electeurPk) {
+        return electionPk + ":" + electeurPk;
+    }
+
+    // ==================== MÉTRIQUES ====================
+
+    /**
+     * 📊 Statistiques de l'ingestion (profondeur de file, latence d'écriture)
+     */
+    public StatistiquesIngestionDTO obtenirStatistiques() {
+        long lots = lotsEcrits.sum();
+
+        return StatistiquesIngestionDTO.builder()
+                .active(active)
+                .profondeurFile(file != null ? file.size() : 0)
+                .capaciteFile(capaciteFile)
+                .tailleLot(tailleLot)
+                .delaiMaxMs(delaiMaxMs)
+                .lotsEcrits(lots)
+                .bulletinsEcrits(bulletinsEcrits.sum())
+                .doublonsRejetes(doublonsRejetes.sum())
+                .fermeesRejetes(fermeesRejetes.sum())
+                .lotsEnEchec(lotsEnEchec.sum())
+                .refusSaturation(refusSaturation.sum())
+                .latenceEcritureMoyenneMs(lots > 0 ? latenceEcritureTotaleNanos.get() / lots / 1_000_000.0 : 0)
+                .latenceEcritureMaxMs(latenceEcritureMaxNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    // ==================== DTOs SPÉCIFIQUES ====================
+
+    record BulletinEnAttente(ElectionService.BulletinValide bulletin, CompletableFuture<Long> acquittement) {
+    }
+
+    /** Ligne insérée : id et horodatage_vote enregistré */
+    private record VoteInsere(long id, LocalDateTime horodatage) {
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesIngestionDTO {
+        private boolean active;
+        private int profondeurFile;
+        private int capaciteFile;
+        private int tailleLot;
+        private long delaiMaxMs;
+        private long lotsEcrits;
+        private long bulletinsEcrits;
+        private long doublonsRejetes;
+        /** Bulletins dont l'élection a été close avant l'écriture du lot */
+        private long fermeesRejetes;
+        private long lotsEnEchec;
+        private long refusSaturation;
+        private double latenceEcritureMoyenneMs;
+        private double latenceEcritureMaxMs;
+    }
+}
@@ -0,0 +1,166 @@
+package com.personnal.electronicvoting.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 📸 Instantané partagé des résultats du scrutin global (tableaux de bord, pages publiques, rapports).
+ *
+ * L'instantané est immuable et marqué de l'époque du décompte (incrémentée à chaque vote validé).
+ * Les lecteurs le lisent sans verrou ; il n'est recalculé que si l'époque a changé (ou s'il a
+ * dépassé age-max-ms), au plus une fois par intervalle-min-ms et par un seul thread à la fois :
+ * pendant le recalcul, les autres lecteurs reçoivent l'instantané précédent.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InstantaneResultatsService {
+
+    private final VoteService voteService;
+    private final CandidatService candidatService;
+    private final CompteurVotesService compteurVotesService;
+
+    @Value("${app.resultats.instantane.intervalle-min-ms:1000}")
+    private long intervalleMinMs;
+
+    @Value("${app.resultats.instantane.age-max-ms:30000}")
+    private long ageMaxMs;
+
+    private volatile Instantane instantane;
+    private final ReentrantLock verrouCalcul = new ReentrantLock();
+
+    /**
+     * 📸 Instantané courant, recalculé si nécessaire
+     */
+    public Instantane obtenir() {
+        Instantane courant = instantane;
+        if (courant != null && !doitEtreRecalcule(courant)) {
+            return courant;
+        }
+
+        // Un recalcul est déjà en cours : servir l'instantané précédent
+        if (courant != null && !verrouCalcul.tryLock()) {
+            return courant;
+        }
+        if (courant == null) {
+            verrouCalcul.lock();
+        }
+
+        try {
+            courant = instantane;
+            if (courant != null && !doitEtreRecalcule(courant)) {
+                return courant;
+            }
+            return recalculer(courant);
+        } finally {
+            verrouCalcul.unlock();
+        }
+    }
+
+    /**
+     * 📸 Instantané d'époque au moins égale à celle demandée, recalculé tout de suite si besoin,
+     * sans intervalle minimal (travaux de fond comme les rapports mis en cache par époque)
+     */
+    public Instantane obtenirAEpoque(long epoqueMin) {
+        Instantane courant = instantane;
+        if (courant != null && courant.epoque() >= epoqueMin) {
+            return courant;
+        }
+
+        verrouCalcul.lock();
+        try {
+            courant = instantane;
+            if (courant == null || courant.epoque() < epoqueMin) {
+                courant = recalculer(courant);
+            }
+            if (courant.epoque() < epoqueMin) {
+                throw new RuntimeException("Instantané des résultats indisponible pour l'époque " + epoqueMin);
+            }
+            return courant;
+        } finally {
+            verrouCalcul.unlock();
+        }
+    }
+
+    /**
+     * 🔢 Époque du dernier instantané calculé (-1 si aucun)
+     */
+    public long epoque() {
+        Instantane courant = instantane;
+        return courant != null ? courant.epoque() : -1;
+    }
+
+    private boolean doitEtreRecalcule(Instantane courant) {
+        long age = System.currentTimeMillis() - courant.calculeA();
+        if (age < intervalleMinMs) {
+            return false;
+        }
+        return courant.epoque() != compteurVotesService.epoque() || age >= ageMaxMs;
+    }
+
+    private Instantane recalculer(Instantane precedent) {
+        // Époque lue avant le calcul : un vote validé pendant le calcul déclenchera le suivant
+        long epoque = compteurVotesService.epoque();
+        long debut = System.currentTimeMillis();
+
+        try {
+            Instantane nouveau = new Instantane(
+                    epoque,
+                    debut,
+                    LocalDateTime.now(),
+                    List.copyOf(voteService.obtenirResultatsVotes()),
+                    voteService.obtenirStatistiquesGenerales(),
+                    List.copyOf(candidatService.obtenirStatistiquesDetaillees()),
+                    List.copyOf(voteService.obtenirRepartitionTemporelle()));
+            instantane = nouveau;
+
+            log.debug("📸 Instantané des résultats recalculé en {} ms (époque {})",
+                    System.currentTimeMillis() - debut, epoque);
+            return nouveau;
+
+        } catch (RuntimeException e) {
+            if (precedent == null) {
+                throw e;
+            }
+            log.warn("⚠️ Recalcul de l'instantané impossible, précédent conservé: {}", e.getMessage());
+            // Prochaine tentative après l'intervalle minimal, pas à chaque lecture
+            Instantane conserve = precedent.reporteA(debut);
+            instantane = conserve;
+            return conserve;
+        }
+    }
+
+    // ==================== TYPES ====================
+
+    /**
+     * Les listes sont non modifiables et partagées entre requêtes : les DTO ne doivent pas être modifiés.
+     *
+     * @param calculeA horodatage du calcul (ms), pour l'intervalle minimal entre deux recalculs
+     */
+    public record Instantane(
+            long epoque,
+            long calculeA,
+            LocalDateTime dateCalcul,
+            List<VoteService.ResultatVoteDTO> resultatsVotes,
+            VoteService.StatistiquesVoteDTO statistiquesGenerales,
+            List<CandidatService.StatistiquesCandidatDTO> statistiquesCandidats,
+            List<VoteService.VoteTemporelDTO> repartitionTemporelle
+    ) {
+
+        /** Instantané sans résultats (repli quand aucun calcul n'est disponible) */
+        public static Instantane vide() {
+            return new Instantane(-1, 0, null, List.of(), new VoteService.StatistiquesVoteDTO(), List.of(), List.of());
+        }
+
+        Instantane reporteA(long horodatage) {
+            return new Instantane(epoque, horodatage, dateCalcul, resultatsVotes, statistiquesGenerales,
+                    statistiquesCandidats, repartitionTemporelle);
+        }
+    }
+}
@@ -0,0 +1,607 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
+import com.personnal.electronicvoting.repository.ResultatElectionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 📓 Journal local des bulletins, en ajout seul, sur segments mappés en mémoire.
+ *
+ * Chaque bulletin accepté est écrit dans un enregistrement binaire de 40 octets :
+ * <pre>
+ *  0  election (8)   - clé primaire, 0 pour le scrutin global
+ *  8  electeur (8)
+ * 16  candidat (8)
+ * 24  horodatage (8) - epoch millis
+ * 32  statut (1)     - 1 accepté, 2 annulé
+ * 33  version (1)
+ * 34  réservé (2)
+ * 36  crc32 (4)      - sur les octets 0..35
+ * </pre>
+ * Un thread de synchronisation force les segments sur disque par groupe (group commit).
+ * Le journal sert au rejeu après une panne de la base et de source compacte de recomptage.
+ *
+ * Activation : app.vote.journal.active=true (désactivé par défaut).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JournalVotesService {
+
+    static final int TAILLE_ENREGISTREMENT = 40;
+    static final byte STATUT_ACCEPTE = 1;
+    static final byte STATUT_ANNULE = 2;
+    private static final byte VERSION = 1;
+    private static final String PREFIXE_SEGMENT = "journal-votes-";
+    private static final String SUFFIXE_SEGMENT = ".seg";
+
+    /** Réinsertion : votes absents insérés, électeurs marqués, votes insérés relus avec leurs identifiants externes */
+    private static final String REINSERTION_GLOBALE = "WITH lignes (electeur_id, candidat_id, date_vote, horodatage_vote) AS (VALUES ";
+    private static final String REINSERTION_GLOBALE_SUITE = "), " +
+            "inseres AS (INSERT INTO votes (electeur_id, candidat_id, date_vote, horodatage_vote) " +
+            "SELECT electeur_id, candidat_id, date_vote, horodatage_vote FROM lignes " +
+            "ON CONFLICT (electeur_id) DO NOTHING RETURNING id, electeur_id, candidat_id, horodatage_vote), " +
+            "marques AS (UPDATE electeur SET a_vote = true " +
+            "WHERE id_electeur IN (SELECT electeur_id FROM lignes) AND a_vote = false) " +
+            "SELECT i.id, NULL AS election, el.external_id_electeur AS electeur, c.external_id_candidat AS candidat, i.horodatage_vote " +
+            "FROM inseres i JOIN electeur el ON el.id_electeur = i.electeur_id JOIN candidat c ON c.id = i.candidat_id";
+
+    /** Réinsertion : résultats matérialisés ajustés des seuls bulletins réellement réinsérés */
+    private static final String REINSERTION_ELECTION = "WITH lignes (election_id, electeur_id, candidat_id, date_vote, horodatage_vote) AS (VALUES ";
+    private static final String REINSERTION_ELECTION_SUITE = "), " +
+            "inseres AS (INSERT INTO votes_election (election_id, electeur_id, candidat_id, date_vote, horodatage_vote, statut_vote) " +
+            "SELECT election_id, electeur_id, candidat_id, date_vote, horodatage_vote, 'VALIDE' FROM lignes " +
+            "ON CONFLICT (election_id, electeur_id) DO NOTHING RETURNING id, election_id, electeur_id, candidat_id, horodatage_vote), " +
+            "resultats AS (" + ResultatElectionRepository.INSERT_RESULTATS +
+            "SELECT election_id, candidat_id, 'VALIDE', COUNT(*), now() FROM inseres " +
+            "GROUP BY election_id, candidat_id ORDER BY election_id, candidat_id" +
+            ResultatElectionRepository.CONFLIT_INCREMENT + ") " +
+            "SELECT i.id, e.external_id_election AS election, el.external_id_electeur AS electeur, " +
+            "c.external_id_candidat AS candidat, i.horodatage_vote FROM inseres i " +
+            "JOIN elections e ON e.id_election = i.election_id JOIN electeur el ON el.id_electeur = i.electeur_id " +
+            "JOIN candidat c ON c.id = i.candidat_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.vote.journal.active:false}")
+    private boolean active;
+
+    @Value("${app.vote.journal.repertoire:./journal}")
+    private String repertoire;
+
+    @Value("${app.vote.journal.taille-segment-mo:64}")
+    private int tailleSegmentMo;
+
+    @Value("${app.vote.journal.fsync-groupe-ms:2}")
+    private long fsyncGroupeMs;
+
+    @Value("${app.vote.journal.attendre-fsync:true}")
+    private boolean attendreFsync;
+
+    @Value("${app.vote.journal.rejeu-lot:500}")
+    private int tailleLotRejeu;
+
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final Condition durabiliteAtteinte = verrou.newCondition();
+
+    private Path dossier;
+    private long tailleSegment;
+    private FileChannel canal;
+    private MappedByteBuffer segment;
+    private int numeroSegment;
+
+    /** Nombre d'enregistrements écrits / forcés sur disque depuis le démarrage */
+    private long sequenceEcrite = 0;
+    private long sequenceForcee = 0;
+
+    private Thread synchroniseur;
+    private volatile boolean enService = false;
+
+    // ==================== CYCLE DE VIE ====================
+
+    @PostConstruct
+    void demarrer() throws IOException {
+        if (!active) {
+            return;
+        }
+
+        dossier = Paths.get(repertoire).toAbsolutePath().normalize();
+        Files.createDirectories(dossier);
+        tailleSegment = (long) tailleSegmentMo * 1024 * 1024 / TAILLE_ENREGISTREMENT * TAILLE_ENREGISTREMENT;
+
+        List<Path> segments = listerSegments();
+        if (segments.isEmpty()) {
+            ouvrirSegment(1);
+        } else {
+            Path dernier = segments.get(segments.size() - 1);
+            ouvrirSegment(numeroDe(dernier));
+            segment.position(trouverFinSegment(segment));
+        }
+
+        enService = true;
+        synchroniseur = new Thread(this::boucleSynchronisation, "journal-votes-fsync");
+        synchroniseur.setDaemon(true);
+        synchroniseur.start();
+
+        log.info("📓 Journal des votes actif - {} (segment n°{}, position {})",
+                dossier, numeroSegment, segment.position());
+    }
+
+    @PreDestroy
+    void arreter() throws IOException {
+        if (!active || !enService) {
+            return;
+        }
+
+        enService = false;
+        synchroniseur.interrupt();
+
+        verrou.lock();
+        try {
+            segment.force();
+            sequenceForcee = sequenceEcrite;
+            durabiliteAtteinte.signalAll();
+            canal.close();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public boolean estActif() {
+        return active && enService;
+    }
+
+    // ==================== ÉCRITURE ====================
+
+    /**
+     * 📝 Journaliser un bulletin accepté ; retourne sa séquence (ou -1 si le journal est inactif)
+     */
+    public long ajouter(long electionPk, long electeurPk, long candidatPk) {
+        return ecrire(electionPk, electeurPk, candidatPk, STATUT_ACCEPTE);
+    }
+
+    /**
+     * ↩️ Neutraliser un bulletin précédemment journalisé (transaction annulée, doublon...)
+     */
+    public long annuler(long electionPk, long electeurPk, long candidatPk) {
+        return ecrire(electionPk, electeurPk, candidatPk, STATUT_ANNULE);
+    }
+
+    /**
+     * 📝 Journaliser dans la transaction courante : attente du fsync avant commit,
+     * enregistrement d'annulation si la transaction est annulée.
+     */
+    public void journaliserDansTransaction(long electionPk, long electeurPk, long candidatPk) {
+        if (!estActif()) {
+            return;
+        }
+
+        long sequence = ajouter(electionPk, electeurPk, candidatPk);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            attendreDurabilite(sequence);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                attendreDurabilite(sequence);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    annuler(electionPk, electeurPk, candidatPk);
+                }
+            }
+        });
+    }
+
+    /**
+     * ⏳ Attendre que l'enregistrement de séquence donnée soit forcé sur disque
+     */
+    public void attendreDurabilite(long sequence) {
+        if (sequence < 0 || !attendreFsync) {
+            return;
+        }
+
+        verrou.lock();
+        try {
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sequenceForcee < sequence && enService) {
+                long restant = limite - System.nanoTime();
+                if (restant <= 0) {
+                    throw new RuntimeException("Journal des votes : synchronisation disque trop lente");
+                }
+                durabiliteAtteinte.awaitNanos(restant);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Journal des votes : attente interrompue");
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private long ecrire(long electionPk, long electeurPk, long candidatPk, byte statut) {
+        if (!estActif()) {
+            return -1;
+        }
+
+        byte[] enregistrement = encoder(electionPk, electeurPk, candidatPk, System.currentTimeMillis(), statut);
+
+        verrou.lock();
+        try {
+            if (segment.remaining() < TAILLE_ENREGISTREMENT) {
+                basculerSegment();
+            }
+            segment.put(enregistrement);
+            return ++sequenceEcrite;
+        } catch (IOException e) {
+            log.error("💥 Journal des votes : échec de bascule de segment: {}", e.getMessage(), e);
+            throw new RuntimeException("Journal des votes indisponible", e);
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private void boucleSynchronisation() {
+        while (enService) {
+            try {
+                Thread.sleep(fsyncGroupeMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            MappedByteBuffer aForcer;
+            long cible;
+            verrou.lock();
+            try {
+                if (sequenceForcee == sequenceEcrite) {
+                    continue;
+                }
+                aForcer = segment;
+                cible = sequenceEcrite;
+            } finally {
+                verrou.unlock();
+            }
+
+            // fsync hors verrou : les écritures continuent pendant la synchronisation
+            aForcer.force();
+
+            verrou.lock();
+            try {
+                sequenceForcee = Math.max(sequenceForcee, cible);
+                durabiliteAtteinte.signalAll();
+            } finally {
+                verrou.unlock();
+            }
+        }
+    }
+
+    /** Appelé sous verrou : le segment plein est forcé avant d'ouvrir le suivant */
+    private void basculerSegment() throws IOException {
+        segment.force();
+        canal.close();
+        ouvrirSegment(numeroSegment + 1);
+        log.info("📓 Nouveau segment de journal n°{}", numeroSegment);
+    }
+
+    private void ouvrirSegment(int numero) throws IOException {
+        Path chemin = dossier.resolve(nomSegment(numero));
+        canal = FileChannel.open(chemin, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = canal.map(FileChannel.MapMode.READ_WRITE, 0, tailleSegment);
+        numeroSegment = numero;
+    }
+
+    // ==================== REJEU ====================
+
+    /**
+     * 🔢 Recompter les bulletins à partir du journal seul
+     */
+    public RejeuJournalDTO recompter() {
+        LectureJournal lecture = lireJournal();
+
+        Map<String, Long> comptes = new TreeMap<>();
+        for (long[] bulletin : lecture.bulletins()) {
+            comptes.merge(bulletin[0] + ":" + bulletin[2], 1L, Long::sum);
+        }
+
+        List<CompteJournalDTO> resultats = comptes.entrySet().stream()
+                .map(entree -> {
+                    String[] cle = entree.getKey().split(":");
+                    long electionPk = Long.parseLong(cle[0]);
+                    return CompteJournalDTO.builder()
+                            .electionPk(electionPk == 0 ? null : electionPk)
+                            .candidatPk(Long.parseLong(cle[1]))
+                            .nombreVotes(entree.getValue())
+                            .build();
+                })
+                .toList();
+
+        return lecture.versDTO("RECOMPTAGE", 0, 0, resultats);
+    }
+
+    /**
+     * 🔁 Réinsérer en base les bulletins du journal absents (après une panne).
+     *
+     * Une transaction par lot de bulletins ; un lot refusé est repris bulletin par bulletin
+     * et les bulletins invalides (électeur, candidat ou élection supprimés) sont ignorés.
+     * Chaque vote réinséré publie VoteEnregistreEvent : les vues en mémoire suivent après commit.
+     */
+    public RejeuJournalDTO reinsererManquants() {
+        LectureJournal lecture = lireJournal();
+        List<long[]> bulletins = lecture.bulletins();
+
+        int reinseres = 0;
+        int ignores = 0;
+        for (int debut = 0; debut < bulletins.size(); debut += tailleLotRejeu) {
+            List<long[]> lot = bulletins.subList(debut, Math.min(debut + tailleLotRejeu, bulletins.size()));
+            try {
+                reinseres += reinsererLot(lot);
+            } catch (DataAccessException e) {
+                log.warn("⚠️ Lot de {} bulletin(s) refusé, reprise bulletin par bulletin: {}", lot.size(), e.getMessage());
+                for (long[] bulletin : lot) {
+                    try {
+                        reinseres += reinsererLot(List.of(bulletin));
+                    } catch (DataAccessException erreur) {
+                        ignores++;
+                        log.error("💥 Bulletin du journal ignoré - élection {}, électeur {}, candidat {}: {}",
+                                bulletin[0], bulletin[1], bulletin[2], erreur.getMessage());
+                    }
+                }
+            }
+        }
+
+        log.info("🔁 Rejeu du journal - {} bulletin(s) lus, {} réinséré(s), {} ignoré(s)",
+                bulletins.size(), reinseres, ignores);
+        return lecture.versDTO("REINSERTION", reinseres, ignores, List.of());
+    }
+
+    /**
+     * Un lot dans sa propre transaction : nombre de votes réellement insérés
+     */
+    private int reinsererLot(List<long[]> lot) {
+        List<Object> globaux = new ArrayList<>();
+        List<Object> election = new ArrayList<>();
+        for (long[] bulletin : lot) {
+            LocalDateTime horodatage = LocalDateTime.ofInstant(Instant.ofEpochMilli(bulletin[3]), ZoneId.systemDefault());
+            Date date = Date.valueOf(horodatage.toLocalDate());
+            Timestamp instant = Timestamp.valueOf(horodatage);
+            if (bulletin[0] == 0) {
+                Collections.addAll(globaux, bulletin[1], bulletin[2], date, instant);
+            } else {
+                Collections.addAll(election, bulletin[0], bulletin[1], bulletin[2], date, instant);
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Integer inseres = transaction.execute(status -> {
+            int nombre = 0;
+            if (!globaux.isEmpty()) {
+                nombre += reinserer(REINSERTION_GLOBALE, "(?, ?, ?, ?)", globaux.size() / 4, REINSERTION_GLOBALE_SUITE, globaux);
+            }
+            if (!election.isEmpty()) {
+                nombre += reinserer(REINSERTION_ELECTION, "(?, ?, ?, ?, ?)", election.size() / 5, REINSERTION_ELECTION_SUITE, election);
+            }
+            return nombre;
+        });
+        return inseres != null ? inseres : 0;
+    }
+
+    private int reinserer(String debut, String ligne, int lignes, String suite, List<Object> parametres) {
+        StringBuilder sql = new StringBuilder(debut);
+        for (int i = 0; i < lignes; i++) {
+            sql.append(i > 0 ? ", " : "").append(ligne);
+        }
+        sql.append(suite);
+
+        int[] inseres = {0};
+        jdbcTemplate.query(sql.toString(), rs -> {
+            Timestamp horodatage = rs.getTimestamp("horodatage_vote");
+            eventPublisher.publishEvent(new VoteEnregistreEvent(rs.getLong("id"), rs.getString("election"),
+                    rs.getString("electeur"), rs.getString("candidat"),
+                    horodatage != null ? horodatage.toLocalDateTime() : null));
+            inseres[0]++;
+        }, parametres.toArray());
+        return inseres[0];
+    }
+
+    /**
+     * Lecture séquentielle de tous les segments. Une annulation neutralise
+     * le dernier bulletin accepté identique.
+     */
+    LectureJournal lireJournal() {
+        if (!active) {
+            throw new RuntimeException("Journal des votes désactivé");
+        }
+
+        Map<String, Deque<long[]>> acceptes = new LinkedHashMap<>();
+        long lus = 0;
+        long annulations = 0;
+        long corrompus = 0;
+
+        try {
+            for (Path chemin : listerSegments()) {
+                try (FileChannel lecture = FileChannel.open(chemin, StandardOpenOption.READ)) {
+                    MappedByteBuffer tampon = lecture.map(FileChannel.MapMode.READ_ONLY, 0, lecture.size());
+                    byte[] enregistrement = new byte[TAILLE_ENREGISTREMENT];
+
+                    while (tampon.remaining() >= TAILLE_ENREGISTREMENT) {
+                        tampon.get(enregistrement);
+                        ByteBuffer lu = ByteBuffer.wrap(enregistrement);
+                        if (estVide(enregistrement)) {
+                            break;
+                        }
+                        if (lu.getInt(36) != crc(enregistrement)) {
+                            corrompus++;
+                            break;
+                        }
+
+                        lus++;
+                        long[] bulletin = {lu.getLong(0), lu.getLong(8), lu.getLong(16), lu.getLong(24)};
+                        String cle = bulletin[0] + ":" + bulletin[1] + ":" + bulletin[2];
+
+                        if (lu.get(32) == STATUT_ANNULE) {
+                            annulations++;
+                            Deque<long[]> pile = acceptes.get(cle);
+                            if (pile != null) {
+                                pile.pollLast();
+                            }
+                        } else {
+                            acceptes.computeIfAbsent(cle, k -> new ArrayDeque<>()).addLast(bulletin);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Lecture du journal des votes impossible", e);
+        }
+
+        List<long[]> bulletins = new ArrayList<>();
+        acceptes.values().forEach(bulletins::addAll);
+        return new LectureJournal(bulletins, lus, annulations, corrompus);
+    }
+
+    // ==================== FORMAT BINAIRE ====================
+
+    static byte[] encoder(long electionPk, long electeurPk, long candidatPk, long horodatage, byte statut) {
+        ByteBuffer tampon = ByteBuffer.allocate(TAILLE_ENREGISTREMENT);
+        tampon.putLong(electionPk)
+                .putLong(electeurPk)
+                .putLong(candidatPk)
+                .putLong(horodatage)
+                .put(statut)
+                .put(VERSION)
+                .putShort((short) 0);
+        byte[] enregistrement = tampon.array();
+        tampon.putInt(36, crc(enregistrement));
+        return enregistrement;
+    }
+
+    private static int crc(byte[] enregistrement) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(enregistrement, 0, 36);
+        return (int) crc32.getValue();
+    }
+
+    private static boolean estVide(byte[] enregistrement) {
+        for (byte octet : enregistrement) {
+            if (octet != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Position de reprise : premier enregistrement vide ou invalide */
+    private static int trouverFinSegment(MappedByteBuffer tampon) {
+        byte[] enregistrement = new byte[TAILLE_ENREGISTREMENT];
+        int position = 0;
+        while (position + TAILLE_ENREGISTREMENT <= tampon.capacity()) {
+            tampon.get(position, enregistrement);
+            if (estVide(enregistrement) || ByteBuffer.wrap(enregistrement).getInt(36) != crc(enregistrement)) {
+                break;
+            }
+            position += TAILLE_ENREGISTREMENT;
+        }
+        return position;
+    }
+
+    private List<Path> listerSegments() throws IOException {
+        try (Stream<Path> fichiers = Files.list(dossier)) {
+            return fichiers
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIXE_SEGMENT))
+                    .filter(p -> p.getFileName().toString().endsWith(SUFFIXE_SEGMENT))
+                    .sorted(Comparator.comparingInt(JournalVotesService::numeroDe))
+                    .toList();
+        }
+    }
+
+    private static String nomSegment(int numero) {
+        return String.format("%s%06d%s", PREFIXE_SEGMENT, numero, SUFFIXE_SEGMENT);
+    }
+
+    private static int numeroDe(Path chemin) {
+        String nom = chemin.getFileName().toString();
+        return Integer.parseInt(nom.substring(PREFIXE_SEGMENT.length(), nom.length() - SUFFIXE_SEGMENT.length()));
+    }
+
+    // ==================== DTOs SPÉCIFIQUES ====================
+
+    /** bulletins : {election, electeur, candidat, horodatage} encore valides après annulations */
+    record LectureJournal(List<long[]> bulletins, long lus, long annulations, long corrompus) {
+
+        RejeuJournalDTO versDTO(String mode, int reinseres, int ignores, List<CompteJournalDTO> comptes) {
+            return RejeuJournalDTO.builder()
+                    .mode(mode)
+                    .enregistrementsLus(lus)
+                    .annulations(annulations)
+                    .enregistrementsCorrompus(corrompus)
+                    .bulletinsValides(bulletins.size())
+                    .bulletinsReinseres(reinseres)
+                    .bulletinsIgnores(ignores)
+                    .comptes(comptes)
+                    .build();
+        }
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class RejeuJournalDTO {
+        private String mode;
+        private long enregistrementsLus;
+        private long annulations;
+        private long enregistrementsCorrompus;
+        private long bulletinsValides;
+        private long bulletinsReinseres;
+        private long bulletinsIgnores;
+        private List<CompteJournalDTO> comptes;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class CompteJournalDTO {
+        private Long electionPk; // null pour le scrutin global
+        private Long candidatPk;
+        private long nombreVotes;
+    }
+}
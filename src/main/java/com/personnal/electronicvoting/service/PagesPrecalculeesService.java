@@ -0,0 +1,246 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.util.FabriqueThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 🖨️ Pages publiques anonymes pré-rendues (accueil, découverte, tableau de bord public).
+ *
+ * Chaque page est construite en tâche de fond, sérialisée une fois en JSON UTF-8 (et en gzip)
+ * et servie telle quelle depuis la mémoire avec un ETag fort. Elle est reconstruite quand
+ * l'époque du décompte change (nouveau vote validé) ou après age-max-ms (campagnes, candidats).
+ * Si la reconstruction échoue, la version précédente reste servie.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PagesPrecalculeesService {
+
+    private final ObjectMapper objectMapper;
+    private final CompteurVotesService compteurVotesService;
+
+    @Value("${app.pages-publiques.intervalle-ms:1000}")
+    private long intervalleMs;
+
+    @Value("${app.pages-publiques.age-max-ms:30000}")
+    private long ageMaxMs;
+
+    @Value("${app.pages-publiques.cache-max-age-secondes:5}")
+    private long cacheMaxAgeSecondes;
+
+    private final Map<String, Page> pages = new ConcurrentHashMap<>();
+    private ScheduledExecutorService rendu;
+
+    // Métriques
+    private final LongAdder rendus = new LongAdder();
+    private final LongAdder rendusInchanges = new LongAdder();
+    private final LongAdder echecsRendu = new LongAdder();
+    private final LongAdder reponsesCompletes = new LongAdder();
+    private final LongAdder reponsesGzip = new LongAdder();
+    private final LongAdder reponsesNonModifiees = new LongAdder();
+
+    // ==================== CYCLE DE VIE ====================
+
+    @PostConstruct
+    void demarrer() {
+        rendu = Executors.newSingleThreadScheduledExecutor(FabriqueThreads.creer("rendu-pages-publiques", false));
+        rendu.scheduleWithFixedDelay(this::rafraichir, intervalleMs, intervalleMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void arreter() {
+        rendu.shutdownNow();
+    }
+
+    /**
+     * 🖨️ Déclarer une page et la fonction qui construit son contenu
+     */
+    public void enregistrer(String cle, Supplier<?> construction) {
+        pages.put(cle, new Page(cle, construction));
+        log.info("🖨️ Page publique pré-rendue enregistrée: {}", cle);
+    }
+
+    /**
+     * 🖨️ Dernier rendu d'une page (rendu immédiatement s'il n'en existe pas encore)
+     */
+    public PageRendue obtenir(String cle) {
+        Page page = pages.get(cle);
+        if (page == null) {
+            throw new RuntimeException("Page pré-rendue inconnue: " + cle);
+        }
+
+        PageRendue courante = page.rendue;
+        if (courante != null) {
+            return courante;
+        }
+
+        page.verrou.lock();
+        try {
+            if (page.rendue == null) {
+                rendre(page, compteurVotesService.epoque());
+            }
+            if (page.rendue == null) {
+                throw new RuntimeException("Page pré-rendue indisponible: " + cle);
+            }
+            return page.rendue;
+        } finally {
+            page.verrou.unlock();
+        }
+    }
+
+    public long cacheMaxAgeSecondes() {
+        return cacheMaxAgeSecondes;
+    }
+
+    /** Comptabilise la réponse servie pour les métriques */
+    public void compterReponse(boolean nonModifiee, boolean gzip) {
+        if (nonModifiee) {
+            reponsesNonModifiees.increment();
+        } else if (gzip) {
+            reponsesGzip.increment();
+        } else {
+            reponsesCompletes.increment();
+        }
+    }
+
+    void rafraichir() {
+        long epoque = compteurVotesService.epoque();
+        long maintenant = System.currentTimeMillis();
+
+        for (Page page : pages.values()) {
+            PageRendue courante = page.rendue;
+            if (courante != null && courante.epoque() == epoque && maintenant - page.rendueA < ageMaxMs) {
+                continue;
+            }
+            if (!page.verrou.tryLock()) {
+                continue;
+            }
+            try {
+                rendre(page, epoque);
+            } finally {
+                page.verrou.unlock();
+            }
+        }
+    }
+
+    private void rendre(Page page, long epoque) {
+        long debut = System.currentTimeMillis();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(page.construction.get());
+            PageRendue precedente = page.rendue;
+
+            // Contenu identique : on garde les mêmes octets et le même ETag
+            if (precedente != null && Arrays.equals(precedente.json(), json)) {
+                page.rendue = precedente.aLEpoque(epoque);
+                rendusInchanges.increment();
+            } else {
+                String empreinte = empreinte(json);
+                page.rendue = new PageRendue(page.cle, epoque, json, gzip(json),
+                        "\"" + empreinte + "\"", "\"" + empreinte + "-gz\"");
+            }
+            rendus.increment();
+            log.debug("🖨️ Page {} rendue en {} ms (époque {})", page.cle, System.currentTimeMillis() - debut, epoque);
+
+        } catch (Exception e) {
+            echecsRendu.increment();
+            log.warn("⚠️ Rendu de la page {} impossible, version précédente conservée: {}", page.cle, e.getMessage());
+        } finally {
+            // Prochaine tentative après age-max-ms même en cas d'échec, pas à chaque tick
+            page.rendueA = debut;
+        }
+    }
+
+    private static String empreinte(byte[] contenu) throws NoSuchAlgorithmException {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(contenu);
+        return HexFormat.of().formatHex(hash, 0, 16);
+    }
+
+    private static byte[] gzip(byte[] contenu) throws IOException {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream(contenu.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(sortie)) {
+            gzip.write(contenu);
+        }
+        return sortie.toByteArray();
+    }
+
+    public StatistiquesPagesDTO obtenirStatistiques() {
+        Map<String, Long> tailles = new TreeMap<>();
+        pages.values().forEach(page -> {
+            PageRendue rendue = page.rendue;
+            if (rendue != null) {
+                tailles.put(page.cle, (long) rendue.json().length);
+            }
+        });
+
+        return StatistiquesPagesDTO.builder()
+                .pages(pages.size())
+                .rendus(rendus.sum())
+                .rendusInchanges(rendusInchanges.sum())
+                .echecsRendu(echecsRendu.sum())
+                .reponsesCompletes(reponsesCompletes.sum())
+                .reponsesGzip(reponsesGzip.sum())
+                .reponsesNonModifiees(reponsesNonModifiees.sum())
+                .tailleJsonParPage(tailles)
+                .build();
+    }
+
+    // ==================== TYPES ====================
+
+    private static final class Page {
+        private final String cle;
+        private final Supplier<?> construction;
+        private final ReentrantLock verrou = new ReentrantLock();
+        private volatile PageRendue rendue;
+        private volatile long rendueA;
+
+        Page(String cle, Supplier<?> construction) {
+            this.cle = cle;
+            this.construction = construction;
+        }
+    }
+
+    /**
+     * Rendu immuable : les tableaux d'octets sont partagés entre requêtes et ne doivent pas être modifiés.
+     */
+    public record PageRendue(String cle, long epoque, byte[] json, byte[] gzip, String etag, String etagGzip) {
+
+        PageRendue aLEpoque(long nouvelleEpoque) {
+            return new PageRendue(cle, nouvelleEpoque, json, gzip, etag, etagGzip);
+        }
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesPagesDTO {
+        private int pages;
+        private long rendus;
+        private long rendusInchanges;
+        private long echecsRendu;
+        private long reponsesCompletes;
+        private long reponsesGzip;
+        private long reponsesNonModifiees;
+        private Map<String, Long> tailleJsonParPage;
+    }
+}
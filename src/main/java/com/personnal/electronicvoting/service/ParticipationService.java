@@ -0,0 +1,236 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.repository.VoteElectionRepository;
+import com.personnal.electronicvoting.util.CompteursCompacts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ✅ Participation en mémoire : qui a déjà voté, et combien de fois.
+ *
+ * Par élection, un compteur compact par électeur (clé primaire) : 1 bit pour les élections
+ * à vote unique, quelques bits plafonnés à nombreMaxVotesParElecteur sinon. La réservation
+ * se fait par CAS avant l'insertion et est libérée si la transaction est annulée.
+ * La contrainte d'unicité en base reste le dernier rempart.
+ *
+ * Si le plafond d'une élection augmente au-delà de la largeur de ses compteurs, ils sont
+ * recopiés dans un tableau plus large (réservations suspendues le temps de la copie).
+ *
+ * Tant que le chargement initial n'a pas abouti, estInitialise() retourne false
+ * et les services appelants gardent les vérifications SQL. Les changements de statut
+ * validés pendant le chargement ne sont pas appliqués : le couple élection/électeur est
+ * relu en base à la fin du chargement.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ParticipationService {
+
+    private final VoteElectionRepository voteElectionRepository;
+
+    private final Map<String, Participation> participations = new ConcurrentHashMap<>();
+    private volatile boolean initialise = false;
+
+    /** Couples modifiés avant la fin du chargement, relus en base au lieu de la ligne chargée */
+    private final Set<Couple> modifiesPendantChargement = new HashSet<>();
+    /** Protège modifiesPendantChargement et la fin du chargement */
+    private final ReentrantLock verrouChargement = new ReentrantLock();
+
+    // ==================== CHARGEMENT ====================
+
+    /**
+     * 🚀 Chargement des votes existants au démarrage
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiserAuDemarrage() {
+        try {
+            charger();
+        } catch (Exception e) {
+            log.warn("⚠️ Participation en mémoire indisponible, repli sur les requêtes SQL: {}", e.getMessage());
+        }
+    }
+
+    public void charger() {
+        long debut = System.currentTimeMillis();
+
+        List<Object[]> lignes = voteElectionRepository.countVotesValidesParElectionEtElecteur();
+
+        verrouChargement.lock();
+        try {
+            for (Object[] ligne : lignes) {
+                String electionId = (String) ligne[0];
+                long electeurPk = ((Number) ligne[3]).longValue();
+                if (!modifiesPendantChargement.contains(new Couple(electionId, electeurPk))) {
+                    porterAuMoins(electionId, (Boolean) ligne[1], ligne[2], electeurPk, ligne[4]);
+                }
+            }
+
+            // Statut changé pendant le chargement : la ligne lue peut être plus ancienne
+            for (Couple couple : modifiesPendantChargement) {
+                for (Object[] ligne : voteElectionRepository.countVotesValidesElecteur(couple.electionId(), couple.electeurPk())) {
+                    porterAuMoins(couple.electionId(), (Boolean) ligne[0], ligne[1], couple.electeurPk(), ligne[2]);
+                }
+            }
+
+            initialise = true;
+            log.info("✅ Participation chargée en {} ms - {} couples élection/électeur, {} relu(s)",
+                    System.currentTimeMillis() - debut, lignes.size(), modifiesPendantChargement.size());
+            modifiesPendantChargement.clear();
+        } finally {
+            verrouChargement.unlock();
+        }
+    }
+
+    private void porterAuMoins(String electionId, Boolean voteMultiple, Object nombreMaxVotes, long electeurPk, Object nombre) {
+        int maximum = maximumVotes(voteMultiple, nombreMaxVotes != null ? ((Number) nombreMaxVotes).intValue() : null);
+        Participation participation = participation(electionId, maximum);
+        participation.verrou.readLock().lock();
+        try {
+            participation.compteurs.porterAuMoins(electeurPk, ((Number) nombre).intValue());
+        } finally {
+            participation.verrou.readLock().unlock();
+        }
+    }
+
+    /** Avant la fin du chargement : noter le couple (relu en base) au lieu de modifier son compteur */
+    private boolean differerPendantChargement(String electionId, long electeurPk) {
+        if (initialise) {
+            return false;
+        }
+        verrouChargement.lock();
+        try {
+            if (initialise) {
+                return false;
+            }
+            modifiesPendantChargement.add(new Couple(electionId, electeurPk));
+            return true;
+        } finally {
+            verrouChargement.unlock();
+        }
+    }
+
+    // ==================== RÉSERVATION ====================
+
+    public boolean estInitialise() {
+        return initialise;
+    }
+
+    /**
+     * 🔒 Réserver un vote pour l'électeur : false si le plafond est déjà atteint.
+     * Dans une transaction, la réservation est libérée automatiquement en cas d'annulation.
+     */
+    public boolean reserver(String electionId, Boolean voteMultiple, Integer nombreMaxVotes, long electeurPk) {
+        if (differerPendantChargement(electionId, electeurPk)) {
+            return true;
+        }
+
+        int maximum = maximumVotes(voteMultiple, nombreMaxVotes);
+        Participation participation = participation(electionId, maximum);
+        participation.verrou.readLock().lock();
+        try {
+            if (!participation.compteurs.incrementerSi(electeurPk, maximum)) {
+                return false;
+            }
+        } finally {
+            participation.verrou.readLock().unlock();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        liberer(electionId, electeurPk);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * 🔓 Rendre une réservation (vote finalement non enregistré)
+     */
+    public void liberer(String electionId, long electeurPk) {
+        if (differerPendantChargement(electionId, electeurPk)) {
+            return;
+        }
+
+        Participation participation = participations.get(electionId);
+        if (participation != null) {
+            participation.verrou.readLock().lock();
+            try {
+                participation.compteurs.decrementer(electeurPk);
+            } finally {
+                participation.verrou.readLock().unlock();
+            }
+        }
+    }
+
+    public int nombreVotes(String electionId, long electeurPk) {
+        Participation participation = participations.get(electionId);
+        return participation != null ? participation.compteurs.valeur(electeurPk) : 0;
+    }
+
+    /**
+     * Compteurs de l'élection, élargis si le plafond dépasse leur largeur
+     * (nombre maximum de votes relevé après la création des compteurs)
+     */
+    private Participation participation(String electionId, int maximum) {
+        Participation participation = participations.computeIfAbsent(electionId,
+                id -> new Participation(CompteursCompacts.pourMaximum(maximum)));
+        if (participation.doitElargir(maximum)) {
+            participation.verrou.writeLock().lock();
+            try {
+                if (participation.doitElargir(maximum)) {
+                    participation.compteurs = participation.compteurs.elargir(maximum);
+                    log.info("↔️ Compteurs de participation de l'élection {} élargis à {} bits (plafond {})",
+                            electionId, participation.compteurs.bitsParCompteur(), maximum);
+                }
+            } finally {
+                participation.verrou.writeLock().unlock();
+            }
+        }
+        return participation;
+    }
+
+    private static int maximumVotes(Boolean voteMultiple, Integer nombreMaxVotes) {
+        if (!Boolean.TRUE.equals(voteMultiple) || nombreMaxVotes == null) {
+            return 1;
+        }
+        return Math.max(1, nombreMaxVotes);
+    }
+
+    /**
+     * Compteurs d'une élection : lectures et écritures CAS sous le verrou partagé,
+     * remplacement par un tableau plus large sous le verrou exclusif
+     */
+    private static final class Participation {
+        private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+        private volatile CompteursCompacts compteurs;
+
+        Participation(CompteursCompacts compteurs) {
+            this.compteurs = compteurs;
+        }
+
+        boolean doitElargir(int maximum) {
+            return maximum > compteurs.valeurMaxRepresentable() && compteurs.bitsParCompteur() < 16;
+        }
+    }
+
+    private record Couple(String electionId, long electeurPk) {
+    }
+}
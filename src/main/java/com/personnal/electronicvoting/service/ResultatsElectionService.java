@@ -0,0 +1,217 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.model.VoteElection;
+import com.personnal.electronicvoting.repository.ResultatElectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 📊 Résultats matérialisés (table resultats_election) et réconciliation.
+ *
+ * Chaque vote incrémente la ligne (élection, candidat, statut) dans sa propre transaction ;
+ * un changement de statut déplace une unité d'une ligne à l'autre. La réconciliation
+ * recompte depuis votes_election dans un même instantané (REPEATABLE READ) : tout écart
+ * est donc une dérive réelle, signalée, et corrigée sous verrou si demandé.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResultatsElectionService {
+
+    private static final String CORRECTION = ResultatElectionRepository.INSERT_RESULTATS +
+            "SELECT election_id, candidat_id, statut_vote, COUNT(*), now() FROM votes_election " +
+            "GROUP BY election_id, candidat_id, statut_vote " +
+            "ON CONFLICT (election_id, candidat_id, statut_vote) DO UPDATE " +
+            "SET nombre_votes = EXCLUDED.nombre_votes, date_maj = now() " +
+            "WHERE resultats_election.nombre_votes <> EXCLUDED.nombre_votes";
+
+    private static final String REMISE_A_ZERO =
+            "UPDATE resultats_election r SET nombre_votes = 0, date_maj = now() " +
+            "WHERE r.nombre_votes <> 0 AND NOT EXISTS (SELECT 1 FROM votes_election v " +
+            "WHERE v.election_id = r.election_id AND v.candidat_id = r.candidat_id AND v.statut_vote = r.statut_vote)";
+
+    private final ResultatElectionRepository resultatElectionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.resultats.reconciliation.corriger-automatiquement:false}")
+    private boolean corrigerAutomatiquement;
+
+    private volatile RapportReconciliationDTO dernierRapport;
+
+    // ==================== MISE À JOUR ====================
+
+    /**
+     * ➕ Comptabiliser un vote (à appeler dans la transaction qui l'insère)
+     */
+    public void comptabiliser(Long electionPk, Long candidatPk, VoteElection.StatutVote statut) {
+        resultatElectionRepository.ajuster(electionPk, candidatPk, statut.name(), 1);
+    }
+
+    /**
+     * 🔀 Déplacer un vote d'un statut à l'autre (dans la transaction qui modifie le vote)
+     */
+    public void changerStatut(Long electionPk, Long candidatPk,
+                              VoteElection.StatutVote ancien, VoteElection.StatutVote nouveau) {
+        resultatElectionRepository.ajuster(electionPk, candidatPk, ancien.name(), -1);
+        resultatElectionRepository.ajuster(electionPk, candidatPk, nouveau.name(), 1);
+    }
+
+    public void supprimerElection(Long electionPk) {
+        int supprimes = resultatElectionRepository.supprimerParElection(electionPk);
+        log.info("📊 {} compteur(s) de résultats supprimé(s) pour l'élection {}", supprimes, electionPk);
+    }
+
+    // ==================== RÉCONCILIATION ====================
+
+    /**
+     * 🚀 Au démarrage, avant la reconstruction du décompte en mémoire :
+     * remplit la table pour les votes antérieurs à sa création et corrige toute dérive.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void reconcilierAuDemarrage() {
+        try {
+            reconcilier(true);
+        } catch (Exception e) {
+            log.warn("⚠️ Réconciliation des résultats impossible au démarrage: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * ⏱️ Réconciliation périodique : signale les écarts, ne corrige que si configuré
+     */
+    @Scheduled(fixedDelayString = "${app.resultats.reconciliation.intervalle-ms:900000}",
+               initialDelayString = "${app.resultats.reconciliation.intervalle-ms:900000}")
+    public void reconcilierPeriodiquement() {
+        try {
+            reconcilier(corrigerAutomatiquement);
+        } catch (Exception e) {
+            log.error("💥 Échec de la réconciliation des résultats: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 🔍 Comparer les compteurs matérialisés aux votes bruts ; corriger si demandé
+     */
+    public RapportReconciliationDTO reconcilier(boolean corriger) {
+        long debut = System.currentTimeMillis();
+
+        TransactionTemplate lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+        lecture.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        lecture.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Instantane instantane = lecture.execute(status -> new Instantane(
+                indexer(resultatElectionRepository.compterDepuisVotes()),
+                indexer(resultatElectionRepository.findCompteursMaterialises())));
+        List<EcartDTO> ecarts = comparer(instantane.attendus(), instantane.materialises());
+
+        int lignesCorrigees = 0;
+        if (!ecarts.isEmpty()) {
+            if (instantane.materialises().isEmpty()) {
+                log.info("📊 Table resultats_election vide - initialisation depuis les votes existants");
+            } else {
+                log.error("🚨 Dérive des résultats matérialisés - {} écart(s), ex: {}", ecarts.size(), ecarts.get(0));
+            }
+            if (corriger) {
+                lignesCorrigees = corriger();
+            }
+        }
+
+        RapportReconciliationDTO rapport = RapportReconciliationDTO.builder()
+                .dateReconciliation(LocalDateTime.now())
+                .ecarts(ecarts)
+                .corrige(corriger && !ecarts.isEmpty())
+                .lignesCorrigees(lignesCorrigees)
+                .dureeMs(System.currentTimeMillis() - debut)
+                .build();
+        dernierRapport = rapport;
+
+        log.info("📊 Réconciliation des résultats en {} ms - {} écart(s), {} ligne(s) corrigée(s)",
+                rapport.getDureeMs(), ecarts.size(), lignesCorrigees);
+        return rapport;
+    }
+
+    public Optional<RapportReconciliationDTO> dernierRapport() {
+        return Optional.ofNullable(dernierRapport);
+    }
+
+    /**
+     * 🔧 Recalcul sous verrou SHARE : les votes en cours attendent la fin de la correction,
+     * aucun incrément concurrent ne peut être écrasé.
+     */
+    private int corriger() {
+        TransactionTemplate ecriture = new TransactionTemplate(transactionManager);
+        ecriture.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Integer lignes = ecriture.execute(status -> {
+            jdbcTemplate.execute("LOCK TABLE votes_election IN SHARE MODE");
+            return jdbcTemplate.update(CORRECTION) + jdbcTemplate.update(REMISE_A_ZERO);
+        });
+        log.warn("🔧 Résultats matérialisés recalculés depuis les votes - {} ligne(s) corrigée(s)", lignes);
+        return lignes != null ? lignes : 0;
+    }
+
+    private static Map<Cle, Long> indexer(List<Object[]> lignes) {
+        Map<Cle, Long> compteurs = new HashMap<>();
+        for (Object[] ligne : lignes) {
+            compteurs.put(new Cle(((Number) ligne[0]).longValue(), ((Number) ligne[1]).longValue(), (String) ligne[2]),
+                    ((Number) ligne[3]).longValue());
+        }
+        return compteurs;
+    }
+
+    static List<EcartDTO> comparer(Map<Cle, Long> attendus, Map<Cle, Long> materialises) {
+        Set<Cle> cles = new HashSet<>(attendus.keySet());
+        cles.addAll(materialises.keySet());
+
+        List<EcartDTO> ecarts = new ArrayList<>();
+        for (Cle cle : cles) {
+            long attendu = attendus.getOrDefault(cle, 0L);
+            long materialise = materialises.getOrDefault(cle, 0L);
+            if (attendu != materialise) {
+                ecarts.add(new EcartDTO(cle.electionPk(), cle.candidatPk(), cle.statut(), attendu, materialise));
+            }
+        }
+        ecarts.sort(Comparator.comparing(EcartDTO::electionPk).thenComparing(EcartDTO::candidatPk));
+        return ecarts;
+    }
+
+    // ==================== TYPES ====================
+
+    record Cle(long electionPk, long candidatPk, String statut) {
+    }
+
+    private record Instantane(Map<Cle, Long> attendus, Map<Cle, Long> materialises) {
+    }
+
+    public record EcartDTO(long electionPk, long candidatPk, String statut, long attendu, long materialise) {
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class RapportReconciliationDTO {
+        private LocalDateTime dateReconciliation;
+        private List<EcartDTO> ecarts;
+        private boolean corrige;
+        private int lignesCorrigees;
+        private long dureeMs;
+    }
+}
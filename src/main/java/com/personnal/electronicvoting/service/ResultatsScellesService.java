@@ -0,0 +1,273 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.model.Election;
+import com.personnal.electronicvoting.model.ResultatScelle;
+import com.personnal.electronicvoting.model.VoteElection;
+import com.personnal.electronicvoting.repository.ElectionRepository;
+import com.personnal.electronicvoting.repository.ResultatScelleRepository;
+import com.personnal.electronicvoting.repository.VoteElectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 🔒 Scellement des résultats des élections terminées.
+ *
+ * Au passage en TERMINEE ou RESULTATS_PUBLIES (après commit), les résultats sont calculés une
+ * seule fois depuis les votes bruts, sérialisés en JSON et enregistrés avec leur SHA-256 dans
+ * resultats_scelles. Toute lecture ultérieure sert ce contenu, gardé aussi en mémoire.
+ * Une élection terminée avant la mise en place du scellement est scellée à sa première lecture.
+ * La clôture verrouille la ligne de l'élection (FOR UPDATE) et chaque vote la lit FOR SHARE :
+ * aucun vote validé pendant EN_COURS ne peut être écrit après le scellement.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResultatsScellesService {
+
+    private final ResultatScelleRepository resultatScelleRepository;
+    private final ElectionRepository electionRepository;
+    private final VoteElectionRepository voteElectionRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    /** Résultats scellés déjà lus, par identifiant externe d'élection (jamais rendus : copiés à chaque lecture) */
+    private final Map<String, ElectionService.ResultatsElectionDTO> enMemoire = new ConcurrentHashMap<>();
+
+    public static boolean estStatutFinal(Election.StatutElection statut) {
+        return statut == Election.StatutElection.TERMINEE || statut == Election.StatutElection.RESULTATS_PUBLIES;
+    }
+
+    /**
+     * 🔒 Sceller une fois la transaction du changement de statut validée
+     */
+    public void scellerApresCommit(String electionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scellerSiAbsent(electionId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    scellerSiAbsent(electionId);
+                } catch (Exception e) {
+                    // La première lecture des résultats retentera le scellement
+                    log.error("💥 Scellement des résultats de l'élection {} impossible: {}", electionId, e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 🔒 Résultats définitifs d'une élection au statut final
+     */
+    public ElectionService.ResultatsElectionDTO obtenir(Election election) {
+        String electionId = election.getExternalIdElection();
+        ElectionService.ResultatsElectionDTO resultats = enMemoire.get(electionId);
+        if (resultats == null) {
+            ResultatScelle scelle = resultatScelleRepository.findByExternalIdElection(electionId)
+                    .orElseGet(() -> scellerSiAbsent(electionId));
+            resultats = lire(scelle);
+            enMemoire.put(electionId, resultats);
+        }
+        return copier(resultats);
+    }
+
+    public boolean estScellee(Long electionPk) {
+        return resultatScelleRepository.existsByElectionPk(electionPk);
+    }
+
+    /**
+     * 🔍 Vérification : le contenu enregistré correspond-il à son empreinte, et aux votes actuels ?
+     */
+    public VerificationScellementDTO verifier(String electionId) {
+        ResultatScelle scelle = resultatScelleRepository.findByExternalIdElection(electionId)
+                .orElseThrow(() -> new RuntimeException("Aucun résultat scellé pour l'élection: " + electionId));
+        Election election = electionRepository.findByExternalIdElection(electionId)
+                .orElseThrow(() -> new RuntimeException("Élection non trouvée: " + electionId));
+
+        String empreinteContenu = empreinte(scelle.getContenu());
+        String empreinteRecalculee = empreinte(serialiser(
+                calculer(election, scelle.getDateScellement().toLocalDate())));
+
+        return VerificationScellementDTO.builder()
+                .electionId(electionId)
+                .dateScellement(scelle.getDateScellement())
+                .empreinteEnregistree(scelle.getEmpreinte())
+                .empreinteContenu(empreinteContenu)
+                .empreinteRecalculee(empreinteRecalculee)
+                .contenuIntact(scelle.getEmpreinte().equals(empreinteContenu))
+                .conformeAuxVotes(scelle.getEmpreinte().equals(empreinteRecalculee))
+                .build();
+    }
+
+    /**
+     * 🗑️ Retrait avec l'élection (même transaction que sa suppression)
+     */
+    public void supprimerElection(Long electionPk, String electionId) {
+        resultatScelleRepository.supprimerParElection(electionPk);
+        enMemoire.remove(electionId);
+    }
+
+    // ==================== SCELLEMENT ====================
+
+    ResultatScelle scellerSiAbsent(String electionId) {
+        TransactionTemplate ecriture = new TransactionTemplate(transactionManager);
+        // Nouvelle transaction : appelée après le commit du changement de statut, ou depuis une lecture
+        ecriture.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        try {
+            return ecriture.execute(status -> {
+                Election election = electionRepository.findByExternalIdElection(electionId)
+                        .orElseThrow(() -> new RuntimeException("Élection non trouvée: " + electionId));
+                return resultatScelleRepository.findByExternalIdElection(electionId)
+                        .orElseGet(() -> sceller(election));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Scellée en même temps par une autre requête : garder la première
+            return resultatScelleRepository.findByExternalIdElection(electionId).orElseThrow(() -> e);
+        }
+    }
+
+    private ResultatScelle sceller(Election election) {
+        if (!estStatutFinal(election.getStatut())) {
+            throw new RuntimeException("L'élection n'est pas terminée: " + election.getExternalIdElection());
+        }
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        String contenu = serialiser(calculer(election, maintenant.toLocalDate()));
+
+        ResultatScelle scelle = resultatScelleRepository.saveAndFlush(ResultatScelle.builder()
+                .electionPk(election.getIdElection())
+                .externalIdElection(election.getExternalIdElection())
+                .statutElection(election.getStatut())
+                .contenu(contenu)
+                .empreinte(empreinte(contenu))
+                .dateScellement(maintenant)
+                .build());
+
+        log.info("🔒 Résultats de l'élection {} scellés (sha-256 {})", election.getExternalIdElection(), scelle.getEmpreinte());
+        return scelle;
+    }
+
+    ElectionService.ResultatsElectionDTO calculer(Election election, LocalDate dateCalcul) {
+        List<Object[]> comptes = voteElectionRepository.compterVotesFinauxParCandidat(
+                election.getIdElection(), VoteElection.StatutVote.VALIDE);
+        long totalVotes = comptes.stream().mapToLong(ligne -> ((Number) ligne[2]).longValue()).sum();
+        long totalElecteurs = electionRepository.countElecteursAutorises(election.getIdElection());
+
+        List<ElectionService.ResultatCandidatDTO> resultats = comptes.stream()
+                .map(ligne -> {
+                    long nombreVotes = ((Number) ligne[2]).longValue();
+                    double pourcentage = totalVotes > 0 ? (double) nombreVotes / totalVotes * 100 : 0;
+                    return ElectionService.ResultatCandidatDTO.builder()
+                            .candidatId((String) ligne[0])
+                            .candidatNom((String) ligne[1])
+                            .nombreVotes(nombreVotes)
+                            .pourcentageVotes(Math.round(pourcentage * 100.0) / 100.0)
+                            .build();
+                })
+                .toList();
+
+        return ElectionService.ResultatsElectionDTO.builder()
+                .electionId(election.getExternalIdElection())
+                .electionTitre(election.getTitre())
+                .totalVotes(totalVotes)
+                .totalElecteursAutorises(totalElecteurs)
+                .tauxParticipation(totalElecteurs > 0 ? (double) totalVotes / totalElecteurs * 100 : 0)
+                .resultatsParCandidat(resultats)
+                .dateCalcul(dateCalcul)
+                .build();
+    }
+
+    private ElectionService.ResultatsElectionDTO lire(ResultatScelle scelle) {
+        try {
+            ElectionService.ResultatsElectionDTO resultats =
+                    objectMapper.readValue(scelle.getContenu(), ElectionService.ResultatsElectionDTO.class);
+            resultats.setEmpreinteResultats(scelle.getEmpreinte());
+            return resultats;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Résultats scellés illisibles pour l'élection: " + scelle.getExternalIdElection(), e);
+        }
+    }
+
+    /** Copie profonde : l'appelant peut modifier le DTO sans toucher au contenu gardé en mémoire */
+    private static ElectionService.ResultatsElectionDTO copier(ElectionService.ResultatsElectionDTO resultats) {
+        List<ElectionService.ResultatCandidatDTO> candidats = resultats.getResultatsParCandidat() == null ? null
+                : resultats.getResultatsParCandidat().stream()
+                .map(candidat -> ElectionService.ResultatCandidatDTO.builder()
+                        .candidatId(candidat.getCandidatId())
+                        .candidatNom(candidat.getCandidatNom())
+                        .nombreVotes(candidat.getNombreVotes())
+                        .pourcentageVotes(candidat.getPourcentageVotes())
+                        .build())
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        return ElectionService.ResultatsElectionDTO.builder()
+                .electionId(resultats.getElectionId())
+                .electionTitre(resultats.getElectionTitre())
+                .totalVotes(resultats.getTotalVotes())
+                .totalElecteursAutorises(resultats.getTotalElecteursAutorises())
+                .tauxParticipation(resultats.getTauxParticipation())
+                .resultatsParCandidat(candidats)
+                .dateCalcul(resultats.getDateCalcul())
+                .empreinteResultats(resultats.getEmpreinteResultats())
+                .build();
+    }
+
+    private String serialiser(ElectionService.ResultatsElectionDTO resultats) {
+        try {
+            return objectMapper.writeValueAsString(resultats);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Sérialisation des résultats impossible", e);
+        }
+    }
+
+    static String empreinte(String contenu) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(contenu.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ==================== DTOs ====================
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class VerificationScellementDTO {
+        private String electionId;
+        private LocalDateTime dateScellement;
+        private String empreinteEnregistree;
+        /** SHA-256 du contenu enregistré : différent de l'empreinte si la ligne a été altérée */
+        private String empreinteContenu;
+        /** SHA-256 des résultats recalculés depuis les votes actuels */
+        private String empreinteRecalculee;
+        private boolean contenuIntact;
+        private boolean conformeAuxVotes;
+    }
+}
@@ -0,0 +1,347 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
+import com.personnal.electronicvoting.repository.VoteElectionRepository;
+import com.personnal.electronicvoting.repository.VoteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 📈 Séries temporelles des votes en mémoire, par élection (et pour le scrutin global).
+ *
+ * Chaque série tient trois anneaux de compteurs (minute, heure, jour) alimentés après commit
+ * de chaque vote ; une lecture de plage coûte O(nombre de périodes), sans parcourir les votes.
+ * Au démarrage, les anneaux sont chargés par une agrégation SQL sur horodatage_vote jusqu'à l'instant
+ * de début du chargement ; les votes validés avant la fin du chargement sont mis en attente, puis seuls
+ * ceux horodatés à partir de cet instant sont ajoutés (les autres sont déjà dans l'agrégation).
+ * Les périodes plus anciennes que la capacité d'un anneau ne sont plus disponibles à cette résolution.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SerieTemporelleVotesService {
+
+    /** Clé de la série du scrutin global (votes sans élection) */
+    private static final String SCRUTIN_GLOBAL = "";
+
+    private final VoteRepository voteRepository;
+    private final VoteElectionRepository voteElectionRepository;
+
+    @Value("${app.resultats.serie.capacite-minutes:1440}")
+    private int capaciteMinutes;
+
+    @Value("${app.resultats.serie.capacite-heures:744}")
+    private int capaciteHeures;
+
+    @Value("${app.resultats.serie.capacite-jours:400}")
+    private int capaciteJours;
+
+    private final Map<String, Serie> series = new ConcurrentHashMap<>();
+    private volatile boolean initialise = false;
+
+    /** Vrai jusqu'à la fin (ou l'abandon) du chargement : les votes reçus sont mis en attente */
+    private volatile boolean enChargement = true;
+    /** Protège enChargement et evenementsEnAttente */
+    private final ReentrantLock verrouChargement = new ReentrantLock();
+    private final List<VoteEnregistreEvent> evenementsEnAttente = new ArrayList<>();
+
+    /**
+     * 🚀 Chargement des séries au démarrage
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiserAuDemarrage() {
+        try {
+            charger(LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("⚠️ Séries temporelles indisponibles, repli sur les requêtes SQL: {}", e.getMessage());
+            terminerChargement(null);
+        }
+    }
+
+    /**
+     * 🗳️ Prise en compte d'un vote, uniquement une fois la transaction validée
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void surVoteEnregistre(VoteEnregistreEvent event) {
+        if (enChargement) {
+            verrouChargement.lock();
+            try {
+                if (enChargement) {
+                    evenementsEnAttente.add(event);
+                    return;
+                }
+            } finally {
+                verrouChargement.unlock();
+            }
+        }
+        serie(event.electionId()).ajouter(horodatage(event), 1);
+    }
+
+    void charger(LocalDateTime jusqua) {
+        long debut = System.currentTimeMillis();
+        long lignes = 0;
+
+        for (Resolution resolution : Resolution.values()) {
+            LocalDateTime depuis = resolution.debutPeriode(
+                    Resolution.indice(jusqua, resolution) - capacite(resolution) + 1);
+
+            for (Object[] ligne : voteRepository.countVotesParPeriode(resolution.unite, depuis, jusqua)) {
+                serie(null).anneau(resolution).ajouter(Resolution.indice(enDate(ligne[0]), resolution), nombre(ligne[1]));
+                lignes++;
+            }
+            for (Object[] ligne : voteElectionRepository.countVotesParElectionEtPeriode(resolution.unite, depuis, jusqua)) {
+                serie((String) ligne[0]).anneau(resolution).ajouter(Resolution.indice(enDate(ligne[1]), resolution), nombre(ligne[2]));
+                lignes++;
+            }
+        }
+
+        int rejoues = terminerChargement(jusqua);
+        initialise = true;
+        log.info("📈 Séries temporelles chargées - {} série(s), {} période(s), {} vote(s) en attente rejoué(s) en {} ms",
+                series.size(), lignes, rejoues, System.currentTimeMillis() - debut);
+    }
+
+    /**
+     * Ajouter les votes mis en attente horodatés à partir de jusqua (les précédents sont dans
+     * l'agrégation), puis compter les suivants en direct. jusqua null : chargement abandonné.
+     */
+    private int terminerChargement(LocalDateTime jusqua) {
+        verrouChargement.lock();
+        try {
+            int rejoues = 0;
+            if (jusqua != null) {
+                for (VoteEnregistreEvent event : evenementsEnAttente) {
+                    LocalDateTime horodatage = horodatage(event);
+                    if (!horodatage.isBefore(jusqua)) {
+                        serie(event.electionId()).ajouter(horodatage, 1);
+                        rejoues++;
+                    }
+                }
+            }
+            evenementsEnAttente.clear();
+            enChargement = false;
+            return rejoues;
+        } finally {
+            verrouChargement.unlock();
+        }
+    }
+
+    private static LocalDateTime horodatage(VoteEnregistreEvent event) {
+        return event.horodatage() != null ? event.horodatage() : LocalDateTime.now();
+    }
+
+    // ==================== LECTURE ====================
+
+    /**
+     * 📈 Votes par période sur [debut, fin] (bornes incluses, ramenées au début de leur période).
+     * Sans bornes : toute la fenêtre de la résolution jusqu'à maintenant.
+     *
+     * @param electionId identifiant externe de l'élection, null pour le scrutin global
+     */
+    public SerieTemporelleDTO obtenirSerie(String electionId, Resolution resolution,
+                                           LocalDateTime debut, LocalDateTime fin) {
+        Resolution res = resolution != null ? resolution : Resolution.HEURE;
+        LocalDateTime borneFin = fin != null ? fin : LocalDateTime.now();
+        long indiceFin = Resolution.indice(borneFin, res);
+        long indiceDebut = debut != null
+                ? Resolution.indice(debut, res)
+                : indiceFin - capacite(res) + 1;
+
+        if (indiceDebut > indiceFin) {
+            throw new RuntimeException("La date de début doit précéder la date de fin");
+        }
+
+        Serie serie = series.get(cle(electionId));
+        long[] comptes;
+        if (serie != null) {
+            Plage plage = serie.anneau(res).lire(indiceDebut, indiceFin);
+            indiceDebut = plage.debut();
+            comptes = plage.comptes();
+        } else {
+            indiceDebut = Math.max(indiceDebut, indiceFin - capacite(res) + 1);
+            comptes = new long[(int) (indiceFin - indiceDebut + 1)];
+        }
+
+        List<PointSerieDTO> points = new ArrayList<>(comptes.length);
+        long total = 0;
+        for (int i = 0; i < comptes.length; i++) {
+            points.add(new PointSerieDTO(res.debutPeriode(indiceDebut + i), comptes[i]));
+            total += comptes[i];
+        }
+
+        return SerieTemporelleDTO.builder()
+                .electionId(electionId)
+                .resolution(res)
+                .debut(res.debutPeriode(indiceDebut))
+                .fin(res.debutPeriode(indiceFin))
+                .totalVotes(total)
+                .points(points)
+                .build();
+    }
+
+    public boolean estInitialise() {
+        return initialise;
+    }
+
+    private Serie serie(String electionId) {
+        return series.computeIfAbsent(cle(electionId), cle -> new Serie(capaciteMinutes, capaciteHeures, capaciteJours));
+    }
+
+    private int capacite(Resolution resolution) {
+        return switch (resolution) {
+            case MINUTE -> capaciteMinutes;
+            case HEURE -> capaciteHeures;
+            case JOUR -> capaciteJours;
+        };
+    }
+
+    private static String cle(String electionId) {
+        return electionId != null ? electionId : SCRUTIN_GLOBAL;
+    }
+
+    private static LocalDateTime enDate(Object valeur) {
+        return valeur instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) valeur;
+    }
+
+    private static long nombre(Object valeur) {
+        return ((Number) valeur).longValue();
+    }
+
+    // ==================== ANNEAUX ====================
+
+    public enum Resolution {
+        MINUTE("minute", 60),
+        HEURE("hour", 3_600),
+        JOUR("day", 86_400);
+
+        /** Unité date_trunc correspondante */
+        private final String unite;
+        private final long secondes;
+
+        Resolution(String unite, long secondes) {
+            this.unite = unite;
+            this.secondes = secondes;
+        }
+
+        /** Numéro de période ; l'heure locale est lue comme UTC pour que les jours commencent à minuit local */
+        static long indice(LocalDateTime horodatage, Resolution resolution) {
+            return Math.floorDiv(horodatage.toEpochSecond(ZoneOffset.UTC), resolution.secondes);
+        }
+
+        LocalDateTime debutPeriode(long indice) {
+            return LocalDateTime.ofEpochSecond(indice * secondes, 0, ZoneOffset.UTC);
+        }
+    }
+
+    private static final class Serie {
+        private final Anneau minutes;
+        private final Anneau heures;
+        private final Anneau jours;
+
+        Serie(int capaciteMinutes, int capaciteHeures, int capaciteJours) {
+            this.minutes = new Anneau(capaciteMinutes);
+            this.heures = new Anneau(capaciteHeures);
+            this.jours = new Anneau(capaciteJours);
+        }
+
+        Anneau anneau(Resolution resolution) {
+            return switch (resolution) {
+                case MINUTE -> minutes;
+                case HEURE -> heures;
+                case JOUR -> jours;
+            };
+        }
+
+        void ajouter(LocalDateTime horodatage, long nombre) {
+            minutes.ajouter(Resolution.indice(horodatage, Resolution.MINUTE), nombre);
+            heures.ajouter(Resolution.indice(horodatage, Resolution.HEURE), nombre);
+            jours.ajouter(Resolution.indice(horodatage, Resolution.JOUR), nombre);
+        }
+    }
+
+    /**
+     * Anneau de compteurs : la case d'une période est réutilisée quand l'anneau a fait un tour,
+     * chaque case garde le numéro de la période qu'elle compte.
+     */
+    static final class Anneau {
+        private final long[] indices;
+        private final long[] comptes;
+        private final ReentrantLock verrou = new ReentrantLock();
+        private long plusRecent = Long.MIN_VALUE;
+
+        Anneau(int capacite) {
+            this.indices = new long[capacite];
+            this.comptes = new long[capacite];
+            Arrays.fill(indices, Long.MIN_VALUE);
+        }
+
+        void ajouter(long indice, long nombre) {
+            verrou.lock();
+            try {
+                if (plusRecent != Long.MIN_VALUE && indice <= plusRecent - indices.length) {
+                    return; // plus ancien que la fenêtre
+                }
+                int caseIndex = (int) Math.floorMod(indice, (long) indices.length);
+                if (indices[caseIndex] != indice) {
+                    indices[caseIndex] = indice;
+                    comptes[caseIndex] = 0;
+                }
+                comptes[caseIndex] += nombre;
+                plusRecent = Math.max(plusRecent, indice);
+            } finally {
+                verrou.unlock();
+            }
+        }
+
+        /** Plage [debut, fin] ramenée à la fenêtre de l'anneau */
+        Plage lire(long debut, long fin) {
+            verrou.lock();
+            try {
+                long debutEffectif = Math.max(debut, Math.max(fin, plusRecent) - indices.length + 1);
+                long[] resultat = new long[(int) Math.max(0, fin - debutEffectif + 1)];
+                for (int i = 0; i < resultat.length; i++) {
+                    long indice = debutEffectif + i;
+                    int caseIndex = (int) Math.floorMod(indice, (long) indices.length);
+                    resultat[i] = indices[caseIndex] == indice ? comptes[caseIndex] : 0;
+                }
+                return new Plage(debutEffectif, resultat);
+            } finally {
+                verrou.unlock();
+            }
+        }
+    }
+
+    record Plage(long debut, long[] comptes) {
+    }
+
+    // ==================== DTOs ====================
+
+    public record PointSerieDTO(LocalDateTime debut, long nombreVotes) {
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class SerieTemporelleDTO {
+        private String electionId;
+        private Resolution resolution;
+        private LocalDateTime debut;
+        private LocalDateTime fin;
+        private long totalVotes;
+        private List<PointSerieDTO> points;
+    }
+}
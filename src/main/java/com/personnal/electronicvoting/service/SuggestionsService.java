@@ -0,0 +1,271 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.event.ContenuRechercheModifieEvent;
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
+import com.personnal.electronicvoting.model.VoteElection;
+import com.personnal.electronicvoting.repository.CandidatRepository;
+import com.personnal.electronicvoting.repository.ElectionRepository;
+import com.personnal.electronicvoting.util.FabriqueThreads;
+import com.personnal.electronicvoting.util.TrieSuggestions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🔤 Autocomplétion des noms de candidats et des titres d'élection.
+ *
+ * Deux arbres radix chargés au démarrage, classés par nombre de votes (scrutin global et
+ * élections pour un candidat, votes validés pour une élection). Les créations, renommages et
+ * suppressions sont appliqués après commit. Les votes validés sont seulement comptés sur le fil
+ * de commit, puis appliqués aux arbres par lot toutes les regroupement-ms. Un contenu modifié pendant le chargement garde son libellé (ou sa suppression)
+ * validé : seul le score lu au démarrage lui est ajouté. Le classement reste indicatif : un vote
+ * validé pendant le chargement peut être compté deux fois, ou pas du tout.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionsService {
+
+    private final CandidatRepository candidatRepository;
+    private final ElectionRepository electionRepository;
+
+    @Value("${app.suggestions.top-k:10}")
+    private int topK;
+
+    @Value("${app.suggestions.regroupement-ms:1000}")
+    private long regroupementMs;
+
+    private TrieSuggestions candidats;
+    private TrieSuggestions elections;
+    private volatile boolean initialise = false;
+
+    /** Votes validés depuis le dernier lot, par identifiant (fusionnés sans verrou sur l'arbre) */
+    private final Map<String, Long> votesCandidats = new ConcurrentHashMap<>();
+    private final Map<String, Long> votesElections = new ConcurrentHashMap<>();
+    private ScheduledExecutorService horloge;
+
+    /** Contenus créés, renommés ou supprimés pendant le chargement : leur ligne lue au démarrage est plus ancienne */
+    private final Set<String> modifiesPendantChargement = new HashSet<>();
+    /** Protège modifiesPendantChargement et l'insertion des lignes lues au démarrage */
+    private final ReentrantLock verrouChargement = new ReentrantLock();
+
+    // Métriques
+    private final LongAdder suggestionsServies = new LongAdder();
+    private final LongAdder misesAJour = new LongAdder();
+
+    @PostConstruct
+    void creer() {
+        candidats = new TrieSuggestions(topK);
+        elections = new TrieSuggestions(topK);
+        horloge = Executors.newSingleThreadScheduledExecutor(FabriqueThreads.creer("suggestions-scores", false));
+        horloge.scheduleWithFixedDelay(this::appliquerVotes, regroupementMs, regroupementMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void arreter() {
+        horloge.shutdownNow();
+    }
+
+    /**
+     * 🚀 Chargement des arbres au démarrage
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiserAuDemarrage() {
+        try {
+            charger();
+        } catch (Exception e) {
+            log.warn("⚠️ Suggestions indisponibles: {}", e.getMessage());
+        }
+    }
+
+    void charger() {
+        long debut = System.currentTimeMillis();
+
+        List<Object[]> lignesCandidats = candidatRepository.findSuggestions(VoteElection.StatutVote.VALIDE);
+        List<Object[]> lignesElections = electionRepository.findSuggestions(VoteElection.StatutVote.VALIDE);
+
+        verrouChargement.lock();
+        try {
+            for (Object[] ligne : lignesCandidats) {
+                charger(candidats, IndexRechercheService.TypeContenu.CANDIDAT, (String) ligne[0], (String) ligne[1],
+                        nombre(ligne[2]) + nombre(ligne[3]));
+            }
+            for (Object[] ligne : lignesElections) {
+                charger(elections, IndexRechercheService.TypeContenu.ELECTION, (String) ligne[0], (String) ligne[1],
+                        nombre(ligne[2]));
+            }
+            initialise = true;
+            modifiesPendantChargement.clear();
+        } finally {
+            verrouChargement.unlock();
+        }
+
+        log.info("🔤 Suggestions chargées en {} ms - {} candidat(s), {} élection(s)",
+                System.currentTimeMillis() - debut, candidats.taille(), elections.taille());
+    }
+
+    private void charger(TrieSuggestions arbre, IndexRechercheService.TypeContenu type,
+                         String id, String libelle, long score) {
+        if (modifiesPendantChargement.contains(cle(type, id))) {
+            // Libellé ou suppression validés entre-temps : seul le score lu est repris
+            arbre.incrementer(id, score);
+        } else {
+            arbre.ajouter(new TrieSuggestions.Suggestion(id, libelle, score));
+        }
+    }
+
+    // ==================== MISES À JOUR ====================
+
+    /**
+     * 🔄 Candidat ou élection créé, renommé ou supprimé
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void surModification(ContenuRechercheModifieEvent event) {
+        TrieSuggestions arbre = switch (event.type()) {
+            case CANDIDAT -> candidats;
+            case ELECTION -> elections;
+            case CAMPAGNE -> null;
+        };
+        if (arbre == null || event.externalId() == null) {
+            return;
+        }
+
+        if (!initialise) {
+            verrouChargement.lock();
+            try {
+                if (!initialise) {
+                    modifiesPendantChargement.add(cle(event.type(), event.externalId()));
+                }
+                appliquer(arbre, event);
+            } finally {
+                verrouChargement.unlock();
+            }
+        } else {
+            appliquer(arbre, event);
+        }
+        misesAJour.increment();
+    }
+
+    private static void appliquer(TrieSuggestions arbre, ContenuRechercheModifieEvent event) {
+        if (event.estSuppression()) {
+            arbre.retirer(event.externalId());
+        } else {
+            arbre.renommer(event.externalId(), event.libelle());
+        }
+    }
+
+    /**
+     * 🗳️ Vote validé : son candidat et son élection remonteront au prochain lot
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void surVoteEnregistre(VoteEnregistreEvent event) {
+        if (event.candidatId() != null) {
+            votesCandidats.merge(event.candidatId(), 1L, Long::sum);
+        }
+        if (!event.estVoteGlobal()) {
+            votesElections.merge(event.electionId(), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * 🔄 Votes accumulés appliqués aux arbres : une prise du verrou d'écriture par arbre et par lot
+     */
+    void appliquerVotes() {
+        try {
+            appliquer(candidats, votesCandidats);
+            appliquer(elections, votesElections);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Scores des suggestions non mis à jour: {}", e.getMessage());
+        }
+    }
+
+    private static void appliquer(TrieSuggestions arbre, Map<String, Long> enAttente) {
+        if (enAttente.isEmpty()) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        for (String id : enAttente.keySet()) {
+            // remove atomique : un vote fusionné juste après part dans le lot suivant
+            Long delta = enAttente.remove(id);
+            if (delta != null) {
+                deltas.put(id, delta);
+            }
+        }
+        arbre.incrementerTous(deltas);
+    }
+
+    // ==================== LECTURE ====================
+
+    /**
+     * 🔤 Meilleurs candidats dont un mot du nom commence par le préfixe
+     */
+    public List<TrieSuggestions.Suggestion> suggererCandidats(String prefixe, int limite) {
+        suggestionsServies.increment();
+        return candidats.suggerer(prefixe, Math.min(limite, topK));
+    }
+
+    /**
+     * 🔤 Élections les plus suivies dont un mot du titre commence par le préfixe
+     */
+    public List<TrieSuggestions.Suggestion> suggererElections(String prefixe, int limite) {
+        suggestionsServies.increment();
+        return elections.suggerer(prefixe, Math.min(limite, topK));
+    }
+
+    public boolean estInitialise() {
+        return initialise;
+    }
+
+    public StatistiquesSuggestionsDTO obtenirStatistiques() {
+        return StatistiquesSuggestionsDTO.builder()
+                .initialise(initialise)
+                .topK(topK)
+                .candidats(candidats.taille())
+                .elections(elections.taille())
+                .suggestionsServies(suggestionsServies.sum())
+                .misesAJour(misesAJour.sum())
+                .build();
+    }
+
+    private static String cle(IndexRechercheService.TypeContenu type, String id) {
+        return type + ":" + id;
+    }
+
+    private static long nombre(Object valeur) {
+        return valeur != null ? ((Number) valeur).longValue() : 0;
+    }
+
+    // ==================== DTOs ====================
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesSuggestionsDTO {
+        private boolean initialise;
+        private int topK;
+        private int candidats;
+        private int elections;
+        private long suggestionsServies;
+        private long misesAJour;
+    }
+}
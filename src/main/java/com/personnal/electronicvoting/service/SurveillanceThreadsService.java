@@ -0,0 +1,135 @@
+package com.personnal.electronicvoting.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🧵 Mode d'exécution des requêtes et surveillance de l'épinglage des threads virtuels.
+ *
+ * En mode virtuel (spring.threads.virtual.enabled=true), un flux JFR écoute l'événement
+ * jdk.VirtualThreadPinned : un thread virtuel bloqué dans un bloc synchronized (JDBC, SMTP…)
+ * immobilise son thread porteur. Chaque épinglage au-delà du seuil est journalisé avec
+ * la première frame applicative, pour repérer le code à passer sur un ReentrantLock.
+ */
+@Service
+@Slf4j
+public class SurveillanceThreadsService {
+
+    private static final int EPINGLAGES_CONSERVES = 20;
+    private static final String PAQUET_APPLICATIF = "com.personnal.electronicvoting";
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuels;
+
+    @Value("${app.threads.surveillance-epinglage.active:true}")
+    private boolean surveillanceActive;
+
+    @Value("${app.threads.surveillance-epinglage.seuil-ms:20}")
+    private long seuilMs;
+
+    private RecordingStream flux;
+    private final LongAdder epinglages = new LongAdder();
+    private final Deque<EpinglageDTO> derniers = new ArrayDeque<>();
+
+    @PostConstruct
+    void demarrer() {
+        log.info("🧵 Mode d'exécution des requêtes : threads {}", threadsVirtuels ? "virtuels" : "plateforme");
+        if (!threadsVirtuels || !surveillanceActive) {
+            return;
+        }
+
+        try {
+            flux = new RecordingStream();
+            flux.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(seuilMs)).withStackTrace();
+            flux.onEvent("jdk.VirtualThreadPinned", this::surEpinglage);
+            flux.startAsync();
+            log.info("🧵 Surveillance de l'épinglage active (seuil {} ms)", seuilMs);
+        } catch (Exception e) {
+            log.warn("⚠️ Surveillance de l'épinglage indisponible (JFR): {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void arreter() {
+        if (flux != null) {
+            flux.close();
+        }
+    }
+
+    void surEpinglage(RecordedEvent event) {
+        String origine = premiereFrameApplicative(event);
+        long dureeMs = event.getDuration().toMillis();
+
+        epinglages.increment();
+        synchronized (derniers) {
+            if (derniers.size() == EPINGLAGES_CONSERVES) {
+                derniers.removeLast();
+            }
+            derniers.addFirst(new EpinglageDTO(LocalDateTime.now(), dureeMs, origine));
+        }
+        log.warn("📌 Thread virtuel épinglé {} ms - {}", dureeMs, origine);
+    }
+
+    private static String premiereFrameApplicative(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return "pile indisponible";
+        }
+
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        RecordedFrame retenue = frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(PAQUET_APPLICATIF))
+                .findFirst()
+                .orElse(frames.get(0));
+        return retenue.getMethod().getType().getName() + "." + retenue.getMethod().getName()
+                + ":" + retenue.getLineNumber();
+    }
+
+    // ==================== MÉTRIQUES ====================
+
+    public StatistiquesThreadsDTO obtenirStatistiques() {
+        List<EpinglageDTO> copie;
+        synchronized (derniers) {
+            copie = new ArrayList<>(derniers);
+        }
+
+        return StatistiquesThreadsDTO.builder()
+                .mode(threadsVirtuels ? "VIRTUEL" : "PLATEFORME")
+                .surveillanceEpinglage(flux != null)
+                .seuilEpinglageMs(seuilMs)
+                .epinglages(epinglages.sum())
+                .derniersEpinglages(copie)
+                .threadsActifs(Thread.activeCount())
+                .build();
+    }
+
+    public record EpinglageDTO(LocalDateTime date, long dureeMs, String origine) {
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesThreadsDTO {
+        private String mode;
+        private boolean surveillanceEpinglage;
+        private long seuilEpinglageMs;
+        private long epinglages;
+        private List<EpinglageDTO> derniersEpinglages;
+        /** Threads plateforme uniquement (les threads virtuels ne sont pas comptés) */
+        private int threadsActifs;
+    }
+}
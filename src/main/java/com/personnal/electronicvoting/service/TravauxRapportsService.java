@@ -0,0 +1,423 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.util.FabriqueThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 🗂️ Génération des rapports en tâche de fond.
+ *
+ * Un rapport soumis devient un travail identifié, exécuté par un pool borné : le client suit son
+ * statut puis télécharge l'artefact. Les artefacts sont gardés sur disque par (type, format,
+ * version des données) : tant que la version ne change pas (époque du décompte pour les rapports
+ * de votes), une nouvelle demande est servie par le fichier existant sans recalcul. Deux demandes
+ * identiques simultanées partagent le même travail.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TravauxRapportsService {
+
+    public enum FormatRapport {
+        JSON("json"),
+        CSV("csv");
+
+        private final String extension;
+
+        FormatRapport(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    public enum StatutTravail {
+        EN_ATTENTE,
+        EN_COURS,
+        TERMINE,
+        ECHEC
+    }
+
+    /** Écriture d'un rapport au format CSV */
+    @FunctionalInterface
+    public interface EcritureCsv {
+        void ecrire(Writer sortie) throws IOException;
+    }
+
+    private final ObjectMapper objectMapper;
+    private final VersionsDonneesService versionsDonneesService;
+
+    @Value("${app.rapports.travaux.repertoire:./rapports}")
+    private String repertoireArtefacts;
+
+    @Value("${app.rapports.travaux.executeurs:2}")
+    private int nombreExecuteurs;
+
+    @Value("${app.rapports.travaux.file-max:50}")
+    private int fileMax;
+
+    @Value("${app.rapports.travaux.duree-vie-minutes:60}")
+    private long dureeVieMinutes;
+
+    private final Map<String, Rapport> rapports = new ConcurrentHashMap<>();
+    private final Map<String, Travail> travaux = new ConcurrentHashMap<>();
+    /** Travail en attente ou en cours par artefact, pour regrouper les demandes identiques */
+    private final Map<String, Travail> travauxActifs = new HashMap<>();
+    private final ReentrantLock verrouSoumission = new ReentrantLock();
+
+    private Path repertoire;
+    private ThreadPoolExecutor executeur;
+
+    // Métriques
+    private final LongAdder soumis = new LongAdder();
+    private final LongAdder servisDepuisCache = new LongAdder();
+    private final LongAdder regroupes = new LongAdder();
+    private final LongAdder termines = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+    private final LongAdder rejetes = new LongAdder();
+
+    // ==================== CYCLE DE VIE ====================
+
+    @PostConstruct
+    void demarrer() throws IOException {
+        repertoire = Paths.get(repertoireArtefacts).toAbsolutePath().normalize();
+        Files.createDirectories(repertoire);
+        // Les versions repartent de zéro à chaque démarrage : les artefacts précédents ne sont plus fiables
+        supprimerArtefacts(nom -> !nom.startsWith(versionsDonneesService.generation() + "-"));
+
+        executeur = new ThreadPoolExecutor(nombreExecuteurs, nombreExecuteurs, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fileMax), FabriqueThreads.creer("travaux-rapports", false));
+    }
+
+    @PreDestroy
+    void arreter() {
+        executeur.shutdownNow();
+    }
+
+    /**
+     * 🗂️ Déclarer un type de rapport, la version des données dont il dépend et ses générateurs
+     *
+     * @param csv écriture CSV, null si le rapport n'existe qu'en JSON
+     */
+    public void enregistrer(String type, LongSupplier versionDonnees, Supplier<?> contenu, EcritureCsv csv) {
+        rapports.put(type, new Rapport(type, versionDonnees, contenu, csv));
+        log.info("🗂️ Rapport asynchrone enregistré: {}", type);
+    }
+
+    // ==================== TRAVAUX ====================
+
+    /**
+     * 🗂️ Soumettre un rapport : travail terminé tout de suite si l'artefact de la version courante existe
+     */
+    public TravailDTO soumettre(String type, FormatRapport format) {
+        Rapport rapport = rapport(type, format);
+        // Version lue avant la génération : l'artefact n'est jamais plus ancien que sa version
+        long version = rapport.versionDonnees.getAsLong();
+        Path fichier = fichier(type, format, version);
+        soumis.increment();
+        purgerTravauxExpires();
+
+        verrouSoumission.lock();
+        try {
+            Travail actif = travauxActifs.get(fichier.getFileName().toString());
+            // Un travail qui vient de finir n'est retiré qu'après son statut final : ne plus s'y rattacher
+            if (actif != null && (actif.statut == StatutTravail.EN_ATTENTE || actif.statut == StatutTravail.EN_COURS)) {
+                regroupes.increment();
+                return actif.versDTO();
+            }
+
+            Travail travail = new Travail(UUID.randomUUID().toString(), type, format, version, fichier);
+            travaux.put(travail.id, travail);
+
+            if (Files.exists(fichier)) {
+                servisDepuisCache.increment();
+                travail.terminer(true);
+                return travail.versDTO();
+            }
+
+            try {
+                executeur.execute(() -> executer(travail, rapport));
+            } catch (RejectedExecutionException e) {
+                travaux.remove(travail.id);
+                rejetes.increment();
+                throw e;
+            }
+            travauxActifs.put(fichier.getFileName().toString(), travail);
+            return travail.versDTO();
+        } finally {
+            verrouSoumission.unlock();
+        }
+    }
+
+    public Optional<TravailDTO> obtenir(String travailId) {
+        return Optional.ofNullable(travaux.get(travailId)).map(Travail::versDTO);
+    }
+
+    /**
+     * 📄 Fichier d'un travail terminé
+     */
+    public Path artefact(String travailId) {
+        Travail travail = travaux.get(travailId);
+        if (travail == null) {
+            throw new NoSuchElementException("Travail de rapport non trouvé: " + travailId);
+        }
+        if (travail.statut != StatutTravail.TERMINE) {
+            throw new IllegalStateException("Le rapport n'est pas prêt (statut " + travail.statut + ")");
+        }
+        if (!Files.exists(travail.fichier)) {
+            throw new NoSuchElementException("Artefact expiré, soumettre à nouveau le rapport");
+        }
+        return travail.fichier;
+    }
+
+    /**
+     * 📄 Artefact déjà généré pour la version courante des données, sans créer de travail
+     */
+    public Optional<Path> artefactCourant(String type, FormatRapport format) {
+        Rapport rapport = rapport(type, format);
+        Path fichier = fichier(type, format, rapport.versionDonnees.getAsLong());
+        return Files.exists(fichier) ? Optional.of(fichier) : Optional.empty();
+    }
+
+    void executer(Travail travail, Rapport rapport) {
+        travail.statut = StatutTravail.EN_COURS;
+        long debut = System.currentTimeMillis();
+        Path temporaire = null;
+        try {
+            if (!Files.exists(travail.fichier)) {
+                temporaire = Files.createTempFile(repertoire, travail.type + "-", ".tmp");
+                try (OutputStream sortie = new BufferedOutputStream(Files.newOutputStream(temporaire))) {
+                    ecrire(rapport, travail.format, sortie);
+                }
+                Files.move(temporaire, travail.fichier, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                temporaire = null;
+
+                // Les versions précédentes de ce rapport ne seront plus demandées ; une version plus
+                // récente publiée entre-temps par un travail plus rapide est gardée
+                supprimerArtefacts(nom -> versionArtefact(nom, travail.type, travail.format) < travail.version);
+            }
+            travail.terminer(false);
+            termines.increment();
+            log.info("🗂️ Rapport {} ({}) généré en {} ms", travail.type, travail.format, System.currentTimeMillis() - debut);
+
+        } catch (Exception e) {
+            travail.erreur = e.getMessage();
+            travail.dateFin = LocalDateTime.now();
+            travail.statut = StatutTravail.ECHEC;
+            echecs.increment();
+            log.error("💥 Génération du rapport {} ({}) impossible: {}", travail.type, travail.format, e.getMessage(), e);
+        } finally {
+            if (temporaire != null) {
+                try {
+                    Files.deleteIfExists(temporaire);
+                } catch (IOException ignore) {
+                    // fichier temporaire laissé au prochain démarrage
+                }
+            }
+            verrouSoumission.lock();
+            try {
+                travauxActifs.remove(travail.fichier.getFileName().toString(), travail);
+            } finally {
+                verrouSoumission.unlock();
+            }
+        }
+    }
+
+    private void ecrire(Rapport rapport, FormatRapport format, OutputStream sortie) throws IOException {
+        if (format == FormatRapport.JSON) {
+            objectMapper.writeValue(sortie, rapport.contenu.get());
+            return;
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8));
+        rapport.csv.ecrire(writer);
+        writer.flush();
+    }
+
+    private Rapport rapport(String type, FormatRapport format) {
+        Rapport rapport = rapports.get(type);
+        if (rapport == null) {
+            throw new RuntimeException("Type de rapport non supporté: " + type);
+        }
+        if (format == FormatRapport.CSV && rapport.csv == null) {
+            throw new RuntimeException("Le rapport " + type + " n'existe pas au format CSV");
+        }
+        return rapport;
+    }
+
+    private Path fichier(String type, FormatRapport format, long version) {
+        return repertoire.resolve(versionsDonneesService.generation() + "-" + type + "-" + version + "." + format.extension());
+    }
+
+    /** Version d'un artefact de ce rapport d'après son nom, Long.MAX_VALUE s'il n'en est pas un */
+    private long versionArtefact(String nom, String type, FormatRapport format) {
+        String prefixe = versionsDonneesService.generation() + "-" + type + "-";
+        String suffixe = "." + format.extension();
+        if (!nom.startsWith(prefixe) || !nom.endsWith(suffixe) || nom.length() <= prefixe.length() + suffixe.length()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(nom.substring(prefixe.length(), nom.length() - suffixe.length()));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private void purgerTravauxExpires() {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(dureeVieMinutes);
+        travaux.values().removeIf(travail -> travail.dateFin != null && travail.dateFin.isBefore(limite));
+    }
+
+    private void supprimerArtefacts(Predicate<String> filtre) {
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            fichiers.filter(fichier -> filtre.test(fichier.getFileName().toString()))
+                    .forEach(fichier -> {
+                        try {
+                            Files.deleteIfExists(fichier);
+                        } catch (IOException e) {
+                            log.warn("⚠️ Artefact {} non supprimé: {}", fichier.getFileName(), e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("⚠️ Nettoyage des artefacts de rapports impossible: {}", e.getMessage());
+        }
+    }
+
+    public StatistiquesTravauxDTO obtenirStatistiques() {
+        long artefacts;
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            artefacts = fichiers.filter(fichier -> !fichier.getFileName().toString().endsWith(".tmp")).count();
+        } catch (IOException e) {
+            artefacts = -1;
+        }
+
+        return StatistiquesTravauxDTO.builder()
+                .rapportsEnregistres(rapports.size())
+                .executeurs(nombreExecuteurs)
+                .travauxEnFile(executeur.getQueue().size())
+                .travauxEnCours(executeur.getActiveCount())
+                .soumis(soumis.sum())
+                .servisDepuisCache(servisDepuisCache.sum())
+                .regroupes(regroupes.sum())
+                .termines(termines.sum())
+                .echecs(echecs.sum())
+                .rejetes(rejetes.sum())
+                .artefactsSurDisque(artefacts)
+                .build();
+    }
+
+    // ==================== TYPES ====================
+
+    record Rapport(String type, LongSupplier versionDonnees, Supplier<?> contenu, EcritureCsv csv) {
+    }
+
+    static final class Travail {
+        private final String id;
+        private final String type;
+        private final FormatRapport format;
+        private final long version;
+        private final Path fichier;
+        private final LocalDateTime dateSoumission = LocalDateTime.now();
+        private volatile StatutTravail statut = StatutTravail.EN_ATTENTE;
+        private volatile LocalDateTime dateFin;
+        private volatile String erreur;
+        private volatile boolean depuisCache;
+
+        Travail(String id, String type, FormatRapport format, long version, Path fichier) {
+            this.id = id;
+            this.type = type;
+            this.format = format;
+            this.version = version;
+            this.fichier = fichier;
+        }
+
+        void terminer(boolean cache) {
+            depuisCache = cache;
+            dateFin = LocalDateTime.now();
+            statut = StatutTravail.TERMINE;
+        }
+
+        TravailDTO versDTO() {
+            Long taille = null;
+            if (statut == StatutTravail.TERMINE) {
+                try {
+                    taille = Files.size(fichier);
+                } catch (IOException ignore) {
+                    // artefact remplacé depuis
+                }
+            }
+            return TravailDTO.builder()
+                    .id(id)
+                    .type(type)
+                    .format(format)
+                    .statut(statut)
+                    .versionDonnees(version)
+                    .dateSoumission(dateSoumission)
+                    .dateFin(dateFin)
+                    .depuisCache(depuisCache)
+                    .tailleOctets(taille)
+                    .erreur(erreur)
+                    .build();
+        }
+    }
+
+    // ==================== DTOs ====================
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class TravailDTO {
+        private String id;
+        private String type;
+        private FormatRapport format;
+        private StatutTravail statut;
+        private long versionDonnees;
+        private LocalDateTime dateSoumission;
+        private LocalDateTime dateFin;
+        /** true si l'artefact existait déjà pour cette version des données */
+        private boolean depuisCache;
+        private Long tailleOctets;
+        private String erreur;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class StatistiquesTravauxDTO {
+        private int rapportsEnregistres;
+        private int executeurs;
+        private int travauxEnFile;
+        private int travauxEnCours;
+        private long soumis;
+        private long servisDepuisCache;
+        private long regroupes;
+        private long termines;
+        private long echecs;
+        private long rejetes;
+        private long artefactsSurDisque;
+    }
+}
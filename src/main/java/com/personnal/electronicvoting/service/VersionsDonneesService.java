@@ -0,0 +1,69 @@
+package com.personnal.electronicvoting.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🏷️ Versions de modification des tables publiques (candidats, campagnes, élections) et des électeurs.
+ *
+ * Une version est incrémentée après commit de toute écriture JPA sur la table, pour qu'une
+ * lecture concurrente ne puisse pas associer la nouvelle version à d'anciennes données.
+ * Les versions repartent de zéro au démarrage : la génération distingue deux démarrages.
+ */
+@Service
+@Slf4j
+public class VersionsDonneesService {
+
+    public enum Table {
+        CANDIDATS,
+        CAMPAGNES,
+        ELECTIONS,
+        /** Écritures JPA seulement : les UPDATE a_vote en SQL suivent un vote, qui avance l'époque */
+        ELECTEURS
+    }
+
+    private final String generation = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Table, AtomicLong> versions = new EnumMap<>(Table.class);
+
+    public VersionsDonneesService() {
+        for (Table table : Table.values()) {
+            versions.put(table, new AtomicLong());
+        }
+    }
+
+    /**
+     * 🏷️ Signaler une écriture sur la table (prise en compte au commit s'il y a une transaction)
+     */
+    public void marquerModification(Table table) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.get(table).incrementAndGet();
+                }
+            });
+        } else {
+            versions.get(table).incrementAndGet();
+        }
+    }
+
+    public long version(Table table) {
+        return versions.get(table).get();
+    }
+
+    public String generation() {
+        return generation;
+    }
+
+    public Map<Table, Long> versions() {
+        Map<Table, Long> copie = new EnumMap<>(Table.class);
+        versions.forEach((table, version) -> copie.put(table, version.get()));
+        return copie;
+    }
+}
@@ -2,15 +2,20 @@ package com.personnal.electronicvoting.service;
 
 import com.personnal.electronicvoting.dto.VoteDTO;
 import com.personnal.electronicvoting.dto.CandidatDTO;
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
 import com.personnal.electronicvoting.model.*;
 import com.personnal.electronicvoting.repository.*;
 import com.personnal.electronicvoting.mapper.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -24,9 +29,16 @@ public class VoteService {
     private final VoteRepository voteRepository;
     private final ElecteurRepository electeurRepository;
     private final CandidatRepository candidatRepository;
-    private final VoteMapper voteMapper;
+    private final StatistiquesCandidatRepository statistiquesCandidatRepository;
     private final CandidatMapper candidatMapper;
-    private final ElecteurService electeurService;
+    private final CompteurVotesService compteurVotesService;
+    private final SerieTemporelleVotesService serieTemporelleVotesService;
+    private final JournalVotesService journalVotesService;
+    private final VersionsDonneesService versionsDonneesService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Candidats relus seulement quand la version de leur table change (lectures en mémoire sans SQL) */
+    private volatile CandidatsEnCache candidatsEnCache;
 
     // ==================== PROCESSUS DE VOTE ====================
 
@@ -37,45 +49,36 @@ public class VoteService {
         log.info("🗳️ Tentative de vote - Électeur: {}, Candidat: {}", electeurId, candidatId);
 
         try {
-            // 🔒 VÉRIFICATIONS DE SÉCURITÉ
-
-            // 1. Vérifier que l'électeur existe
-            Electeur electeur = electeurRepository.findByExternalIdElecteur(electeurId)
-                    .orElseThrow(() -> new RuntimeException("Électeur non trouvé: " + electeurId));
+            // 🗳️ UNE SEULE INSTRUCTION : bascule conditionnelle de a_vote + insertion du vote
+            List<Object[]> lignes = voteRepository.enregistrerVoteAtomique(electeurId, candidatId);
 
-            // 2. Vérifier que le candidat existe
-            Candidat candidat = candidatRepository.findByExternalIdCandidat(candidatId)
-                    .orElseThrow(() -> new RuntimeException("Candidat non trouvé: " + candidatId));
-
-            // 3. ⚠️ VÉRIFICATION CRUCIALE : L'électeur a-t-il déjà voté ?
-            if (electeur.isAVote()) {
-                log.warn("⚠️ Tentative de double vote - Électeur: {}", electeurId);
-                throw new RuntimeException("Vous avez déjà voté. Un seul vote par électeur est autorisé.");
+            if (lignes.isEmpty()) {
+                throw motifRefus(electeurId, candidatId);
             }
 
-            // 4. Vérifier en base si un vote existe (double sécurité)
-            if (voteRepository.existsByElecteur_externalIdElecteur(electeurId)) {
-                log.error("🚨 ALERTE SÉCURITÉ - Vote en base mais flag électeur incorrect: {}", electeurId);
-                throw new RuntimeException("Anomalie détectée. Contactez l'administrateur.");
-            }
+            Object[] ligne = lignes.get(0);
+            Long voteId = ((Number) ligne[0]).longValue();
+            LocalDateTime horodatage = enDate(ligne[3]);
 
-            // ✅ ENREGISTREMENT DU VOTE
-
-            Vote vote = new Vote();
-            vote.setElecteur(electeur);
-            vote.setCandidat(candidat);
-            vote.setDateVote(LocalDate.now());
-
-            Vote voteSauve = voteRepository.save(vote);
+            // 📓 Journal local (fsync groupé avant commit)
+            if (journalVotesService.estActif()) {
+                journalVotesService.journaliserDansTransaction(0L,
+                        ((Number) ligne[1]).longValue(), ((Number) ligne[2]).longValue());
+            }
 
-            // 🔄 MISE À JOUR ÉLECTEUR (marquer comme ayant voté)
-            electeurService.marquerCommeAyantVote(electeurId);
+            // 🧮 Décompte en mémoire mis à jour après commit
+            eventPublisher.publishEvent(VoteEnregistreEvent.voteGlobal(voteId, electeurId, candidatId, horodatage));
 
             log.info("✅ Vote enregistré avec succès - Électeur: {}, Candidat: {}, ID Vote: {}",
-                    electeurId, candidatId, voteSauve.getId());
+                    electeurId, candidatId, voteId);
 
-            return voteMapper.toDTO(voteSauve);
+            // Date enregistrée en base, pas l'horloge de la JVM (minuit, fuseaux différents)
+            return new VoteDTO(electeurId, candidatId, horodatage.toLocalDate());
 
+        } catch (DataIntegrityViolationException e) {
+            // Vote déjà présent en base alors que a_vote était faux
+            log.error("🚨 ALERTE SÉCURITÉ - Vote en base mais flag électeur incorrect: {}", electeurId);
+            throw new RuntimeException("Anomalie détectée. Contactez l'administrateur.");
         } catch (RuntimeException e) {
             log.error("❌ Erreur lors du vote - Électeur: {}, Candidat: {} - Erreur: {}",
                     electeurId, candidatId, e.getMessage());
@@ -87,6 +90,25 @@ public class VoteService {
         }
     }
 
+    /**
+     * 🔍 Motif du refus, recherché seulement quand le vote n'a pas été enregistré
+     */
+    private RuntimeException motifRefus(String electeurId, String candidatId) {
+        if (electeurRepository.findByExternalIdElecteur(electeurId).isEmpty()) {
+            return new RuntimeException("Électeur non trouvé: " + electeurId);
+        }
+        if (candidatRepository.findByExternalIdCandidat(candidatId).isEmpty()) {
+            return new RuntimeException("Candidat non trouvé: " + candidatId);
+        }
+
+        log.warn("⚠️ Tentative de double vote - Électeur: {}", electeurId);
+        return new RuntimeException("Vous avez déjà voté. Un seul vote par électeur est autorisé.");
+    }
+
+    private static LocalDateTime enDate(Object valeur) {
+        return valeur instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) valeur;
+    }
+
     // ==================== VÉRIFICATIONS ====================
 
     /**
@@ -137,23 +159,25 @@ public class VoteService {
         log.info("📊 Calcul des résultats de vote");
 
         try {
-            List<Candidat> tousLesCandidats = candidatRepository.findAll();
-            long totalVotes = voteRepository.count();
-
-            List<ResultatVoteDTO> resultats = tousLesCandidats.stream()
-                    .map(candidat -> {
-                        long votesCandidat = candidatRepository.countVotesByCandidat(candidat.getExternalIdCandidat());
-                        double pourcentage = totalVotes > 0 ?
-                                (double) votesCandidat / totalVotes * 100 : 0;
-
-                        return ResultatVoteDTO.builder()
-                                .candidat(candidatMapper.toDTO(candidat))
-                                .nombreVotes(votesCandidat)
-                                .pourcentageVotes(Math.round(pourcentage * 100.0) / 100.0)
-                                .build();
-                    })
-                    .sorted((a, b) -> Long.compare(b.getNombreVotes(), a.getNombreVotes()))
-                    .toList();
+            final long totalVotes;
+            List<ResultatVoteDTO> resultats;
+
+            if (compteurVotesService.estInitialise()) {
+                totalVotes = compteurVotesService.totalVotesGlobal();
+                resultats = candidatsEnCache().stream()
+                        .map(candidat -> resultat(candidat.dto(),
+                                compteurVotesService.votesCandidat(candidat.externalId()), totalVotes))
+                        .sorted((a, b) -> Long.compare(b.getNombreVotes(), a.getNombreVotes()))
+                        .toList();
+            } else {
+                // Une seule requête groupée, déjà triée par nombre de votes
+                List<StatistiquesCandidatRepository.CandidatAgrege> agreges =
+                        statistiquesCandidatRepository.findCandidatsAvecCompteurs();
+                totalVotes = agreges.stream().mapToLong(StatistiquesCandidatRepository.CandidatAgrege::getNombreVotes).sum();
+                resultats = agreges.stream()
+                        .map(agrege -> resultat(candidatMapper.toDTO(agrege.getCandidat()), agrege.getNombreVotes(), totalVotes))
+                        .toList();
+            }
 
             // Attribuer les rangs
             for (int i = 0; i < resultats.size(); i++) {
@@ -171,6 +195,34 @@ public class VoteService {
         }
     }
 
+    private static ResultatVoteDTO resultat(CandidatDTO candidat, long votesCandidat, long totalVotes) {
+        double pourcentage = totalVotes > 0 ?
+                (double) votesCandidat / totalVotes * 100 : 0;
+
+        return ResultatVoteDTO.builder()
+                .candidat(candidat)
+                .nombreVotes(votesCandidat)
+                .pourcentageVotes(Math.round(pourcentage * 100.0) / 100.0)
+                .build();
+    }
+
+    /**
+     * 👥 Candidats mis en cache, relus quand la version de la table candidats a avancé
+     */
+    private List<CandidatEnCache> candidatsEnCache() {
+        // Version lue avant la relecture : une écriture validée pendant la lecture invalide le cache
+        long version = versionsDonneesService.version(VersionsDonneesService.Table.CANDIDATS);
+        CandidatsEnCache cache = candidatsEnCache;
+        if (cache == null || cache.version() != version) {
+            cache = new CandidatsEnCache(version, candidatRepository.findAll().stream()
+                    .map(candidat -> new CandidatEnCache(candidat.getExternalIdCandidat(), candidat.getUsername(),
+                            candidatMapper.toDTO(candidat)))
+                    .toList());
+            candidatsEnCache = cache;
+        }
+        return cache.candidats();
+    }
+
     /**
      *  Obtenir le candidat gagnant
      */
@@ -204,20 +256,36 @@ public class VoteService {
 
         try {
             long totalElecteurs = electeurRepository.count();
-            long totalVotes = voteRepository.count();
-            long electeursAyantVote = electeurRepository.findByaVoteTrue().size();
-            long totalCandidats = candidatRepository.count();
+            long electeursAyantVote = electeurRepository.countByaVoteTrue();
 
             double tauxParticipation = totalElecteurs > 0 ?
                     (double) electeursAyantVote / totalElecteurs * 100 : 0;
 
             // Calculer votes par candidat
-            Map<String, Long> votesParCandidat = candidatRepository.findAll()
-                    .stream()
-                    .collect(Collectors.toMap(
-                            Candidat::getUsername,
-                            candidat -> candidatRepository.countVotesByCandidat(candidat.getExternalIdCandidat())
-                    ));
+            long totalVotes;
+            long totalCandidats;
+            Map<String, Long> votesParCandidat;
+            if (compteurVotesService.estInitialise()) {
+                Map<String, Long> votesEnMemoire = compteurVotesService.votesParCandidat();
+                List<CandidatEnCache> candidats = candidatsEnCache();
+                totalVotes = compteurVotesService.totalVotesGlobal();
+                totalCandidats = candidats.size();
+                votesParCandidat = candidats.stream()
+                        .collect(Collectors.toMap(
+                                CandidatEnCache::username,
+                                candidat -> votesEnMemoire.getOrDefault(candidat.externalId(), 0L)
+                        ));
+            } else {
+                List<StatistiquesCandidatRepository.CandidatAgrege> agreges =
+                        statistiquesCandidatRepository.findCandidatsAvecCompteurs();
+                totalVotes = agreges.stream().mapToLong(StatistiquesCandidatRepository.CandidatAgrege::getNombreVotes).sum();
+                totalCandidats = agreges.size();
+                votesParCandidat = agreges.stream()
+                        .collect(Collectors.toMap(
+                                agrege -> agrege.getCandidat().getUsername(),
+                                StatistiquesCandidatRepository.CandidatAgrege::getNombreVotes
+                        ));
+            }
 
             return StatistiquesVoteDTO.builder()
                     .totalElecteurs(totalElecteurs)
@@ -242,20 +310,24 @@ public class VoteService {
         log.info("📊 Analyse répartition temporelle des votes");
 
         try {
-            List<Vote> tousLesVotes = voteRepository.findAll();
-
-            Map<String, Long> votesParHeure = tousLesVotes.stream()
-                    .collect(Collectors.groupingBy(
-                            vote -> vote.getDateVote().toString() ,
-                            Collectors.counting()
-                    ));
-
-            return votesParHeure.entrySet().stream()
-                    .map(entry -> VoteTemporelDTO.builder()
-                            .periode(entry.getKey())
-                            .nombreVotes(entry.getValue())
+            // Série journalière en mémoire : O(nombre de jours), sans lire les votes
+            if (serieTemporelleVotesService.estInitialise()) {
+                return serieTemporelleVotesService
+                        .obtenirSerie(null, SerieTemporelleVotesService.Resolution.JOUR, null, null)
+                        .getPoints().stream()
+                        .filter(point -> point.nombreVotes() > 0)
+                        .map(point -> VoteTemporelDTO.builder()
+                                .periode(point.debut().toLocalDate().toString())
+                                .nombreVotes(point.nombreVotes())
+                                .build())
+                        .toList();
+            }
+
+            return voteRepository.countVotesGroupesParJour().stream()
+                    .map(ligne -> VoteTemporelDTO.builder()
+                            .periode(ligne[0].toString())
+                            .nombreVotes(((Number) ligne[1]).longValue())
                             .build())
-                    .sorted((a, b) -> a.getPeriode().compareTo(b.getPeriode()))
                     .toList();
 
         } catch (Exception e) {
@@ -264,6 +336,12 @@ public class VoteService {
         }
     }
 
+    private record CandidatEnCache(String externalId, String username, CandidatDTO dto) {
+    }
+
+    private record CandidatsEnCache(long version, List<CandidatEnCache> candidats) {
+    }
+
     // ==================== DTOs SPÉCIFIQUES ====================
 
     /**
@@ -0,0 +1,297 @@
+package com.personnal.electronicvoting.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+/**
+ * 🧩 Ensemble d'entiers compressé, inspiré de Roaring.
+ *
+ * Les 16 bits de poids fort d'une valeur choisissent un conteneur, les 16 bits de poids
+ * faible y sont rangés : tableau trié tant que le conteneur compte au plus 4096 valeurs,
+ * bitmap de 8 Ko au-delà. L'appartenance se teste en O(log conteneurs) + O(1).
+ *
+ * Non synchronisé : les appelants partagent des copies immuables (copie() puis échange).
+ */
+public final class BitmapCompresse {
+
+    private static final int SEUIL_TABLEAU = 4096;
+
+    private char[] cles = new char[0];
+    private Conteneur[] conteneurs = new Conteneur[0];
+    private int nombreConteneurs = 0;
+
+    public static BitmapCompresse depuis(Collection<? extends Number> valeurs) {
+        BitmapCompresse bitmap = new BitmapCompresse();
+        for (Number valeur : valeurs) {
+            bitmap.ajouter(valeur.intValue());
+        }
+        return bitmap;
+    }
+
+    public boolean contient(int valeur) {
+        int indice = chercher(poidsFort(valeur));
+        return indice >= 0 && conteneurs[indice].contient(poidsFaible(valeur));
+    }
+
+    public boolean ajouter(int valeur) {
+        char cle = poidsFort(valeur);
+        int indice = chercher(cle);
+
+        if (indice < 0) {
+            indice = -indice - 1;
+            insererConteneur(indice, cle, new ConteneurTableau());
+        }
+
+        Conteneur conteneur = conteneurs[indice];
+        int avant = conteneur.cardinalite();
+        conteneurs[indice] = conteneur.ajouter(poidsFaible(valeur));
+        return conteneurs[indice].cardinalite() > avant;
+    }
+
+    public boolean retirer(int valeur) {
+        int indice = chercher(poidsFort(valeur));
+        if (indice < 0) {
+            return false;
+        }
+
+        Conteneur conteneur = conteneurs[indice];
+        int avant = conteneur.cardinalite();
+        Conteneur resultat = conteneur.retirer(poidsFaible(valeur));
+
+        if (resultat.cardinalite() == 0) {
+            supprimerConteneur(indice);
+        } else {
+            conteneurs[indice] = resultat;
+        }
+        return resultat.cardinalite() < avant;
+    }
+
+    public long cardinalite() {
+        long total = 0;
+        for (int i = 0; i < nombreConteneurs; i++) {
+            total += conteneurs[i].cardinalite();
+        }
+        return total;
+    }
+
+    /** Parcours des valeurs dans l'ordre croissant (non signé) */
+    public void pourChaque(IntConsumer action) {
+        for (int i = 0; i < nombreConteneurs; i++) {
+            conteneurs[i].pourChaque(cles[i] << 16, action);
+        }
+    }
+
+    public BitmapCompresse copie() {
+        BitmapCompresse copie = new BitmapCompresse();
+        copie.cles = Arrays.copyOf(cles, nombreConteneurs);
+        copie.conteneurs = new Conteneur[nombreConteneurs];
+        for (int i = 0; i < nombreConteneurs; i++) {
+            copie.conteneurs[i] = conteneurs[i].copie();
+        }
+        copie.nombreConteneurs = nombreConteneurs;
+        return copie;
+    }
+
+    /** Taille mémoire approximative des conteneurs, en octets */
+    public long tailleOctets() {
+        long total = (long) nombreConteneurs * 2;
+        for (int i = 0; i < nombreConteneurs; i++) {
+            total += conteneurs[i].tailleOctets();
+        }
+        return total;
+    }
+
+    // ==================== GESTION DES CONTENEURS ====================
+
+    private static char poidsFort(int valeur) {
+        return (char) (valeur >>> 16);
+    }
+
+    private static char poidsFaible(int valeur) {
+        return (char) valeur;
+    }
+
+    private int chercher(char cle) {
+        return Arrays.binarySearch(cles, 0, nombreConteneurs, cle);
+    }
+
+    private void insererConteneur(int indice, char cle, Conteneur conteneur) {
+        if (nombreConteneurs == cles.length) {
+            int capacite = Math.max(4, nombreConteneurs * 2);
+            cles = Arrays.copyOf(cles, capacite);
+            conteneurs = Arrays.copyOf(conteneurs, capacite);
+        }
+        System.arraycopy(cles, indice, cles, indice + 1, nombreConteneurs - indice);
+        System.arraycopy(conteneurs, indice, conteneurs, indice + 1, nombreConteneurs - indice);
+        cles[indice] = cle;
+        conteneurs[indice] = conteneur;
+        nombreConteneurs++;
+    }
+
+    private void supprimerConteneur(int indice) {
+        System.arraycopy(cles, indice + 1, cles, indice, nombreConteneurs - indice - 1);
+        System.arraycopy(conteneurs, indice + 1, conteneurs, indice, nombreConteneurs - indice - 1);
+        nombreConteneurs--;
+        conteneurs[nombreConteneurs] = null;
+    }
+
+    private sealed interface Conteneur permits ConteneurTableau, ConteneurBits {
+        boolean contient(char valeur);
+
+        /** Peut retourner un conteneur d'un autre type (conversion tableau ↔ bitmap) */
+        Conteneur ajouter(char valeur);
+
+        Conteneur retirer(char valeur);
+
+        int cardinalite();
+
+        Conteneur copie();
+
+        long tailleOctets();
+
+        void pourChaque(int base, IntConsumer action);
+    }
+
+    /** Valeurs triées, pour les conteneurs peu remplis */
+    private static final class ConteneurTableau implements Conteneur {
+        private char[] valeurs = new char[4];
+        private int taille = 0;
+
+        @Override
+        public boolean contient(char valeur) {
+            return Arrays.binarySearch(valeurs, 0, taille, valeur) >= 0;
+        }
+
+        @Override
+        public Conteneur ajouter(char valeur) {
+            int indice = Arrays.binarySearch(valeurs, 0, taille, valeur);
+            if (indice >= 0) {
+                return this;
+            }
+            if (taille >= SEUIL_TABLEAU) {
+                return versBits().ajouter(valeur);
+            }
+
+            indice = -indice - 1;
+            if (taille == valeurs.length) {
+                valeurs = Arrays.copyOf(valeurs, Math.min(SEUIL_TABLEAU, taille * 2));
+            }
+            System.arraycopy(valeurs, indice, valeurs, indice + 1, taille - indice);
+            valeurs[indice] = valeur;
+            taille++;
+            return this;
+        }
+
+        @Override
+        public Conteneur retirer(char valeur) {
+            int indice = Arrays.binarySearch(valeurs, 0, taille, valeur);
+            if (indice >= 0) {
+                System.arraycopy(valeurs, indice + 1, valeurs, indice, taille - indice - 1);
+                taille--;
+            }
+            return this;
+        }
+
+        @Override
+        public int cardinalite() {
+            return taille;
+        }
+
+        @Override
+        public Conteneur copie() {
+            ConteneurTableau copie = new ConteneurTableau();
+            copie.valeurs = Arrays.copyOf(valeurs, Math.max(taille, 4));
+            copie.taille = taille;
+            return copie;
+        }
+
+        @Override
+        public long tailleOctets() {
+            return (long) valeurs.length * 2;
+        }
+
+        @Override
+        public void pourChaque(int base, IntConsumer action) {
+            for (int i = 0; i < taille; i++) {
+                action.accept(base | valeurs[i]);
+            }
+        }
+
+        private ConteneurBits versBits() {
+            ConteneurBits bits = new ConteneurBits();
+            for (int i = 0; i < taille; i++) {
+                bits.ajouter(valeurs[i]);
+            }
+            return bits;
+        }
+    }
+
+    /** Bitmap de 65536 bits, pour les conteneurs denses */
+    private static final class ConteneurBits implements Conteneur {
+        private final long[] mots = new long[1024];
+        private int cardinalite = 0;
+
+        @Override
+        public boolean contient(char valeur) {
+            return (mots[valeur >>> 6] & (1L << valeur)) != 0;
+        }
+
+        @Override
+        public Conteneur ajouter(char valeur) {
+            long avant = mots[valeur >>> 6];
+            long apres = avant | (1L << valeur);
+            if (avant != apres) {
+                mots[valeur >>> 6] = apres;
+                cardinalite++;
+            }
+            return this;
+        }
+
+        @Override
+        public Conteneur retirer(char valeur) {
+            long avant = mots[valeur >>> 6];
+            long apres = avant & ~(1L << valeur);
+            if (avant != apres) {
+                mots[valeur >>> 6] = apres;
+                cardinalite--;
+            }
+            return cardinalite <= SEUIL_TABLEAU ? versTableau() : this;
+        }
+
+        @Override
+        public int cardinalite() {
+            return cardinalite;
+        }
+
+        @Override
+        public Conteneur copie() {
+            ConteneurBits copie = new ConteneurBits();
+            System.arraycopy(mots, 0, copie.mots, 0, mots.length);
+            copie.cardinalite = cardinalite;
+            return copie;
+        }
+
+        @Override
+        public long tailleOctets() {
+            return (long) mots.length * 8;
+        }
+
+        @Override
+        public void pourChaque(int base, IntConsumer action) {
+            for (int mot = 0; mot < mots.length; mot++) {
+                long bits = mots[mot];
+                while (bits != 0) {
+                    action.accept(base | (mot * 64 + Long.numberOfTrailingZeros(bits)));
+                    bits &= bits - 1;
+                }
+            }
+        }
+
+        private ConteneurTableau versTableau() {
+            ConteneurTableau tableau = new ConteneurTableau();
+            pourChaque(0, valeur -> tableau.ajouter((char) valeur));
+            return tableau;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.personnal.electronicvoting.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 🔢 Tableau de petits compteurs compactés dans des mots de 64 bits, modifiés par CAS.
+ *
+ * Largeur de 1 bit (simple bitset) à 16 bits par compteur selon la valeur maximale.
+ * Les segments de 1024 mots sont créés à la demande : l'index (clé primaire dense)
+ * peut croître sans réallocation ni verrou.
+ */
+public final class CompteursCompacts {
+
+    private static final int MOTS_PAR_SEGMENT = 1024;
+
+    private final int bitsParCompteur;
+    private final int compteursParMot;
+    private final long masque;
+    private final ConcurrentHashMap<Long, AtomicLongArray> segments = new ConcurrentHashMap<>();
+
+    private CompteursCompacts(int bitsParCompteur) {
+        this.bitsParCompteur = bitsParCompteur;
+        this.compteursParMot = 64 / bitsParCompteur;
+        this.masque = (1L << bitsParCompteur) - 1;
+    }
+
+    /**
+     * Plus petite largeur (1, 2, 4, 8 ou 16 bits) capable de représenter valeurMax
+     */
+    public static CompteursCompacts pourMaximum(int valeurMax) {
+        int bits = 1;
+        while (bits < 16 && (1 << bits) - 1 < valeurMax) {
+            bits <<= 1;
+        }
+        return new CompteursCompacts(bits);
+    }
+
+    public int valeurMaxRepresentable() {
+        return (int) masque;
+    }
+
+    public int bitsParCompteur() {
+        return bitsParCompteur;
+    }
+
+    public int valeur(long index) {
+        AtomicLongArray segment = segments.get(numeroSegment(index));
+        if (segment == null) {
+            return 0;
+        }
+        return (int) ((segment.get(indiceMot(index)) >>> decalage(index)) & masque);
+    }
+
+    /**
+     * ➕ Incrémenter si le compteur est strictement inférieur à plafond ; false sinon
+     */
+    public boolean incrementerSi(long index, int plafond) {
+        int limite = Math.min(plafond, valeurMaxRepresentable());
+        AtomicLongArray segment = segment(index);
+        int mot = indiceMot(index);
+        int decalage = decalage(index);
+
+        while (true) {
+            long avant = segment.get(mot);
+            long courant = (avant >>> decalage) & masque;
+            if (courant >= limite) {
+                return false;
+            }
+            if (segment.compareAndSet(mot, avant, avant + (1L << decalage))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * ➖ Décrémenter (sans descendre sous zéro)
+     */
+    public void decrementer(long index) {
+        AtomicLongArray segment = segments.get(numeroSegment(index));
+        if (segment == null) {
+            return;
+        }
+        int mot = indiceMot(index);
+        int decalage = decalage(index);
+
+        while (true) {
+            long avant = segment.get(mot);
+            if (((avant >>> decalage) & masque) == 0) {
+                return;
+            }
+            if (segment.compareAndSet(mot, avant, avant - (1L << decalage))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * ⬆️ Porter le compteur à au moins valeur (chargement concurrent des votes existants)
+     */
+    public void porterAuMoins(long index, int valeur) {
+        long cible = Math.min(valeur, masque);
+        AtomicLongArray segment = segment(index);
+        int mot = indiceMot(index);
+        int decalage = decalage(index);
+
+        while (true) {
+            long avant = segment.get(mot);
+            long courant = (avant >>> decalage) & masque;
+            if (courant >= cible) {
+                return;
+            }
+            long apres = (avant & ~(masque << decalage)) | (cible << decalage);
+            if (segment.compareAndSet(mot, avant, apres)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * ↔️ Copie dont les compteurs sont assez larges pour valeurMax.
+     * L'appelant empêche toute écriture sur ce tableau pendant la copie.
+     */
+    public CompteursCompacts elargir(int valeurMax) {
+        CompteursCompacts copie = pourMaximum(Math.max(valeurMax, valeurMaxRepresentable()));
+        segments.forEach((numero, segment) -> {
+            long premierIndex = numero * MOTS_PAR_SEGMENT * compteursParMot;
+            for (int mot = 0; mot < segment.length(); mot++) {
+                long valeurMot = segment.get(mot);
+                for (int i = 0; valeurMot != 0 && i < compteursParMot; i++) {
+                    int valeur = (int) ((valeurMot >>> (i * bitsParCompteur)) & masque);
+                    if (valeur > 0) {
+                        copie.porterAuMoins(premierIndex + (long) mot * compteursParMot + i, valeur);
+                    }
+                }
+            }
+        });
+        return copie;
+    }
+
+    /** Taille mémoire des segments alloués, en octets */
+    public long tailleOctets() {
+        return (long) segments.size() * MOTS_PAR_SEGMENT * 8;
+    }
+
+    private AtomicLongArray segment(long index) {
+        return segments.computeIfAbsent(numeroSegment(index), n -> new AtomicLongArray(MOTS_PAR_SEGMENT));
+    }
+
+    private long numeroSegment(long index) {
+        return index / ((long) MOTS_PAR_SEGMENT * compteursParMot);
+    }
+
+    private int indiceMot(long index) {
+        return (int) ((index / compteursParMot) % MOTS_PAR_SEGMENT);
+    }
+
+    private int decalage(long index) {
+        return (int) (index % compteursParMot) * bitsParCompteur;
+    }
+}
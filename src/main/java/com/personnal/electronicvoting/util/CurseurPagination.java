@@ -0,0 +1,90 @@
+package com.personnal.electronicvoting.util;
+
+import com.personnal.electronicvoting.dto.PageCurseurDTO;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 📑 Pagination par curseur sur la clé primaire (keyset) : chaque page reprend strictement après
+ * le dernier identifiant de la précédente, sans OFFSET. Le curseur est opaque pour le client
+ * (base64url de « v1:type:dernierId ») et n'est valable que pour la ressource qui l'a émis.
+ */
+public final class CurseurPagination {
+
+    public static final int TAILLE_DEFAUT = 50;
+    public static final int TAILLE_MAX = 200;
+
+    private static final String VERSION = "v1";
+
+    private CurseurPagination() {
+    }
+
+    /**
+     * Dernier identifiant vu (0 pour la première page)
+     */
+    public static long decoder(String curseur, String type) {
+        if (curseur == null || curseur.isBlank()) {
+            return 0L;
+        }
+        try {
+            String[] parties = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8).split(":");
+            if (parties.length != 3 || !VERSION.equals(parties[0]) || !type.equals(parties[1])) {
+                throw new IllegalArgumentException(curseur);
+            }
+            return Long.parseLong(parties[2]);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Curseur de pagination invalide");
+        }
+    }
+
+    public static String encoder(String type, long dernierId) {
+        String brut = VERSION + ":" + type + ":" + dernierId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Taille de page bornée à [1, TAILLE_MAX]
+     */
+    public static int taille(Integer demandee) {
+        if (demandee == null) {
+            return TAILLE_DEFAUT;
+        }
+        return Math.max(1, Math.min(demandee, TAILLE_MAX));
+    }
+
+    /**
+     * Motif LIKE insensible à la casse (jokers du texte échappés) ; « % » sans recherche
+     */
+    public static String motifRecherche(String recherche) {
+        if (recherche == null || recherche.isBlank()) {
+            return "%";
+        }
+        String echappee = recherche.trim().toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + echappee + "%";
+    }
+
+    /**
+     * Une ligne de plus que la page : sa présence indique qu'une page suivante existe
+     */
+    public static PageRequest lecture(int taille) {
+        return PageRequest.of(0, taille + 1);
+    }
+
+    public static <E, T> PageCurseurDTO<T> page(List<E> lignes, int taille, String type,
+                                                ToLongFunction<E> identifiant, Function<E, T> conversion) {
+        boolean suite = lignes.size() > taille;
+        List<E> contenu = suite ? lignes.subList(0, taille) : lignes;
+
+        return PageCurseurDTO.<T>builder()
+                .elements(contenu.stream().map(conversion).toList())
+                .taille(taille)
+                .curseurSuivant(suite ? encoder(type, identifiant.applyAsLong(contenu.get(taille - 1))) : null)
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.personnal.electronicvoting.util;
+
+/**
+ * 🏷️ Comparaison des en-têtes de requêtes conditionnelles (If-None-Match)
+ */
+public final class EnTetesConditionnels {
+
+    private EnTetesConditionnels() {
+    }
+
+    /**
+     * Comparaison faible (préfixe W/ ignoré des deux côtés), « * » accepté
+     */
+    public static boolean correspond(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String attendu = sansPrefixeFaible(etag);
+        for (String candidat : ifNoneMatch.split(",")) {
+            String valeur = candidat.trim();
+            if (valeur.equals("*") || sansPrefixeFaible(valeur).equals(attendu)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sansPrefixeFaible(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,22 @@
+package com.personnal.electronicvoting.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 🧵 Fabrique des threads de fond selon le mode d'exécution (spring.threads.virtual.enabled)
+ */
+public final class FabriqueThreads {
+
+    private FabriqueThreads() {
+    }
+
+    /**
+     * Threads virtuels nommés prefixe-0, prefixe-1… ou threads plateforme démons
+     */
+    public static ThreadFactory creer(String prefixe, boolean virtuels) {
+        if (virtuels) {
+            return Thread.ofVirtual().name(prefixe + "-", 0).factory();
+        }
+        return Thread.ofPlatform().name(prefixe + "-", 0).daemon(true).factory();
+    }
+}
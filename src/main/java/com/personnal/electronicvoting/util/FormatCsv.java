@@ -0,0 +1,25 @@
+package com.personnal.electronicvoting.util;
+
+/**
+ * 📄 Champs CSV (RFC 4180) pour les exports
+ */
+public final class FormatCsv {
+
+    private FormatCsv() {
+    }
+
+    /**
+     * Champ échappé ; une valeur commençant par = + - @ est préfixée d'une apostrophe
+     * pour ne pas être interprétée comme une formule par un tableur
+     */
+    public static String champ(String valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        String texte = !valeur.isEmpty() && "=+-@".indexOf(valeur.charAt(0)) >= 0 ? "'" + valeur : valeur;
+        if (texte.indexOf(',') < 0 && texte.indexOf('"') < 0 && texte.indexOf('\n') < 0 && texte.indexOf('\r') < 0) {
+            return texte;
+        }
+        return '"' + texte.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,249 @@
+package com.personnal.electronicvoting.util;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * 🔎 Index inversé en mémoire, classé par BM25.
+ *
+ * Les textes sont découpés en jetons normalisés (minuscules, accents et ligatures retirés) ;
+ * chaque jeton pointe vers les documents qui le contiennent avec sa fréquence. Un jeton de
+ * requête trouve aussi les termes qui le contiennent (trigrammes du vocabulaire) ou, s'il fait
+ * moins de trois lettres, ceux qui commencent par lui ; ces correspondances partielles comptent
+ * moins qu'un terme identique. Tous les jetons de la requête doivent être trouvés.
+ * Les documents sont ajoutés, remplacés ou retirés un par un.
+ */
+public final class IndexTexte {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    /** Poids d'un terme trouvé par sous-chaîne ou préfixe */
+    private static final double POIDS_PARTIEL = 0.5;
+    /** Termes partiels retenus au plus par jeton de requête */
+    private static final int EXPANSIONS_MAX = 64;
+
+    private static final Pattern MARQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    /** Terme → (document → fréquence), trié pour les recherches par préfixe */
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    /** Trigramme → termes du vocabulaire qui le contiennent */
+    private final Map<String, Set<String>> trigrammes = new HashMap<>();
+    private long longueurTotale;
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    // ==================== ÉCRITURE ====================
+
+    /**
+     * Ajouter ou remplacer le texte d'un document
+     */
+    public void indexer(long id, String texte) {
+        List<String> jetons = jetons(texte);
+        Map<String, Integer> frequences = new HashMap<>();
+        jetons.forEach(jeton -> frequences.merge(jeton, 1, Integer::sum));
+
+        verrou.writeLock().lock();
+        try {
+            retirerDocument(id);
+            if (jetons.isEmpty()) {
+                return;
+            }
+            documents.put(id, new Document(jetons.size(), frequences.keySet().toArray(String[]::new)));
+            longueurTotale += jetons.size();
+            frequences.forEach((terme, frequence) -> postings.computeIfAbsent(terme, nouveau -> {
+                ajouterTrigrammes(nouveau);
+                return new HashMap<>();
+            }).put(id, frequence));
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(long id) {
+        verrou.writeLock().lock();
+        try {
+            retirerDocument(id);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void retirerDocument(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        longueurTotale -= document.longueur();
+        for (String terme : document.termes()) {
+            Map<Long, Integer> liste = postings.get(terme);
+            liste.remove(id);
+            if (liste.isEmpty()) {
+                postings.remove(terme);
+                retirerTrigrammes(terme);
+            }
+        }
+    }
+
+    private void ajouterTrigrammes(String terme) {
+        for (int i = 0; i + 3 <= terme.length(); i++) {
+            trigrammes.computeIfAbsent(terme.substring(i, i + 3), cle -> new HashSet<>()).add(terme);
+        }
+    }
+
+    private void retirerTrigrammes(String terme) {
+        for (int i = 0; i + 3 <= terme.length(); i++) {
+            String trigramme = terme.substring(i, i + 3);
+            Set<String> termes = trigrammes.get(trigramme);
+            if (termes != null && termes.remove(terme) && termes.isEmpty()) {
+                trigrammes.remove(trigramme);
+            }
+        }
+    }
+
+    // ==================== LECTURE ====================
+
+    /**
+     * Documents contenant tous les jetons de la requête, du plus pertinent au moins pertinent
+     * (à score égal, par identifiant croissant)
+     */
+    public List<Long> rechercher(String requete, int limite) {
+        Set<String> jetonsRequete = new LinkedHashSet<>(jetons(requete));
+        if (jetonsRequete.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        verrou.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double longueurMoyenne = (double) longueurTotale / documents.size();
+
+            Map<Long, Double> scores = null;
+            for (String jeton : jetonsRequete) {
+                Map<Long, Double> scoresJeton = scorer(jeton, longueurMoyenne);
+                if (scores == null) {
+                    scores = scoresJeton;
+                } else {
+                    scores.keySet().retainAll(scoresJeton.keySet());
+                    scores.replaceAll((id, score) -> score + scoresJeton.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limite)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /** Score BM25 de chaque document pour un jeton, meilleur terme correspondant retenu */
+    private Map<Long, Double> scorer(String jeton, double longueurMoyenne) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, Integer> exacts = postings.get(jeton);
+        if (exacts != null) {
+            ajouterScores(scores, exacts, 1.0, longueurMoyenne);
+        }
+        for (String terme : termesPartiels(jeton)) {
+            ajouterScores(scores, postings.get(terme), POIDS_PARTIEL, longueurMoyenne);
+        }
+        return scores;
+    }
+
+    private void ajouterScores(Map<Long, Double> scores, Map<Long, Integer> liste, double poids, double longueurMoyenne) {
+        int total = documents.size();
+        double idf = Math.log(1 + (total - liste.size() + 0.5) / (liste.size() + 0.5));
+        liste.forEach((id, frequence) -> {
+            int longueur = documents.get(id).longueur();
+            double score = poids * idf * frequence * (K1 + 1)
+                    / (frequence + K1 * (1 - B + B * longueur / longueurMoyenne));
+            scores.merge(id, score, Math::max);
+        });
+    }
+
+    /** Autres termes du vocabulaire contenant le jeton (commençant par lui s'il est trop court) */
+    private List<String> termesPartiels(String jeton) {
+        List<String> termes = new ArrayList<>();
+        if (jeton.length() < 3) {
+            for (String terme : postings.subMap(jeton, false, jeton + Character.MAX_VALUE, false).keySet()) {
+                if (termes.size() == EXPANSIONS_MAX) {
+                    break;
+                }
+                termes.add(terme);
+            }
+            return termes;
+        }
+
+        // Le plus petit ensemble de trigrammes limite les termes à vérifier
+        Set<String> candidats = null;
+        for (int i = 0; i + 3 <= jeton.length(); i++) {
+            Set<String> termesTrigramme = trigrammes.get(jeton.substring(i, i + 3));
+            if (termesTrigramme == null) {
+                return termes;
+            }
+            if (candidats == null || termesTrigramme.size() < candidats.size()) {
+                candidats = termesTrigramme;
+            }
+        }
+        for (String terme : candidats) {
+            if (termes.size() == EXPANSIONS_MAX) {
+                break;
+            }
+            if (!terme.equals(jeton) && terme.contains(jeton)) {
+                termes.add(terme);
+            }
+        }
+        return termes;
+    }
+
+    public int nombreDocuments() {
+        verrou.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int nombreTermes() {
+        verrou.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ==================== NORMALISATION ====================
+
+    /**
+     * Minuscules sans accents ni ligatures : « Élection Cœur » → « election coeur »
+     */
+    public static String normaliser(String texte) {
+        String sansLigatures = texte.replace("œ", "oe").replace("Œ", "OE").replace("æ", "ae").replace("Æ", "AE");
+        String decompose = Normalizer.normalize(sansLigatures, Normalizer.Form.NFD);
+        return MARQUES.matcher(decompose).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> jetons(String texte) {
+        if (texte == null || texte.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(SEPARATEURS.split(normaliser(texte)))
+                .filter(jeton -> !jeton.isEmpty())
+                .toList();
+    }
+
+    private record Document(int longueur, String[] termes) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.personnal.electronicvoting.util;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 🌊 Lecture d'une requête par curseur côté serveur, pour les exports écrits au fil de l'eau
+ */
+public final class LectureEnFlux {
+
+    private LectureEnFlux() {
+    }
+
+    /** Traitement d'une ligne ; une IOException (client parti) interrompt la lecture */
+    @FunctionalInterface
+    public interface TraitementLigne {
+        void traiter(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * Parcourir le résultat par lots de tailleLot lignes, dans une transaction en lecture seule :
+     * sans transaction, le pilote PostgreSQL ignore fetchSize et charge tout le résultat.
+     * Une IOException du traitement ferme le curseur avec la transaction puis est relancée.
+     */
+    public static void parcourir(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 String sql, int tailleLot, TraitementLigne traitement,
+                                 Object... parametres) throws IOException {
+        TransactionTemplate lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+
+        try {
+            lecture.executeWithoutResult(status -> jdbcTemplate.query(connexion -> {
+                PreparedStatement requete = connexion.prepareStatement(sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                requete.setFetchSize(tailleLot);
+                for (int i = 0; i < parametres.length; i++) {
+                    requete.setObject(i + 1, parametres[i]);
+                }
+                return requete;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    traitement.traiter(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
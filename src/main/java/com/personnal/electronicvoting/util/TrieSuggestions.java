@@ -0,0 +1,392 @@
+package com.personnal.electronicvoting.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 🔤 Arbre radix des libellés pour l'autocomplétion.
+ *
+ * Chaque libellé est rangé sous sa forme normalisée et sous chacun de ses mots suivants
+ * (« Alice Martin » se trouve par « al » comme par « mar »). Chaque nœud garde la liste
+ * immuable des k meilleures suggestions de son sous-arbre, recalculée le long du chemin à
+ * chaque écriture : une recherche descend l'arbre et renvoie cette liste telle quelle.
+ * Les hausses de score arrivent par lots (incrementerTous) : un nœud commun à plusieurs
+ * chemins n'est recalculé qu'une fois par lot.
+ */
+public final class TrieSuggestions {
+
+    /** Suggestion servie telle quelle (partagée entre requêtes) */
+    public record Suggestion(String id, String libelle, long score) {
+    }
+
+    private static final Comparator<Suggestion> ORDRE = Comparator
+            .comparingLong(Suggestion::score).reversed()
+            .thenComparing(Suggestion::libelle)
+            .thenComparing(Suggestion::id);
+
+    private final int k;
+    private final Noeud racine = new Noeud("");
+    private final Map<String, Suggestion> parId = new HashMap<>();
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    public TrieSuggestions(int k) {
+        this.k = k;
+    }
+
+    // ==================== ÉCRITURE ====================
+
+    /**
+     * Ajouter une suggestion ou remplacer celle de même identifiant
+     */
+    public void ajouter(Suggestion suggestion) {
+        verrou.writeLock().lock();
+        try {
+            Suggestion precedente = parId.put(suggestion.id(), suggestion);
+            if (precedente != null) {
+                for (String cle : cles(precedente.libelle())) {
+                    retirer(cle, precedente.id());
+                }
+            }
+            for (String cle : cles(suggestion.libelle())) {
+                inserer(cle, suggestion);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ajouter ou renommer une suggestion en gardant son score (0 si elle est nouvelle)
+     */
+    public void renommer(String id, String libelle) {
+        verrou.writeLock().lock();
+        try {
+            ajouter(new Suggestion(id, libelle, score(id)));
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(String id) {
+        verrou.writeLock().lock();
+        try {
+            Suggestion precedente = parId.remove(id);
+            if (precedente != null) {
+                for (String cle : cles(precedente.libelle())) {
+                    retirer(cle, id);
+                }
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ajouter delta au score d'une suggestion existante (sans effet si elle est inconnue)
+     */
+    public void incrementer(String id, long delta) {
+        incrementerTous(Map.of(id, delta));
+    }
+
+    /**
+     * Ajouter un lot de deltas de score (identifiants inconnus ignorés) : chaque nœud touché
+     * est recalculé une seule fois, du plus profond vers la racine
+     */
+    public void incrementerTous(Map<String, Long> deltas) {
+        verrou.writeLock().lock();
+        try {
+            Map<Noeud, Integer> profondeurs = new IdentityHashMap<>();
+            deltas.forEach((id, delta) -> {
+                Suggestion courante = parId.get(id);
+                if (courante == null || delta == 0) {
+                    return;
+                }
+                Suggestion nouvelle = new Suggestion(id, courante.libelle(), courante.score() + delta);
+                parId.put(id, nouvelle);
+                for (String cle : cles(courante.libelle())) {
+                    Deque<Noeud> chemin = chemin(cle);
+                    if (chemin == null) {
+                        continue;
+                    }
+                    chemin.peek().entrees.replaceAll(entree -> entree.id().equals(id) ? nouvelle : entree);
+                    int profondeur = chemin.size();
+                    for (Noeud noeud : chemin) {
+                        profondeurs.put(noeud, profondeur--);
+                    }
+                }
+            });
+            profondeurs.entrySet().stream()
+                    .sorted(Map.Entry.<Noeud, Integer>comparingByValue().reversed())
+                    .forEach(entree -> entree.getKey().recalculer(k));
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void inserer(String cle, Suggestion suggestion) {
+        Deque<Noeud> chemin = new ArrayDeque<>();
+        Noeud noeud = racine;
+        int position = 0;
+        chemin.push(noeud);
+
+        while (position < cle.length()) {
+            int index = noeud.indexEnfant(cle.charAt(position));
+            if (index < 0) {
+                Noeud feuille = new Noeud(cle.substring(position));
+                noeud.ajouterEnfant(feuille);
+                noeud = feuille;
+                chemin.push(noeud);
+                break;
+            }
+            Noeud enfant = noeud.enfants[index];
+            int commun = prefixeCommun(enfant.etiquette, cle, position);
+            if (commun < enfant.etiquette.length()) {
+                // Découper l'arête au point de divergence
+                Noeud intermediaire = new Noeud(enfant.etiquette.substring(0, commun));
+                enfant.etiquette = enfant.etiquette.substring(commun);
+                intermediaire.ajouterEnfant(enfant);
+                intermediaire.meilleures = enfant.meilleures;
+                noeud.enfants[index] = intermediaire;
+                enfant = intermediaire;
+            }
+            noeud = enfant;
+            position += commun;
+            chemin.push(noeud);
+        }
+
+        noeud.entrees.add(suggestion);
+        recalculer(chemin);
+    }
+
+    private void retirer(String cle, String id) {
+        Deque<Noeud> chemin = chemin(cle);
+        if (chemin == null) {
+            return;
+        }
+        Noeud noeud = chemin.peek();
+        noeud.entrees.removeIf(entree -> entree.id().equals(id));
+
+        // Élaguer les nœuds devenus vides, fusionner ceux qui n'ont plus qu'un enfant
+        Iterator<Noeud> remontee = chemin.iterator();
+        Noeud courant = remontee.next();
+        while (remontee.hasNext()) {
+            Noeud parent = remontee.next();
+            if (courant.entrees.isEmpty() && courant.enfants.length == 0) {
+                parent.retirerEnfant(courant);
+            } else if (courant.entrees.isEmpty() && courant.enfants.length == 1) {
+                Noeud seul = courant.enfants[0];
+                seul.etiquette = courant.etiquette + seul.etiquette;
+                parent.enfants[parent.indexEnfant(seul.etiquette.charAt(0))] = seul;
+            }
+            courant = parent;
+        }
+        recalculer(cheminExistant(cle));
+    }
+
+    /** Nœuds de la racine jusqu'au nœud de la clé (sommet de pile), null si la clé n'est pas rangée */
+    private Deque<Noeud> chemin(String cle) {
+        Deque<Noeud> chemin = new ArrayDeque<>();
+        Noeud noeud = racine;
+        int position = 0;
+        chemin.push(noeud);
+        while (position < cle.length()) {
+            int index = noeud.indexEnfant(cle.charAt(position));
+            if (index < 0) {
+                return null;
+            }
+            noeud = noeud.enfants[index];
+            if (!cle.startsWith(noeud.etiquette, position)) {
+                return null;
+            }
+            position += noeud.etiquette.length();
+            chemin.push(noeud);
+        }
+        return chemin;
+    }
+
+    /** Nœuds traversés par la clé tant qu'elle suit l'arbre (la clé retirée n'y est plus forcément) */
+    private Deque<Noeud> cheminExistant(String cle) {
+        Deque<Noeud> chemin = new ArrayDeque<>();
+        Noeud noeud = racine;
+        int position = 0;
+        chemin.push(noeud);
+        while (position < cle.length()) {
+            int index = noeud.indexEnfant(cle.charAt(position));
+            if (index < 0) {
+                break;
+            }
+            noeud = noeud.enfants[index];
+            chemin.push(noeud);
+            position += noeud.etiquette.length();
+        }
+        return chemin;
+    }
+
+    /** Meilleures suggestions recalculées du bas vers le haut du chemin */
+    private void recalculer(Deque<Noeud> chemin) {
+        for (Noeud noeud : chemin) {
+            noeud.recalculer(k);
+        }
+    }
+
+    // ==================== LECTURE ====================
+
+    /**
+     * Meilleures suggestions (au plus limite) dont un mot commence par le préfixe
+     */
+    public List<Suggestion> suggerer(String prefixe, int limite) {
+        String cle = normaliser(prefixe);
+        verrou.readLock().lock();
+        try {
+            Noeud noeud = racine;
+            int position = 0;
+            while (position < cle.length()) {
+                int index = noeud.indexEnfant(cle.charAt(position));
+                if (index < 0) {
+                    return List.of();
+                }
+                noeud = noeud.enfants[index];
+                int commun = prefixeCommun(noeud.etiquette, cle, position);
+                if (position + commun < cle.length() && commun < noeud.etiquette.length()) {
+                    return List.of();
+                }
+                position += commun;
+            }
+            List<Suggestion> meilleures = noeud.meilleures;
+            return limite >= meilleures.size() ? meilleures : meilleures.subList(0, Math.max(0, limite));
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /** Score courant d'une suggestion, 0 si elle est inconnue */
+    public long score(String id) {
+        verrou.readLock().lock();
+        try {
+            Suggestion suggestion = parId.get(id);
+            return suggestion != null ? suggestion.score() : 0;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return parId.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ==================== CLÉS ====================
+
+    /**
+     * Libellé normalisé (voir IndexTexte) et ses suffixes commençant à chaque mot
+     */
+    static List<String> cles(String libelle) {
+        String normalise = normaliser(libelle);
+        if (normalise.isEmpty()) {
+            return List.of();
+        }
+        List<String> cles = new ArrayList<>();
+        cles.add(normalise);
+        for (int i = normalise.indexOf(' '); i >= 0; i = normalise.indexOf(' ', i + 1)) {
+            cles.add(normalise.substring(i + 1));
+        }
+        return cles;
+    }
+
+    /** Forme normalisée, mots séparés par une espace ; sans copie si la saisie l'est déjà */
+    static String normaliser(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        if (estNormalise(texte)) {
+            return texte;
+        }
+        return String.join(" ", IndexTexte.jetons(texte));
+    }
+
+    private static boolean estNormalise(String texte) {
+        for (int i = 0; i < texte.length(); i++) {
+            char c = texte.charAt(i);
+            boolean alphanumerique = (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+            boolean espaceInterne = c == ' ' && i > 0 && i < texte.length() - 1 && texte.charAt(i - 1) != ' ';
+            if (!alphanumerique && !espaceInterne) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int prefixeCommun(String etiquette, String cle, int position) {
+        int max = Math.min(etiquette.length(), cle.length() - position);
+        int i = 0;
+        while (i < max && etiquette.charAt(i) == cle.charAt(position + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    // ==================== NŒUDS ====================
+
+    private static final class Noeud {
+        private static final Noeud[] AUCUN = new Noeud[0];
+
+        private String etiquette;
+        /** Enfants triés par premier caractère d'étiquette */
+        private Noeud[] enfants = AUCUN;
+        /** Suggestions dont une clé se termine sur ce nœud */
+        private final List<Suggestion> entrees = new ArrayList<>(1);
+        private List<Suggestion> meilleures = List.of();
+
+        Noeud(String etiquette) {
+            this.etiquette = etiquette;
+        }
+
+        int indexEnfant(char premier) {
+            int bas = 0;
+            int haut = enfants.length - 1;
+            while (bas <= haut) {
+                int milieu = (bas + haut) >>> 1;
+                char c = enfants[milieu].etiquette.charAt(0);
+                if (c < premier) {
+                    bas = milieu + 1;
+                } else if (c > premier) {
+                    haut = milieu - 1;
+                } else {
+                    return milieu;
+                }
+            }
+            return -(bas + 1);
+        }
+
+        void ajouterEnfant(Noeud enfant) {
+            int insertion = -(indexEnfant(enfant.etiquette.charAt(0)) + 1);
+            Noeud[] nouveaux = new Noeud[enfants.length + 1];
+            System.arraycopy(enfants, 0, nouveaux, 0, insertion);
+            nouveaux[insertion] = enfant;
+            System.arraycopy(enfants, insertion, nouveaux, insertion + 1, enfants.length - insertion);
+            enfants = nouveaux;
+        }
+
+        void retirerEnfant(Noeud enfant) {
+            int index = indexEnfant(enfant.etiquette.charAt(0));
+            Noeud[] nouveaux = new Noeud[enfants.length - 1];
+            System.arraycopy(enfants, 0, nouveaux, 0, index);
+            System.arraycopy(enfants, index + 1, nouveaux, index, enfants.length - index - 1);
+            enfants = nouveaux;
+        }
+
+        void recalculer(int k) {
+            // Un libellé rangé sous plusieurs clés du même sous-arbre n'apparaît qu'une fois
+            Map<String, Suggestion> distinctes = new HashMap<>();
+            entrees.forEach(entree -> distinctes.put(entree.id(), entree));
+            for (Noeud enfant : enfants) {
+                enfant.meilleures.forEach(suggestion -> distinctes.put(suggestion.id(), suggestion));
+            }
+            meilleures = distinctes.values().stream().sorted(ORDRE).limit(k).toList();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.personnal.electronicvoting.config;
+
+import com.personnal.electronicvoting.service.CompteurVotesService;
+import com.personnal.electronicvoting.service.VersionsDonneesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequetesConditionnellesInterceptorTest {
+
+    @Mock
+    private ObjectProvider<VersionsDonneesService> versionsProvider;
+
+    @Mock
+    private ObjectProvider<CompteurVotesService> compteurProvider;
+
+    @Mock
+    private CompteurVotesService compteurVotesService;
+
+    private final VersionsDonneesService versionsDonneesService = new VersionsDonneesService();
+    private RequetesConditionnellesInterceptor interceptor;
+    private HandlerMethod resultats;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        interceptor = new RequetesConditionnellesInterceptor(versionsProvider, compteurProvider);
+        resultats = new HandlerMethod(new Controleur(), Controleur.class.getMethod("resultats"));
+    }
+
+    private void fournirServices() {
+        when(versionsProvider.getIfAvailable()).thenReturn(versionsDonneesService);
+        when(compteurProvider.getIfAvailable()).thenReturn(compteurVotesService);
+    }
+
+    @Test
+    void preHandle_shouldAnswerNotModified_whenEtagMatches() throws Exception {
+        fournirServices();
+        when(compteurVotesService.epoque()).thenReturn(7L);
+        String etag = etag();
+
+        MockHttpServletRequest conditionnelle = new MockHttpServletRequest("GET", "/api/votes/resultats");
+        conditionnelle.addHeader("If-None-Match", etag);
+        MockHttpServletResponse seconde = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(conditionnelle, seconde, resultats));
+        assertEquals(304, seconde.getStatus());
+        assertEquals(etag, seconde.getHeader("ETag"));
+        assertEquals(1L, interceptor.reponsesNonModifiees());
+    }
+
+    @Test
+    void preHandle_shouldChangeEtag_whenAVoteOrATableChanges() throws Exception {
+        fournirServices();
+        when(compteurVotesService.epoque()).thenReturn(7L, 8L, 8L);
+
+        String initial = etag();
+        String apresVote = etag();
+        versionsDonneesService.marquerModification(VersionsDonneesService.Table.CANDIDATS);
+        String apresCandidat = etag();
+
+        assertNotEquals(initial, apresVote);
+        assertNotEquals(apresVote, apresCandidat);
+        assertTrue(initial.startsWith("W/\""));
+    }
+
+    @Test
+    void preHandle_shouldIgnoreMethodsWithoutAnnotation() throws Exception {
+        HandlerMethod autre = new HandlerMethod(new Controleur(), Controleur.class.getMethod("autre"));
+        MockHttpServletResponse reponse = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/autre"), reponse, autre));
+        assertNull(reponse.getHeader("ETag"));
+        verifyNoInteractions(versionsProvider, compteurVotesService);
+    }
+
+    @Test
+    void poserSiSucces_shouldSetEtagOnlyOnSuccessfulResponse() throws Exception {
+        fournirServices();
+        when(compteurVotesService.epoque()).thenReturn(7L);
+        MockHttpServletRequest requete = new MockHttpServletRequest("GET", "/api/votes/resultats");
+        MockHttpServletResponse reponse = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(requete, reponse, resultats));
+        assertNull(reponse.getHeader("ETag"));
+
+        HttpHeaders erreur = new HttpHeaders();
+        interceptor.poserSiSucces(requete, 500, erreur);
+        assertNull(erreur.getETag());
+
+        HttpHeaders succes = new HttpHeaders();
+        interceptor.poserSiSucces(requete, 200, succes);
+        assertEquals(requete.getAttribute(RequetesConditionnellesInterceptor.ATTRIBUT_ETAG), succes.getETag());
+        assertEquals("no-cache", succes.getCacheControl());
+        assertEquals(1L, interceptor.etagsEmis());
+    }
+
+    private String etag() throws Exception {
+        MockHttpServletRequest requete = new MockHttpServletRequest("GET", "/api/votes/resultats");
+        interceptor.preHandle(requete, new MockHttpServletResponse(), resultats);
+        return (String) requete.getAttribute(RequetesConditionnellesInterceptor.ATTRIBUT_ETAG);
+    }
+
+    static class Controleur {
+        @ReponseConditionnelle(votes = true, tables = VersionsDonneesService.Table.CANDIDATS)
+        public String resultats() {
+            return "resultats";
+        }
+
+        public String autre() {
+            return "autre";
+        }
+    }
+}
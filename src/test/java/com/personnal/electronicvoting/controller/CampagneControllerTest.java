@@ -1,6 +1,7 @@
 package com.personnal.electronicvoting.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.dto.PageCurseurDTO;
 import com.personnal.electronicvoting.service.CampagneService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,7 +29,8 @@ class CampagneControllerTest {
 
     @Test
     void listerToutesCampagnes_shouldReturnAllCampaigns() throws Exception {
-        when(campagneService.listerToutesCampagnes()).thenReturn(Collections.emptyList());
+        when(campagneService.listerCampagnes(null, null, null))
+                .thenReturn(new PageCurseurDTO<>(Collections.emptyList(), 50, null));
 
         mockMvc.perform(get("/api/public/campagnes"))
                 .andExpect(status().isOk());
@@ -108,7 +110,7 @@ class CampagneControllerTest {
 
     @Test
     void filtrerParLongueurDescription_shouldReturnFilteredCampaigns() throws Exception {
-        when(campagneService.listerToutesCampagnes()).thenReturn(Collections.emptyList());
+        when(campagneService.filtrerParLongueurDescription(0, 10000)).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/public/campagnes/filtre/par-longueur").param("minLength", "10"))
                 .andExpect(status().isOk());
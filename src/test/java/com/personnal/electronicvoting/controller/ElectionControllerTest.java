@@ -1,10 +1,14 @@
 package com.personnal.electronicvoting.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.dto.PageCurseurDTO;
 import com.personnal.electronicvoting.dto.request.VoterElectionRequest;
 import com.personnal.electronicvoting.model.Electeur;
 import com.personnal.electronicvoting.service.AuthService;
+import com.personnal.electronicvoting.service.IdempotenceService;
 import com.personnal.electronicvoting.service.ElectionService;
+import com.personnal.electronicvoting.service.IngestionVotesService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -13,6 +17,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -33,12 +38,27 @@ class ElectionControllerTest {
     @MockBean
     private AuthService authService;
 
+    @MockBean
+    private IngestionVotesService ingestionVotesService;
+
+    @MockBean
+    private IdempotenceService idempotenceService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void setUp() {
+        // Sans clé d'idempotence, l'action est exécutée directement
+        when(idempotenceService.executer(any(), anyString(), any(), any(), any()))
+                .thenAnswer(invocation -> new IdempotenceService.Resultat<>(
+                        invocation.<Supplier<?>>getArgument(4).get(), false));
+    }
+
     @Test
     void listerToutesElections_shouldReturnAllElections() throws Exception {
-        when(electionService.listerToutesElections()).thenReturn(Collections.emptyList());
+        when(electionService.listerElections(null, null, null))
+                .thenReturn(new PageCurseurDTO<>(Collections.emptyList(), 50, null));
 
         mockMvc.perform(get("/api/elections"))
                 .andExpect(status().isOk());
@@ -153,7 +173,7 @@ class ElectionControllerTest {
 
     @Test
     void healthCheck_shouldReturnOk() throws Exception {
-        when(electionService.listerToutesElections()).thenReturn(Collections.emptyList());
+        when(electionService.compterElections()).thenReturn(0L);
 
         mockMvc.perform(get("/api/elections/health"))
                 .andExpect(status().isOk());
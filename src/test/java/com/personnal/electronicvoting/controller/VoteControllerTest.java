@@ -3,7 +3,9 @@ package com.personnal.electronicvoting.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.personnal.electronicvoting.model.Electeur;
 import com.personnal.electronicvoting.service.AuthService;
+import com.personnal.electronicvoting.service.IdempotenceService;
 import com.personnal.electronicvoting.service.VoteService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -11,7 +13,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.function.Supplier;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -30,9 +34,20 @@ class VoteControllerTest {
     @MockBean
     private AuthService authService;
 
+    @MockBean
+    private IdempotenceService idempotenceService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void setUp() {
+        // Sans clé d'idempotence, l'action est exécutée directement
+        when(idempotenceService.executer(any(), anyString(), any(), any(), any()))
+                .thenAnswer(invocation -> new IdempotenceService.Resultat<>(
+                        invocation.<Supplier<?>>getArgument(4).get(), false));
+    }
+
     @Test
     void effectuerVote_shouldReturnOk_whenVoteIsValid() throws Exception {
         Electeur electeur = new Electeur();
@@ -17,7 +17,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -67,6 +71,58 @@ class AuthServiceTest {
         assertNotNull(authResponse.getToken());
     }
 
+    @Test
+    void authentifierElecteur_shouldRehashPassword_withCompareAndSetOnPasswordColumnOnly() {
+        electeur.setIdElecteur(7L);
+        when(electeurRepository.findByEmail(anyString())).thenReturn(Optional.of(electeur));
+        when(passwordEncoder.matches("password", "encodedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("password")).thenReturn("rehashedPassword");
+        when(electeurRepository.remplacerEmpreinte(7L, "encodedPassword", "rehashedPassword")).thenReturn(1);
+
+        AuthResponse authResponse = authService.authentifierElecteur(loginRequest);
+
+        assertNotNull(authResponse);
+        // Pas de merge de l'entité détachée : aVote et le reste de la ligne ne sont pas réécrits
+        verify(electeurRepository).findByEmail("test@example.com");
+        verify(electeurRepository).remplacerEmpreinte(7L, "encodedPassword", "rehashedPassword");
+        verifyNoMoreInteractions(electeurRepository);
+    }
+
+    @Test
+    void authentifierAdministrateur_shouldRehashPassword_withCompareAndSetOnPasswordColumnOnly() {
+        Administrateur admin = new Administrateur();
+        admin.setIdAdmin(3L);
+        admin.setExternalIdAdministrateur("admin-uuid");
+        admin.setMotDePasse("encodedPassword");
+        when(administrateurRepository.findByEmail(anyString())).thenReturn(Optional.of(admin));
+        when(passwordEncoder.matches("password", "encodedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("password")).thenReturn("rehashedPassword");
+        when(administrateurRepository.remplacerEmpreinte(3L, "encodedPassword", "rehashedPassword")).thenReturn(0);
+
+        AuthResponse authResponse = authService.authentifierAdministrateur(loginRequest);
+
+        assertNotNull(authResponse);
+        verify(administrateurRepository).findByEmail("test@example.com");
+        verify(administrateurRepository).remplacerEmpreinte(3L, "encodedPassword", "rehashedPassword");
+        verifyNoMoreInteractions(administrateurRepository);
+    }
+
+    @Test
+    void authentifierElecteur_shouldStillLogIn_whenRehashIsRejected() {
+        when(electeurRepository.findByEmail(anyString())).thenReturn(Optional.of(electeur));
+        when(passwordEncoder.matches("password", "encodedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("password")).thenThrow(new HachageMotsDePasseService.HachageSatureException(2));
+
+        AuthResponse authResponse = authService.authentifierElecteur(loginRequest);
+
+        assertNotNull(authResponse);
+        verify(electeurRepository).findByEmail("test@example.com");
+        verifyNoMoreInteractions(electeurRepository);
+    }
+
     @Test
     void authentifierElecteur_shouldThrowException_whenEmailDoesNotExist() {
         when(electeurRepository.findByEmail(anyString())).thenReturn(Optional.empty());
@@ -253,12 +309,33 @@ class AuthServiceTest {
         when(electeurRepository.findByExternalIdElecteur("test-uuid")).thenReturn(Optional.of(electeur));
         when(passwordEncoder.matches(oldPassword, electeur.getMotDePasse())).thenReturn(true);
         when(passwordEncoder.encode(newPassword)).thenReturn("encodedNewPassword");
+        when(electeurRepository.remplacerEmpreinte(electeur.getIdElecteur(), electeur.getMotDePasse(), "encodedNewPassword"))
+                .thenReturn(1);
 
         AuthResponse authResponse = authService.changerMotDePasseElecteur(token, oldPassword, newPassword);
 
         assertNotNull(authResponse);
         assertEquals(electeur.getExternalIdElecteur(), authResponse.getUserId());
         assertFalse(authResponse.isPremierConnexion());
+        verify(electeurRepository, never()).save(any());
+    }
+
+    @Test
+    void changerMotDePasseElecteur_shouldReject_whenPasswordChangedConcurrently() {
+        String token = "ELECTEUR-test-uuid-123456789";
+        String oldPassword = "password";
+        String newPassword = "newPassword123!";
+
+        when(electeurRepository.findByExternalIdElecteur("test-uuid")).thenReturn(Optional.of(electeur));
+        when(passwordEncoder.matches(oldPassword, electeur.getMotDePasse())).thenReturn(true);
+        when(passwordEncoder.encode(newPassword)).thenReturn("encodedNewPassword");
+        when(electeurRepository.remplacerEmpreinte(electeur.getIdElecteur(), electeur.getMotDePasse(), "encodedNewPassword"))
+                .thenReturn(0);
+
+        Exception exception = assertThrows(RuntimeException.class, () ->
+                authService.changerMotDePasseElecteur(token, oldPassword, newPassword));
+
+        assertEquals("Le mot de passe a été modifié entre-temps, veuillez réessayer", exception.getMessage());
     }
 
     @Test
@@ -6,18 +6,24 @@ import com.personnal.electronicvoting.model.Campagne;
 import com.personnal.electronicvoting.model.Candidat;
 import com.personnal.electronicvoting.repository.CampagneRepository;
 import com.personnal.electronicvoting.repository.CandidatRepository;
+import com.personnal.electronicvoting.util.CurseurPagination;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +41,9 @@ class CampagneServiceTest {
     @Mock
     private CandidatMapper candidatMapper;
 
+    @Mock
+    private IndexRechercheService indexRechercheService;
+
     @InjectMocks
     private CampagneService campagneService;
 
@@ -53,13 +62,18 @@ class CampagneServiceTest {
     }
 
     @Test
-    void listerToutesCampagnes_shouldReturnAllCampaigns() {
-        when(campagneRepository.findAll()).thenReturn(Collections.singletonList(campagne));
-
-        var result = campagneService.listerToutesCampagnes();
-
-        assertNotNull(result);
-        assertEquals(1, result.size());
+    void listerCampagnes_shouldReturnPageAndContinuationToken() {
+        Campagne suivante = new Campagne();
+        suivante.setCandidat(candidat);
+        campagne.setIdCampagne(7L);
+        when(campagneRepository.findPageApres(eq(0L), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(campagne, suivante));
+
+        var result = campagneService.listerCampagnes(null, 1, null);
+
+        assertEquals(1, result.getElements().size());
+        assertNotNull(result.getCurseurSuivant());
+        assertEquals(7L, CurseurPagination.decoder(result.getCurseurSuivant(), "campagnes"));
     }
 
     @Test
@@ -158,8 +172,9 @@ class CampagneServiceTest {
     }
 
     @Test
-    void rechercherCampagnesParMotCle_shouldReturnAllCampaigns_whenKeywordIsNullOrEmpty() {
-        when(campagneRepository.findAll()).thenReturn(Collections.singletonList(campagne));
+    void rechercherCampagnesParMotCle_shouldReturnFirstPage_whenKeywordIsNullOrEmpty() {
+        when(campagneRepository.findPageApres(eq(0L), isNull(), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(campagne));
 
         var result = campagneService.rechercherCampagnesParMotCle(null);
         assertNotNull(result);
@@ -1,11 +1,12 @@
 package com.personnal.electronicvoting.service;
 
+import com.personnal.electronicvoting.dto.CandidatDTO;
 import com.personnal.electronicvoting.mapper.CampagneMapper;
 import com.personnal.electronicvoting.mapper.CandidatMapper;
 import com.personnal.electronicvoting.model.Candidat;
 import com.personnal.electronicvoting.repository.CampagneRepository;
 import com.personnal.electronicvoting.repository.CandidatRepository;
-import com.personnal.electronicvoting.repository.VoteRepository;
+import com.personnal.electronicvoting.repository.StatistiquesCandidatRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,9 +15,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
@@ -30,7 +33,7 @@ class CandidatServiceTest {
     private CampagneRepository campagneRepository;
 
     @Mock
-    private VoteRepository voteRepository;
+    private StatistiquesCandidatRepository statistiquesCandidatRepository;
 
     @Mock
     private CandidatMapper candidatMapper;
@@ -38,6 +41,9 @@ class CandidatServiceTest {
     @Mock
     private CampagneMapper campagneMapper;
 
+    @Mock
+    private IndexRechercheService indexRechercheService;
+
     @InjectMocks
     private CandidatService candidatService;
 
@@ -61,8 +67,8 @@ class CandidatServiceTest {
 
     @Test
     void obtenirClassementCandidats_shouldReturnRankedCandidats() {
-        when(candidatRepository.findAllOrderByVoteCountDesc()).thenReturn(Collections.singletonList(candidat));
-        when(candidatRepository.countVotesByCandidat(anyString())).thenReturn(10L);
+        when(statistiquesCandidatRepository.findCandidatsAvecCompteurs())
+                .thenReturn(List.of(agrege(candidat, 10L, 1L)));
 
         var result = candidatService.obtenirClassementCandidats();
 
@@ -101,6 +107,26 @@ class CandidatServiceTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void rechercherCandidatsParNom_shouldKeepIndexRanking_whenIndexIsReady() {
+        Candidat autre = new Candidat();
+        autre.setId(2L);
+        autre.setExternalIdCandidat("autre-uuid");
+        candidat.setId(1L);
+        when(indexRechercheService.estInitialise()).thenReturn(true);
+        when(indexRechercheService.rechercher(IndexRechercheService.TypeContenu.CANDIDAT, "élec")).thenReturn(List.of(2L, 1L));
+        when(candidatRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(candidat, autre));
+        when(candidatMapper.toDTO(any(Candidat.class))).thenAnswer(invocation -> {
+            CandidatDTO dto = new CandidatDTO();
+            dto.setExternalIdCandidat(invocation.<Candidat>getArgument(0).getExternalIdCandidat());
+            return dto;
+        });
+
+        var result = candidatService.rechercherCandidatsParNom("élec");
+
+        assertEquals(List.of("autre-uuid", "test-uuid"), result.stream().map(CandidatDTO::getExternalIdCandidat).toList());
+    }
+
     @Test
     void rechercherCandidatsParNom_shouldReturnAllCandidats_whenNameIsNullOrEmpty() {
         when(candidatRepository.findAll()).thenReturn(Collections.singletonList(candidat));
@@ -161,8 +187,8 @@ class CandidatServiceTest {
     @Test
     void obtenirCandidatEnTete_shouldReturnLeadingCandidat() {
         CandidatService.CandidatAvecVotesDTO leadingCandidat = new CandidatService.CandidatAvecVotesDTO(null, 10L);
-        when(candidatRepository.findAllOrderByVoteCountDesc()).thenReturn(Collections.singletonList(candidat));
-        when(candidatRepository.countVotesByCandidat(anyString())).thenReturn(10L);
+        when(statistiquesCandidatRepository.findCandidatsAvecCompteurs())
+                .thenReturn(List.of(agrege(candidat, 10L, 0L)));
 
         var result = candidatService.obtenirCandidatEnTete();
 
@@ -172,7 +198,7 @@ class CandidatServiceTest {
 
     @Test
     void obtenirCandidatEnTete_shouldThrowException_whenNoCandidates() {
-        when(candidatRepository.findAllOrderByVoteCountDesc()).thenReturn(Collections.emptyList());
+        when(statistiquesCandidatRepository.findCandidatsAvecCompteurs()).thenReturn(Collections.emptyList());
 
         Exception exception = assertThrows(RuntimeException.class, () -> {
             candidatService.obtenirCandidatEnTete();
@@ -197,16 +223,35 @@ class CandidatServiceTest {
 
     @Test
     void obtenirStatistiquesDetaillees_shouldReturnDetailedStats() {
-        when(candidatRepository.findAll()).thenReturn(Collections.singletonList(candidat));
-        when(voteRepository.count()).thenReturn(10L);
-        when(candidatRepository.countVotesByCandidat(anyString())).thenReturn(5L);
-        when(campagneRepository.findByCandidat_ExternalIdCandidat(anyString())).thenReturn(Collections.emptyList());
+        when(statistiquesCandidatRepository.findCandidatsAvecCompteurs())
+                .thenReturn(List.of(agrege(candidat, 5L, 2L), agrege(new Candidat(), 5L, 0L)));
 
         var result = candidatService.obtenirStatistiquesDetaillees();
 
         assertNotNull(result);
-        assertEquals(1, result.size());
+        assertEquals(2, result.size());
         assertEquals(50.0, result.get(0).getPourcentageVotes());
+        assertEquals(2, result.get(0).getNombreCampagnes());
         assertEquals(1, result.get(0).getRang());
+        assertEquals(2, result.get(1).getRang());
+    }
+
+    private static StatistiquesCandidatRepository.CandidatAgrege agrege(Candidat candidat, long votes, long campagnes) {
+        return new StatistiquesCandidatRepository.CandidatAgrege() {
+            @Override
+            public Candidat getCandidat() {
+                return candidat;
+            }
+
+            @Override
+            public long getNombreVotes() {
+                return votes;
+            }
+
+            @Override
+            public long getNombreCampagnes() {
+                return campagnes;
+            }
+        };
     }
 }
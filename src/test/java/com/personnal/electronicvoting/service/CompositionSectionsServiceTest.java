@@ -0,0 +1,84 @@
+package com.personnal.electronicvoting.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompositionSectionsServiceTest {
+
+    private CompositionSectionsService compositionSectionsService;
+
+    @BeforeEach
+    void setUp() {
+        compositionSectionsService = new CompositionSectionsService();
+        ReflectionTestUtils.setField(compositionSectionsService, "delaiParDefautMs", 2_000L);
+        ReflectionTestUtils.setField(compositionSectionsService, "nombreExecuteurs", 4);
+        ReflectionTestUtils.setField(compositionSectionsService, "threadsVirtuels", true);
+        compositionSectionsService.demarrer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        compositionSectionsService.arreter();
+    }
+
+    @Test
+    void sections_shouldRunConcurrently() {
+        CountDownLatch lancees = new CountDownLatch(2);
+        CompositionSectionsService.Composition composition = compositionSectionsService.nouvelle("test");
+
+        // Chaque section attend l'autre : elles n'aboutissent que si elles tournent en même temps
+        var premiere = composition.section("premiere", () -> attendre(lancees, "A"), "repli");
+        var seconde = composition.section("seconde", () -> attendre(lancees, "B"), "repli");
+
+        assertEquals("A", premiere.resultat());
+        assertEquals("B", seconde.resultat());
+        assertTrue(composition.sectionsIndisponibles().isEmpty());
+    }
+
+    @Test
+    void section_shouldFallBack_whenDeadlineIsExceeded() {
+        CompositionSectionsService.Composition composition = compositionSectionsService.nouvelle("test");
+
+        var lente = composition.section("lente", () -> attendre(new CountDownLatch(2), "trop tard"), "repli", 50);
+
+        assertEquals("repli", lente.resultat());
+        assertTrue(lente.estDegradee());
+        assertEquals(List.of("lente"), composition.sectionsIndisponibles());
+        assertEquals(1L, compositionSectionsService.obtenirStatistiques().getSectionsExpirees());
+    }
+
+    @Test
+    void section_shouldFallBack_whenComputationFails() {
+        CompositionSectionsService.Composition composition = compositionSectionsService.nouvelle("test");
+
+        var enEchec = composition.section("en-echec", () -> {
+            throw new RuntimeException("Base indisponible");
+        }, List.of());
+        var valide = composition.section("valide", () -> List.of("ok"), List.of());
+
+        assertEquals(List.of(), enEchec.resultat());
+        assertEquals(List.of("ok"), valide.resultat());
+        assertEquals(List.of("en-echec"), composition.sectionsIndisponibles());
+        assertEquals(1L, compositionSectionsService.obtenirStatistiques().getDegradationsParSection().get("test/en-echec"));
+    }
+
+    private static String attendre(CountDownLatch verrou, String valeur) {
+        verrou.countDown();
+        try {
+            if (!verrou.await(1, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Sections exécutées l'une après l'autre");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return valeur;
+    }
+}
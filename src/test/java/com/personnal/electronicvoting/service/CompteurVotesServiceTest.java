@@ -0,0 +1,124 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
+import com.personnal.electronicvoting.model.VoteElection;
+import com.personnal.electronicvoting.repository.VoteElectionRepository;
+import com.personnal.electronicvoting.repository.VoteRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompteurVotesServiceTest {
+
+    private static final LocalDateTime MAINTENANT = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @Mock
+    private VoteElectionRepository voteElectionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CompteurVotesService compteurVotesService;
+
+    @Test
+    void estInitialise_shouldBeFalse_beforeReconstruction() {
+        assertFalse(compteurVotesService.estInitialise());
+    }
+
+    @Test
+    void reconstruire_shouldLoadCountsFromDatabase() {
+        when(voteRepository.countVotesGroupesParCandidat())
+                .thenReturn(List.<Object[]>of(new Object[]{"candidat-1", 3L}, new Object[]{"candidat-2", 2L}));
+        when(voteElectionRepository.countVotesParElectionEtCandidat(VoteElection.StatutVote.VALIDE))
+                .thenReturn(List.<Object[]>of(new Object[]{"election-1", "candidat-1", 4L}));
+
+        compteurVotesService.reconstruire();
+
+        assertTrue(compteurVotesService.estInitialise());
+        assertEquals(5L, compteurVotesService.totalVotesGlobal());
+        assertEquals(3L, compteurVotesService.votesCandidat("candidat-1"));
+        assertEquals(4L, compteurVotesService.totalVotesElection("election-1"));
+        assertEquals(4L, compteurVotesService.votesParCandidatElection("election-1").get("candidat-1"));
+    }
+
+    @Test
+    void surVoteEnregistre_shouldIncrementCounters() {
+        when(voteRepository.countVotesGroupesParCandidat()).thenReturn(Collections.emptyList());
+        when(voteElectionRepository.countVotesParElectionEtCandidat(VoteElection.StatutVote.VALIDE))
+                .thenReturn(Collections.emptyList());
+        compteurVotesService.reconstruire();
+        long epoque = compteurVotesService.epoque();
+
+        compteurVotesService.surVoteEnregistre(VoteEnregistreEvent.voteGlobal(1L, "electeur-1", "candidat-1", MAINTENANT));
+        compteurVotesService.surVoteEnregistre(VoteEnregistreEvent.voteElection(2L, "election-1", "electeur-1", "candidat-2", MAINTENANT));
+        compteurVotesService.surVoteEnregistre(VoteEnregistreEvent.voteElection(3L, "election-1", "electeur-2", "candidat-2", MAINTENANT));
+
+        assertEquals(1L, compteurVotesService.totalVotesGlobal());
+        assertEquals(1L, compteurVotesService.votesParCandidat().get("candidat-1"));
+        assertEquals(2L, compteurVotesService.totalVotesElection("election-1"));
+        assertEquals(0L, compteurVotesService.totalVotesElection("election-inconnue"));
+        assertEquals(epoque + 3, compteurVotesService.epoque());
+    }
+
+    @Test
+    void reconstruire_shouldKeepPreviousCounters_whenDatabaseFails() {
+        when(voteRepository.countVotesGroupesParCandidat()).thenThrow(new RuntimeException("Base indisponible"));
+
+        assertThrows(RuntimeException.class, () -> compteurVotesService.reconstruire());
+        assertFalse(compteurVotesService.estInitialise());
+
+        compteurVotesService.surVoteEnregistre(VoteEnregistreEvent.voteGlobal(1L, "electeur-1", "candidat-1", MAINTENANT));
+        assertEquals(1L, compteurVotesService.totalVotesGlobal());
+    }
+
+    @Test
+    void changerStatut_shouldAdjustElectionCell() {
+        when(voteRepository.countVotesGroupesParCandidat()).thenReturn(Collections.emptyList());
+        when(voteElectionRepository.countVotesParElectionEtCandidat(VoteElection.StatutVote.VALIDE))
+                .thenReturn(List.<Object[]>of(new Object[]{"election-1", "candidat-1", 4L}));
+        compteurVotesService.reconstruire();
+        long epoque = compteurVotesService.epoque();
+
+        compteurVotesService.changerStatut(10L, "election-1", "candidat-1", VoteElection.StatutVote.ANNULE);
+        assertEquals(3L, compteurVotesService.votesParCandidatElection("election-1").get("candidat-1"));
+        assertEquals(3L, compteurVotesService.totalVotesElection("election-1"));
+
+        compteurVotesService.changerStatut(10L, "election-1", "candidat-1", VoteElection.StatutVote.VALIDE);
+        assertEquals(4L, compteurVotesService.totalVotesElection("election-1"));
+        assertEquals(epoque + 2, compteurVotesService.epoque());
+    }
+
+    @Test
+    void reconstruire_shouldReplayStatusChange_onlyWhenSnapshotMissesIt() {
+        when(voteRepository.countVotesGroupesParCandidat()).thenReturn(Collections.emptyList());
+        when(voteElectionRepository.countVotesParElectionEtCandidat(VoteElection.StatutVote.VALIDE)).thenAnswer(invocation -> {
+            // Validés pendant la lecture : l'instantané voit encore le vote 10 valide, plus le vote 11
+            compteurVotesService.changerStatut(10L, "election-1", "candidat-1", VoteElection.StatutVote.ANNULE);
+            compteurVotesService.changerStatut(11L, "election-1", "candidat-1", VoteElection.StatutVote.REJETE);
+            return List.<Object[]>of(new Object[]{"election-1", "candidat-1", 4L});
+        });
+        when(voteElectionRepository.findStatuts(Set.of(10L, 11L))).thenReturn(List.of(
+                new Object[]{10L, VoteElection.StatutVote.VALIDE},
+                new Object[]{11L, VoteElection.StatutVote.REJETE}));
+
+        compteurVotesService.reconstruire();
+
+        assertEquals(3L, compteurVotesService.totalVotesElection("election-1"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.model.Election;
+import com.personnal.electronicvoting.repository.ElectionRepository;
+import com.personnal.electronicvoting.repository.VoteElectionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DiffusionResultatsServiceTest {
+
+    @Mock
+    private ElectionRepository electionRepository;
+
+    @Mock
+    private VoteElectionRepository voteElectionRepository;
+
+    @Mock
+    private CompteurVotesService compteurVotesService;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @InjectMocks
+    private DiffusionResultatsService diffusionResultatsService;
+
+    @Test
+    void calculerDelta_shouldKeepOnlyChangedCandidates() {
+        Map<String, Long> delta = DiffusionResultatsService.calculerDelta(
+                Map.of("candidat-1", 3L, "candidat-2", 5L, "candidat-3", 1L),
+                Map.of("candidat-1", 4L, "candidat-2", 5L, "candidat-4", 1L));
+
+        assertEquals(Map.of("candidat-1", 4L, "candidat-3", 0L, "candidat-4", 1L), delta);
+    }
+
+    @Test
+    void fusionner_shouldMergePendingDeltaWithLatestCounts() throws Exception {
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        DiffusionResultatsService.Trame enAttente = new DiffusionResultatsService.Trame("delta",
+                new DiffusionResultatsService.TrameResultatsDTO("election-1", 1, Map.of("candidat-1", 3L, "candidat-2", 1L), 4, 40.0), "{}");
+        DiffusionResultatsService.Trame nouvelle = new DiffusionResultatsService.Trame("delta",
+                new DiffusionResultatsService.TrameResultatsDTO("election-1", 2, Map.of("candidat-1", 4L), 5, 50.0), "{}");
+
+        DiffusionResultatsService.Trame fusion = diffusionResultatsService.fusionner(enAttente, nouvelle);
+
+        assertEquals(Map.of("candidat-1", 4L, "candidat-2", 1L), fusion.contenu().votes());
+        assertEquals(2, fusion.contenu().sequence());
+        assertEquals(5, fusion.contenu().totalVotes());
+        assertSame(enAttente, diffusionResultatsService.fusionner(enAttente, DiffusionResultatsService.Trame.BATTEMENT));
+    }
+
+    @Test
+    void fusionner_shouldKeepNewerCountsAndSnapshotType_whenOlderSnapshotArrivesAfterDelta() throws Exception {
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        DiffusionResultatsService.Trame delta = new DiffusionResultatsService.Trame("delta",
+                new DiffusionResultatsService.TrameResultatsDTO("election-1", 3, Map.of("candidat-1", 5L), 6, 60.0), "{}");
+        DiffusionResultatsService.Trame instantane = new DiffusionResultatsService.Trame("instantane",
+                new DiffusionResultatsService.TrameResultatsDTO("election-1", 2, Map.of("candidat-1", 4L, "candidat-2", 1L), 5, 50.0), "{}");
+
+        DiffusionResultatsService.Trame fusion = diffusionResultatsService.fusionner(delta, instantane);
+
+        assertEquals("instantane", fusion.type());
+        assertEquals(Map.of("candidat-1", 5L, "candidat-2", 1L), fusion.contenu().votes());
+        assertEquals(3, fusion.contenu().sequence());
+        assertEquals(6, fusion.contenu().totalVotes());
+    }
+
+    @Test
+    void abonner_shouldRefuse_whenResultsAreNotVisible() {
+        Election election = new Election();
+        election.setStatut(Election.StatutElection.EN_COURS);
+        election.setResultatsVisibles(false);
+        when(electionRepository.findByExternalIdElection("election-1")).thenReturn(Optional.of(election));
+
+        Exception exception = assertThrows(RuntimeException.class,
+                () -> diffusionResultatsService.abonner("election-1"));
+
+        assertEquals("Les résultats ne sont pas encore disponibles", exception.getMessage());
+    }
+}
@@ -5,10 +5,12 @@ import com.personnal.electronicvoting.dto.request.ChangePasswordRequest;
 import com.personnal.electronicvoting.mapper.CampagneMapper;
 import com.personnal.electronicvoting.mapper.CandidatMapper;
 import com.personnal.electronicvoting.mapper.UserMapper;
+import com.personnal.electronicvoting.model.Candidat;
 import com.personnal.electronicvoting.model.Electeur;
 import com.personnal.electronicvoting.repository.CampagneRepository;
 import com.personnal.electronicvoting.repository.CandidatRepository;
 import com.personnal.electronicvoting.repository.ElecteurRepository;
+import com.personnal.electronicvoting.repository.StatistiquesCandidatRepository;
 import com.personnal.electronicvoting.repository.VoteRepository;
 import com.personnal.electronicvoting.util.PasswordGenerator;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,13 +20,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +43,9 @@ class ElecteurServiceTest {
     @Mock
     private CandidatRepository candidatRepository;
 
+    @Mock
+    private StatistiquesCandidatRepository statistiquesCandidatRepository;
+
     @Mock
     private CampagneRepository campagneRepository;
 
@@ -144,7 +154,7 @@ class ElecteurServiceTest {
     @Test
     void consulterCandidats_shouldReturnCandidates_whenElecteurExists() {
         when(electeurRepository.findByExternalIdElecteur(anyString())).thenReturn(Optional.of(electeur));
-        when(candidatRepository.findAll()).thenReturn(Collections.emptyList());
+        when(statistiquesCandidatRepository.findCandidatsAvecCompteurs()).thenReturn(Collections.emptyList());
 
         var result = electeurService.consulterCandidats("test-uuid");
 
@@ -199,9 +209,11 @@ class ElecteurServiceTest {
     @Test
     void consulterResultatsPartiels_shouldReturnResults_whenElecteurExists() {
         when(electeurRepository.findByExternalIdElecteur(anyString())).thenReturn(Optional.of(electeur));
-        when(voteRepository.count()).thenReturn(5L);
+        StatistiquesCandidatRepository.CandidatAgrege agrege = mock(StatistiquesCandidatRepository.CandidatAgrege.class);
+        when(agrege.getNombreVotes()).thenReturn(5L);
+        when(agrege.getCandidat()).thenReturn(new Candidat());
         when(electeurRepository.count()).thenReturn(10L);
-        when(candidatRepository.findAll()).thenReturn(Collections.emptyList());
+        when(statistiquesCandidatRepository.findCandidatsAvecCompteurs()).thenReturn(List.of(agrege));
 
         var result = electeurService.consulterResultatsPartiels("test-uuid");
 
@@ -221,12 +233,15 @@ class ElecteurServiceTest {
     }
 
     @Test
-    void listerTous_shouldReturnAllElecteurs() {
-        when(electeurRepository.findAll()).thenReturn(Collections.emptyList());
+    void listerTous_shouldReturnFirstPage() {
+        when(electeurRepository.findPageApres(eq(0L), eq("%"), isNull(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
 
-        var result = electeurService.listerTous();
+        var result = electeurService.listerTous(null, null);
 
         assertNotNull(result);
+        assertTrue(result.getElements().isEmpty());
+        assertNull(result.getCurseurSuivant());
     }
 
     @Test
@@ -1,26 +1,41 @@
 package com.personnal.electronicvoting.service;
 
+import com.personnal.electronicvoting.dto.ElectionSummaryDTO;
 import com.personnal.electronicvoting.dto.request.VoterElectionRequest;
 import com.personnal.electronicvoting.mapper.ElectionMapper;
 import com.personnal.electronicvoting.mapper.VoteElectionMapper;
 import com.personnal.electronicvoting.model.*;
 import com.personnal.electronicvoting.repository.*;
+import com.personnal.electronicvoting.util.CurseurPagination;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +62,30 @@ class ElectionServiceTest {
     @Mock
     private VoteElectionMapper voteElectionMapper;
 
+    @Mock
+    private CompteurVotesService compteurVotesService;
+
+    @Mock
+    private JournalVotesService journalVotesService;
+
+    @Mock
+    private IndexElectionService indexElectionService;
+
+    @Mock
+    private ParticipationService participationService;
+
+    @Mock
+    private ResultatsElectionService resultatsElectionService;
+
+    @Mock
+    private ResultatsScellesService resultatsScellesService;
+
+    @Mock
+    private IndexRechercheService indexRechercheService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ElectionService electionService;
 
@@ -79,13 +118,57 @@ class ElectionServiceTest {
     }
 
     @Test
-    void listerToutesElections_shouldReturnAllElections() {
-        when(electionRepository.findAll()).thenReturn(Collections.singletonList(election));
+    void listerElections_shouldReturnSummaries_withoutLoadingEntities() {
+        ElectionSummaryDTO resume = new ElectionSummaryDTO(4L, "election-uuid", "Titre", null, null,
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), Election.StatutElection.EN_COURS,
+                LocalDate.now(), LocalDate.now(), false, 1, false, 3L, 2L, 5L);
+        when(electionRepository.findResumesApres(eq(0L), isNull(), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(resume));
+
+        var result = electionService.listerElections(null, null, null);
+
+        assertEquals(1, result.getElements().size());
+        assertTrue(result.getElements().get(0).getEstActive());
+        assertEquals(5L, result.getElements().get(0).getNombreVotes());
+        assertNull(result.getCurseurSuivant());
+        verifyNoInteractions(electionMapper);
+    }
+
+    @Test
+    void listerElections_shouldResumeAfterCursor_andRejectForeignCursor() {
+        String curseur = CurseurPagination.encoder("elections", 42L);
+        when(electionRepository.findResumesApres(eq(42L), eq(Election.StatutElection.TERMINEE), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
 
-        var result = electionService.listerToutesElections();
+        var result = electionService.listerElections(curseur, 10, Election.StatutElection.TERMINEE);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
+        assertTrue(result.getElements().isEmpty());
+        Exception exception = assertThrows(RuntimeException.class, () -> electionService.listerElections(
+                CurseurPagination.encoder("electeurs", 42L), 10, null));
+        assertEquals("Curseur de pagination invalide", exception.getMessage());
+    }
+
+    @Test
+    void listerElecteursAutorises_shouldReturnRequestedPage() {
+        when(electionRepository.existsByExternalIdElection("election-uuid")).thenReturn(true);
+        when(electionRepository.findIdsElecteursAutorises(eq("election-uuid"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of("electeur-3"), PageRequest.of(1, 2), 3));
+
+        var result = electionService.listerElecteursAutorises("election-uuid", 1, 2);
+
+        assertEquals(List.of("electeur-3"), result.getIdentifiants());
+        assertEquals(3L, result.getTotal());
+        assertEquals(2, result.getNombrePages());
+    }
+
+    @Test
+    void listerElecteursAutorises_shouldThrowException_whenElectionDoesNotExist() {
+        when(electionRepository.existsByExternalIdElection("election-uuid")).thenReturn(false);
+
+        Exception exception = assertThrows(RuntimeException.class,
+                () -> electionService.listerElecteursAutorises("election-uuid", 0, 100));
+
+        assertEquals("Élection non trouvée: election-uuid", exception.getMessage());
     }
 
     @Test
@@ -125,7 +208,7 @@ class ElectionServiceTest {
         request.setElectionId("election-uuid");
         request.setCandidatId("candidat-uuid");
 
-        when(electionRepository.findByExternalIdElection(anyString())).thenReturn(Optional.of(election));
+        when(electionRepository.findPourVoteByExternalId(anyString())).thenReturn(Optional.of(election));
         when(electeurRepository.findByExternalIdElecteur(anyString())).thenReturn(Optional.of(electeur));
         when(candidatRepository.findByExternalIdCandidat(anyString())).thenReturn(Optional.of(candidat));
         when(voteElectionRepository.existsByElection_ExternalIdElectionAndElecteur_ExternalIdElecteur(anyString(), anyString())).thenReturn(false);
@@ -136,12 +219,51 @@ class ElectionServiceTest {
         assertNotNull(result);
     }
 
+    @Test
+    void modifierStatutVote_shouldAdjustMaterializedResults() {
+        candidat.setId(7L);
+        election.setIdElection(3L);
+        electeur.setIdElecteur(5L);
+        VoteElection vote = VoteElection.builder()
+                .election(election).electeur(electeur).candidat(candidat)
+                .statutVote(VoteElection.StatutVote.VALIDE)
+                .build();
+        when(voteElectionRepository.findById(1L)).thenReturn(Optional.of(vote));
+        when(voteElectionRepository.save(vote)).thenReturn(vote);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            electionService.modifierStatutVote(1L, VoteElection.StatutVote.ANNULE);
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(VoteElection.StatutVote.ANNULE, vote.getStatutVote());
+        verify(resultatsElectionService).changerStatut(3L, 7L, VoteElection.StatutVote.VALIDE, VoteElection.StatutVote.ANNULE);
+        verify(compteurVotesService).changerStatut(1L, "election-uuid", "candidat-uuid", VoteElection.StatutVote.ANNULE);
+        verify(compteurVotesService, never()).reconstruire();
+        verify(participationService).liberer("election-uuid", 5L);
+    }
+
+    @Test
+    void modifierStatutVote_shouldDoNothing_whenStatusIsUnchanged() {
+        VoteElection vote = VoteElection.builder().statutVote(VoteElection.StatutVote.VALIDE).build();
+        when(voteElectionRepository.findById(1L)).thenReturn(Optional.of(vote));
+
+        electionService.modifierStatutVote(1L, VoteElection.StatutVote.VALIDE);
+
+        verify(voteElectionRepository, never()).save(any(VoteElection.class));
+        verifyNoInteractions(resultatsElectionService);
+    }
+
     @Test
     void voterPourElection_shouldThrowException_whenElectionDoesNotExist() {
         VoterElectionRequest request = new VoterElectionRequest();
         request.setElectionId("election-uuid");
 
-        when(electionRepository.findByExternalIdElection(anyString())).thenReturn(Optional.empty());
+        when(electionRepository.findPourVoteByExternalId(anyString())).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(RuntimeException.class, () -> {
             electionService.voterPourElection(request, "electeur-uuid");
@@ -156,7 +278,7 @@ class ElectionServiceTest {
         request.setElectionId("election-uuid");
         request.setCandidatId("candidat-uuid");
 
-        when(electionRepository.findByExternalIdElection(anyString())).thenReturn(Optional.of(election));
+        when(electionRepository.findPourVoteByExternalId(anyString())).thenReturn(Optional.of(election));
         when(electeurRepository.findByExternalIdElecteur(anyString())).thenReturn(Optional.of(electeur));
         when(candidatRepository.findByExternalIdCandidat(anyString())).thenReturn(Optional.of(candidat));
         when(voteElectionRepository.existsByElection_ExternalIdElectionAndElecteur_ExternalIdElecteur(anyString(), anyString())).thenReturn(true);
@@ -168,6 +290,28 @@ class ElectionServiceTest {
         assertEquals("L'électeur a déjà voté pour cette élection", exception.getMessage());
     }
 
+    @Test
+    void voterPourElection_shouldUseIndex_whenElectionIsIndexed() {
+        VoterElectionRequest request = new VoterElectionRequest();
+        request.setElectionId("election-uuid");
+        request.setCandidatId("candidat-uuid");
+        candidat.setId(7L);
+        election.setElecteursAutorises(new HashSet<>());
+
+        when(electionRepository.findPourVoteByExternalId(anyString())).thenReturn(Optional.of(election));
+        when(electeurRepository.findByExternalIdElecteur(anyString())).thenReturn(Optional.of(electeur));
+        when(candidatRepository.findByExternalIdCandidat(anyString())).thenReturn(Optional.of(candidat));
+        when(indexElectionService.estIndexee("election-uuid")).thenReturn(true);
+        when(indexElectionService.electeurEstAutorise(eq("election-uuid"), anyLong())).thenReturn(true);
+        when(indexElectionService.candidatEstParticipant("election-uuid", 7L)).thenReturn(true);
+        when(voteElectionRepository.existsByElection_ExternalIdElectionAndElecteur_ExternalIdElecteur(anyString(), anyString())).thenReturn(false);
+        when(voteElectionRepository.save(any(VoteElection.class))).thenReturn(new VoteElection());
+
+        electionService.voterPourElection(request, "electeur-uuid");
+
+        verify(indexElectionService, never()).indexer(any(Election.class));
+    }
+
     @Test
     void obtenirResultatsElection_shouldReturnResults_whenResultsAreAvailable() {
         election.setResultatsVisibles(true);
@@ -176,10 +320,50 @@ class ElectionServiceTest {
         when(voteElectionRepository.countVotesParCandidatPourElection(anyString(), any(VoteElection.StatutVote.class)))
                 .thenReturn(Collections.emptyList());
 
+        when(indexElectionService.estIndexee("election-uuid")).thenReturn(true);
+        when(indexElectionService.nombreElecteursAutorises("election-uuid")).thenReturn(40L);
+
         var result = electionService.obtenirResultatsElection("election-uuid");
 
         assertNotNull(result);
         assertEquals(10L, result.getTotalVotes());
+        assertEquals(40L, result.getTotalElecteursAutorises());
+        assertEquals(25.0, result.getTauxParticipation());
+        verify(electionRepository, never()).countElecteursAutorises(any());
+    }
+
+    @Test
+    void obtenirResultatsElection_shouldCountAuthorizedVoters_whenElectionIsNotIndexed() {
+        election.setResultatsVisibles(true);
+        election.setIdElection(3L);
+        when(electionRepository.findByExternalIdElection(anyString())).thenReturn(Optional.of(election));
+        when(voteElectionRepository.countVotesParElection(anyString(), any(VoteElection.StatutVote.class))).thenReturn(5L);
+        when(voteElectionRepository.countVotesParCandidatPourElection(anyString(), any(VoteElection.StatutVote.class)))
+                .thenReturn(Collections.emptyList());
+        when(electionRepository.countElecteursAutorises(3L)).thenReturn(20L);
+
+        var result = electionService.obtenirResultatsElection("election-uuid");
+
+        assertEquals(20L, result.getTotalElecteursAutorises());
+        assertEquals(25.0, result.getTauxParticipation());
+    }
+
+    @Test
+    void obtenirResultatsElection_shouldServeSealedResults_whenElectionIsClosed() {
+        election.setResultatsVisibles(true);
+        election.setStatut(Election.StatutElection.TERMINEE);
+        ElectionService.ResultatsElectionDTO scelles = ElectionService.ResultatsElectionDTO.builder()
+                .electionId("election-uuid")
+                .totalVotes(7L)
+                .empreinteResultats("abc")
+                .build();
+        when(electionRepository.findByExternalIdElection(anyString())).thenReturn(Optional.of(election));
+        when(resultatsScellesService.obtenir(election)).thenReturn(scelles);
+
+        var result = electionService.obtenirResultatsElection("election-uuid");
+
+        assertSame(scelles, result);
+        verifyNoInteractions(voteElectionRepository, compteurVotesService, candidatRepository);
     }
 
     @Test
@@ -0,0 +1,125 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.model.Election;
+import com.personnal.electronicvoting.repository.ElectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportAuditVotesServiceTest {
+
+    @Mock
+    private ElectionRepository electionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ExportAuditVotesService exportAuditVotesService;
+
+    private Election election;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(exportAuditVotesService, "tailleLot", 1);
+        election = new Election();
+        election.setIdElection(1L);
+        election.setExternalIdElection("election-1");
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(10L, 11L);
+        when(rs.getString(2)).thenReturn("electeur-1", "electeur-2");
+        when(rs.getString(3)).thenReturn("candidat-1", "candidat-2");
+        when(rs.getDate(4)).thenReturn(Date.valueOf(LocalDate.of(2026, 3, 1)), new Date[]{null});
+        when(rs.getTimestamp(5)).thenReturn(Timestamp.valueOf(LocalDateTime.of(2026, 3, 1, 9, 30)), new Timestamp[]{null});
+        when(rs.getString(6)).thenReturn("10.0.0.1", "10.0.0.2");
+        when(rs.getString(7)).thenReturn("Mozilla/5.0 (X11, Linux)", "curl/8.0");
+        when(rs.getString(8)).thenReturn("VALIDE", "ANNULE");
+
+        doAnswer(invocation -> {
+            RowCallbackHandler ligne = invocation.getArgument(1);
+            ligne.processRow(rs);
+            ligne.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private static String sha256(String contenu) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenu.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void exporter_shouldWriteNdjsonRows_thenDigestOfPrecedingBytes() throws Exception {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+
+        long bulletins = exportAuditVotesService.exporter(election, ExportAuditVotesService.Format.NDJSON, sortie, false);
+
+        String contenu = sortie.toString(StandardCharsets.UTF_8);
+        String[] lignes = contenu.split("\n");
+        assertEquals(2, bulletins);
+        assertEquals(3, lignes.length);
+
+        JsonNode premiere = objectMapper.readTree(lignes[0]);
+        assertEquals("10.0.0.1", premiere.get("adresseIp").asText());
+        assertEquals("VALIDE", premiere.get("statutVote").asText());
+        assertEquals("2026-03-01T09:30", premiere.get("horodatageVote").asText());
+
+        JsonNode empreinte = objectMapper.readTree(lignes[2]);
+        assertEquals("empreinte", empreinte.get("type").asText());
+        assertEquals(2, empreinte.get("bulletins").asLong());
+        assertEquals(sha256(lignes[0] + "\n" + lignes[1] + "\n"), empreinte.get("sha256").asText());
+    }
+
+    @Test
+    void exporter_shouldWriteGzippedCsv_withDigestTrailer() throws Exception {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+
+        exportAuditVotesService.exporter(election, ExportAuditVotesService.Format.CSV, sortie, true);
+
+        String csv;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(sortie.toByteArray()))) {
+            csv = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String corps = csv.substring(0, csv.indexOf("# sha256="));
+        assertEquals(ExportAuditVotesService.ENTETE_CSV + "\n"
+                + "10,election-1,electeur-1,candidat-1,2026-03-01,2026-03-01T09:30,10.0.0.1,\"Mozilla/5.0 (X11, Linux)\",VALIDE\n"
+                + "11,election-1,electeur-2,candidat-2,,,10.0.0.2,curl/8.0,ANNULE\n", corps);
+        assertEquals("# sha256=" + sha256(corps) + ",bulletins=2\n", csv.substring(corps.length()));
+    }
+}
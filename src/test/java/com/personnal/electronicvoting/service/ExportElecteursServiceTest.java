@@ -0,0 +1,85 @@
+package com.personnal.electronicvoting.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportElecteursServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ExportElecteursService exportElecteursService;
+
+    private void simulerElecteurs() throws Exception {
+        ReflectionTestUtils.setField(exportElecteursService, "tailleLot", 2);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("id-1", "id-2", "id-3");
+        when(rs.getString(2)).thenReturn("Alice", "Dupont, Jean", "=SOMME(A1)");
+        when(rs.getString(3)).thenReturn("alice@test.fr", "jean \"jd\"@test.fr", "x@test.fr");
+        when(rs.getBoolean(4)).thenReturn(true, false, false);
+
+        doAnswer(invocation -> {
+            RowCallbackHandler ligne = invocation.getArgument(1);
+            for (int i = 0; i < 3; i++) {
+                ligne.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void exporter_shouldWriteEscapedCsvRows() throws Exception {
+        simulerElecteurs();
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+
+        long lignes = exportElecteursService.exporter(sortie, false);
+
+        assertEquals(3, lignes);
+        assertEquals("""
+                ID,Username,Email,A Vote
+                id-1,Alice,alice@test.fr,Oui
+                id-2,"Dupont, Jean","jean ""jd""@test.fr",Non
+                id-3,'=SOMME(A1),x@test.fr,Non
+                """, sortie.toString(StandardCharsets.UTF_8));
+        assertEquals(3, exportElecteursService.obtenirStatistiques().getLignesExportees());
+    }
+
+    @Test
+    void exporter_shouldProduceValidGzip_whenCompressed() throws Exception {
+        simulerElecteurs();
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+
+        exportElecteursService.exporter(sortie, true);
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(sortie.toByteArray()))) {
+            String csv = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(csv.startsWith(ExportElecteursService.ENTETE + "\n"));
+            assertEquals(4, csv.lines().count());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.personnal.electronicvoting.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HachageMotsDePasseServiceTest {
+
+    private HachageMotsDePasseService hachageMotsDePasseService;
+
+    @BeforeEach
+    void setUp() {
+        hachageMotsDePasseService = new HachageMotsDePasseService();
+        ReflectionTestUtils.setField(hachageMotsDePasseService, "coutCible", 4);
+        ReflectionTestUtils.setField(hachageMotsDePasseService, "nombreExecuteurs", 1);
+        ReflectionTestUtils.setField(hachageMotsDePasseService, "fileMax", 1);
+        hachageMotsDePasseService.demarrer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hachageMotsDePasseService.arreter();
+    }
+
+    @Test
+    void encode_shouldHashAtTargetCost_andFlagOtherCostsForRehash() {
+        String empreinte = hachageMotsDePasseService.encode("motDePasse");
+
+        assertTrue(empreinte.startsWith("$2a$04$"));
+        assertTrue(hachageMotsDePasseService.matches("motDePasse", empreinte));
+        assertFalse(hachageMotsDePasseService.matches("autre", empreinte));
+        assertFalse(hachageMotsDePasseService.upgradeEncoding(empreinte));
+        assertTrue(hachageMotsDePasseService.upgradeEncoding(new BCryptPasswordEncoder(5).encode("motDePasse")));
+        assertFalse(hachageMotsDePasseService.upgradeEncoding("pas-bcrypt"));
+
+        HachageMotsDePasseService.StatistiquesHachageDTO statistiques = hachageMotsDePasseService.obtenirStatistiques();
+        assertEquals(1, statistiques.getHachages());
+        assertEquals(2, statistiques.getVerifications());
+        assertEquals(1, statistiques.getRehachagesSignales());
+    }
+
+    @Test
+    void encode_shouldRejectImmediately_whenQueueIsFull() throws InterruptedException {
+        ThreadPoolExecutor executeur = (ThreadPoolExecutor) ReflectionTestUtils.getField(hachageMotsDePasseService, "executeur");
+        CountDownLatch occupe = new CountDownLatch(1);
+        CountDownLatch liberer = new CountDownLatch(1);
+        executeur.execute(() -> {
+            occupe.countDown();
+            try {
+                liberer.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        occupe.await();
+        executeur.execute(() -> { });
+
+        HachageMotsDePasseService.HachageSatureException exception = assertThrows(
+                HachageMotsDePasseService.HachageSatureException.class,
+                () -> hachageMotsDePasseService.encode("motDePasse"));
+        assertTrue(exception.getDelaiReessaiSecondes() >= 1);
+        // File sous pression : pas de recalcul d'empreinte
+        assertFalse(hachageMotsDePasseService.upgradeEncoding(new BCryptPasswordEncoder(5).encode("motDePasse")));
+        assertEquals(1, hachageMotsDePasseService.obtenirStatistiques().getRejetes());
+
+        liberer.countDown();
+    }
+}
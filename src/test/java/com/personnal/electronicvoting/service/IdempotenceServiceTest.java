@@ -0,0 +1,146 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.dto.VoteDTO;
+import com.personnal.electronicvoting.repository.RequeteIdempotenteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotenceServiceTest {
+
+    @Mock
+    private RequeteIdempotenteRepository requeteIdempotenteRepository;
+
+    private IdempotenceService idempotenceService;
+
+    @BeforeEach
+    void setUp() {
+        idempotenceService = new IdempotenceService(requeteIdempotenteRepository, new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(idempotenceService, "dureeVieMinutes", 60L);
+        ReflectionTestUtils.setField(idempotenceService, "capacite", 100);
+        ReflectionTestUtils.setField(idempotenceService, "attenteMaxMs", 5000L);
+    }
+
+    @Test
+    void executer_shouldReplayResult_whenKeyWasAlreadyProcessed() {
+        AtomicInteger appels = new AtomicInteger();
+        VoteDTO vote = new VoteDTO("electeur-uuid", "candidat-uuid", LocalDate.now());
+
+        var premier = idempotenceService.executer("cle-1", "vote:electeur-uuid", "candidat-uuid", VoteDTO.class,
+                () -> { appels.incrementAndGet(); return vote; });
+        var rejeu = idempotenceService.executer("cle-1", "vote:electeur-uuid", "candidat-uuid", VoteDTO.class,
+                () -> { appels.incrementAndGet(); return vote; });
+
+        assertFalse(premier.rejoue());
+        assertTrue(rejeu.rejoue());
+        assertSame(vote, rejeu.valeur());
+        assertEquals(1, appels.get());
+        verifyNoInteractions(requeteIdempotenteRepository);
+    }
+
+    @Test
+    void executer_shouldRejectKeyReusedForAnotherRequest() {
+        idempotenceService.executer("cle-1", "vote:electeur-uuid", "candidat-1", VoteDTO.class, VoteDTO::new);
+
+        Exception exception = assertThrows(RuntimeException.class, () ->
+                idempotenceService.executer("cle-1", "vote:electeur-uuid", "candidat-2", VoteDTO.class, VoteDTO::new));
+
+        assertEquals("Clé d'idempotence déjà utilisée pour une autre requête", exception.getMessage());
+    }
+
+    @Test
+    void executer_shouldNotRememberFailures() {
+        assertThrows(RuntimeException.class, () ->
+                idempotenceService.executer("cle-1", "vote:electeur-uuid", "candidat-uuid", VoteDTO.class,
+                        () -> { throw new RuntimeException("Erreur système lors du vote. Veuillez réessayer."); }));
+
+        var nouvelEssai = idempotenceService.executer("cle-1", "vote:electeur-uuid", "candidat-uuid",
+                VoteDTO.class, VoteDTO::new);
+
+        assertFalse(nouvelEssai.rejoue());
+    }
+
+    @Test
+    void executer_shouldCoalesceConcurrentDuplicates() throws Exception {
+        CountDownLatch demarre = new CountDownLatch(1);
+        CountDownLatch liberer = new CountDownLatch(1);
+        AtomicInteger appels = new AtomicInteger();
+        VoteDTO vote = new VoteDTO("electeur-uuid", "candidat-uuid", LocalDate.now());
+
+        CompletableFuture<IdempotenceService.Resultat<VoteDTO>> premier = CompletableFuture.supplyAsync(() ->
+                idempotenceService.executer("cle-1", "vote:electeur-uuid", "candidat-uuid", VoteDTO.class, () -> {
+                    appels.incrementAndGet();
+                    demarre.countDown();
+                    try {
+                        liberer.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return vote;
+                }));
+        assertTrue(demarre.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<IdempotenceService.Resultat<VoteDTO>> doublon = CompletableFuture.supplyAsync(() ->
+                idempotenceService.executer("cle-1", "vote:electeur-uuid", "candidat-uuid", VoteDTO.class, () -> {
+                    appels.incrementAndGet();
+                    return vote;
+                }));
+        liberer.countDown();
+
+        assertSame(vote, premier.get(5, TimeUnit.SECONDS).valeur());
+        assertTrue(doublon.get(5, TimeUnit.SECONDS).rejoue());
+        assertEquals(1, appels.get());
+    }
+
+    @Test
+    void executer_shouldNotEvictInFlightEntry_whenCapacityIsExceeded() throws Exception {
+        ReflectionTestUtils.setField(idempotenceService, "capacite", 1);
+        CountDownLatch demarre = new CountDownLatch(1);
+        CountDownLatch liberer = new CountDownLatch(1);
+        AtomicInteger appels = new AtomicInteger();
+        VoteDTO vote = new VoteDTO("electeur-uuid", "candidat-uuid", LocalDate.now());
+
+        CompletableFuture<IdempotenceService.Resultat<VoteDTO>> enCours = CompletableFuture.supplyAsync(() ->
+                idempotenceService.executer("cle-1", "vote:electeur-uuid", "candidat-uuid", VoteDTO.class, () -> {
+                    appels.incrementAndGet();
+                    demarre.countDown();
+                    try {
+                        liberer.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return vote;
+                }));
+        assertTrue(demarre.await(5, TimeUnit.SECONDS));
+
+        // Deux autres clés : la capacité est dépassée pendant que cle-1 s'exécute
+        idempotenceService.executer("cle-2", "vote:electeur-2", "candidat-uuid", VoteDTO.class, VoteDTO::new);
+        idempotenceService.executer("cle-3", "vote:electeur-3", "candidat-uuid", VoteDTO.class, VoteDTO::new);
+        ReflectionTestUtils.setField(idempotenceService, "capacite", 100);
+
+        CompletableFuture<IdempotenceService.Resultat<VoteDTO>> doublon = CompletableFuture.supplyAsync(() ->
+                idempotenceService.executer("cle-1", "vote:electeur-uuid", "candidat-uuid", VoteDTO.class, () -> {
+                    appels.incrementAndGet();
+                    return vote;
+                }));
+        liberer.countDown();
+
+        assertFalse(enCours.get(5, TimeUnit.SECONDS).rejoue());
+        assertTrue(doublon.get(5, TimeUnit.SECONDS).rejoue());
+        assertEquals(1, appels.get());
+    }
+}
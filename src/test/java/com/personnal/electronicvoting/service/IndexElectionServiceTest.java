@@ -0,0 +1,104 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.model.Election;
+import com.personnal.electronicvoting.repository.ElectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndexElectionServiceTest {
+
+    @Mock
+    private ElectionRepository electionRepository;
+
+    @InjectMocks
+    private IndexElectionService indexElectionService;
+
+    private Election election;
+
+    @BeforeEach
+    void setUp() {
+        election = new Election();
+        election.setIdElection(1L);
+        election.setExternalIdElection("election-1");
+        election.setStatut(Election.StatutElection.EN_COURS);
+    }
+
+    @Test
+    void indexer_shouldNotReplaceIndex_whenElectionSynchronizedDuringLoad() {
+        AtomicBoolean premierChargement = new AtomicBoolean(true);
+        when(electionRepository.findElecteursAutorisesIds(1L)).thenAnswer(invocation -> {
+            if (premierChargement.getAndSet(false)) {
+                // Modification validée pendant la lecture de l'ancienne liste
+                indexElectionService.synchroniserApresCommit(election, List.of(1L, 2L), null);
+                return List.of(1L);
+            }
+            return List.of(1L, 2L);
+        });
+        when(electionRepository.findCandidatsIds(1L)).thenReturn(List.of(10L));
+
+        indexElectionService.indexer(election);
+
+        assertTrue(indexElectionService.electeurEstAutorise("election-1", 2L));
+        assertEquals(2L, indexElectionService.nombreElecteursAutorises("election-1"));
+    }
+
+    @Test
+    void indexer_shouldSkipElection_whenKeyExceedsBitmapRange() {
+        long grandeCle = Integer.MAX_VALUE + 1L;
+        when(electionRepository.findElecteursAutorisesIds(1L)).thenReturn(List.of(1L, grandeCle));
+        when(electionRepository.findCandidatsIds(1L)).thenReturn(List.of(10L));
+
+        indexElectionService.indexer(election);
+
+        assertFalse(indexElectionService.estIndexee("election-1"));
+    }
+
+    @Test
+    void indexer_shouldNotReloadNonIndexableElection_untilItIsModified() {
+        when(electionRepository.findElecteursAutorisesIds(1L))
+                .thenReturn(List.of(1L, Integer.MAX_VALUE + 1L), List.of(1L));
+        when(electionRepository.findCandidatsIds(1L)).thenReturn(List.of(10L));
+
+        indexElectionService.indexer(election);
+        indexElectionService.indexer(election);
+        verify(electionRepository, times(1)).findElecteursAutorisesIds(1L);
+
+        indexElectionService.synchroniserApresCommit(election, List.of(1L), null);
+        assertTrue(indexElectionService.estIndexee("election-1"));
+    }
+
+    @Test
+    void electeurEstAutorise_shouldNotAliasKeysAboveIntRange() {
+        when(electionRepository.findElecteursAutorisesIds(1L)).thenReturn(List.of(0L));
+        when(electionRepository.findCandidatsIds(1L)).thenReturn(List.of(10L));
+
+        indexElectionService.indexer(election);
+
+        assertTrue(indexElectionService.electeurEstAutorise("election-1", 0L));
+        assertFalse(indexElectionService.electeurEstAutorise("election-1", 1L << 32));
+    }
+
+    @Test
+    void synchroniserApresCommit_shouldDropIndex_whenNewKeyExceedsBitmapRange() {
+        when(electionRepository.findElecteursAutorisesIds(1L)).thenReturn(List.of(1L));
+        when(electionRepository.findCandidatsIds(1L)).thenReturn(List.of(10L));
+        indexElectionService.indexer(election);
+
+        indexElectionService.synchroniserApresCommit(election, List.of(1L, Integer.MAX_VALUE + 1L), null);
+
+        assertFalse(indexElectionService.estIndexee("election-1"));
+    }
+}
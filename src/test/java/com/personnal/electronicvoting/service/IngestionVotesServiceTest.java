@@ -0,0 +1,152 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.dto.request.VoterElectionRequest;
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IngestionVotesServiceTest {
+
+    @Mock
+    private ElectionService electionService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JournalVotesService journalVotesService;
+
+    @Mock
+    private ParticipationService participationService;
+
+    @InjectMocks
+    private IngestionVotesService ingestionVotesService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ingestionVotesService, "tailleLot", 200);
+    }
+
+    @Test
+    void voter_shouldThrowException_whenIngestionIsDisabled() {
+        Exception exception = assertThrows(RuntimeException.class, () ->
+                ingestionVotesService.voter(new VoterElectionRequest(), "electeur-uuid"));
+
+        assertEquals("Ingestion des votes indisponible", exception.getMessage());
+        verifyNoInteractions(electionService);
+    }
+
+    @Test
+    void ecrireLot_shouldAcknowledgeInsertedBallotsAndRejectDuplicates() throws Exception {
+        var premier = enAttente(1L, 10L, "electeur-1");
+        var doublon = enAttente(1L, 10L, "electeur-1");
+        var second = enAttente(1L, 11L, "electeur-2");
+
+        ResultSet ligne1 = mock(ResultSet.class);
+        when(ligne1.getLong("election_id")).thenReturn(1L);
+        when(ligne1.getLong("electeur_id")).thenReturn(10L);
+        when(ligne1.getLong("id")).thenReturn(100L);
+        when(ligne1.getTimestamp("horodatage_vote")).thenReturn(Timestamp.valueOf("2025-03-01 12:00:00"));
+        ResultSet ligne2 = mock(ResultSet.class);
+        when(ligne2.getLong("election_id")).thenReturn(1L);
+        when(ligne2.getLong("electeur_id")).thenReturn(11L);
+        when(ligne2.getLong("id")).thenReturn(101L);
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(ligne1);
+            handler.processRow(ligne2);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        ingestionVotesService.ecrireLot(List.of(premier, doublon, second));
+
+        assertEquals(100L, premier.acquittement().get());
+        assertEquals(101L, second.acquittement().get());
+        ExecutionException erreur = assertThrows(ExecutionException.class, () -> doublon.acquittement().get());
+        assertEquals("L'électeur a déjà voté pour cette élection", erreur.getCause().getMessage());
+        verify(eventPublisher, times(2)).publishEvent(any(VoteEnregistreEvent.class));
+        verify(eventPublisher).publishEvent(new VoteEnregistreEvent(100L, "election-uuid", "electeur-1", "candidat-uuid",
+                LocalDateTime.of(2025, 3, 1, 12, 0)));
+
+        var statistiques = ingestionVotesService.obtenirStatistiques();
+        assertEquals(1L, statistiques.getLotsEcrits());
+        assertEquals(2L, statistiques.getBulletinsEcrits());
+        assertEquals(1L, statistiques.getDoublonsRejetes());
+    }
+
+    @Test
+    void ecrireLot_shouldRejectBallots_whenElectionClosedBeforeBatchWrite() throws Exception {
+        var bulletin = enAttente(1L, 10L, "electeur-1");
+
+        ResultSet fermee = mock(ResultSet.class);
+        when(fermee.getLong("id")).thenReturn(0L);
+        when(fermee.wasNull()).thenReturn(true);
+        when(fermee.getLong("election_id")).thenReturn(1L);
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(fermee);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        ingestionVotesService.ecrireLot(List.of(bulletin));
+
+        ExecutionException erreur = assertThrows(ExecutionException.class, () -> bulletin.acquittement().get());
+        assertEquals("Cette élection n'est pas active", erreur.getCause().getMessage());
+        verify(participationService).liberer("election-uuid", 10L);
+        verifyNoInteractions(eventPublisher);
+        assertEquals(1L, ingestionVotesService.obtenirStatistiques().getFermeesRejetes());
+    }
+
+    @Test
+    void ecrireLot_shouldFailWholeBatch_whenInsertFails() {
+        var bulletin = enAttente(1L, 10L, "electeur-1");
+        when(journalVotesService.estActif()).thenReturn(true);
+        doThrow(new RuntimeException("connexion perdue"))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        ingestionVotesService.ecrireLot(List.of(bulletin));
+
+        assertTrue(bulletin.acquittement().isCompletedExceptionally());
+        assertEquals(1L, ingestionVotesService.obtenirStatistiques().getLotsEnEchec());
+        verifyNoInteractions(eventPublisher);
+        verify(participationService).liberer("election-uuid", 10L);
+        verify(journalVotesService).annuler(1L, 10L, 5L);
+    }
+
+    private IngestionVotesService.BulletinEnAttente enAttente(Long electionPk, Long electeurPk, String electeurId) {
+        ElectionService.BulletinValide bulletin = ElectionService.BulletinValide.builder()
+                .electionPk(electionPk)
+                .electeurPk(electeurPk)
+                .candidatPk(5L)
+                .electionId("election-uuid")
+                .electeurId(electeurId)
+                .candidatId("candidat-uuid")
+                .build();
+        return new IngestionVotesService.BulletinEnAttente(bulletin, new CompletableFuture<>());
+    }
+}
@@ -0,0 +1,104 @@
+package com.personnal.electronicvoting.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InstantaneResultatsServiceTest {
+
+    @Mock
+    private VoteService voteService;
+
+    @Mock
+    private CandidatService candidatService;
+
+    @Mock
+    private CompteurVotesService compteurVotesService;
+
+    @InjectMocks
+    private InstantaneResultatsService instantaneResultatsService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(instantaneResultatsService, "intervalleMinMs", 0L);
+        ReflectionTestUtils.setField(instantaneResultatsService, "ageMaxMs", 60_000L);
+        when(voteService.obtenirResultatsVotes()).thenReturn(Collections.emptyList());
+        when(voteService.obtenirStatistiquesGenerales()).thenReturn(new VoteService.StatistiquesVoteDTO());
+        when(candidatService.obtenirStatistiquesDetaillees()).thenReturn(Collections.emptyList());
+        when(voteService.obtenirRepartitionTemporelle()).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    void obtenir_shouldReuseSnapshot_whileEpochIsUnchanged() {
+        when(compteurVotesService.epoque()).thenReturn(4L);
+
+        InstantaneResultatsService.Instantane premier = instantaneResultatsService.obtenir();
+        InstantaneResultatsService.Instantane second = instantaneResultatsService.obtenir();
+
+        assertSame(premier, second);
+        assertEquals(4L, premier.epoque());
+        verify(voteService, times(1)).obtenirResultatsVotes();
+    }
+
+    @Test
+    void obtenir_shouldRebuild_whenANewVoteIsCommitted() {
+        when(compteurVotesService.epoque()).thenReturn(4L, 5L);
+
+        instantaneResultatsService.obtenir();
+        InstantaneResultatsService.Instantane apresVote = instantaneResultatsService.obtenir();
+
+        assertEquals(5L, apresVote.epoque());
+        verify(voteService, times(2)).obtenirResultatsVotes();
+    }
+
+    @Test
+    void obtenir_shouldWaitForMinimumInterval_beforeRebuilding() {
+        ReflectionTestUtils.setField(instantaneResultatsService, "intervalleMinMs", 60_000L);
+        when(compteurVotesService.epoque()).thenReturn(4L);
+
+        InstantaneResultatsService.Instantane premier = instantaneResultatsService.obtenir();
+        InstantaneResultatsService.Instantane second = instantaneResultatsService.obtenir();
+
+        assertSame(premier, second);
+        verify(voteService, times(1)).obtenirResultatsVotes();
+    }
+
+    @Test
+    void obtenir_shouldKeepPreviousSnapshot_whenRebuildFails() {
+        when(compteurVotesService.epoque()).thenReturn(4L, 5L);
+        InstantaneResultatsService.Instantane premier = instantaneResultatsService.obtenir();
+
+        when(voteService.obtenirResultatsVotes()).thenThrow(new RuntimeException("Base indisponible"));
+        InstantaneResultatsService.Instantane apresEchec = instantaneResultatsService.obtenir();
+
+        assertEquals(4L, apresEchec.epoque());
+        assertSame(premier.resultatsVotes(), apresEchec.resultatsVotes());
+    }
+
+    @Test
+    void obtenirAEpoque_shouldRebuildWithinMinimumInterval_whenSnapshotIsOlderThanRequested() {
+        ReflectionTestUtils.setField(instantaneResultatsService, "intervalleMinMs", 60_000L);
+        when(compteurVotesService.epoque()).thenReturn(4L, 5L);
+
+        InstantaneResultatsService.Instantane premier = instantaneResultatsService.obtenir();
+        // obtenir() servirait encore l'époque 4 pendant l'intervalle minimal
+        InstantaneResultatsService.Instantane aJour = instantaneResultatsService.obtenirAEpoque(5L);
+
+        assertEquals(4L, premier.epoque());
+        assertEquals(5L, aJour.epoque());
+        assertSame(aJour, instantaneResultatsService.obtenirAEpoque(5L));
+        verify(voteService, times(2)).obtenirResultatsVotes();
+    }
+}
@@ -0,0 +1,141 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JournalVotesServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path dossier;
+
+    private JournalVotesService journal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = nouveauJournal();
+    }
+
+    @Test
+    void ajouter_shouldReturnMinusOne_whenJournalIsDisabled() {
+        JournalVotesService inactif = new JournalVotesService(jdbcTemplate, transactionManager, eventPublisher);
+
+        assertFalse(inactif.estActif());
+        assertEquals(-1L, inactif.ajouter(1L, 2L, 3L));
+    }
+
+    @Test
+    void recompter_shouldCountAcceptedBallotsMinusCancellations() throws Exception {
+        journal.ajouter(1L, 10L, 100L);
+        journal.ajouter(1L, 11L, 100L);
+        journal.ajouter(1L, 12L, 200L);
+        journal.ajouter(0L, 13L, 300L);
+        journal.annuler(1L, 11L, 100L);
+        journal.arreter();
+
+        var rejeu = journal.recompter();
+
+        assertEquals(5L, rejeu.getEnregistrementsLus());
+        assertEquals(1L, rejeu.getAnnulations());
+        assertEquals(3L, rejeu.getBulletinsValides());
+        assertEquals(3, rejeu.getComptes().size());
+        assertNull(rejeu.getComptes().get(0).getElectionPk());
+        assertTrue(rejeu.getComptes().stream()
+                .allMatch(c -> c.getNombreVotes() == 1L));
+    }
+
+    @Test
+    void demarrer_shouldResumeAfterLastRecord_whenSegmentExists() throws Exception {
+        journal.ajouter(1L, 10L, 100L);
+        journal.arreter();
+
+        JournalVotesService reouvert = nouveauJournal();
+        reouvert.ajouter(1L, 11L, 100L);
+        reouvert.arreter();
+
+        assertEquals(2L, reouvert.recompter().getBulletinsValides());
+        assertEquals(1L, Files.list(dossier).count());
+    }
+
+    @Test
+    void reinsererManquants_shouldSkipRejectedBallot_andPublishReinsertedVotes() throws Exception {
+        journal.ajouter(1L, 10L, 100L);
+        journal.ajouter(1L, 11L, 999L);
+        journal.arreter();
+
+        LocalDateTime horodatage = LocalDateTime.of(2025, 3, 1, 12, 0);
+        ResultSet ligne = mock(ResultSet.class);
+        when(ligne.getLong("id")).thenReturn(7L);
+        when(ligne.getString("election")).thenReturn("election-1");
+        when(ligne.getString("electeur")).thenReturn("electeur-10");
+        when(ligne.getString("candidat")).thenReturn("candidat-100");
+        when(ligne.getTimestamp("horodatage_vote")).thenReturn(Timestamp.valueOf(horodatage));
+
+        // Lot refusé (candidat 999 supprimé), puis reprise bulletin par bulletin
+        doThrow(new DataIntegrityViolationException("lot"))
+                .doAnswer(invocation -> {
+                    invocation.<RowCallbackHandler>getArgument(1).processRow(ligne);
+                    return null;
+                })
+                .doThrow(new DataIntegrityViolationException("candidat_id"))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        var rejeu = journal.reinsererManquants();
+
+        assertEquals(2L, rejeu.getBulletinsValides());
+        assertEquals(1L, rejeu.getBulletinsReinseres());
+        assertEquals(1L, rejeu.getBulletinsIgnores());
+        verify(eventPublisher).publishEvent(
+                VoteEnregistreEvent.voteElection(7L, "election-1", "electeur-10", "candidat-100", horodatage));
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void encoder_shouldProduceFixedSizeRecords() {
+        byte[] enregistrement = JournalVotesService.encoder(1L, 2L, 3L, 4L, JournalVotesService.STATUT_ACCEPTE);
+
+        assertEquals(JournalVotesService.TAILLE_ENREGISTREMENT, enregistrement.length);
+    }
+
+    private JournalVotesService nouveauJournal() throws Exception {
+        JournalVotesService service = new JournalVotesService(jdbcTemplate, transactionManager, eventPublisher);
+        ReflectionTestUtils.setField(service, "active", true);
+        ReflectionTestUtils.setField(service, "repertoire", dossier.toString());
+        ReflectionTestUtils.setField(service, "tailleSegmentMo", 1);
+        ReflectionTestUtils.setField(service, "fsyncGroupeMs", 1L);
+        ReflectionTestUtils.setField(service, "attendreFsync", true);
+        ReflectionTestUtils.setField(service, "tailleLotRejeu", 500);
+        service.demarrer();
+        return service;
+    }
+}
@@ -0,0 +1,95 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PagesPrecalculeesServiceTest {
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private CompteurVotesService compteurVotesService;
+
+    @InjectMocks
+    private PagesPrecalculeesService pagesPrecalculeesService;
+
+    private final AtomicInteger constructions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pagesPrecalculeesService, "ageMaxMs", 60_000L);
+    }
+
+    @Test
+    void obtenir_shouldRenderOnceAndServeSameBytes() throws Exception {
+        when(compteurVotesService.epoque()).thenReturn(1L);
+        pagesPrecalculeesService.enregistrer("accueil", () -> {
+            constructions.incrementAndGet();
+            return Map.of("titre", "Accueil");
+        });
+
+        PagesPrecalculeesService.PageRendue premiere = pagesPrecalculeesService.obtenir("accueil");
+        PagesPrecalculeesService.PageRendue seconde = pagesPrecalculeesService.obtenir("accueil");
+
+        assertSame(premiere, seconde);
+        assertEquals(1, constructions.get());
+        assertEquals("{\"titre\":\"Accueil\"}", new String(premiere.json(), StandardCharsets.UTF_8));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(premiere.gzip()))) {
+            assertArrayEquals(premiere.json(), gzip.readAllBytes());
+        }
+        assertNotEquals(premiere.etag(), premiere.etagGzip());
+    }
+
+    @Test
+    void rafraichir_shouldKeepEtag_whenContentIsUnchanged_andChangeItOtherwise() {
+        when(compteurVotesService.epoque()).thenReturn(1L, 2L, 3L);
+        pagesPrecalculeesService.enregistrer("accueil", () -> Map.of("votes", (constructions.incrementAndGet() + 1) / 2));
+
+        PagesPrecalculeesService.PageRendue initiale = pagesPrecalculeesService.obtenir("accueil");
+        pagesPrecalculeesService.rafraichir();
+        PagesPrecalculeesService.PageRendue identique = pagesPrecalculeesService.obtenir("accueil");
+        pagesPrecalculeesService.rafraichir();
+        PagesPrecalculeesService.PageRendue modifiee = pagesPrecalculeesService.obtenir("accueil");
+
+        assertEquals(3, constructions.get());
+        assertEquals(initiale.etag(), identique.etag());
+        assertEquals(2L, identique.epoque());
+        assertNotEquals(initiale.etag(), modifiee.etag());
+        assertEquals(1L, pagesPrecalculeesService.obtenirStatistiques().getRendusInchanges());
+    }
+
+    @Test
+    void rafraichir_shouldKeepPreviousRender_whenBuildFails() {
+        when(compteurVotesService.epoque()).thenReturn(1L, 2L);
+        pagesPrecalculeesService.enregistrer("accueil", () -> {
+            if (constructions.incrementAndGet() > 1) {
+                throw new RuntimeException("Base indisponible");
+            }
+            return Map.of("titre", "Accueil");
+        });
+
+        PagesPrecalculeesService.PageRendue initiale = pagesPrecalculeesService.obtenir("accueil");
+        pagesPrecalculeesService.rafraichir();
+
+        assertSame(initiale, pagesPrecalculeesService.obtenir("accueil"));
+        assertEquals(1L, pagesPrecalculeesService.obtenirStatistiques().getEchecsRendu());
+    }
+}
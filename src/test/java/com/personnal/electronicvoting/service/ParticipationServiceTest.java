@@ -0,0 +1,87 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.repository.VoteElectionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParticipationServiceTest {
+
+    @Mock
+    private VoteElectionRepository voteElectionRepository;
+
+    @InjectMocks
+    private ParticipationService participationService;
+
+    @Test
+    void charger_shouldRejectVotersAlreadyInDatabase() {
+        when(voteElectionRepository.countVotesValidesParElectionEtElecteur()).thenReturn(List.<Object[]>of(
+                new Object[]{"election-unique", false, 1, 7L, 1L},
+                new Object[]{"election-multiple", true, 3, 7L, 2L}));
+
+        participationService.charger();
+
+        assertTrue(participationService.estInitialise());
+        assertTrue(participationService.reserver("election-unique", false, 1, 8L));
+        assertFalse(participationService.reserver("election-unique", false, 1, 7L));
+        assertTrue(participationService.reserver("election-multiple", true, 3, 7L));
+        assertFalse(participationService.reserver("election-multiple", true, 3, 7L));
+    }
+
+    @Test
+    void reserver_shouldReleaseReservation_whenTransactionRollsBack() {
+        ReflectionTestUtils.setField(participationService, "initialise", true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(participationService.reserver("election-uuid", false, 1, 12L));
+            assertEquals(1, participationService.nombreVotes("election-uuid", 12L));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, participationService.nombreVotes("election-uuid", 12L));
+        assertTrue(participationService.reserver("election-uuid", false, 1, 12L));
+    }
+
+    @Test
+    void reserver_shouldWidenCounters_whenMaximumVotesIsRaised() {
+        ReflectionTestUtils.setField(participationService, "initialise", true);
+        assertTrue(participationService.reserver("election-uuid", false, 1, 12L));
+        assertFalse(participationService.reserver("election-uuid", false, 1, 12L));
+
+        assertTrue(participationService.reserver("election-uuid", true, 3, 12L));
+        assertTrue(participationService.reserver("election-uuid", true, 3, 12L));
+        assertFalse(participationService.reserver("election-uuid", true, 3, 12L));
+        assertEquals(3, participationService.nombreVotes("election-uuid", 12L));
+    }
+
+    @Test
+    void charger_shouldRereadVoter_whenStatusChangedDuringLoad() {
+        // Vote invalidé pendant le chargement : la ligne chargée le compte encore
+        participationService.liberer("election-uuid", 7L);
+        when(voteElectionRepository.countVotesValidesParElectionEtElecteur()).thenReturn(List.<Object[]>of(
+                new Object[]{"election-uuid", false, 1, 7L, 1L},
+                new Object[]{"election-uuid", false, 1, 8L, 1L}));
+        when(voteElectionRepository.countVotesValidesElecteur("election-uuid", 7L)).thenReturn(List.of());
+
+        participationService.charger();
+
+        assertEquals(0, participationService.nombreVotes("election-uuid", 7L));
+        assertEquals(1, participationService.nombreVotes("election-uuid", 8L));
+        assertTrue(participationService.reserver("election-uuid", false, 1, 7L));
+    }
+}
@@ -0,0 +1,63 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.model.VoteElection;
+import com.personnal.electronicvoting.repository.ResultatElectionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ResultatsElectionServiceTest {
+
+    @Mock
+    private ResultatElectionRepository resultatElectionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ResultatsElectionService resultatsElectionService;
+
+    @Test
+    void changerStatut_shouldMoveOneVoteBetweenRows() {
+        resultatsElectionService.changerStatut(1L, 2L, VoteElection.StatutVote.VALIDE, VoteElection.StatutVote.ANNULE);
+
+        verify(resultatElectionRepository).ajuster(1L, 2L, "VALIDE", -1);
+        verify(resultatElectionRepository).ajuster(1L, 2L, "ANNULE", 1);
+    }
+
+    @Test
+    void comparer_shouldReportDriftAndMissingRows() {
+        ResultatsElectionService.Cle valides = new ResultatsElectionService.Cle(1L, 2L, "VALIDE");
+        ResultatsElectionService.Cle annules = new ResultatsElectionService.Cle(1L, 2L, "ANNULE");
+        ResultatsElectionService.Cle autre = new ResultatsElectionService.Cle(1L, 3L, "VALIDE");
+
+        List<ResultatsElectionService.EcartDTO> ecarts = ResultatsElectionService.comparer(
+                Map.of(valides, 10L, annules, 1L),
+                Map.of(valides, 9L, annules, 1L, autre, 4L));
+
+        assertEquals(2, ecarts.size());
+        assertEquals(new ResultatsElectionService.EcartDTO(1L, 2L, "VALIDE", 10L, 9L), ecarts.get(0));
+        assertEquals(new ResultatsElectionService.EcartDTO(1L, 3L, "VALIDE", 0L, 4L), ecarts.get(1));
+    }
+
+    @Test
+    void comparer_shouldReportNothing_whenCountersMatch() {
+        ResultatsElectionService.Cle valides = new ResultatsElectionService.Cle(1L, 2L, "VALIDE");
+
+        assertTrue(ResultatsElectionService.comparer(Map.of(valides, 5L), Map.of(valides, 5L)).isEmpty());
+    }
+}
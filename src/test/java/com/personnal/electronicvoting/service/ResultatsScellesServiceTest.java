@@ -0,0 +1,132 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personnal.electronicvoting.model.Election;
+import com.personnal.electronicvoting.model.ResultatScelle;
+import com.personnal.electronicvoting.model.VoteElection;
+import com.personnal.electronicvoting.repository.ElectionRepository;
+import com.personnal.electronicvoting.repository.ResultatScelleRepository;
+import com.personnal.electronicvoting.repository.VoteElectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResultatsScellesServiceTest {
+
+    @Mock
+    private ResultatScelleRepository resultatScelleRepository;
+
+    @Mock
+    private ElectionRepository electionRepository;
+
+    @Mock
+    private VoteElectionRepository voteElectionRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ResultatsScellesService resultatsScellesService;
+
+    private Election election;
+
+    @BeforeEach
+    void setUp() {
+        election = new Election();
+        election.setIdElection(1L);
+        election.setExternalIdElection("election-1");
+        election.setTitre("Élection du bureau");
+        election.setStatut(Election.StatutElection.TERMINEE);
+    }
+
+    private void stubVotes(long votesA, long votesB) {
+        when(voteElectionRepository.compterVotesFinauxParCandidat(1L, VoteElection.StatutVote.VALIDE))
+                .thenReturn(List.of(new Object[]{"candidat-a", "Alice", votesA}, new Object[]{"candidat-b", "Bob", votesB}));
+        when(electionRepository.countElecteursAutorises(1L)).thenReturn(10L);
+    }
+
+    private ResultatScelle scelle(String contenu, String empreinte) {
+        return ResultatScelle.builder()
+                .electionPk(1L)
+                .externalIdElection("election-1")
+                .statutElection(Election.StatutElection.TERMINEE)
+                .contenu(contenu)
+                .empreinte(empreinte)
+                .dateScellement(LocalDateTime.of(2026, 3, 1, 18, 0))
+                .build();
+    }
+
+    @Test
+    void obtenir_shouldServeStoredContentOnce_andKeepItInMemory() throws Exception {
+        stubVotes(3, 1);
+        String contenu = objectMapper.writeValueAsString(
+                resultatsScellesService.calculer(election, LocalDate.of(2026, 3, 1)));
+        String empreinte = ResultatsScellesService.empreinte(contenu);
+        when(resultatScelleRepository.findByExternalIdElection("election-1"))
+                .thenReturn(Optional.of(scelle(contenu, empreinte)));
+
+        ElectionService.ResultatsElectionDTO resultats = resultatsScellesService.obtenir(election);
+
+        assertEquals(4L, resultats.getTotalVotes());
+        assertEquals(40.0, resultats.getTauxParticipation());
+        assertEquals("Alice", resultats.getResultatsParCandidat().get(0).getCandidatNom());
+        assertEquals(75.0, resultats.getResultatsParCandidat().get(0).getPourcentageVotes());
+        assertEquals(empreinte, resultats.getEmpreinteResultats());
+        // Chaque lecture reçoit sa copie : la modifier ne touche pas au contenu gardé en mémoire
+        resultats.setTotalVotes(0L);
+        resultats.getResultatsParCandidat().get(0).setNombreVotes(0L);
+        ElectionService.ResultatsElectionDTO relu = resultatsScellesService.obtenir(election);
+        assertNotSame(resultats, relu);
+        assertEquals(4L, relu.getTotalVotes());
+        assertEquals(3L, relu.getResultatsParCandidat().get(0).getNombreVotes());
+        verify(resultatScelleRepository, times(1)).findByExternalIdElection("election-1");
+    }
+
+    @Test
+    void verifier_shouldDetectTamperedContent_andDivergingVotes() throws Exception {
+        stubVotes(3, 1);
+        String contenu = objectMapper.writeValueAsString(
+                resultatsScellesService.calculer(election, LocalDate.of(2026, 3, 1)));
+        String empreinte = ResultatsScellesService.empreinte(contenu);
+        when(electionRepository.findByExternalIdElection("election-1")).thenReturn(Optional.of(election));
+
+        when(resultatScelleRepository.findByExternalIdElection("election-1"))
+                .thenReturn(Optional.of(scelle(contenu, empreinte)));
+        ResultatsScellesService.VerificationScellementDTO intacte = resultatsScellesService.verifier("election-1");
+        assertTrue(intacte.isContenuIntact());
+        assertTrue(intacte.isConformeAuxVotes());
+
+        when(resultatScelleRepository.findByExternalIdElection("election-1"))
+                .thenReturn(Optional.of(scelle(contenu.replace("\"nombreVotes\":3", "\"nombreVotes\":30"), empreinte)));
+        ResultatsScellesService.VerificationScellementDTO alteree = resultatsScellesService.verifier("election-1");
+        assertFalse(alteree.isContenuIntact());
+        assertTrue(alteree.isConformeAuxVotes());
+    }
+
+    @Test
+    void estStatutFinal_shouldOnlyAcceptClosedStatuses() {
+        assertTrue(ResultatsScellesService.estStatutFinal(Election.StatutElection.TERMINEE));
+        assertTrue(ResultatsScellesService.estStatutFinal(Election.StatutElection.RESULTATS_PUBLIES));
+        assertFalse(ResultatsScellesService.estStatutFinal(Election.StatutElection.EN_COURS));
+        assertFalse(ResultatsScellesService.estStatutFinal(null));
+    }
+}
@@ -0,0 +1,125 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
+import com.personnal.electronicvoting.repository.VoteElectionRepository;
+import com.personnal.electronicvoting.repository.VoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SerieTemporelleVotesServiceTest {
+
+    private static final LocalDateTime MIDI = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Mock
+    private VoteRepository voteRepository;
+
+    @Mock
+    private VoteElectionRepository voteElectionRepository;
+
+    @InjectMocks
+    private SerieTemporelleVotesService serieTemporelleVotesService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(serieTemporelleVotesService, "capaciteMinutes", 60);
+        ReflectionTestUtils.setField(serieTemporelleVotesService, "capaciteHeures", 24);
+        ReflectionTestUtils.setField(serieTemporelleVotesService, "capaciteJours", 7);
+        ReflectionTestUtils.setField(serieTemporelleVotesService, "enChargement", false);
+    }
+
+    @Test
+    void obtenirSerie_shouldCountCommittedVotesPerMinute() {
+        serieTemporelleVotesService.surVoteEnregistre(vote("election-1", MIDI.plusSeconds(10)));
+        serieTemporelleVotesService.surVoteEnregistre(vote("election-1", MIDI.plusSeconds(50)));
+        serieTemporelleVotesService.surVoteEnregistre(vote("election-1", MIDI.plusMinutes(2)));
+        serieTemporelleVotesService.surVoteEnregistre(vote("election-2", MIDI));
+
+        var serie = serieTemporelleVotesService.obtenirSerie("election-1",
+                SerieTemporelleVotesService.Resolution.MINUTE, MIDI, MIDI.plusMinutes(2));
+
+        assertEquals(List.of(2L, 0L, 1L), serie.getPoints().stream().map(SerieTemporelleVotesService.PointSerieDTO::nombreVotes).toList());
+        assertEquals(MIDI, serie.getPoints().get(0).debut());
+        assertEquals(3L, serie.getTotalVotes());
+    }
+
+    @Test
+    void obtenirSerie_shouldLimitRangeToRingCapacity() {
+        serieTemporelleVotesService.surVoteEnregistre(vote(null, MIDI.minusDays(10)));
+        serieTemporelleVotesService.surVoteEnregistre(vote(null, MIDI));
+
+        var serie = serieTemporelleVotesService.obtenirSerie(null,
+                SerieTemporelleVotesService.Resolution.JOUR, MIDI.minusDays(30), MIDI);
+
+        assertEquals(7, serie.getPoints().size());
+        assertEquals(MIDI.toLocalDate().minusDays(6).atStartOfDay(), serie.getDebut());
+        assertEquals(1L, serie.getTotalVotes());
+    }
+
+    @Test
+    void charger_shouldLoadAggregatedCountsFromDatabase() {
+        when(voteRepository.countVotesParPeriode(anyString(), any(), any())).thenReturn(Collections.emptyList());
+        when(voteElectionRepository.countVotesParElectionEtPeriode(anyString(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(voteElectionRepository.countVotesParElectionEtPeriode("hour", MIDI.minusHours(23), MIDI.plusMinutes(30)))
+                .thenReturn(List.<Object[]>of(new Object[]{"election-1", Timestamp.valueOf(MIDI.minusHours(1)), 5L}));
+
+        serieTemporelleVotesService.charger(MIDI.plusMinutes(30));
+
+        var serie = serieTemporelleVotesService.obtenirSerie("election-1",
+                SerieTemporelleVotesService.Resolution.HEURE, MIDI.minusHours(1), MIDI);
+        assertTrue(serieTemporelleVotesService.estInitialise());
+        assertEquals(5L, serie.getPoints().get(0).nombreVotes());
+        assertEquals(0L, serie.getPoints().get(1).nombreVotes());
+    }
+
+    @Test
+    void charger_shouldReplayOnlyVotesAfterLoadStart_whenReceivedDuringLoad() {
+        ReflectionTestUtils.setField(serieTemporelleVotesService, "enChargement", true);
+        when(voteRepository.countVotesParPeriode(anyString(), any(), any())).thenReturn(Collections.emptyList());
+        when(voteElectionRepository.countVotesParElectionEtPeriode(anyString(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(voteElectionRepository.countVotesParElectionEtPeriode("minute", MIDI.minusMinutes(59), MIDI))
+                .thenReturn(List.<Object[]>of(new Object[]{"election-1", Timestamp.valueOf(MIDI.minusMinutes(1)), 1L}));
+
+        // Le premier vote est déjà dans l'agrégation, le second est postérieur au début du chargement
+        serieTemporelleVotesService.surVoteEnregistre(vote("election-1", MIDI.minusSeconds(30)));
+        serieTemporelleVotesService.surVoteEnregistre(vote("election-1", MIDI.plusSeconds(5)));
+        assertEquals(0L, serieTemporelleVotesService.obtenirSerie("election-1",
+                SerieTemporelleVotesService.Resolution.MINUTE, MIDI.minusMinutes(1), MIDI).getTotalVotes());
+
+        serieTemporelleVotesService.charger(MIDI);
+        serieTemporelleVotesService.surVoteEnregistre(vote("election-1", MIDI.plusSeconds(10)));
+
+        var serie = serieTemporelleVotesService.obtenirSerie("election-1",
+                SerieTemporelleVotesService.Resolution.MINUTE, MIDI.minusMinutes(1), MIDI);
+        assertEquals(List.of(1L, 2L), serie.getPoints().stream().map(SerieTemporelleVotesService.PointSerieDTO::nombreVotes).toList());
+    }
+
+    @Test
+    void obtenirSerie_shouldReject_whenStartIsAfterEnd() {
+        Exception exception = assertThrows(RuntimeException.class, () -> serieTemporelleVotesService.obtenirSerie(
+                null, SerieTemporelleVotesService.Resolution.HEURE, MIDI, MIDI.minusHours(2)));
+
+        assertEquals("La date de début doit précéder la date de fin", exception.getMessage());
+    }
+
+    private static VoteEnregistreEvent vote(String electionId, LocalDateTime horodatage) {
+        return new VoteEnregistreEvent(1L, electionId, "electeur", "candidat", horodatage);
+    }
+}
@@ -0,0 +1,91 @@
+package com.personnal.electronicvoting.service;
+
+import com.personnal.electronicvoting.event.ContenuRechercheModifieEvent;
+import com.personnal.electronicvoting.event.VoteEnregistreEvent;
+import com.personnal.electronicvoting.model.VoteElection;
+import com.personnal.electronicvoting.repository.CandidatRepository;
+import com.personnal.electronicvoting.repository.ElectionRepository;
+import com.personnal.electronicvoting.util.TrieSuggestions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionsServiceTest {
+
+    @Mock
+    private CandidatRepository candidatRepository;
+
+    @Mock
+    private ElectionRepository electionRepository;
+
+    @InjectMocks
+    private SuggestionsService suggestionsService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(suggestionsService, "topK", 5);
+        // Lots appliqués à la main : l'horloge ne passe pas pendant un test
+        ReflectionTestUtils.setField(suggestionsService, "regroupementMs", 3_600_000L);
+        suggestionsService.creer();
+        when(electionRepository.findSuggestions(VoteElection.StatutVote.VALIDE)).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        suggestionsService.arreter();
+    }
+
+    @Test
+    void surVoteEnregistre_shouldApplyScoresOnlyWithNextBatch() {
+        when(candidatRepository.findSuggestions(VoteElection.StatutVote.VALIDE)).thenReturn(List.<Object[]>of(
+                new Object[]{"candidat-1", "Alice Martin", 3L, 4L}));
+        suggestionsService.charger();
+
+        suggestionsService.surVoteEnregistre(VoteEnregistreEvent.voteGlobal(1L, "electeur-1", "candidat-1", null));
+        suggestionsService.surVoteEnregistre(VoteEnregistreEvent.voteGlobal(2L, "electeur-2", "candidat-1", null));
+
+        assertEquals(7L, suggestionsService.suggererCandidats("alice", 5).get(0).score());
+        suggestionsService.appliquerVotes();
+        assertEquals(9L, suggestionsService.suggererCandidats("alice", 5).get(0).score());
+    }
+
+    @Test
+    void charger_shouldKeepCommittedLabel_whenCandidateRenamedDuringLoad() {
+        when(candidatRepository.findSuggestions(VoteElection.StatutVote.VALIDE)).thenReturn(List.<Object[]>of(
+                new Object[]{"candidat-1", "Alice Martin", 3L, 4L},
+                new Object[]{"candidat-2", "Bruno Petit", 1L, 0L}));
+
+        suggestionsService.surModification(new ContenuRechercheModifieEvent(
+                IndexRechercheService.TypeContenu.CANDIDAT, 1L, "candidat-1", "Alicia Martin", "alicia martin"));
+        suggestionsService.charger();
+
+        assertEquals(List.of(new TrieSuggestions.Suggestion("candidat-1", "Alicia Martin", 7L)),
+                suggestionsService.suggererCandidats("alicia", 5));
+        assertTrue(suggestionsService.suggererCandidats("alice", 5).isEmpty());
+        assertEquals(1, suggestionsService.suggererCandidats("bruno", 5).size());
+    }
+
+    @Test
+    void charger_shouldNotRestoreCandidate_whenDeletedDuringLoad() {
+        when(candidatRepository.findSuggestions(VoteElection.StatutVote.VALIDE)).thenReturn(List.<Object[]>of(
+                new Object[]{"candidat-1", "Alice Martin", 3L, 4L}));
+
+        suggestionsService.surModification(new ContenuRechercheModifieEvent(
+                IndexRechercheService.TypeContenu.CANDIDAT, 1L, "candidat-1", "Alice Martin", null));
+        suggestionsService.charger();
+
+        assertTrue(suggestionsService.suggererCandidats("alice", 5).isEmpty());
+        assertTrue(suggestionsService.estInitialise());
+    }
+}
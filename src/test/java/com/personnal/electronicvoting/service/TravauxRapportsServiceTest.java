@@ -0,0 +1,122 @@
+package com.personnal.electronicvoting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TravauxRapportsServiceTest {
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private VersionsDonneesService versionsDonneesService;
+
+    @InjectMocks
+    private TravauxRapportsService travauxRapportsService;
+
+    @TempDir
+    Path repertoire;
+
+    private final AtomicLong version = new AtomicLong(1);
+    private final AtomicInteger generations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(versionsDonneesService.generation()).thenReturn("g1");
+        ReflectionTestUtils.setField(travauxRapportsService, "repertoireArtefacts", repertoire.toString());
+        ReflectionTestUtils.setField(travauxRapportsService, "nombreExecuteurs", 1);
+        ReflectionTestUtils.setField(travauxRapportsService, "fileMax", 4);
+        ReflectionTestUtils.setField(travauxRapportsService, "dureeVieMinutes", 60L);
+        travauxRapportsService.demarrer();
+
+        travauxRapportsService.enregistrer("resultats", version::get,
+                () -> Map.of("generation", generations.incrementAndGet()),
+                sortie -> sortie.write("Rang,Candidat\n1,alice\n"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        travauxRapportsService.arreter();
+    }
+
+    @Test
+    void soumettre_shouldReuseArtifact_untilDataVersionChanges() throws Exception {
+        TravauxRapportsService.TravailDTO premier = attendre(
+                travauxRapportsService.soumettre("resultats", TravauxRapportsService.FormatRapport.JSON));
+        assertEquals(TravauxRapportsService.StatutTravail.TERMINE, premier.getStatut());
+        assertFalse(premier.isDepuisCache());
+        assertEquals("{\"generation\":1}", Files.readString(travauxRapportsService.artefact(premier.getId())));
+
+        TravauxRapportsService.TravailDTO second =
+                travauxRapportsService.soumettre("resultats", TravauxRapportsService.FormatRapport.JSON);
+        assertEquals(TravauxRapportsService.StatutTravail.TERMINE, second.getStatut());
+        assertTrue(second.isDepuisCache());
+        assertEquals(1, generations.get());
+
+        version.incrementAndGet();
+        TravauxRapportsService.TravailDTO troisieme = attendre(
+                travauxRapportsService.soumettre("resultats", TravauxRapportsService.FormatRapport.JSON));
+        assertEquals("{\"generation\":2}", Files.readString(travauxRapportsService.artefact(troisieme.getId())));
+        // L'artefact de la version précédente est retiré
+        assertThrows(NoSuchElementException.class, () -> travauxRapportsService.artefact(premier.getId()));
+    }
+
+    @Test
+    void soumettre_shouldWriteCsv_andRejectUnknownType() throws Exception {
+        TravauxRapportsService.TravailDTO travail = attendre(
+                travauxRapportsService.soumettre("resultats", TravauxRapportsService.FormatRapport.CSV));
+
+        assertEquals("Rang,Candidat\n1,alice\n", Files.readString(travauxRapportsService.artefact(travail.getId())));
+        assertTrue(travauxRapportsService.artefactCourant("resultats", TravauxRapportsService.FormatRapport.CSV).isPresent());
+
+        Exception exception = assertThrows(RuntimeException.class,
+                () -> travauxRapportsService.soumettre("inconnu", TravauxRapportsService.FormatRapport.JSON));
+        assertEquals("Type de rapport non supporté: inconnu", exception.getMessage());
+    }
+
+    @Test
+    void soumettre_shouldKeepNewerArtifact_whenOlderVersionFinishesLast() throws Exception {
+        version.set(2);
+        attendre(travauxRapportsService.soumettre("resultats", TravauxRapportsService.FormatRapport.JSON));
+
+        // Travail lent d'une version antérieure terminé après la publication de la version 2
+        version.set(1);
+        attendre(travauxRapportsService.soumettre("resultats", TravauxRapportsService.FormatRapport.JSON));
+
+        version.set(2);
+        assertTrue(travauxRapportsService.artefactCourant("resultats", TravauxRapportsService.FormatRapport.JSON).isPresent());
+    }
+
+    private TravauxRapportsService.TravailDTO attendre(TravauxRapportsService.TravailDTO travail) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            TravauxRapportsService.TravailDTO courant = travauxRapportsService.obtenir(travail.getId()).orElseThrow();
+            if (courant.getStatut() == TravauxRapportsService.StatutTravail.TERMINE
+                    || courant.getStatut() == TravauxRapportsService.StatutTravail.ECHEC) {
+                return courant;
+            }
+            Thread.sleep(10);
+        }
+        fail("Rapport non terminé: " + travail.getId());
+        return travail;
+    }
+}
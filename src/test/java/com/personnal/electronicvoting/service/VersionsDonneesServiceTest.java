@@ -0,0 +1,35 @@
+package com.personnal.electronicvoting.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionsDonneesServiceTest {
+
+    private final VersionsDonneesService versionsDonneesService = new VersionsDonneesService();
+
+    @Test
+    void marquerModification_shouldIncrementImmediately_withoutTransaction() {
+        versionsDonneesService.marquerModification(VersionsDonneesService.Table.CANDIDATS);
+
+        assertEquals(1L, versionsDonneesService.version(VersionsDonneesService.Table.CANDIDATS));
+        assertEquals(0L, versionsDonneesService.version(VersionsDonneesService.Table.CAMPAGNES));
+    }
+
+    @Test
+    void marquerModification_shouldWaitForCommit_insideTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            versionsDonneesService.marquerModification(VersionsDonneesService.Table.ELECTIONS);
+            assertEquals(0L, versionsDonneesService.version(VersionsDonneesService.Table.ELECTIONS));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1L, versionsDonneesService.version(VersionsDonneesService.Table.ELECTIONS));
+    }
+}
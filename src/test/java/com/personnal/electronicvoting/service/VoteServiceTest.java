@@ -7,6 +7,7 @@ import com.personnal.electronicvoting.model.Electeur;
 import com.personnal.electronicvoting.model.Vote;
 import com.personnal.electronicvoting.repository.CandidatRepository;
 import com.personnal.electronicvoting.repository.ElecteurRepository;
+import com.personnal.electronicvoting.repository.StatistiquesCandidatRepository;
 import com.personnal.electronicvoting.repository.VoteRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,13 +15,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +45,9 @@ class VoteServiceTest {
     @Mock
     private CandidatRepository candidatRepository;
 
+    @Mock
+    private StatistiquesCandidatRepository statistiquesCandidatRepository;
+
     @Mock
     private VoteMapper voteMapper;
 
@@ -44,6 +57,21 @@ class VoteServiceTest {
     @Mock
     private ElecteurService electeurService;
 
+    @Mock
+    private CompteurVotesService compteurVotesService;
+
+    @Mock
+    private SerieTemporelleVotesService serieTemporelleVotesService;
+
+    @Mock
+    private JournalVotesService journalVotesService;
+
+    @Mock
+    private VersionsDonneesService versionsDonneesService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private VoteService voteService;
 
@@ -62,14 +90,29 @@ class VoteServiceTest {
 
     @Test
     void effectuerVote_shouldSaveVote_whenVoteIsValid() {
-        when(electeurRepository.findByExternalIdElecteur(anyString())).thenReturn(Optional.of(electeur));
-        when(candidatRepository.findByExternalIdCandidat(anyString())).thenReturn(Optional.of(candidat));
-        when(voteRepository.existsByElecteur_externalIdElecteur(anyString())).thenReturn(false);
-        when(voteRepository.save(any(Vote.class))).thenReturn(new Vote());
+        when(voteRepository.enregistrerVoteAtomique("electeur-uuid", "candidat-uuid"))
+                .thenReturn(List.<Object[]>of(new Object[]{42L, 7L, 3L, Timestamp.valueOf("2025-03-01 12:00:00")}));
 
         var result = voteService.effectuerVote("electeur-uuid", "candidat-uuid");
 
         assertNotNull(result);
+        assertEquals("electeur-uuid", result.getElecteurId());
+        assertEquals("candidat-uuid", result.getCandidatId());
+        assertEquals(LocalDate.of(2025, 3, 1), result.getDateVote());
+        verify(voteRepository, never()).save(any(Vote.class));
+        verifyNoInteractions(electeurRepository, candidatRepository);
+    }
+
+    @Test
+    void effectuerVote_shouldReportUnknownCandidate_whenNoRowIsInserted() {
+        when(voteRepository.enregistrerVoteAtomique(anyString(), anyString())).thenReturn(List.of());
+        when(electeurRepository.findByExternalIdElecteur(anyString())).thenReturn(Optional.of(electeur));
+        when(candidatRepository.findByExternalIdCandidat(anyString())).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(RuntimeException.class, () ->
+                voteService.effectuerVote("electeur-uuid", "candidat-inconnu"));
+
+        assertEquals("Candidat non trouvé: candidat-inconnu", exception.getMessage());
     }
 
     @Test
@@ -117,23 +160,52 @@ class VoteServiceTest {
 
     @Test
     void obtenirResultatsVotes_shouldReturnVoteResults() {
-        when(candidatRepository.findAll()).thenReturn(Collections.singletonList(candidat));
-        when(voteRepository.count()).thenReturn(10L);
-        when(candidatRepository.countVotesByCandidat(anyString())).thenReturn(5L);
+        Candidat autre = new Candidat();
+        when(statistiquesCandidatRepository.findCandidatsAvecCompteurs())
+                .thenReturn(List.of(agrege(candidat, 5L, 0L), agrege(autre, 5L, 1L)));
 
         var result = voteService.obtenirResultatsVotes();
 
         assertNotNull(result);
-        assertEquals(1, result.size());
+        assertEquals(2, result.size());
         assertEquals(50.0, result.get(0).getPourcentageVotes());
+        assertEquals(2, result.get(1).getRang());
+        verify(candidatRepository, never()).countVotesByCandidat(anyString());
+    }
+
+    @Test
+    void obtenirResultatsVotes_shouldUseInMemoryTally_whenInitialised() {
+        when(compteurVotesService.estInitialise()).thenReturn(true);
+        when(compteurVotesService.totalVotesGlobal()).thenReturn(8L);
+        when(compteurVotesService.votesCandidat("candidat-uuid")).thenReturn(2L);
+        when(candidatRepository.findAll()).thenReturn(Collections.singletonList(candidat));
+
+        var result = voteService.obtenirResultatsVotes();
+
+        assertEquals(2L, result.get(0).getNombreVotes());
+        assertEquals(25.0, result.get(0).getPourcentageVotes());
+        verify(candidatRepository, never()).countVotesByCandidat(anyString());
+    }
+
+    @Test
+    void obtenirResultatsVotes_shouldReloadCandidates_onlyWhenTheirTableChanges() {
+        when(compteurVotesService.estInitialise()).thenReturn(true);
+        when(versionsDonneesService.version(VersionsDonneesService.Table.CANDIDATS)).thenReturn(0L, 0L, 1L);
+        when(candidatRepository.findAll()).thenReturn(Collections.singletonList(candidat));
+
+        voteService.obtenirResultatsVotes();
+        voteService.obtenirResultatsVotes();
+        verify(candidatRepository, times(1)).findAll();
+
+        voteService.obtenirResultatsVotes();
+        verify(candidatRepository, times(2)).findAll();
     }
 
     @Test
     void obtenirGagnant_shouldReturnWinner() {
         VoteService.ResultatVoteDTO winner = new VoteService.ResultatVoteDTO(null, 10L, 100.0, 1);
-        when(candidatRepository.findAll()).thenReturn(Collections.singletonList(candidat));
-        when(voteRepository.count()).thenReturn(10L);
-        when(candidatRepository.countVotesByCandidat(anyString())).thenReturn(10L);
+        when(statistiquesCandidatRepository.findCandidatsAvecCompteurs())
+                .thenReturn(List.of(agrege(candidat, 10L, 0L)));
 
         var result = voteService.obtenirGagnant();
 
@@ -143,7 +215,7 @@ class VoteServiceTest {
 
     @Test
     void obtenirGagnant_shouldThrowException_whenNoResults() {
-        when(candidatRepository.findAll()).thenReturn(Collections.emptyList());
+        when(statistiquesCandidatRepository.findCandidatsAvecCompteurs()).thenReturn(Collections.emptyList());
 
         Exception exception = assertThrows(RuntimeException.class, () -> {
             voteService.obtenirGagnant();
@@ -154,27 +226,48 @@ class VoteServiceTest {
 
     @Test
     void obtenirStatistiquesGenerales_shouldReturnGeneralStats() {
+        candidat.setUsername("Candidat");
         when(electeurRepository.count()).thenReturn(20L);
-        when(voteRepository.count()).thenReturn(10L);
-        when(electeurRepository.findByaVoteTrue()).thenReturn(Collections.nCopies(10, new Electeur()));
-        when(candidatRepository.count()).thenReturn(5L);
-        when(candidatRepository.findAll()).thenReturn(Collections.emptyList());
+        when(electeurRepository.countByaVoteTrue()).thenReturn(10L);
+        when(statistiquesCandidatRepository.findCandidatsAvecCompteurs())
+                .thenReturn(List.of(agrege(candidat, 10L, 2L)));
 
         var result = voteService.obtenirStatistiquesGenerales();
 
         assertNotNull(result);
         assertEquals(50.0, result.getTauxParticipation());
+        assertEquals(10L, result.getTotalVotes());
+        assertEquals(1L, result.getTotalCandidats());
+        assertEquals(10L, result.getVotesParCandidat().get("Candidat"));
     }
 
     @Test
     void obtenirRepartitionTemporelle_shouldReturnTemporalRepartition() {
-        when(voteRepository.findAll()).thenReturn(Collections.emptyList());
+        when(voteRepository.countVotesGroupesParJour()).thenReturn(Collections.emptyList());
 
         var result = voteService.obtenirRepartitionTemporelle();
 
         assertNotNull(result);
     }
 
+    @Test
+    void obtenirRepartitionTemporelle_shouldReadDailySeries_whenLoaded() {
+        when(serieTemporelleVotesService.estInitialise()).thenReturn(true);
+        when(serieTemporelleVotesService.obtenirSerie(null, SerieTemporelleVotesService.Resolution.JOUR, null, null))
+                .thenReturn(SerieTemporelleVotesService.SerieTemporelleDTO.builder()
+                        .points(List.of(
+                                new SerieTemporelleVotesService.PointSerieDTO(LocalDateTime.of(2025, 3, 1, 0, 0), 4),
+                                new SerieTemporelleVotesService.PointSerieDTO(LocalDateTime.of(2025, 3, 2, 0, 0), 0)))
+                        .build());
+
+        var result = voteService.obtenirRepartitionTemporelle();
+
+        assertEquals(1, result.size());
+        assertEquals("2025-03-01", result.get(0).getPeriode());
+        assertEquals(4L, result.get(0).getNombreVotes());
+        verify(voteRepository, never()).countVotesGroupesParJour();
+    }
+
     @Test
     void obtenirStatutVoteElecteur_shouldReturnStatus_whenElectorExists() {
         when(electeurRepository.findByExternalIdElecteur(anyString())).thenReturn(Optional.of(electeur));
@@ -195,4 +288,23 @@ class VoteServiceTest {
 
         assertEquals("Électeur non trouvé", exception.getMessage());
     }
+
+    private static StatistiquesCandidatRepository.CandidatAgrege agrege(Candidat candidat, long votes, long campagnes) {
+        return new StatistiquesCandidatRepository.CandidatAgrege() {
+            @Override
+            public Candidat getCandidat() {
+                return candidat;
+            }
+
+            @Override
+            public long getNombreVotes() {
+                return votes;
+            }
+
+            @Override
+            public long getNombreCampagnes() {
+                return campagnes;
+            }
+        };
+    }
 }
@@ -0,0 +1,66 @@
+package com.personnal.electronicvoting.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitmapCompresseTest {
+
+    @Test
+    void contient_shouldReflectAddedAndRemovedValues() {
+        BitmapCompresse bitmap = BitmapCompresse.depuis(List.of(1L, 5L, 70_000L));
+
+        assertTrue(bitmap.contient(5));
+        assertTrue(bitmap.contient(70_000));
+        assertFalse(bitmap.contient(6));
+
+        assertTrue(bitmap.retirer(5));
+        assertFalse(bitmap.retirer(5));
+        assertFalse(bitmap.contient(5));
+        assertEquals(2L, bitmap.cardinalite());
+    }
+
+    @Test
+    void ajouter_shouldSwitchToBitmapContainer_whenContainerIsDense() {
+        List<Long> valeurs = LongStream.range(0, 10_000).boxed().toList();
+        BitmapCompresse bitmap = BitmapCompresse.depuis(valeurs);
+
+        assertEquals(10_000L, bitmap.cardinalite());
+        assertEquals(8192L + 2, bitmap.tailleOctets());
+        assertTrue(bitmap.contient(9_999));
+        assertFalse(bitmap.contient(10_000));
+
+        for (int i = 0; i < 6_000; i++) {
+            bitmap.retirer(i);
+        }
+        assertEquals(4_000L, bitmap.cardinalite());
+        assertFalse(bitmap.contient(5_999));
+        assertTrue(bitmap.contient(6_000));
+    }
+
+    @Test
+    void copie_shouldBeIndependentOfOriginal() {
+        BitmapCompresse original = BitmapCompresse.depuis(List.of(1L, 2L));
+        BitmapCompresse copie = original.copie();
+
+        copie.ajouter(3);
+        original.retirer(1);
+
+        assertFalse(original.contient(3));
+        assertTrue(copie.contient(1));
+    }
+
+    @Test
+    void pourChaque_shouldVisitValuesInAscendingOrder() {
+        BitmapCompresse bitmap = BitmapCompresse.depuis(List.of(131_072L, 3L, 65_536L));
+        List<Integer> visites = new ArrayList<>();
+
+        bitmap.pourChaque(visites::add);
+
+        assertEquals(List.of(3, 65_536, 131_072), visites);
+    }
+}
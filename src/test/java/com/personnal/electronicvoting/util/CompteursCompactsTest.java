@@ -0,0 +1,63 @@
+package com.personnal.electronicvoting.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompteursCompactsTest {
+
+    @Test
+    void pourMaximum_shouldPickSmallestWidth() {
+        assertEquals(1, CompteursCompacts.pourMaximum(1).bitsParCompteur());
+        assertEquals(2, CompteursCompacts.pourMaximum(3).bitsParCompteur());
+        assertEquals(4, CompteursCompacts.pourMaximum(5).bitsParCompteur());
+        assertEquals(16, CompteursCompacts.pourMaximum(100_000).bitsParCompteur());
+    }
+
+    @Test
+    void incrementerSi_shouldStopAtCeilingWithoutTouchingNeighbours() {
+        CompteursCompacts compteurs = CompteursCompacts.pourMaximum(3);
+
+        assertTrue(compteurs.incrementerSi(41, 3));
+        assertTrue(compteurs.incrementerSi(41, 3));
+        assertTrue(compteurs.incrementerSi(41, 3));
+        assertFalse(compteurs.incrementerSi(41, 3));
+
+        assertEquals(3, compteurs.valeur(41));
+        assertEquals(0, compteurs.valeur(40));
+        assertEquals(0, compteurs.valeur(42));
+
+        compteurs.decrementer(41);
+        assertEquals(2, compteurs.valeur(41));
+    }
+
+    @Test
+    void porterAuMoins_shouldKeepHighestValue() {
+        CompteursCompacts compteurs = CompteursCompacts.pourMaximum(1);
+
+        assertTrue(compteurs.incrementerSi(5_000_000L, 1));
+        compteurs.porterAuMoins(5_000_000L, 1);
+        compteurs.porterAuMoins(7L, 1);
+
+        assertEquals(1, compteurs.valeur(5_000_000L));
+        assertEquals(1, compteurs.valeur(7L));
+        assertFalse(compteurs.incrementerSi(7L, 1));
+        assertEquals(2L * 1024 * 8, compteurs.tailleOctets());
+    }
+
+    @Test
+    void elargir_shouldKeepValuesWithWiderCounters() {
+        CompteursCompacts compteurs = CompteursCompacts.pourMaximum(1);
+        assertTrue(compteurs.incrementerSi(3L, 1));
+        assertTrue(compteurs.incrementerSi(5_000_000L, 1));
+
+        CompteursCompacts elargis = compteurs.elargir(3);
+
+        assertEquals(2, elargis.bitsParCompteur());
+        assertEquals(1, elargis.valeur(3L));
+        assertEquals(1, elargis.valeur(5_000_000L));
+        assertEquals(0, elargis.valeur(4L));
+        assertTrue(elargis.incrementerSi(3L, 3));
+        assertEquals(2, elargis.valeur(3L));
+    }
+}
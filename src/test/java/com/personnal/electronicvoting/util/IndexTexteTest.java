@@ -0,0 +1,58 @@
+package com.personnal.electronicvoting.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexTexteTest {
+
+    @Test
+    void normaliser_shouldFoldAccentsAndLigatures() {
+        assertEquals("election coeur a l'ecole", IndexTexte.normaliser("Élection Cœur à l'École"));
+        assertEquals(List.of("l", "election", "presidentielle", "2025"), IndexTexte.jetons("L'élection présidentielle — 2025"));
+    }
+
+    @Test
+    void rechercher_shouldRankByBm25_andRequireEveryToken() {
+        IndexTexte index = new IndexTexte();
+        index.indexer(1, "Programme pour l'éducation et la santé");
+        index.indexer(2, "Éducation, éducation, éducation : priorité absolue");
+        index.indexer(3, "Transports publics et santé");
+
+        assertEquals(List.of(2L, 1L), index.rechercher("EDUCATION", 10));
+        assertEquals(List.of(1L), index.rechercher("education sante", 10));
+        assertEquals(List.of(), index.rechercher("education transports", 10));
+        assertEquals(List.of(2L), index.rechercher("education", 1));
+    }
+
+    @Test
+    void rechercher_shouldMatchSubstringsAndPrefixes_belowExactMatches() {
+        IndexTexte index = new IndexTexte();
+        index.indexer(1, "Campagne écologique");
+        index.indexer(2, "Écologie");
+        index.indexer(3, "Économie locale");
+        index.indexer(4, "Logique");
+
+        assertEquals(List.of(4L, 1L), index.rechercher("logique", 10));
+        assertEquals(List.of(2L, 1L), index.rechercher("colog", 10));
+        assertEquals(List.of(2L, 1L, 3L), index.rechercher("ec", 10));
+    }
+
+    @Test
+    void indexer_shouldReplaceAndRemoveDocuments() {
+        IndexTexte index = new IndexTexte();
+        index.indexer(1, "Alice Martin");
+        index.indexer(1, "Alice Durand");
+
+        assertEquals(List.of(), index.rechercher("martin", 10));
+        assertEquals(List.of(), index.rechercher("arti", 10));
+        assertEquals(List.of(1L), index.rechercher("durand", 10));
+
+        index.retirer(1);
+        assertEquals(List.of(), index.rechercher("alice", 10));
+        assertEquals(0, index.nombreDocuments());
+        assertEquals(0, index.nombreTermes());
+    }
+}
@@ -0,0 +1,52 @@
+package com.personnal.electronicvoting.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrieSuggestionsTest {
+
+    private static List<String> ids(List<TrieSuggestions.Suggestion> suggestions) {
+        return suggestions.stream().map(TrieSuggestions.Suggestion::id).toList();
+    }
+
+    @Test
+    void suggerer_shouldRankByScore_onAnyWordPrefix() {
+        TrieSuggestions trie = new TrieSuggestions(3);
+        trie.ajouter(new TrieSuggestions.Suggestion("c1", "Alice Martin", 5));
+        trie.ajouter(new TrieSuggestions.Suggestion("c2", "Alain Marchand", 12));
+        trie.ajouter(new TrieSuggestions.Suggestion("c3", "Émile Alavoine", 1));
+        trie.ajouter(new TrieSuggestions.Suggestion("c4", "Bruno Petit", 40));
+
+        assertEquals(List.of("c2", "c1", "c3"), ids(trie.suggerer("al", 10)));
+        assertEquals(List.of("c2", "c1"), ids(trie.suggerer("Mar", 10)));
+        assertEquals(List.of("c1"), ids(trie.suggerer("alice m", 10)));
+        assertEquals(List.of("c3"), ids(trie.suggerer("emi", 10)));
+        assertEquals(List.of("c2"), ids(trie.suggerer("al", 1)));
+        assertEquals(List.of(), trie.suggerer("alx", 10));
+        assertEquals(List.of("c4", "c2", "c1"), ids(trie.suggerer("", 10)));
+    }
+
+    @Test
+    void incrementer_shouldReorder_andRenameOrRemoveShouldUpdateKeys() {
+        TrieSuggestions trie = new TrieSuggestions(5);
+        trie.ajouter(new TrieSuggestions.Suggestion("e1", "Élection municipale", 2));
+        trie.ajouter(new TrieSuggestions.Suggestion("e2", "Élection régionale", 3));
+
+        trie.incrementer("e1", 2);
+        assertEquals(List.of("e1", "e2"), ids(trie.suggerer("elec", 10)));
+        assertEquals(4, trie.score("e1"));
+
+        trie.renommer("e1", "Référendum local");
+        assertEquals(List.of("e2"), ids(trie.suggerer("elec", 10)));
+        assertEquals(List.of("e1", "e2"), ids(trie.suggerer("re", 10)));
+        assertEquals(4, trie.suggerer("ref", 10).get(0).score());
+
+        trie.retirer("e2");
+        assertEquals(List.of(), trie.suggerer("elec", 10));
+        assertEquals(List.of("e1"), ids(trie.suggerer("", 10)));
+        assertEquals(1, trie.taille());
+    }
+}